@@ -0,0 +1,360 @@
+package com.ahm.capacitor.camera.preview;
+
+import android.content.Context;
+import android.graphics.ImageFormat;
+import android.hardware.camera2.CameraAccessException;
+import android.hardware.camera2.CameraCharacteristics;
+import android.hardware.camera2.CameraManager;
+import android.hardware.camera2.params.StreamConfigurationMap;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.Range;
+import android.util.Size;
+import android.util.SizeF;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.ahm.capacitor.camera.preview.model.CameraCapabilities;
+import com.ahm.capacitor.camera.preview.model.CameraDevice;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Process-wide cache of camera capabilities keyed by camera id.
+ *
+ * Characteristics are read from {@link CameraManager} once, on a background thread, and reused by
+ * every query method. The cache is dropped when the set of camera ids reported by the system
+ * changes (e.g. an external camera is plugged in or removed).
+ */
+public final class CameraCapabilityCache {
+
+  private static final String TAG = "CameraPreview CapabilityCache";
+
+  private static CameraCapabilityCache instance;
+
+  private final CameraManager cameraManager;
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private final Map<String, CameraCapabilities> capabilities =
+    new ConcurrentHashMap<>();
+  private volatile List<CameraDevice> devices;
+  private volatile Set<String> knownCameraIds = Collections.emptySet();
+  private volatile Runnable warmup;
+
+  private final CameraManager.AvailabilityCallback availabilityCallback =
+    new CameraManager.AvailabilityCallback() {
+      @Override
+      public void onCameraAvailable(@NonNull String cameraId) {
+        executor.execute(() -> checkCameraIdsChanged(cameraId));
+      }
+
+      @Override
+      public void onCameraUnavailable(@NonNull String cameraId) {
+        executor.execute(() -> checkCameraIdsChanged(cameraId));
+      }
+    };
+
+  public static synchronized CameraCapabilityCache getInstance(
+    Context context
+  ) {
+    if (instance == null) {
+      instance = new CameraCapabilityCache(context.getApplicationContext());
+    }
+    return instance;
+  }
+
+  private CameraCapabilityCache(Context context) {
+    cameraManager = (CameraManager) context.getSystemService(
+      Context.CAMERA_SERVICE
+    );
+    cameraManager.registerAvailabilityCallback(
+      availabilityCallback,
+      new Handler(Looper.getMainLooper())
+    );
+  }
+
+  /**
+   * Populate the cache off the main thread. The optional warmup task runs after the
+   * characteristics are loaded, and again after every invalidation.
+   */
+  public void prefetch(@Nullable Runnable warmup) {
+    this.warmup = warmup;
+    executor.execute(this::loadAll);
+  }
+
+  /**
+   * Return the capabilities of the given camera id, reading them on the calling thread on a miss.
+   */
+  @Nullable
+  public CameraCapabilities get(String cameraId) {
+    CameraCapabilities cached = capabilities.get(cameraId);
+    if (cached != null) {
+      return cached;
+    }
+    try {
+      CameraCapabilities loaded = read(cameraId);
+      capabilities.put(cameraId, loaded);
+      return loaded;
+    } catch (CameraAccessException | IllegalArgumentException e) {
+      Log.e(TAG, "get: Failed to read characteristics for " + cameraId, e);
+      return null;
+    }
+  }
+
+  @Nullable
+  public List<CameraDevice> getDevices() {
+    return devices;
+  }
+
+  public void putDevices(List<CameraDevice> devices) {
+    this.devices = Collections.unmodifiableList(new ArrayList<>(devices));
+  }
+
+  /**
+   * Camera ids reported by {@link CameraManager}, as of the last load.
+   */
+  public Set<String> getCameraIds() {
+    Set<String> ids = knownCameraIds;
+    if (ids.isEmpty()) {
+      try {
+        ids = new LinkedHashSet<>(
+          Arrays.asList(cameraManager.getCameraIdList())
+        );
+        knownCameraIds = ids;
+      } catch (CameraAccessException e) {
+        Log.w(TAG, "getCameraIds: Failed to list cameras", e);
+      }
+    }
+    return Collections.unmodifiableSet(ids);
+  }
+
+  /**
+   * Capabilities of the camera CameraX picks by default for a position ("rear"/"front"): the first
+   * camera id of that facing, in the order reported by {@link CameraManager}.
+   */
+  @Nullable
+  public CameraCapabilities getPrimary(String position) {
+    for (String id : getCameraIds()) {
+      CameraCapabilities caps = get(id);
+      if (caps != null && caps.getPosition().equals(position)) {
+        return caps;
+      }
+    }
+    return null;
+  }
+
+  public void invalidate() {
+    capabilities.clear();
+    devices = null;
+  }
+
+  private void loadAll() {
+    try {
+      String[] ids = cameraManager.getCameraIdList();
+      knownCameraIds = new LinkedHashSet<>(Arrays.asList(ids));
+      for (String id : ids) {
+        CameraCapabilities caps = get(id);
+        if (caps == null) continue;
+        for (String physicalId : caps.getPhysicalCameraIds()) {
+          get(physicalId);
+        }
+      }
+      Log.d(TAG, "loadAll: Cached " + capabilities.size() + " cameras");
+    } catch (CameraAccessException e) {
+      Log.e(TAG, "loadAll: Failed to list cameras", e);
+      return;
+    }
+
+    Runnable task = warmup;
+    if (task != null) {
+      try {
+        task.run();
+      } catch (Exception e) {
+        Log.w(TAG, "loadAll: Warmup failed", e);
+      }
+    }
+  }
+
+  private void checkCameraIdsChanged(String cameraId) {
+    // Availability callbacks also fire whenever any app opens or closes a camera (and once per
+    // camera on registration); only a change in the id list means the hardware set changed.
+    if (knownCameraIds.isEmpty()) {
+      return;
+    }
+    try {
+      Set<String> ids = new HashSet<>(
+        Arrays.asList(cameraManager.getCameraIdList())
+      );
+      if (ids.equals(knownCameraIds)) {
+        return;
+      }
+      Log.d(
+        TAG,
+        "Camera ids changed from " + knownCameraIds + " to " + ids
+      );
+    } catch (CameraAccessException e) {
+      Log.w(TAG, "checkCameraIdsChanged: Failed to list cameras for " + cameraId, e);
+    }
+    invalidate();
+    loadAll();
+  }
+
+  private CameraCapabilities read(String cameraId)
+    throws CameraAccessException {
+    CameraCharacteristics characteristics =
+      cameraManager.getCameraCharacteristics(cameraId);
+
+    Integer facing = characteristics.get(CameraCharacteristics.LENS_FACING);
+    String position = facing != null &&
+      facing == CameraCharacteristics.LENS_FACING_FRONT
+      ? "front"
+      : "rear";
+
+    float[] focalLengths = characteristics.get(
+      CameraCharacteristics.LENS_INFO_AVAILABLE_FOCAL_LENGTHS
+    );
+    SizeF sensorSize = characteristics.get(
+      CameraCharacteristics.SENSOR_INFO_PHYSICAL_SIZE
+    );
+
+    float minZoom = 1.0f;
+    float maxZoom = 1.0f;
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+      Range<Float> zoomRange = characteristics.get(
+        CameraCharacteristics.CONTROL_ZOOM_RATIO_RANGE
+      );
+      if (zoomRange != null) {
+        minZoom = zoomRange.getLower();
+        maxZoom = zoomRange.getUpper();
+      }
+    } else {
+      Float maxDigitalZoom = characteristics.get(
+        CameraCharacteristics.SCALER_AVAILABLE_MAX_DIGITAL_ZOOM
+      );
+      if (maxDigitalZoom != null) {
+        maxZoom = maxDigitalZoom;
+      }
+    }
+
+    List<Size> jpegSizes = new ArrayList<>();
+    List<Size> highResSizes = new ArrayList<>();
+    Map<Size, Long> minFrameDurations = new HashMap<>();
+    StreamConfigurationMap map = characteristics.get(
+      CameraCharacteristics.SCALER_STREAM_CONFIGURATION_MAP
+    );
+    if (map != null) {
+      Size[] sizes = map.getOutputSizes(ImageFormat.JPEG);
+      if (sizes != null) {
+        jpegSizes.addAll(Arrays.asList(sizes));
+      }
+      Size[] highRes = map.getHighResolutionOutputSizes(ImageFormat.JPEG);
+      if (highRes != null) {
+        highResSizes.addAll(Arrays.asList(highRes));
+      }
+      for (Size size : jpegSizes) {
+        minFrameDurations.put(
+          size,
+          map.getOutputMinFrameDuration(ImageFormat.JPEG, size)
+        );
+      }
+      for (Size size : highResSizes) {
+        minFrameDurations.put(
+          size,
+          map.getOutputMinFrameDuration(ImageFormat.JPEG, size)
+        );
+      }
+    }
+
+    List<Range<Integer>> fpsRanges = new ArrayList<>();
+    Range<Integer>[] ranges = characteristics.get(
+      CameraCharacteristics.CONTROL_AE_AVAILABLE_TARGET_FPS_RANGES
+    );
+    if (ranges != null) {
+      fpsRanges.addAll(Arrays.asList(ranges));
+    }
+
+    boolean zslSupported = false;
+    int[] caps = characteristics.get(
+      CameraCharacteristics.REQUEST_AVAILABLE_CAPABILITIES
+    );
+    if (caps != null) {
+      for (int cap : caps) {
+        if (
+          cap ==
+            CameraCharacteristics.REQUEST_AVAILABLE_CAPABILITIES_PRIVATE_REPROCESSING ||
+          cap ==
+          CameraCharacteristics.REQUEST_AVAILABLE_CAPABILITIES_YUV_REPROCESSING
+        ) {
+          zslSupported = true;
+          break;
+        }
+      }
+    }
+
+    List<Integer> extensions = new ArrayList<>();
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+      try {
+        extensions.addAll(
+          cameraManager
+            .getCameraExtensionCharacteristics(cameraId)
+            .getSupportedExtensions()
+        );
+      } catch (Exception e) {
+        Log.d(TAG, "read: No extension info for " + cameraId);
+      }
+    }
+
+    List<String> physicalIds = new ArrayList<>();
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+      physicalIds.addAll(characteristics.getPhysicalCameraIds());
+    }
+
+    return new CameraCapabilities(
+      cameraId,
+      position,
+      classifyLens(focalLengths, sensorSize),
+      focalLengths,
+      sensorSize,
+      minZoom,
+      maxZoom,
+      jpegSizes,
+      highResSizes,
+      minFrameDurations,
+      fpsRanges,
+      zslSupported,
+      extensions,
+      physicalIds
+    );
+  }
+
+  /**
+   * Classify a lens as ultraWide / wideAngle / telephoto from its horizontal field of view,
+   * falling back to the focal length alone when the sensor size is unknown.
+   */
+  static String classifyLens(float[] focalLengths, SizeF sensorSize) {
+    if (focalLengths == null || focalLengths.length == 0) {
+      return "wideAngle";
+    }
+    if (sensorSize != null && sensorSize.getWidth() > 0) {
+      double fov =
+        2 *
+        Math.toDegrees(Math.atan(sensorSize.getWidth() / (2 * focalLengths[0])));
+      if (fov > 90) return "ultraWide";
+      if (fov < 40) return "telephoto";
+      return "wideAngle";
+    }
+    if (focalLengths[0] < 3.0f) return "ultraWide";
+    if (focalLengths[0] > 5.0f) return "telephoto";
+    return "wideAngle";
+  }
+}
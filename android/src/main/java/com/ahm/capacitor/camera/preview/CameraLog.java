@@ -0,0 +1,294 @@
+package com.ahm.capacitor.camera.preview;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.os.SystemClock;
+import android.util.Log;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Level-gated logging for hot paths.
+ *
+ * Messages use "{}" placeholders that are only substituted when the message is actually written,
+ * and the fixed-arity overloads avoid varargs arrays, so a gated-out call costs a level check.
+ * Calls at DEBUG and above are also kept unformatted, with references to their arguments, in a
+ * small ring buffer (the flight recorder) whatever the output level. They are only formatted when
+ * {@link #dump(String)} writes the buffer out after something goes wrong, so a release build can
+ * show the debug history of a failure without paying for it on every call.
+ *
+ * The output level defaults to DEBUG for debuggable apps and WARN otherwise, and can be set with
+ * the {@code androidLogLevel} plugin config ("verbose", "debug", "info", "warn", "error", "none").
+ * "none" also turns the recorder off.
+ */
+final class CameraLog {
+
+  private static final String TAG = "CameraPreview";
+  private static final int LEVEL_NONE = Integer.MAX_VALUE;
+  private static final int CAPACITY = 128; // a power of two, so slots wrap with a mask
+  private static final int MAX_ARGS = 4;
+
+  private static volatile int level = Log.WARN;
+  private static volatile int recordLevel = Log.DEBUG;
+
+  // Flight recorder: parallel arrays indexed by slot. Writers claim a slot from the cursor without
+  // locking; a slot being overwritten while it is dumped shows a mix of two entries, which is fine
+  // for diagnostics. Arguments are kept as passed, so callers log values (ids, sizes, states)
+  // rather than frames or buffers that would stay reachable until their slot is reused.
+  private static final long[] times = new long[CAPACITY];
+  private static final int[] levels = new int[CAPACITY];
+  private static final String[] tags = new String[CAPACITY];
+  private static final String[] messages = new String[CAPACITY];
+  private static final Object[] args = new Object[CAPACITY * MAX_ARGS];
+  private static final Throwable[] errors = new Throwable[CAPACITY];
+  private static final AtomicLong cursor = new AtomicLong();
+
+  private CameraLog() {}
+
+  /**
+   * Pick the output level from the config override, falling back to the app's debuggable flag.
+   */
+  static void configure(Context context, String configuredLevel) {
+    int parsed = parseLevel(configuredLevel);
+    recordLevel = parsed == LEVEL_NONE ? LEVEL_NONE : Log.DEBUG;
+    if (parsed != 0) {
+      level = parsed;
+      return;
+    }
+    boolean debuggable =
+      (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    level = debuggable ? Log.DEBUG : Log.WARN;
+  }
+
+  static int parseLevel(String name) {
+    if (name == null) {
+      return 0;
+    }
+    switch (name.trim().toLowerCase(Locale.US)) {
+      case "verbose":
+        return Log.VERBOSE;
+      case "debug":
+        return Log.DEBUG;
+      case "info":
+        return Log.INFO;
+      case "warn":
+        return Log.WARN;
+      case "error":
+        return Log.ERROR;
+      case "none":
+        return LEVEL_NONE;
+      default:
+        return 0;
+    }
+  }
+
+  static boolean isLoggable(int priority) {
+    return priority >= level;
+  }
+
+  /** Guard for blocks that compute several values only to log them. */
+  static boolean isDebugEnabled() {
+    return Log.DEBUG >= level;
+  }
+
+  static void v(String tag, String message) {
+    log(Log.VERBOSE, tag, message, null, null, null, null, null);
+  }
+
+  static void v(String tag, String message, Object a) {
+    log(Log.VERBOSE, tag, message, a, null, null, null, null);
+  }
+
+  static void v(String tag, String message, Object a, Object b) {
+    log(Log.VERBOSE, tag, message, a, b, null, null, null);
+  }
+
+  static void v(String tag, String message, Object a, Object b, Object c) {
+    log(Log.VERBOSE, tag, message, a, b, c, null, null);
+  }
+
+  static void v(
+    String tag,
+    String message,
+    Object a,
+    Object b,
+    Object c,
+    Object d
+  ) {
+    log(Log.VERBOSE, tag, message, a, b, c, d, null);
+  }
+
+  static void d(String tag, String message) {
+    log(Log.DEBUG, tag, message, null, null, null, null, null);
+  }
+
+  static void d(String tag, String message, Object a) {
+    log(Log.DEBUG, tag, message, a, null, null, null, null);
+  }
+
+  static void d(String tag, String message, Object a, Object b) {
+    log(Log.DEBUG, tag, message, a, b, null, null, null);
+  }
+
+  static void d(String tag, String message, Object a, Object b, Object c) {
+    log(Log.DEBUG, tag, message, a, b, c, null, null);
+  }
+
+  static void d(
+    String tag,
+    String message,
+    Object a,
+    Object b,
+    Object c,
+    Object d
+  ) {
+    log(Log.DEBUG, tag, message, a, b, c, d, null);
+  }
+
+  static void i(String tag, String message) {
+    log(Log.INFO, tag, message, null, null, null, null, null);
+  }
+
+  static void i(String tag, String message, Object a) {
+    log(Log.INFO, tag, message, a, null, null, null, null);
+  }
+
+  static void i(String tag, String message, Object a, Object b) {
+    log(Log.INFO, tag, message, a, b, null, null, null);
+  }
+
+  static void i(String tag, String message, Object a, Object b, Object c) {
+    log(Log.INFO, tag, message, a, b, c, null, null);
+  }
+
+  static void i(
+    String tag,
+    String message,
+    Object a,
+    Object b,
+    Object c,
+    Object d
+  ) {
+    log(Log.INFO, tag, message, a, b, c, d, null);
+  }
+
+  static void w(String tag, String message) {
+    log(Log.WARN, tag, message, null, null, null, null, null);
+  }
+
+  static void w(String tag, String message, Object a) {
+    log(Log.WARN, tag, message, a, null, null, null, null);
+  }
+
+  static void w(String tag, String message, Object a, Object b) {
+    log(Log.WARN, tag, message, a, b, null, null, null);
+  }
+
+  static void w(String tag, String message, Throwable error) {
+    log(Log.WARN, tag, message, null, null, null, null, error);
+  }
+
+  static void e(String tag, String message) {
+    log(Log.ERROR, tag, message, null, null, null, null, null);
+  }
+
+  static void e(String tag, String message, Throwable error) {
+    log(Log.ERROR, tag, message, null, null, null, null, error);
+  }
+
+  /**
+   * Write the flight recorder to logcat, oldest entry first, regardless of the output level.
+   */
+  static void dump(String reason) {
+    long end = cursor.get();
+    int size = (int) Math.min(end, CAPACITY);
+    Log.w(TAG, "Flight recorder (" + size + " entries): " + reason);
+    StringBuilder out = new StringBuilder(256);
+    long now = SystemClock.elapsedRealtime();
+    for (long n = end - size; n < end; n++) {
+      int slot = (int) (n & (CAPACITY - 1));
+      String message = messages[slot];
+      if (message == null) {
+        continue;
+      }
+      out.setLength(0);
+      out
+        .append('-')
+        .append(now - times[slot])
+        .append("ms ")
+        .append(tags[slot])
+        .append(": ");
+      format(out, message, args, slot * MAX_ARGS);
+      Log.println(levels[slot], TAG, out.toString());
+      if (errors[slot] != null) {
+        Log.println(levels[slot], TAG, Log.getStackTraceString(errors[slot]));
+      }
+    }
+  }
+
+  private static void log(
+    int priority,
+    String tag,
+    String message,
+    Object a,
+    Object b,
+    Object c,
+    Object d,
+    Throwable error
+  ) {
+    if (priority >= recordLevel) {
+      record(priority, tag, message, a, b, c, d, error);
+    }
+    if (priority < level) {
+      return;
+    }
+    Object[] values = { a, b, c, d };
+    StringBuilder out = new StringBuilder(message.length() + 32);
+    String text = format(out, message, values, 0).toString();
+    if (error != null) {
+      text += '\n' + Log.getStackTraceString(error);
+    }
+    Log.println(priority, tag, text);
+  }
+
+  private static void record(
+    int priority,
+    String tag,
+    String message,
+    Object a,
+    Object b,
+    Object c,
+    Object d,
+    Throwable error
+  ) {
+    int slot = (int) (cursor.getAndIncrement() & (CAPACITY - 1));
+    times[slot] = SystemClock.elapsedRealtime();
+    levels[slot] = priority;
+    tags[slot] = tag;
+    int base = slot * MAX_ARGS;
+    args[base] = a;
+    args[base + 1] = b;
+    args[base + 2] = c;
+    args[base + 3] = d;
+    errors[slot] = error;
+    messages[slot] = message;
+  }
+
+  private static StringBuilder format(
+    StringBuilder out,
+    String message,
+    Object[] values,
+    int offset
+  ) {
+    int from = 0;
+    for (int n = 0; n < MAX_ARGS; n++) {
+      int at = message.indexOf("{}", from);
+      if (at < 0) {
+        break;
+      }
+      out.append(message, from, at).append(values[offset + n]);
+      from = at + 2;
+    }
+    return out.append(message, from, message.length());
+  }
+}
@@ -4,22 +4,25 @@ import static android.Manifest.permission.CAMERA;
 import static android.Manifest.permission.RECORD_AUDIO;
 
 import android.Manifest;
+import android.content.Context;
 import android.content.pm.ActivityInfo;
 import android.content.res.Configuration;
 import android.graphics.Color;
 import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import android.location.Location;
+import android.os.Build;
 import android.util.DisplayMetrics;
-import android.util.Log;
 import android.util.Size;
-import android.view.OrientationEventListener;
+import android.view.Display;
 import android.view.View;
 import android.view.ViewGroup;
 import android.webkit.WebView;
 import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
+import androidx.lifecycle.Lifecycle;
+import com.ahm.capacitor.camera.preview.model.CameraCapabilities;
 import com.ahm.capacitor.camera.preview.model.CameraDevice;
 import com.ahm.capacitor.camera.preview.model.CameraSessionConfiguration;
 import com.ahm.capacitor.camera.preview.model.LensInfo;
@@ -36,7 +39,10 @@ import com.getcapacitor.annotation.Permission;
 import com.getcapacitor.annotation.PermissionCallback;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import org.json.JSONObject;
 
@@ -64,11 +70,37 @@ public class CameraPreview
   extends Plugin
   implements CameraXView.CameraXViewListener {
 
+  @Override
+  public void load() {
+    super.load();
+    CameraLog.configure(
+      getContext(),
+      getConfig().getString("androidLogLevel", null)
+    );
+    String camerasLimiter = getConfig().getString(
+      "androidAvailableCamerasLimiter",
+      null
+    );
+    // Warm up the CameraX provider so the first start() doesn't pay for its initialization
+    CameraXView.prewarmCameraProvider(getContext(), camerasLimiter);
+    // Read camera characteristics, the stored device profile and the device list off the main thread
+    Context appContext = getContext().getApplicationContext();
+    CameraProfileStore profileStore = CameraProfileStore.getInstance(appContext);
+    CameraCapabilityCache.getInstance(appContext).prefetch(() -> {
+      profileStore.load(camerasLimiter);
+      CameraXView.getAvailableDevicesStatic(appContext);
+    });
+  }
+
   @Override
   protected void handleOnPause() {
     super.handleOnPause();
     if (cameraXView != null && cameraXView.isRunning()) {
-      // Store the current configuration before stopping
+      // Keep the session warm: only the camera device is closed while paused
+      if (cameraXView.enterStandby()) {
+        return;
+      }
+      // A capture is in flight; fall back to a full stop and restart on resume
       lastSessionConfig = cameraXView.getSessionConfig();
       cameraXView.stopSession();
     }
@@ -77,19 +109,58 @@ public class CameraPreview
   @Override
   protected void handleOnResume() {
     super.handleOnResume();
-    if (lastSessionConfig != null) {
-      // Recreate camera with last known configuration
-      if (cameraXView == null) {
-        cameraXView = new CameraXView(getContext(), getBridge().getWebView());
-        cameraXView.setListener(this);
+    if (cameraXView != null && cameraXView.resumeFromStandby()) {
+      return;
+    }
+    restartLastSession();
+  }
+
+  // Restart the session handleOnPause stopped. That stop may still be deferred behind a capture,
+  // so the restart waits for the old view to finish tearing down and then starts on a new one.
+  private void restartLastSession() {
+    if (lastSessionConfig == null) {
+      return;
+    }
+    if (cameraXView != null && cameraXView.isStopping()) {
+      if (!restartQueued) {
+        restartQueued = true;
+        cameraXView.runWhenIdle(() ->
+          getBridge()
+            .getActivity()
+            .runOnUiThread(() -> {
+              restartQueued = false;
+              // Paused again in the meantime: the next resume restarts it
+              if (
+                getActivity()
+                  .getLifecycle()
+                  .getCurrentState()
+                  .isAtLeast(Lifecycle.State.RESUMED)
+              ) {
+                restartLastSession();
+              }
+            })
+        );
       }
-      cameraXView.startSession(lastSessionConfig);
+      return;
     }
+    if (
+      cameraXView != null && (cameraXView.isRunning() || cameraXView.isBusy())
+    ) {
+      // A session was started from JS in the meantime
+      lastSessionConfig = null;
+      return;
+    }
+    CameraSessionConfiguration config = lastSessionConfig;
+    lastSessionConfig = null;
+    cameraXView = new CameraXView(getContext(), getBridge().getWebView());
+    cameraXView.setListener(this);
+    cameraXView.startSession(config);
   }
 
   @Override
   protected void handleOnDestroy() {
     super.handleOnDestroy();
+    PerformanceMetrics.getInstance().stopFrameMetrics();
     if (cameraXView != null) {
       cameraXView.stopSession();
       cameraXView = null;
@@ -98,8 +169,10 @@ public class CameraPreview
   }
 
   private CameraSessionConfiguration lastSessionConfig;
+  private boolean restartQueued;
 
   private static final String TAG = "CameraPreview CameraXView";
+  private static final int DEFAULT_ZOOM_RAMP_MS = 250;
 
   static final String CAMERA_WITH_AUDIO_PERMISSION_ALIAS = "cameraWithAudio";
   static final String CAMERA_ONLY_PERMISSION_ALIAS = "cameraOnly";
@@ -109,15 +182,13 @@ public class CameraPreview
   private String captureCallbackId = "";
   private String snapshotCallbackId = "";
   private String cameraStartCallbackId = "";
+  private StartupTimeline startupTimeline;
   private int previousOrientationRequest =
     ActivityInfo.SCREEN_ORIENTATION_UNSPECIFIED;
   private CameraXView cameraXView;
-  private View rotationOverlay;
   private FusedLocationProviderClient fusedLocationClient;
   private Location lastLocation;
-  private OrientationEventListener orientationListener;
-  private int lastOrientation = Configuration.ORIENTATION_UNDEFINED;
-  private String lastOrientationStr = "unknown";
+  private DisplayRotationTracker rotationTracker;
   private boolean lastDisableAudio = true;
   private Drawable originalWindowBackground;
 
@@ -156,12 +227,13 @@ public class CameraPreview
       call.reject("mode parameter is required");
       return;
     }
-    try {
-      cameraXView.setExposureMode(mode);
-      call.resolve();
-    } catch (Exception e) {
-      call.reject("Failed to set exposure mode: " + e.getMessage());
-    }
+    CameraXView view = cameraXView;
+    submitControl(
+      ControlCoalescer.Channel.EXPOSURE_MODE,
+      call,
+      "Failed to set exposure mode: ",
+      () -> view.setExposureMode(mode)
+    );
   }
 
   @PluginMethod
@@ -211,12 +283,13 @@ public class CameraPreview
       call.reject("value parameter is required");
       return;
     }
-    try {
-      cameraXView.setExposureCompensation(value);
-      call.resolve();
-    } catch (Exception e) {
-      call.reject("Failed to set exposure compensation: " + e.getMessage());
-    }
+    CameraXView view = cameraXView;
+    submitControl(
+      ControlCoalescer.Channel.EXPOSURE_COMPENSATION,
+      call,
+      "Failed to set exposure compensation: ",
+      () -> view.setExposureCompensation(value)
+    );
   }
 
   @PluginMethod
@@ -229,7 +302,16 @@ public class CameraPreview
 
   @PluginMethod
   public void start(PluginCall call) {
-    // Prevent starting while an existing view is still active or stopping
+    // A start issued while the previous session is tearing down (e.g. a stop deferred behind a
+    // capture) is queued and served as soon as the teardown completes
+    if (cameraXView != null && cameraXView.isStopping()) {
+      CameraLog.d(TAG, "start: Previous session is stopping, queueing start");
+      cameraXView.runWhenIdle(() ->
+        getBridge().getActivity().runOnUiThread(() -> start(call))
+      );
+      return;
+    }
+    // Prevent starting while an existing view is still active or starting
     if (cameraXView != null) {
       try {
         if (cameraXView.isRunning() || cameraXView.isBusy()) {
@@ -238,6 +320,9 @@ public class CameraPreview
         }
       } catch (Exception ignored) {}
     }
+    startupTimeline = StartupTimeline.forStart(
+      Boolean.TRUE.equals(call.getBoolean("headless", false))
+    );
     boolean disableAudio = Boolean.TRUE.equals(
       call.getBoolean("disableAudio", true)
     );
@@ -364,24 +449,23 @@ public class CameraPreview
           .setRequestedOrientation(previousOrientationRequest);
 
         // Disable and clear orientation listener
-        if (orientationListener != null) {
-          orientationListener.disable();
-          orientationListener = null;
-          lastOrientation = Configuration.ORIENTATION_UNDEFINED;
-        }
-
-        // Remove any rotation overlay if present
-        if (rotationOverlay != null && rotationOverlay.getParent() != null) {
-          ((ViewGroup) rotationOverlay.getParent()).removeView(rotationOverlay);
-          rotationOverlay = null;
+        if (rotationTracker != null) {
+          rotationTracker.stop();
+          rotationTracker = null;
         }
+        PerformanceMetrics.getInstance().stopFrameMetrics();
 
         if (cameraXView != null) {
           boolean willDefer = false;
           try {
             willDefer = cameraXView.isCapturing();
           } catch (Exception ignored) {}
-          if (cameraXView.isRunning()) {
+          // A stop during STARTING tears down the bind in progress
+          if (
+            cameraXView.isRunning() ||
+            cameraXView.isInStandby() ||
+            cameraXView.isStarting()
+          ) {
             cameraXView.stopSession();
           }
           // Only drop the reference if no deferred stop is pending
@@ -536,12 +620,26 @@ public class CameraPreview
       call.reject("level parameter is required");
       return;
     }
-    try {
-      cameraXView.setZoom(level);
-      call.resolve();
-    } catch (Exception e) {
-      call.reject("Failed to set zoom: " + e.getMessage());
-    }
+    // `ramp: true` without an explicit duration uses a short default ramp
+    Integer rampMs = call.getInt(
+      "rampMs",
+      Boolean.TRUE.equals(call.getBoolean("ramp", false))
+        ? DEFAULT_ZOOM_RAMP_MS
+        : 0
+    );
+    CameraXView view = cameraXView;
+    submitControl(
+      ControlCoalescer.Channel.ZOOM,
+      call,
+      "Failed to set zoom: ",
+      () -> {
+        if (rampMs != null && rampMs > 0) {
+          view.rampZoom(level, rampMs);
+        } else {
+          view.setZoom(level);
+        }
+      }
+    );
   }
 
   @PluginMethod
@@ -562,15 +660,50 @@ public class CameraPreview
       return;
     }
 
-    getActivity()
-      .runOnUiThread(() -> {
-        try {
-          cameraXView.setFocus(x, y);
-          call.resolve();
-        } catch (Exception e) {
-          call.reject("Failed to set focus: " + e.getMessage());
+    CameraXView view = cameraXView;
+    submitControl(
+      ControlCoalescer.Channel.FOCUS,
+      call,
+      "Failed to set focus: ",
+      () -> view.setFocus(x, y)
+    );
+  }
+
+  private interface ControlAction {
+    void run() throws Exception;
+  }
+
+  /**
+   * Queue a control change on the session's coalescer. Only the latest call per control within a
+   * frame reaches the camera; calls it replaced resolve without being applied.
+   */
+  private void submitControl(
+    ControlCoalescer.Channel channel,
+    PluginCall call,
+    String failurePrefix,
+    ControlAction action
+  ) {
+    cameraXView
+      .getControlCoalescer()
+      .submit(
+        channel,
+        new ControlCoalescer.Command() {
+          @Override
+          public void apply() {
+            try {
+              action.run();
+              call.resolve();
+            } catch (Exception e) {
+              call.reject(failurePrefix + e.getMessage());
+            }
+          }
+
+          @Override
+          public void superseded() {
+            call.resolve();
+          }
         }
-      });
+      );
   }
 
   @PluginMethod
@@ -591,31 +724,29 @@ public class CameraPreview
   @PluginMethod
   public void getSupportedPictureSizes(final PluginCall call) {
     JSArray supportedPictureSizesResult = new JSArray();
-    List<Size> rearSizes = CameraXView.getSupportedPictureSizes("rear");
-    JSObject rear = new JSObject();
-    rear.put("facing", "rear");
-    JSArray rearSizesJs = new JSArray();
-    for (Size size : rearSizes) {
-      JSObject sizeJs = new JSObject();
-      sizeJs.put("width", size.getWidth());
-      sizeJs.put("height", size.getHeight());
-      rearSizesJs.put(sizeJs);
-    }
-    rear.put("supportedPictureSizes", rearSizesJs);
-    supportedPictureSizesResult.put(rear);
-
-    List<Size> frontSizes = CameraXView.getSupportedPictureSizes("front");
-    JSObject front = new JSObject();
-    front.put("facing", "front");
-    JSArray frontSizesJs = new JSArray();
-    for (Size size : frontSizes) {
-      JSObject sizeJs = new JSObject();
-      sizeJs.put("width", size.getWidth());
-      sizeJs.put("height", size.getHeight());
-      frontSizesJs.put(sizeJs);
-    }
-    front.put("supportedPictureSizes", frontSizesJs);
-    supportedPictureSizesResult.put(front);
+    for (String facing : new String[] { "rear", "front" }) {
+      CameraCapabilities capabilities = CameraXView.getPictureCapabilities(
+        getContext(),
+        facing
+      );
+      JSArray sizesJs = new JSArray();
+      if (capabilities != null) {
+        for (Size size : capabilities.getAllJpegSizes()) {
+          JSObject sizeJs = new JSObject();
+          sizeJs.put("width", size.getWidth());
+          sizeJs.put("height", size.getHeight());
+          sizeJs.put(
+            "minFrameDuration",
+            capabilities.getJpegMinFrameDuration(size)
+          );
+          sizesJs.put(sizeJs);
+        }
+      }
+      JSObject facingJs = new JSObject();
+      facingJs.put("facing", facing);
+      facingJs.put("supportedPictureSizes", sizesJs);
+      supportedPictureSizesResult.put(facingJs);
+    }
 
     JSObject ret = new JSObject();
     ret.put("supportedPictureSizes", supportedPictureSizesResult);
@@ -673,6 +804,25 @@ public class CameraPreview
     call.resolve(jsObject);
   }
 
+  @PluginMethod
+  public void getPerformanceStats(PluginCall call) {
+    PerformanceMetrics metrics = PerformanceMetrics.getInstance();
+    JSObject result = metrics.toJSObject();
+    if (cameraXView != null) {
+      JSObject lastRebind = new JSObject();
+      lastRebind.put("path", cameraXView.getLastRebindPath());
+      lastRebind.put("durationMs", cameraXView.getLastRebindMillis());
+      lastRebind.put("sessionRebinds", cameraXView.getRebindCount());
+      result.put("lastRebind", lastRebind);
+      result.put("previewImplementation", cameraXView.getImplementationMode());
+      result.put("powerIdle", cameraXView.isPowerIdle());
+    }
+    if (Boolean.TRUE.equals(call.getBoolean("reset", false))) {
+      metrics.reset();
+    }
+    call.resolve(result);
+  }
+
   @PermissionCallback
   private void handleCameraPermissionResult(PluginCall call) {
     if (
@@ -690,6 +840,9 @@ public class CameraPreview
   }
 
   private void startCamera(final PluginCall call) {
+    if (startupTimeline != null) {
+      startupTimeline.mark("permissionChecked");
+    }
     String positionParam = call.getString("position");
     String originalDeviceId = call.getString("deviceId");
     String deviceId = originalDeviceId; // Use a mutable variable
@@ -706,23 +859,13 @@ public class CameraPreview
     final int x = xParam != null ? xParam : -1;
     final int y = yParam != null ? yParam : -1;
 
-    Log.d("CameraPreview", "========================");
-    Log.d("CameraPreview", "CAMERA POSITION TRACKING START:");
-    Log.d(
-      "CameraPreview",
-      "1. RAW PARAMS - xParam: " + xParam + ", yParam: " + yParam
-    );
-    Log.d(
-      "CameraPreview",
-      "2. AFTER DEFAULT - x: " +
-      x +
-      " (center=" +
-      (x == -1) +
-      "), y: " +
-      y +
-      " (center=" +
-      (y == -1) +
-      ")"
+    CameraLog.d(
+      TAG,
+      "start: requested position x={} y={} (defaulted to {}, {}; -1 centers)",
+      xParam,
+      yParam,
+      x,
+      y
     );
     final int width = call.getInt("width", 0);
     final int height = call.getInt("height", 0);
@@ -759,6 +902,32 @@ public class CameraPreview
       call.getBoolean("enableVideoMode", false)
     );
     final String videoQuality = call.getString("videoQuality");
+    final boolean headless = Boolean.TRUE.equals(
+      call.getBoolean("headless", false)
+    );
+    final String powerMode = call.getString("powerMode", "full");
+    final double idleTimeout = call.getDouble("idleTimeout", 10.0);
+    final Map<ThermalMonitor.Step, Integer> thermalThresholds;
+    // Opt-in: true uses the default thresholds, an object overrides some of them
+    final Object thermalLadderParam = call.getData().opt("thermalLadder");
+    final boolean thermalEnabled =
+      Boolean.TRUE.equals(thermalLadderParam) ||
+      thermalLadderParam instanceof JSONObject;
+    try {
+      thermalThresholds = parseThermalLadder(call.getObject("thermalLadder"));
+    } catch (IllegalArgumentException e) {
+      call.reject(e.getMessage());
+      return;
+    }
+    final JSObject pictureSizeParam = call.getObject("pictureSize");
+    final Size pictureSize = pictureSizeParam != null &&
+      pictureSizeParam.getInteger("width", 0) > 0 &&
+      pictureSizeParam.getInteger("height", 0) > 0
+      ? new Size(
+        pictureSizeParam.getInteger("width"),
+        pictureSizeParam.getInteger("height")
+      )
+      : null;
 
     // Check for conflict between aspectRatio and size
     if (
@@ -783,8 +952,8 @@ public class CameraPreview
         ) {
           for (LensInfo lens : device.getLenses()) {
             if ("ultraWide".equals(lens.getDeviceType())) {
-              Log.d(
-                "CameraPreview",
+              CameraLog.d(
+                TAG,
                 "Ultra-wide lens selected. Targeting 0.5x zoom on logical camera."
               );
               targetZoom = 0.5f;
@@ -810,7 +979,7 @@ public class CameraPreview
       .getActivity()
       .runOnUiThread(() -> {
         // Ensure transparent background when preview is behind the WebView (Android 10 fix)
-        if (toBack) {
+        if (toBack && !headless) {
           try {
             if (originalWindowBackground == null) {
               originalWindowBackground = getBridge()
@@ -835,107 +1004,37 @@ public class CameraPreview
             .setRequestedOrientation(ActivityInfo.SCREEN_ORIENTATION_LOCKED);
         }
 
-        // Debug: Let's check all the positioning information
-        ViewGroup webViewParent = (ViewGroup) getBridge()
-          .getWebView()
-          .getParent();
-
-        // Get webview position in different coordinate systems
-        int[] webViewLocationInWindow = new int[2];
+        // JavaScript coordinates are relative to the WebView's viewport. If the WebView is
+        // positioned below the status bar (locationOnScreen y > 0), that offset has to be added
+        // when placing native views.
+        View webView = getBridge().getWebView();
         int[] webViewLocationOnScreen = new int[2];
-        getBridge().getWebView().getLocationInWindow(webViewLocationInWindow);
-        getBridge().getWebView().getLocationOnScreen(webViewLocationOnScreen);
-
-        int webViewLeft = getBridge().getWebView().getLeft();
-        int webViewTop = getBridge().getWebView().getTop();
-
-        // Check parent position too
-        int[] parentLocationInWindow = new int[2];
-        int[] parentLocationOnScreen = new int[2];
-        webViewParent.getLocationInWindow(parentLocationInWindow);
-        webViewParent.getLocationOnScreen(parentLocationOnScreen);
-
-        // Calculate pixel ratio
+        webView.getLocationOnScreen(webViewLocationOnScreen);
         float pixelRatio = metrics.density;
-
-        // The key insight: JavaScript coordinates are relative to the WebView's viewport
-        // If the WebView is positioned below the status bar (webViewLocationOnScreen[1] > 0),
-        // we need to add that offset when placing native views
         int webViewTopInset = webViewLocationOnScreen[1];
         boolean isEdgeToEdgeActive = webViewLocationOnScreen[1] > 0;
 
-        // Log all the positioning information for debugging
-        Log.d("CameraPreview", "WebView Position Debug:");
-        Log.d("CameraPreview", "  - webView.getTop(): " + webViewTop);
-        Log.d("CameraPreview", "  - webView.getLeft(): " + webViewLeft);
-        Log.d(
-          "CameraPreview",
-          "  - webView locationInWindow: (" +
-          webViewLocationInWindow[0] +
-          ", " +
-          webViewLocationInWindow[1] +
-          ")"
-        );
-        Log.d(
-          "CameraPreview",
-          "  - webView locationOnScreen: (" +
-          webViewLocationOnScreen[0] +
-          ", " +
-          webViewLocationOnScreen[1] +
-          ")"
-        );
-        Log.d(
-          "CameraPreview",
-          "  - parent locationInWindow: (" +
-          parentLocationInWindow[0] +
-          ", " +
-          parentLocationInWindow[1] +
-          ")"
-        );
-        Log.d(
-          "CameraPreview",
-          "  - parent locationOnScreen: (" +
-          parentLocationOnScreen[0] +
-          ", " +
-          parentLocationOnScreen[1] +
-          ")"
-        );
-
-        // Check if WebView has margins
-        View webView = getBridge().getWebView();
-        ViewGroup.LayoutParams webViewLayoutParams = webView.getLayoutParams();
-        if (webViewLayoutParams instanceof ViewGroup.MarginLayoutParams) {
-          ViewGroup.MarginLayoutParams marginParams =
-            (ViewGroup.MarginLayoutParams) webViewLayoutParams;
-          Log.d(
-            "CameraPreview",
-            "  - webView margins: left=" +
-            marginParams.leftMargin +
-            ", top=" +
-            marginParams.topMargin +
-            ", right=" +
-            marginParams.rightMargin +
-            ", bottom=" +
-            marginParams.bottomMargin
+        if (CameraLog.isDebugEnabled()) {
+          int[] parentLocationOnScreen = new int[2];
+          ((ViewGroup) webView.getParent()).getLocationOnScreen(
+              parentLocationOnScreen
+            );
+          CameraLog.d(
+            TAG,
+            "start: webView at {} on screen (parent at {}), padding {}, top inset {}",
+            Arrays.toString(webViewLocationOnScreen),
+            Arrays.toString(parentLocationOnScreen),
+            webView.getPaddingLeft() +
+            "," +
+            webView.getPaddingTop() +
+            "," +
+            webView.getPaddingRight() +
+            "," +
+            webView.getPaddingBottom(),
+            webViewTopInset
           );
         }
 
-        // Check WebView padding
-        Log.d(
-          "CameraPreview",
-          "  - webView padding: left=" +
-          webView.getPaddingLeft() +
-          ", top=" +
-          webView.getPaddingTop() +
-          ", right=" +
-          webView.getPaddingRight() +
-          ", bottom=" +
-          webView.getPaddingBottom()
-        );
-
-        Log.d("CameraPreview", "  - Using webViewTopInset: " + webViewTopInset);
-        Log.d("CameraPreview", "  - isEdgeToEdgeActive: " + isEdgeToEdgeActive);
-
         // Calculate position - center if x or y is -1
         int computedX;
         int computedY;
@@ -943,72 +1042,17 @@ public class CameraPreview
         // Calculate dimensions first
         int computedWidth = width != 0
           ? (int) (width * pixelRatio)
-          : getBridge().getWebView().getWidth();
+          : webView.getWidth();
         int computedHeight = height != 0
           ? (int) (height * pixelRatio)
-          : getBridge().getWebView().getHeight();
+          : webView.getHeight();
         computedHeight -= (int) (paddingBottom * pixelRatio);
 
-        Log.d("CameraPreview", "========================");
-        Log.d("CameraPreview", "POSITIONING CALCULATIONS:");
-        Log.d(
-          "CameraPreview",
-          "1. INPUT - x: " +
-          x +
-          ", y: " +
-          y +
-          ", width: " +
-          width +
-          ", height: " +
-          height
-        );
-        Log.d("CameraPreview", "2. PIXEL RATIO: " + pixelRatio);
-        Log.d(
-          "CameraPreview",
-          "3. SCREEN - width: " +
-          metrics.widthPixels +
-          ", height: " +
-          metrics.heightPixels
-        );
-        Log.d(
-          "CameraPreview",
-          "4. WEBVIEW - width: " +
-          getBridge().getWebView().getWidth() +
-          ", height: " +
-          getBridge().getWebView().getHeight()
-        );
-        Log.d(
-          "CameraPreview",
-          "5. COMPUTED DIMENSIONS - width: " +
-          computedWidth +
-          ", height: " +
-          computedHeight
-        );
-
         if (x == -1) {
           // Center horizontally
-          int screenWidth = metrics.widthPixels;
-          computedX = (screenWidth - computedWidth) / 2;
-          Log.d(
-            "CameraPreview",
-            "Centering horizontally: screenWidth=" +
-            screenWidth +
-            ", computedWidth=" +
-            computedWidth +
-            ", computedX=" +
-            computedX
-          );
+          computedX = (metrics.widthPixels - computedWidth) / 2;
         } else {
           computedX = (int) (x * pixelRatio);
-          Log.d(
-            "CameraPreview",
-            "Using provided X position: " +
-            x +
-            " * " +
-            pixelRatio +
-            " = " +
-            computedX
-          );
         }
 
         if (y == -1) {
@@ -1018,51 +1062,15 @@ public class CameraPreview
           switch (positioning) {
             case "top":
               computedY = 0;
-              Log.d("CameraPreview", "Positioning at top: computedY=0");
               break;
             case "bottom":
               computedY = screenHeight - computedHeight;
-              Log.d(
-                "CameraPreview",
-                "Positioning at bottom: screenHeight=" +
-                screenHeight +
-                ", computedHeight=" +
-                computedHeight +
-                ", computedY=" +
-                computedY
-              );
               break;
             case "center":
             default:
-              // Center vertically
-              if (isEdgeToEdgeActive) {
-                // When WebView is offset from top, center within the available space
-                // The camera should be centered in the full screen, not just the WebView area
-                computedY = (screenHeight - computedHeight) / 2;
-                Log.d(
-                  "CameraPreview",
-                  "Centering vertically with WebView offset: screenHeight=" +
-                  screenHeight +
-                  ", webViewTop=" +
-                  webViewTopInset +
-                  ", computedHeight=" +
-                  computedHeight +
-                  ", computedY=" +
-                  computedY
-                );
-              } else {
-                // Normal mode - use full screen height
-                computedY = (screenHeight - computedHeight) / 2;
-                Log.d(
-                  "CameraPreview",
-                  "Centering vertically (normal): screenHeight=" +
-                  screenHeight +
-                  ", computedHeight=" +
-                  computedHeight +
-                  ", computedY=" +
-                  computedY
-                );
-              }
+              // Center in the full screen, not just the WebView area, even when the WebView is
+              // offset from the top
+              computedY = (screenHeight - computedHeight) / 2;
               break;
           }
         } else {
@@ -1071,356 +1079,142 @@ public class CameraPreview
           // We need to add the inset to get absolute screen position
           if (isEdgeToEdgeActive) {
             computedY += webViewTopInset;
-            Log.d(
-              "CameraPreview",
-              "Edge-to-edge adjustment: Y position " +
-              (int) (y * pixelRatio) +
-              " + inset " +
-              webViewTopInset +
-              " = " +
-              computedY
-            );
           }
-          Log.d(
-            "CameraPreview",
-            "Using provided Y position: " +
-            y +
-            " * " +
-            pixelRatio +
-            " = " +
-            computedY +
-            (isEdgeToEdgeActive ? " (adjusted for edge-to-edge)" : "")
-          );
         }
 
-        Log.d(
-          "CameraPreview",
-          "2b. EDGE-TO-EDGE - " +
-          (isEdgeToEdgeActive
-              ? "ACTIVE (inset=" + webViewTopInset + ")"
-              : "INACTIVE")
-        );
-        Log.d(
-          "CameraPreview",
-          "3. COMPUTED POSITION - x=" + computedX + ", y=" + computedY
-        );
-        Log.d(
-          "CameraPreview",
-          "4. COMPUTED SIZE - width=" +
-          computedWidth +
-          ", height=" +
-          computedHeight
-        );
-        Log.d("CameraPreview", "=== COORDINATE DEBUG ===");
-        Log.d(
-          "CameraPreview",
-          "WebView getLeft/getTop: (" + webViewLeft + ", " + webViewTop + ")"
-        );
-        Log.d(
-          "CameraPreview",
-          "WebView locationInWindow: (" +
-          webViewLocationInWindow[0] +
-          ", " +
-          webViewLocationInWindow[1] +
-          ")"
-        );
-        Log.d(
-          "CameraPreview",
-          "WebView locationOnScreen: (" +
-          webViewLocationOnScreen[0] +
-          ", " +
-          webViewLocationOnScreen[1] +
-          ")"
-        );
-        Log.d(
-          "CameraPreview",
-          "Parent locationInWindow: (" +
-          parentLocationInWindow[0] +
-          ", " +
-          parentLocationInWindow[1] +
-          ")"
-        );
-        Log.d(
-          "CameraPreview",
-          "Parent locationOnScreen: (" +
-          parentLocationOnScreen[0] +
-          ", " +
-          parentLocationOnScreen[1] +
-          ")"
-        );
-        Log.d(
-          "CameraPreview",
-          "Parent class: " + webViewParent.getClass().getSimpleName()
-        );
-        Log.d(
-          "CameraPreview",
-          "Requested position (logical): (" + x + ", " + y + ")"
-        );
-        Log.d("CameraPreview", "Pixel ratio: " + pixelRatio);
-        Log.d(
-          "CameraPreview",
-          "Final computed position (no offset): (" +
-          computedX +
-          ", " +
-          computedY +
-          ")"
-        );
-        Log.d("CameraPreview", "5. IS_CENTERED - " + (x == -1 || y == -1));
-        Log.d("CameraPreview", "========================");
+        if (CameraLog.isDebugEnabled()) {
+          CameraLog.d(
+            TAG,
+            "start: {}x{} logical at density {} -> preview {}",
+            width,
+            height,
+            pixelRatio,
+            computedWidth +
+            "x" +
+            computedHeight +
+            " at " +
+            computedX +
+            "," +
+            computedY
+          );
+        }
 
         // Pass along whether we're centering so CameraXView knows not to add insets
         boolean isCentered = (x == -1 || y == -1);
 
-        CameraSessionConfiguration config = new CameraSessionConfiguration(
-          finalDeviceId,
-          position,
-          computedX,
-          computedY,
-          computedWidth,
-          computedHeight,
-          paddingBottom,
-          toBack,
-          storeToFile,
-          enableOpacity,
-          enableZoom,
-          disableExifHeaderStripping,
-          disableAudio,
-          1.0f,
-          aspectRatio,
-          gridMode,
-          disableFocusIndicator,
-          enableVideoMode,
-          videoQuality
-        );
-        config.setTargetZoom(finalTargetZoom);
-        config.setCentered(isCentered);
+        CameraSessionConfiguration config = new CameraSessionConfiguration.Builder()
+          .setDeviceId(finalDeviceId)
+          .setPosition(position)
+          .setX(computedX)
+          .setY(computedY)
+          .setWidth(computedWidth)
+          .setHeight(computedHeight)
+          .setPaddingBottom(paddingBottom)
+          .setToBack(toBack)
+          .setStoreToFile(storeToFile)
+          .setEnableOpacity(enableOpacity)
+          .setEnableZoom(enableZoom)
+          .setDisableExifHeaderStripping(disableExifHeaderStripping)
+          .setDisableAudio(disableAudio)
+          .setAspectRatio(aspectRatio)
+          .setGridMode(gridMode)
+          .setDisableFocusIndicator(disableFocusIndicator)
+          .setEnableVideoMode(enableVideoMode)
+          .setVideoQuality(videoQuality)
+          .setTargetZoom(finalTargetZoom)
+          .setCentered(isCentered)
+          .build();
 
         bridge.saveCall(call);
         cameraStartCallbackId = call.getCallbackId();
+        cameraXView.setStartupTimeline(startupTimeline);
+        cameraXView.setCaptureTargetSize(pictureSize);
+        cameraXView.setHeadless(headless);
+        cameraXView.setPowerMode(powerMode, (long) (idleTimeout * 1000));
         cameraXView.startSession(config);
+        if (thermalEnabled) {
+          cameraXView.startThermalMonitoring(thermalThresholds);
+        }
 
-        // Setup orientation listener to mirror iOS screenResize emission
-        if (orientationListener == null) {
-          lastOrientation = getContext()
-            .getResources()
-            .getConfiguration()
-            .orientation;
-          lastOrientationStr = getDeviceOrientationString();
-          orientationListener = new OrientationEventListener(getContext()) {
-            @Override
-            public void onOrientationChanged(int orientation) {
-              if (orientation == ORIENTATION_UNKNOWN) return;
-              int current = getContext()
-                .getResources()
-                .getConfiguration()
-                .orientation;
-              String currentStr = getDeviceOrientationString();
-              if (
-                current != lastOrientation ||
-                !Objects.equals(currentStr, lastOrientationStr)
-              ) {
-                lastOrientation = current;
-                lastOrientationStr = currentStr;
+        // Track display rotation to mirror iOS screenResize emission
+        if (rotationTracker == null) {
+          Display display = Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+            ? getBridge().getActivity().getDisplay()
+            : getBridge().getActivity().getWindowManager().getDefaultDisplay();
+          PerformanceMetrics.getInstance().startFrameMetrics(
+            getBridge().getActivity().getWindow(),
+            display != null ? display.getRefreshRate() : 60f
+          );
+          if (display != null) {
+            rotationTracker = new DisplayRotationTracker(
+              getContext(),
+              display,
+              (rotation, detectedNanos) ->
                 // Post to next frame so WebView has updated bounds before we recompute layout
                 getBridge()
                   .getActivity()
                   .getWindow()
                   .getDecorView()
-                  .post(() -> handleOrientationChange());
-              }
-            }
-          };
-          if (orientationListener.canDetectOrientation()) {
-            orientationListener.enable();
+                  .post(() -> handleOrientationChange(detectedNanos))
+            );
+            rotationTracker.start();
           }
         }
       });
   }
 
-  private void handleOrientationChange() {
+  private void handleOrientationChange(long detectedNanos) {
     if (cameraXView == null || !cameraXView.isRunning()) return;
 
-    Log.d(
-      TAG,
-      "======================== ORIENTATION CHANGE DETECTED ========================"
-    );
-
-    // Get comprehensive display and orientation information
-    android.util.DisplayMetrics metrics = getContext()
-      .getResources()
-      .getDisplayMetrics();
-    int screenWidthPx = metrics.widthPixels;
-    int screenHeightPx = metrics.heightPixels;
-    float density = metrics.density;
-    int screenWidthDp = (int) (screenWidthPx / density);
-    int screenHeightDp = (int) (screenHeightPx / density);
-
-    int current = getContext().getResources().getConfiguration().orientation;
-    Log.d(TAG, "New orientation: " + current + " (1=PORTRAIT, 2=LANDSCAPE)");
-    Log.d(
-      TAG,
-      "Screen dimensions - Pixels: " +
-      screenWidthPx +
-      "x" +
-      screenHeightPx +
-      ", DP: " +
-      screenWidthDp +
-      "x" +
-      screenHeightDp +
-      ", Density: " +
-      density
-    );
-
-    // Get WebView dimensions before rotation
-    WebView webView = getBridge().getWebView();
-    int webViewWidth = webView.getWidth();
-    int webViewHeight = webView.getHeight();
-    Log.d(TAG, "WebView dimensions: " + webViewWidth + "x" + webViewHeight);
-
     // Get current preview bounds before rotation
     int[] oldBounds = cameraXView.getCurrentPreviewBounds();
-    Log.d(
-      TAG,
-      "Current preview bounds before rotation: x=" +
-      oldBounds[0] +
-      ", y=" +
-      oldBounds[1] +
-      ", width=" +
-      oldBounds[2] +
-      ", height=" +
-      oldBounds[3]
-    );
-
-    getBridge()
-      .getActivity()
-      .runOnUiThread(() -> {
-        // Create and show a black full-screen overlay during rotation
-        ViewGroup rootView = (ViewGroup) getBridge()
-          .getActivity()
-          .getWindow()
-          .getDecorView()
-          .getRootView();
-
-        // Remove any existing overlay
-        if (rotationOverlay != null && rotationOverlay.getParent() != null) {
-          ((ViewGroup) rotationOverlay.getParent()).removeView(rotationOverlay);
-        }
-
-        // Create new black overlay
-        rotationOverlay = new View(getContext());
-        rotationOverlay.setBackgroundColor(Color.BLACK);
-        ViewGroup.LayoutParams overlayParams = new ViewGroup.LayoutParams(
-          ViewGroup.LayoutParams.MATCH_PARENT,
-          ViewGroup.LayoutParams.MATCH_PARENT
-        );
-        rotationOverlay.setLayoutParams(overlayParams);
-        rootView.addView(rotationOverlay);
-
-        // Reapply current aspect ratio to recompute layout, then emit screenResize
-        String ar = cameraXView.getAspectRatio();
-        Log.d(TAG, "Reapplying aspect ratio: " + ar);
-
-        // Re-get dimensions after potential layout pass
-        android.util.DisplayMetrics newMetrics = getContext()
-          .getResources()
-          .getDisplayMetrics();
-        int newScreenWidthPx = newMetrics.widthPixels;
-        int newScreenHeightPx = newMetrics.heightPixels;
-        int newWebViewWidth = webView.getWidth();
-        int newWebViewHeight = webView.getHeight();
+    if (CameraLog.isDebugEnabled()) {
+      WebView webView = getBridge().getWebView();
+      android.util.DisplayMetrics metrics = getContext()
+        .getResources()
+        .getDisplayMetrics();
+      CameraLog.d(
+        TAG,
+        "Orientation changed to {} (1=PORTRAIT, 2=LANDSCAPE), screen {}, webView {}",
+        getContext().getResources().getConfiguration().orientation,
+        metrics.widthPixels + "x" + metrics.heightPixels,
+        webView.getWidth() + "x" + webView.getHeight()
+      );
+    }
 
-        Log.d(
+    // The camera keeps streaming: only the target rotation and the layout change
+    cameraXView.handleDisplayRotation(detectedNanos, () -> {
+      int[] bounds = cameraXView != null
+        ? cameraXView.getCurrentPreviewBounds()
+        : oldBounds;
+      if (CameraLog.isDebugEnabled()) {
+        CameraLog.d(
           TAG,
-          "New screen dimensions after rotation: " +
-          newScreenWidthPx +
-          "x" +
-          newScreenHeightPx
+          "Bounds after orientation change: {} (delta {})",
+          Arrays.toString(bounds),
+          (bounds[0] - oldBounds[0]) +
+          "," +
+          (bounds[1] - oldBounds[1]) +
+          "," +
+          (bounds[2] - oldBounds[2]) +
+          "," +
+          (bounds[3] - oldBounds[3])
         );
-        Log.d(
-          TAG,
-          "New WebView dimensions after rotation: " +
-          newWebViewWidth +
-          "x" +
-          newWebViewHeight
-        );
-
-        // Force aspect ratio recalculation on orientation change
-        cameraXView.forceAspectRatioRecalculation(ar, null, null, () -> {
-          int[] bounds = cameraXView.getCurrentPreviewBounds();
-          Log.d(
-            TAG,
-            "New bounds after orientation change: x=" +
-            bounds[0] +
-            ", y=" +
-            bounds[1] +
-            ", width=" +
-            bounds[2] +
-            ", height=" +
-            bounds[3]
-          );
-          Log.d(
-            TAG,
-            "Bounds change: deltaX=" +
-            (bounds[0] - oldBounds[0]) +
-            ", deltaY=" +
-            (bounds[1] - oldBounds[1]) +
-            ", deltaWidth=" +
-            (bounds[2] - oldBounds[2]) +
-            ", deltaHeight=" +
-            (bounds[3] - oldBounds[3])
-          );
-
-          JSObject data = new JSObject();
-          data.put("x", bounds[0]);
-          data.put("y", bounds[1]);
-          data.put("width", bounds[2]);
-          data.put("height", bounds[3]);
-          notifyListeners("screenResize", data);
-
-          // Also emit orientationChange with a unified string value matching iOS
-          String o = getDeviceOrientationString();
-          JSObject oData = new JSObject();
-          oData.put("orientation", o);
-          notifyListeners("orientationChange", oData);
-
-          // Don't remove the overlay here - wait for camera to fully start
-          // The overlay will be removed after a delay to ensure camera is stable
-          if (rotationOverlay != null && rotationOverlay.getParent() != null) {
-            // Shorter delay for faster transition
-            int delay = "4:3".equals(ar) ? 200 : 150;
-            rotationOverlay.postDelayed(
-              () -> {
-                if (
-                  rotationOverlay != null && rotationOverlay.getParent() != null
-                ) {
-                  rotationOverlay
-                    .animate()
-                    .alpha(0f)
-                    .setDuration(100) // Faster fade out
-                    .withEndAction(() -> {
-                      if (
-                        rotationOverlay != null &&
-                        rotationOverlay.getParent() != null
-                      ) {
-                        ((ViewGroup) rotationOverlay.getParent()).removeView(
-                            rotationOverlay
-                          );
-                        rotationOverlay = null;
-                      }
-                    })
-                    .start();
-                }
-              },
-              delay
-            );
-          }
+      }
 
-          Log.d(
-            TAG,
-            "================================================================================"
-          );
-        });
-      });
+      JSObject data = new JSObject();
+      data.put("x", bounds[0]);
+      data.put("y", bounds[1]);
+      data.put("width", bounds[2]);
+      data.put("height", bounds[3]);
+      notifyListeners("screenResize", data);
+
+      // Also emit orientationChange with a unified string value matching iOS
+      String o = getDeviceOrientationString();
+      JSObject oData = new JSObject();
+      oData.put("orientation", o);
+      notifyListeners("orientationChange", oData);
+    });
   }
 
   /**
@@ -1468,7 +1262,7 @@ public class CameraPreview
       ) return "landscape-right"; // default, avoid generic
       return "unknown";
     } catch (Throwable t) {
-      Log.w(TAG, "Failed to get precise orientation, falling back: " + t);
+      CameraLog.w(TAG, "Failed to get precise orientation, falling back", t);
       int orientation = getContext()
         .getResources()
         .getConfiguration()
@@ -1485,7 +1279,7 @@ public class CameraPreview
   public void onPictureTaken(String base64, JSONObject exif) {
     PluginCall pluginCall = bridge.getSavedCall(captureCallbackId);
     if (pluginCall == null) {
-      Log.e("CameraPreview", "onPictureTaken: captureCallbackId is null");
+      CameraLog.e(TAG, "onPictureTaken: captureCallbackId is null");
       return;
     }
     JSObject result = new JSObject();
@@ -1499,13 +1293,60 @@ public class CameraPreview
   public void onPictureTakenError(String message) {
     PluginCall pluginCall = bridge.getSavedCall(captureCallbackId);
     if (pluginCall == null) {
-      Log.e("CameraPreview", "onPictureTakenError: captureCallbackId is null");
+      CameraLog.e(TAG, "onPictureTakenError: captureCallbackId is null");
       return;
     }
     pluginCall.reject(message);
     bridge.releaseCall(pluginCall);
   }
 
+  @Override
+  public void onZoomChanged(float zoomRatio) {
+    JSObject data = new JSObject();
+    data.put("zoom", zoomRatio);
+    notifyListeners("zoomChanged", data);
+  }
+
+  @Override
+  public void onTorchChanged(boolean enabled) {
+    JSObject data = new JSObject();
+    data.put("enabled", enabled);
+    notifyListeners("torchChanged", data);
+  }
+
+  @Override
+  public void onCameraStateChanged(String state, String error) {
+    JSObject data = new JSObject();
+    data.put("state", state);
+    if (error != null) {
+      data.put("error", error);
+    }
+    notifyListeners("cameraStateChanged", data);
+  }
+
+  @Override
+  public void onThermalStateChanged(
+    String status,
+    float headroom,
+    List<String> steps
+  ) {
+    JSObject data = new JSObject();
+    data.put("status", status);
+    if (!Float.isNaN(headroom)) {
+      data.put("headroom", headroom);
+    }
+    data.put("steps", new JSArray(steps));
+    notifyListeners("thermalStateChanged", data);
+  }
+
+  @Override
+  public void onFirstFrame(String kind, double elapsedMs) {
+    JSObject data = new JSObject();
+    data.put("kind", kind);
+    data.put("elapsedMs", Math.round(elapsedMs * 100.0) / 100.0);
+    notifyListeners("firstFrame", data);
+  }
+
   @Override
   public void onCameraStopped() {
     // Ensure reference is cleared once underlying CameraXView has fully stopped
@@ -1556,47 +1397,6 @@ public class CameraPreview
       // Only convert to relative position if edge-to-edge is active
       int relativeY = isEdgeToEdgeActive ? (y - webViewTopInset) : y;
 
-      Log.d("CameraPreview", "========================");
-      Log.d("CameraPreview", "CAMERA STARTED - POSITION RETURNED:");
-      Log.d(
-        "CameraPreview",
-        "7. RETURNED (pixels) - x=" +
-        x +
-        ", y=" +
-        y +
-        ", width=" +
-        width +
-        ", height=" +
-        height
-      );
-      Log.d(
-        "CameraPreview",
-        "8. EDGE-TO-EDGE - " + (isEdgeToEdgeActive ? "ACTIVE" : "INACTIVE")
-      );
-      Log.d("CameraPreview", "9. WEBVIEW INSET - " + webViewTopInset);
-      Log.d(
-        "CameraPreview",
-        "10. RELATIVE Y - " +
-        relativeY +
-        " (y=" +
-        y +
-        (isEdgeToEdgeActive ? " - inset=" + webViewTopInset : " unchanged") +
-        ")"
-      );
-      Log.d(
-        "CameraPreview",
-        "11. RETURNED (logical) - x=" +
-        (x / pixelRatio) +
-        ", y=" +
-        (relativeY / pixelRatio) +
-        ", width=" +
-        (width / pixelRatio) +
-        ", height=" +
-        (height / pixelRatio)
-      );
-      Log.d("CameraPreview", "12. PIXEL RATIO - " + pixelRatio);
-      Log.d("CameraPreview", "========================");
-
       // Calculate logical values with proper rounding to avoid sub-pixel issues
       double logicalWidth = width / pixelRatio;
       double logicalHeight = height / pixelRatio;
@@ -1610,100 +1410,36 @@ public class CameraPreview
         logicalHeight
       );
 
-      // Log exact calculations to debug one-pixel difference
-      Log.d("CameraPreview", "========================");
-      Log.d("CameraPreview", "FINAL POSITION CALCULATIONS:");
-      Log.d(
-        "CameraPreview",
-        "Pixel values: x=" +
-        x +
-        ", y=" +
-        relativeY +
-        ", width=" +
-        width +
-        ", height=" +
-        height
-      );
-      Log.d("CameraPreview", "Pixel ratio: " + pixelRatio);
-      Log.d(
-        "CameraPreview",
-        "Logical values (exact): x=" +
-        logicalX +
-        ", y=" +
-        logicalY +
-        ", width=" +
-        logicalWidth +
-        ", height=" +
-        logicalHeight
-      );
-      Log.d(
-        "CameraPreview",
-        "Logical values (rounded): x=" +
-        Math.round(logicalX) +
-        ", y=" +
-        Math.round(logicalY) +
-        ", width=" +
-        Math.round(logicalWidth) +
-        ", height=" +
-        Math.round(logicalHeight)
-      );
+      if (CameraLog.isDebugEnabled()) {
+        CameraLog.d(
+          TAG,
+          "Camera started at {} px (top inset {}), returning {} at density {}",
+          x + "," + y + " " + width + "x" + height,
+          webViewTopInset,
+          logicalX + "," + logicalY + " " + logicalWidth + "x" + logicalHeight,
+          pixelRatio
+        );
+      }
 
-      // Check if previewContainer has any padding or margin that might cause offset
       if (cameraXView != null) {
-        View previewContainer = cameraXView.getPreviewContainer();
-        if (previewContainer != null) {
-          Log.d(
-            "CameraPreview",
-            "PreviewContainer padding: left=" +
-            previewContainer.getPaddingLeft() +
-            ", top=" +
-            previewContainer.getPaddingTop() +
-            ", right=" +
-            previewContainer.getPaddingRight() +
-            ", bottom=" +
-            previewContainer.getPaddingBottom()
-          );
-          ViewGroup.LayoutParams params = previewContainer.getLayoutParams();
-          if (params instanceof ViewGroup.MarginLayoutParams) {
-            ViewGroup.MarginLayoutParams marginParams =
-              (ViewGroup.MarginLayoutParams) params;
-            Log.d(
-              "CameraPreview",
-              "PreviewContainer margins: left=" +
-              marginParams.leftMargin +
-              ", top=" +
-              marginParams.topMargin +
-              ", right=" +
-              marginParams.rightMargin +
-              ", bottom=" +
-              marginParams.bottomMargin
-            );
-          }
-        }
+        putResolution(
+          result,
+          "previewResolution",
+          cameraXView.getPreviewResolution()
+        );
+        putResolution(
+          result,
+          "captureResolution",
+          cameraXView.getCaptureResolution()
+        );
+      }
+
+      if (startupTimeline != null) {
+        startupTimeline.mark("resolved");
+        startupTimeline.finish();
+        result.put("timeline", startupTimeline.toJSObject());
+        startupTimeline = null;
       }
-      Log.d("CameraPreview", "========================");
-
-      // Log what we're returning
-      Log.d(
-        "CameraPreview",
-        "Returning to JS - x: " +
-        logicalX +
-        " (from " +
-        logicalX +
-        "), y: " +
-        logicalY +
-        " (from " +
-        logicalY +
-        "), width: " +
-        logicalWidth +
-        " (from " +
-        logicalWidth +
-        "), height: " +
-        logicalHeight +
-        " (from " +
-        logicalHeight +
-        ")"
-      );
 
       call.resolve(result);
       bridge.releaseCall(call);
@@ -1711,16 +1447,43 @@ public class CameraPreview
     }
   }
 
+  // { lowerFrameRate: "moderate", ... } to step thresholds; absent steps keep their defaults
+  private static Map<ThermalMonitor.Step, Integer> parseThermalLadder(
+    JSObject ladder
+  ) {
+    if (ladder == null) return null;
+    Map<ThermalMonitor.Step, Integer> thresholds = new EnumMap<>(
+      ThermalMonitor.Step.class
+    );
+    for (ThermalMonitor.Step step : ThermalMonitor.Step.values()) {
+      if (ladder.has(step.key)) {
+        thresholds.put(
+          step,
+          ThermalMonitor.parseStatus(ladder.getString(step.key))
+        );
+      }
+    }
+    return thresholds;
+  }
+
+  private static void putResolution(JSObject result, String key, Size size) {
+    if (size == null) return;
+    JSObject json = new JSObject();
+    json.put("width", size.getWidth());
+    json.put("height", size.getHeight());
+    result.put(key, json);
+  }
+
   @Override
   public void onSampleTaken(String result) {
     // Handle sample taken if needed
-    Log.i("CameraPreview", "Sample taken: " + result);
+    CameraLog.i(TAG, "Sample taken: {}", result);
   }
 
   @Override
   public void onSampleTakenError(String message) {
     // Handle sample taken error if needed
-    Log.e("CameraPreview", "Sample taken error: " + message);
+    CameraLog.e(TAG, "Sample taken error: " + message);
   }
 
   @Override
@@ -1731,6 +1494,10 @@ public class CameraPreview
       bridge.releaseCall(call);
       cameraStartCallbackId = null;
     }
+    if (startupTimeline != null) {
+      startupTimeline.close();
+      startupTimeline = null;
+    }
   }
 
   @PluginMethod
@@ -1739,6 +1506,10 @@ public class CameraPreview
       call.reject("Camera is not running");
       return;
     }
+    if (cameraXView.isHeadless()) {
+      call.reject("There is no preview in headless mode");
+      return;
+    }
     String aspectRatio = call.getString("aspectRatio", "4:3");
     Float x = call.getFloat("x");
     Float y = call.getFloat("y");
@@ -1795,12 +1566,47 @@ public class CameraPreview
     call.resolve(ret);
   }
 
+  @PluginMethod
+  public void setHorizonLevel(PluginCall call) {
+    if (cameraXView == null || !cameraXView.isRunning()) {
+      call.reject("Camera is not running");
+      return;
+    }
+    Boolean enabled = call.getBoolean("enabled");
+    if (enabled == null) {
+      call.reject("enabled parameter is required");
+      return;
+    }
+    cameraXView.setHorizonLevelEnabled(enabled);
+    call.resolve();
+  }
+
+  @PluginMethod
+  public void setPowerMode(PluginCall call) {
+    if (cameraXView == null || !cameraXView.isRunning()) {
+      call.reject("Camera is not running");
+      return;
+    }
+    String mode = call.getString("mode");
+    if (!"full".equals(mode) && !"adaptive".equals(mode)) {
+      call.reject("mode must be 'full' or 'adaptive'");
+      return;
+    }
+    double idleTimeout = call.getDouble("idleTimeout", 10.0);
+    cameraXView.setPowerMode(mode, (long) (idleTimeout * 1000));
+    call.resolve();
+  }
+
   @PluginMethod
   public void getPreviewSize(PluginCall call) {
     if (cameraXView == null || !cameraXView.isRunning()) {
       call.reject("Camera is not running");
       return;
     }
+    if (cameraXView.isHeadless()) {
+      call.reject("There is no preview in headless mode");
+      return;
+    }
 
     // Convert pixel values back to logical units
     DisplayMetrics metrics = getBridge()
@@ -1816,15 +1622,12 @@ public class CameraPreview
     double width = Math.floor(cameraXView.getPreviewWidth() / pixelRatio);
     double height = Math.floor(cameraXView.getPreviewHeight() / pixelRatio);
 
-    Log.d(
-      "CameraPreview",
-      "getPreviewSize: x=" +
-      x +
-      ", y=" +
-      y +
-      ", width=" +
-      width +
-      ", height=" +
+    CameraLog.d(
+      TAG,
+      "getPreviewSize: x={}, y={}, width={}, height={}",
+      x,
+      y,
+      width,
       height
     );
     ret.put("x", x);
@@ -1840,6 +1643,10 @@ public class CameraPreview
       call.reject("Camera is not running");
       return;
     }
+    if (cameraXView.isHeadless()) {
+      call.reject("There is no preview in headless mode");
+      return;
+    }
 
     // Get values from call - null values will become 0
     Integer xParam = call.getInt("x");
@@ -1891,6 +1698,131 @@ public class CameraPreview
     });
   }
 
+  @PluginMethod
+  public void updateSession(PluginCall call) {
+    if (cameraXView == null || !cameraXView.isRunning()) {
+      call.reject("Camera is not running");
+      return;
+    }
+    JSObject data = call.getData();
+
+    CameraSessionConfiguration current = cameraXView.getSessionConfig();
+    CameraSessionConfiguration.Builder builder = current.toBuilder();
+    if (data.has("deviceId")) {
+      builder.setDeviceId(call.getString("deviceId"));
+    } else if (data.has("position")) {
+      // A position alone selects by facing, like flip
+      builder.setDeviceId(null);
+    }
+    if (data.has("position")) {
+      String positionParam = call.getString("position");
+      boolean front = "front".equals(positionParam);
+      // flip stores the back camera as "rear"; either spelling is the same camera
+      if (front != "front".equals(current.getPosition())) {
+        builder.setPosition(front ? "front" : "back");
+      }
+    }
+
+    // Position and size are logical units, converted like setPreviewSize does
+    float pixelRatio = getBridge()
+      .getActivity()
+      .getResources()
+      .getDisplayMetrics()
+      .density;
+    boolean hasX = data.has("x");
+    boolean hasY = data.has("y");
+    int x = hasX ? (int) (Math.max(0, call.getInt("x", 0)) * pixelRatio) : -1;
+    int y = hasY ? (int) (Math.max(0, call.getInt("y", 0)) * pixelRatio) : -1;
+    if (data.has("width")) {
+      builder.setWidth((int) (Math.max(0, call.getInt("width", 0)) * pixelRatio));
+    }
+    if (data.has("height")) {
+      builder.setHeight(
+        (int) (Math.max(0, call.getInt("height", 0)) * pixelRatio)
+      );
+    }
+
+    if (data.has("paddingBottom")) {
+      builder.setPaddingBottom(call.getInt("paddingBottom", 0));
+    }
+    if (data.has("toBack")) {
+      builder.setToBack(Boolean.TRUE.equals(call.getBoolean("toBack")));
+    }
+    if (data.has("storeToFile")) {
+      builder.setStoreToFile(Boolean.TRUE.equals(call.getBoolean("storeToFile")));
+    }
+    if (data.has("enableOpacity")) {
+      builder.setEnableOpacity(
+        Boolean.TRUE.equals(call.getBoolean("enableOpacity"))
+      );
+    }
+    if (data.has("enableZoom")) {
+      builder.setEnableZoom(Boolean.TRUE.equals(call.getBoolean("enableZoom")));
+    }
+    if (data.has("disableExifHeaderStripping")) {
+      builder.setDisableExifHeaderStripping(
+        Boolean.TRUE.equals(call.getBoolean("disableExifHeaderStripping"))
+      );
+    }
+    if (data.has("disableAudio")) {
+      builder.setDisableAudio(Boolean.TRUE.equals(call.getBoolean("disableAudio")));
+    }
+    if (data.has("initialZoomLevel")) {
+      builder.setZoomFactor(call.getFloat("initialZoomLevel", 1.0f));
+    }
+    if (data.has("aspectRatio")) {
+      builder.setAspectRatio(call.getString("aspectRatio"));
+    }
+    if (data.has("gridMode")) {
+      builder.setGridMode(call.getString("gridMode", "none"));
+    }
+    if (data.has("disableFocusIndicator")) {
+      builder.setDisableFocusIndicator(
+        Boolean.TRUE.equals(call.getBoolean("disableFocusIndicator"))
+      );
+    }
+    if (data.has("enableVideoMode")) {
+      builder.setEnableVideoMode(
+        Boolean.TRUE.equals(call.getBoolean("enableVideoMode"))
+      );
+    }
+    if (data.has("videoQuality")) {
+      builder.setVideoQuality(call.getString("videoQuality"));
+    }
+    getBridge()
+      .getActivity()
+      .runOnUiThread(() -> {
+        // The session stores x and y as layout margins, so compare in that space
+        int[] margins = cameraXView.toPreviewMargins(x, y);
+        if (hasX) {
+          builder.setX(margins[0]);
+        }
+        if (hasY) {
+          builder.setY(margins[1]);
+        }
+        CameraSessionConfiguration next = builder.build();
+
+        Map<String, String> paths;
+        try {
+          paths = cameraXView.planSessionUpdate(next);
+        } catch (Exception e) {
+          call.reject(e.getMessage());
+          return;
+        }
+        cameraXView.updateSession(next, paths, () -> {
+          JSObject changes = new JSObject();
+          for (Map.Entry<String, String> entry : paths.entrySet()) {
+            changes.put(entry.getKey(), entry.getValue());
+          }
+          String path = SessionUpdate.costliest(paths.values());
+          JSObject ret = new JSObject();
+          ret.put("changes", changes);
+          ret.put("path", path != null ? path : "none");
+          call.resolve(ret);
+        });
+      });
+  }
+
   @PluginMethod
   public void deleteFile(PluginCall call) {
     String path = call.getString("path");
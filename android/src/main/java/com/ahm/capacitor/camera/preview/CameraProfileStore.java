@@ -0,0 +1,392 @@
+package com.ahm.capacitor.camera.preview;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.util.Log;
+import android.util.Size;
+import androidx.annotation.Nullable;
+import androidx.camera.video.Quality;
+import com.ahm.capacitor.camera.preview.model.CameraDevice;
+import com.ahm.capacitor.camera.preview.model.LensInfo;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Persisted per-device camera profile.
+ *
+ * Records the device list, supported video qualities and the preview/capture sizes negotiated by
+ * the last successful session for each camera id, so the next process launch can reuse them
+ * instead of enumerating cameras and probing profiles again. The profile is dropped when its
+ * format version, the OS build fingerprint, the camera id list or the camera limiter changes.
+ */
+public final class CameraProfileStore {
+
+  private static final String TAG = "CameraPreview ProfileStore";
+  private static final String PREFS_NAME = "CameraPreviewProfile";
+  private static final String KEY_PROFILE = "profile";
+  static final int VERSION = 1;
+
+  private static CameraProfileStore instance;
+
+  private final SharedPreferences prefs;
+  private JSONObject profile;
+  private String variant;
+
+  public static synchronized CameraProfileStore getInstance(Context context) {
+    if (instance == null) {
+      instance = new CameraProfileStore(context.getApplicationContext());
+    }
+    return instance;
+  }
+
+  private CameraProfileStore(Context context) {
+    prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+  }
+
+  /**
+   * Read the stored profile from disk. Call off the main thread. The variant identifies
+   * configuration that changes what CameraX exposes (the available cameras limiter).
+   */
+  public synchronized void load(@Nullable String variant) {
+    this.variant = variant != null ? variant : "";
+    profile = null;
+    String stored = prefs.getString(KEY_PROFILE, null);
+    if (stored != null) {
+      try {
+        JSONObject json = new JSONObject(stored);
+        if (
+          json.optInt("version") == VERSION &&
+          Build.FINGERPRINT.equals(json.optString("fingerprint")) &&
+          this.variant.equals(json.optString("variant"))
+        ) {
+          profile = json;
+        } else {
+          Log.d(TAG, "load: Stored profile is stale, discarding");
+        }
+      } catch (JSONException e) {
+        Log.w(TAG, "load: Failed to parse stored profile", e);
+      }
+    }
+    if (profile == null) {
+      profile = newProfile();
+    }
+  }
+
+  /**
+   * Devices from the last enumeration, if the camera id list still matches.
+   */
+  @Nullable
+  public synchronized List<CameraDevice> getDevices(Set<String> cameraIds) {
+    if (profile == null || !cameraIds.equals(readIds())) {
+      return null;
+    }
+    JSONArray array = profile.optJSONArray("devices");
+    if (array == null) {
+      return null;
+    }
+    try {
+      List<CameraDevice> devices = new ArrayList<>();
+      for (int i = 0; i < array.length(); i++) {
+        devices.add(deviceFromJson(array.getJSONObject(i)));
+      }
+      return devices;
+    } catch (JSONException e) {
+      Log.w(TAG, "getDevices: Corrupt device list", e);
+      return null;
+    }
+  }
+
+  public synchronized void putDevices(
+    Set<String> cameraIds,
+    List<CameraDevice> devices
+  ) {
+    try {
+      JSONArray array = new JSONArray();
+      for (CameraDevice device : devices) {
+        array.put(deviceToJson(device));
+      }
+      JSONObject current = ensureProfile();
+      // The per-camera data only makes sense for the id set it was recorded with
+      if (!cameraIds.equals(readIds())) {
+        current.put("cameras", new JSONObject());
+        current.put("positions", new JSONObject());
+      }
+      current.put("cameraIds", new JSONArray(new TreeSet<>(cameraIds)));
+      current.put("devices", array);
+      save();
+    } catch (JSONException e) {
+      Log.w(TAG, "putDevices: Failed to store device list", e);
+    }
+  }
+
+  @Nullable
+  public synchronized List<Quality> getSupportedQualities(String cameraId) {
+    JSONObject camera = getCamera(cameraId);
+    JSONArray array = camera != null ? camera.optJSONArray("qualities") : null;
+    if (array == null) {
+      return null;
+    }
+    List<Quality> qualities = new ArrayList<>();
+    for (int i = 0; i < array.length(); i++) {
+      Quality quality = qualityFromString(array.optString(i));
+      if (quality != null) {
+        qualities.add(quality);
+      }
+    }
+    return qualities;
+  }
+
+  public synchronized void putSupportedQualities(
+    String cameraId,
+    List<Quality> qualities
+  ) {
+    try {
+      JSONArray array = new JSONArray();
+      for (Quality quality : qualities) {
+        String name = qualityToString(quality);
+        if (name != null) {
+          array.put(name);
+        }
+      }
+      ensureCamera(cameraId).put("qualities", array);
+      save();
+    } catch (JSONException e) {
+      Log.w(TAG, "putSupportedQualities: Failed to store qualities", e);
+    }
+  }
+
+  /**
+   * Camera id that was bound last time the given position ("rear"/"front") was requested.
+   */
+  @Nullable
+  public synchronized String getCameraIdForPosition(String position) {
+    if (profile == null || position == null) {
+      return null;
+    }
+    JSONObject positions = profile.optJSONObject("positions");
+    return positions != null ? positions.optString(position, null) : null;
+  }
+
+  @Nullable
+  public synchronized Size getPreviewSize(String cameraId, String aspectRatio) {
+    return getSessionSize(cameraId, aspectRatio, "preview");
+  }
+
+  @Nullable
+  public synchronized Size getCaptureSize(String cameraId, String aspectRatio) {
+    return getSessionSize(cameraId, aspectRatio, "capture");
+  }
+
+  /**
+   * Remember the sizes negotiated by a successful bind.
+   */
+  public synchronized void recordSession(
+    String cameraId,
+    @Nullable String position,
+    @Nullable String aspectRatio,
+    @Nullable Size previewSize,
+    @Nullable Size captureSize
+  ) {
+    try {
+      JSONObject session = new JSONObject();
+      if (previewSize != null) {
+        session.put("preview", previewSize.toString());
+      }
+      if (captureSize != null) {
+        session.put("capture", captureSize.toString());
+      }
+      JSONObject camera = ensureCamera(cameraId);
+      JSONObject sessions = camera.optJSONObject("sessions");
+      if (sessions == null) {
+        sessions = new JSONObject();
+        camera.put("sessions", sessions);
+      }
+      String key = aspectRatioKey(aspectRatio);
+      boolean sameSession = session
+        .toString()
+        .equals(String.valueOf(sessions.opt(key)));
+      boolean samePosition =
+        position == null || cameraId.equals(getCameraIdForPosition(position));
+      if (sameSession && samePosition) {
+        return; // Nothing changed, skip the disk write
+      }
+      sessions.put(key, session);
+      if (position != null) {
+        JSONObject positions = ensureProfile().optJSONObject("positions");
+        if (positions == null) {
+          positions = new JSONObject();
+          profile.put("positions", positions);
+        }
+        positions.put(position, cameraId);
+      }
+      save();
+    } catch (JSONException e) {
+      Log.w(TAG, "recordSession: Failed to store session sizes", e);
+    }
+  }
+
+  private Size getSessionSize(String cameraId, String aspectRatio, String kind) {
+    JSONObject camera = getCamera(cameraId);
+    JSONObject sessions = camera != null
+      ? camera.optJSONObject("sessions")
+      : null;
+    JSONObject session = sessions != null
+      ? sessions.optJSONObject(aspectRatioKey(aspectRatio))
+      : null;
+    String value = session != null ? session.optString(kind, null) : null;
+    if (value == null) {
+      return null;
+    }
+    try {
+      return Size.parseSize(value);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static String aspectRatioKey(String aspectRatio) {
+    return aspectRatio != null && !aspectRatio.isEmpty() ? aspectRatio : "none";
+  }
+
+  private JSONObject getCamera(String cameraId) {
+    if (profile == null || cameraId == null) {
+      return null;
+    }
+    JSONObject cameras = profile.optJSONObject("cameras");
+    return cameras != null ? cameras.optJSONObject(cameraId) : null;
+  }
+
+  private JSONObject ensureCamera(String cameraId) throws JSONException {
+    JSONObject current = ensureProfile();
+    JSONObject cameras = current.optJSONObject("cameras");
+    if (cameras == null) {
+      cameras = new JSONObject();
+      current.put("cameras", cameras);
+    }
+    JSONObject camera = cameras.optJSONObject(cameraId);
+    if (camera == null) {
+      camera = new JSONObject();
+      cameras.put(cameraId, camera);
+    }
+    return camera;
+  }
+
+  private JSONObject ensureProfile() {
+    if (profile == null) {
+      profile = newProfile();
+    }
+    return profile;
+  }
+
+  private JSONObject newProfile() {
+    JSONObject json = new JSONObject();
+    try {
+      json.put("version", VERSION);
+      json.put("fingerprint", Build.FINGERPRINT);
+      json.put("variant", variant != null ? variant : "");
+    } catch (JSONException ignored) {}
+    return json;
+  }
+
+  private Set<String> readIds() {
+    JSONArray array = profile != null ? profile.optJSONArray("cameraIds") : null;
+    if (array == null) {
+      return Collections.emptySet();
+    }
+    Set<String> ids = new TreeSet<>();
+    for (int i = 0; i < array.length(); i++) {
+      ids.add(array.optString(i));
+    }
+    return ids;
+  }
+
+  private void save() {
+    // apply() writes asynchronously, so recording never blocks the camera thread on disk
+    prefs.edit().putString(KEY_PROFILE, profile.toString()).apply();
+  }
+
+  private static JSONObject deviceToJson(CameraDevice device)
+    throws JSONException {
+    JSONObject json = new JSONObject();
+    json.put("deviceId", device.getDeviceId());
+    json.put("label", device.getLabel());
+    json.put("position", device.getPosition());
+    json.put("minZoom", device.getMinZoom());
+    json.put("maxZoom", device.getMaxZoom());
+    json.put("isLogical", device.isLogical());
+    JSONArray lenses = new JSONArray();
+    for (LensInfo lens : device.getLenses()) {
+      JSONObject lensJson = new JSONObject();
+      lensJson.put("focalLength", lens.getFocalLength());
+      lensJson.put("deviceType", lens.getDeviceType());
+      lensJson.put("baseZoomRatio", lens.getBaseZoomRatio());
+      lensJson.put("digitalZoom", lens.getDigitalZoom());
+      lenses.put(lensJson);
+    }
+    json.put("lenses", lenses);
+    return json;
+  }
+
+  private static CameraDevice deviceFromJson(JSONObject json)
+    throws JSONException {
+    List<LensInfo> lenses = new ArrayList<>();
+    JSONArray lensArray = json.getJSONArray("lenses");
+    for (int i = 0; i < lensArray.length(); i++) {
+      JSONObject lens = lensArray.getJSONObject(i);
+      lenses.add(
+        new LensInfo(
+          (float) lens.getDouble("focalLength"),
+          lens.getString("deviceType"),
+          (float) lens.getDouble("baseZoomRatio"),
+          (float) lens.getDouble("digitalZoom")
+        )
+      );
+    }
+    return new CameraDevice(
+      json.getString("deviceId"),
+      json.getString("label"),
+      json.getString("position"),
+      lenses,
+      (float) json.getDouble("minZoom"),
+      (float) json.getDouble("maxZoom"),
+      json.getBoolean("isLogical")
+    );
+  }
+
+  private static String qualityToString(Quality quality) {
+    if (Objects.equals(quality, Quality.UHD)) return "uhd";
+    if (Objects.equals(quality, Quality.FHD)) return "fhd";
+    if (Objects.equals(quality, Quality.HD)) return "hd";
+    if (Objects.equals(quality, Quality.SD)) return "sd";
+    if (Objects.equals(quality, Quality.LOWEST)) return "lowest";
+    if (Objects.equals(quality, Quality.HIGHEST)) return "highest";
+    return null;
+  }
+
+  private static Quality qualityFromString(String name) {
+    switch (name) {
+      case "uhd":
+        return Quality.UHD;
+      case "fhd":
+        return Quality.FHD;
+      case "hd":
+        return Quality.HD;
+      case "sd":
+        return Quality.SD;
+      case "lowest":
+        return Quality.LOWEST;
+      case "highest":
+        return Quality.HIGHEST;
+      default:
+        return null;
+    }
+  }
+}
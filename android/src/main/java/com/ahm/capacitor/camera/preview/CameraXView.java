@@ -12,18 +12,16 @@ import android.content.Context;
 import android.content.res.Configuration;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
-import android.graphics.Color;
 import android.graphics.Rect;
-import android.graphics.drawable.GradientDrawable;
-import android.hardware.camera2.CameraAccessException;
-import android.hardware.camera2.CameraCharacteristics;
-import android.hardware.camera2.CameraManager;
 import android.hardware.camera2.CaptureRequest;
 import android.location.Location;
 import android.media.MediaScannerConnection;
 import android.media.CamcorderProfile;
 import android.os.Build;
 import android.os.Environment;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Base64;
 import android.util.DisplayMetrics;
 import android.util.Log;
@@ -34,20 +32,23 @@ import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.WindowManager;
-import android.view.WindowMetrics;
 import android.webkit.WebView;
 import android.widget.FrameLayout;
 import androidx.annotation.NonNull;
 import androidx.annotation.OptIn;
 import androidx.annotation.RequiresApi;
+import androidx.camera.camera2.Camera2Config;
 import androidx.camera.camera2.interop.Camera2CameraControl;
 import androidx.camera.camera2.interop.Camera2CameraInfo;
+import androidx.camera.camera2.interop.Camera2Interop;
 import androidx.camera.camera2.interop.CaptureRequestOptions;
 import androidx.camera.camera2.interop.ExperimentalCamera2Interop;
 import androidx.camera.core.AspectRatio;
 import androidx.camera.core.Camera;
 import androidx.camera.core.CameraInfo;
 import androidx.camera.core.CameraSelector;
+import androidx.camera.core.CameraState;
+import androidx.camera.core.CameraXConfig;
 import androidx.camera.core.ExposureState;
 import androidx.camera.core.FocusMeteringAction;
 import androidx.camera.core.FocusMeteringResult;
@@ -58,12 +59,14 @@ import androidx.camera.core.MeteringPoint;
 import androidx.camera.core.MeteringPointFactory;
 import androidx.camera.core.Preview;
 import androidx.camera.core.ResolutionInfo;
+import androidx.camera.core.SurfaceOrientedMeteringPointFactory;
 import androidx.camera.core.TorchState;
 import androidx.camera.core.UseCase;
 import androidx.camera.core.ZoomState;
 import androidx.camera.core.resolutionselector.AspectRatioStrategy;
 import androidx.camera.core.resolutionselector.ResolutionSelector;
 import androidx.camera.core.resolutionselector.ResolutionStrategy;
+import androidx.camera.lifecycle.ExperimentalCameraProviderConfiguration;
 import androidx.camera.lifecycle.ProcessCameraProvider;
 import androidx.camera.video.FallbackStrategy;
 import androidx.camera.video.FileOutputOptions;
@@ -80,7 +83,11 @@ import androidx.lifecycle.Lifecycle;
 import androidx.lifecycle.LifecycleObserver;
 import androidx.lifecycle.LifecycleOwner;
 import androidx.lifecycle.LifecycleRegistry;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import com.ahm.capacitor.camera.preview.model.CameraCapabilities;
 import com.ahm.capacitor.camera.preview.model.CameraSessionConfiguration;
+import com.ahm.capacitor.camera.preview.model.CameraStateSnapshot;
 import com.ahm.capacitor.camera.preview.model.LensInfo;
 import com.ahm.capacitor.camera.preview.model.ZoomFactors;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -92,14 +99,17 @@ import java.nio.ByteBuffer;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.json.JSONObject;
 
 public class CameraXView implements LifecycleOwner, LifecycleObserver {
@@ -114,6 +124,11 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
     void onCameraStarted(int width, int height, int x, int y);
     void onCameraStartError(String message);
     void onCameraStopped();
+    void onZoomChanged(float zoomRatio);
+    void onTorchChanged(boolean enabled);
+    void onCameraStateChanged(String state, String error);
+    void onThermalStateChanged(String status, float headroom, List<String> steps);
+    void onFirstFrame(String kind, double elapsedMs);
   }
 
   public interface VideoRecordingCallback {
@@ -131,10 +146,9 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
   private VideoRecordingCallback currentVideoCallback;
   private PreviewView previewView;
   private Preview previewUseCase;
-  private GridOverlayView gridOverlayView;
+  private OverlayCompositorView overlayView;
+  private boolean horizonLevelEnabled = false;
   private FrameLayout previewContainer;
-  private View focusIndicatorView;
-  private long focusIndicatorAnimationId = 0; // Incrementing token to invalidate previous animations
   private boolean disableFocusIndicator = false; // Default to false for backward compatibility
   private CameraSelector currentCameraSelector;
   private String currentDeviceId;
@@ -146,34 +160,123 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
   private final LifecycleRegistry lifecycleRegistry;
   private final Executor mainExecutor;
   private ExecutorService cameraExecutor;
-  private boolean isRunning = false;
   private Size currentPreviewResolution = null;
+  // Container bound the current preview stream was selected for, and whether a larger stream is
+  // waiting for the captures in flight to finish
+  private Size previewSelectedForBound = null;
+  private volatile boolean previewGrowPending = false;
+  // An ImageCapture swap that came due while a capture was in flight
+  private volatile boolean imageCaptureSwapPending = false;
+  // Still capture is sized independently of the preview: the configured target, or the
+  // largest size for the aspect ratio when none is set
+  private Size captureTargetSize = null;
+  // Headless sessions bind no Preview and create no views; only stills (and video) are produced
+  private boolean headless = false;
+  private Size currentCaptureResolution = null;
   private ListenableFuture<FocusMeteringResult> currentFocusFuture = null; // Track current focus operation
   private String currentExposureMode = "CONTINUOUS"; // Default behavior
-  private boolean isVideoCaptureInitializing = false;
-  // Capture/stop coordination
-  private final Object captureLock = new Object();
-  private volatile boolean isCapturingPhoto = false;
-  private volatile boolean stopRequested = false;
-  private volatile boolean previewDetachedOnDeferredStop = false;
+  // Whether setExposureMode() was called, i.e. the AE lock keys belong in the Camera2 options
+  private boolean exposureModeSet = false;
+  // Adaptive power mode: drop the AE target frame rate while nobody interacts
+  private static final int IDLE_MAX_FPS = 15;
+  private final PowerModeController powerMode = new PowerModeController(idle -> applyCamera2Options());
+  private String idleFpsRangeCameraId = null;
+  private Range<Integer> idleFpsRange = null;
+  // Thermal degradation ladder; steps are applied on the main thread
+  private static final Size THERMAL_CAPTURE_SIZE = new Size(1920, 1080);
+  private static final String THERMAL_VIDEO_QUALITY = "hd";
+  private volatile ThermalMonitor thermalMonitor = null;
+  private volatile Set<ThermalMonitor.Step> thermalSteps = Collections.emptySet();
+  private String thermalSavedVideoQuality = null;
+  private boolean thermalVideoReduced = false;
+  // Aspect ratio part of the last bind's selectors, for swapping ImageCapture alone
+  private ResolutionSelector baseResolutionSelector = null;
+  // Aspect ratio and preferred size each use case was built with, and the recorder quality, so
+  // a rebind keeps the use cases whose selection did not change
+  private String previewUseCaseKey = null;
+  private String imageCaptureKey = null;
+  private String videoCaptureQuality = null;
+
+  private final AtomicBoolean isVideoCaptureInitializing = new AtomicBoolean(false);
+  // Session lifecycle, including capture/stop coordination
+  private final SessionStateMachine sessionState = new SessionStateMachine();
   private QualitySelector currentVideoQualitySelector = null; // Track the active selector for logging
+  // Use cases currently bound to the lifecycle and the camera they are bound to, so
+  // reconfigurations only unbind/bind what changed
+  private final List<UseCase> boundUseCases = new ArrayList<>();
+  private String boundCameraId = null;
+  private int rebindCount = 0;
+  private long lastRebindNanos = 0;
+  private String lastRebindPath = "none";
+  // Aspect ratio the sensor streams were negotiated for; layout changes that keep it skip rebinding
+  private String boundAspectRatio = null;
+  // Latest zoom/torch/exposure/camera state, maintained by LiveData observers registered once per
+  // bound camera so getters never poll CameraInfo
+  private volatile CameraStateSnapshot stateSnapshot = CameraStateSnapshot.EMPTY;
+  private CameraInfo observedCameraInfo = null;
+  // Pinch-to-zoom and zoom ramps; created on the main thread with the preview view
+  private ZoomController zoomController;
+  // Latest-wins queue for zoom/focus/exposure commands, applied once per frame
+  private final ControlCoalescer controlCoalescer = new ControlCoalescer();
+  private final PreviewGeometry geometry = new PreviewGeometry();
+  // Startup timeline of the session being started; consumed when the start is reported
+  private StartupTimeline startupTimeline = null;
+  // Upper bound on how long a start waits for the first STREAMING frame before resolving anyway
+  private static final long FIRST_FRAME_TIMEOUT_MS = 2000;
+  // Process-wide provider future, started from Plugin.load() and shared by every session and static query
+  private static ListenableFuture<ProcessCameraProvider> sharedCameraProviderFuture;
 
   public boolean isCapturing() {
-    return isCapturingPhoto;
+    return sessionState.getCapturesInFlight() > 0;
   }
 
   public boolean isStopDeferred() {
-    synchronized (captureLock) {
-      return isCapturingPhoto && stopRequested;
-    }
+    return sessionState.getState() == SessionStateMachine.State.STOP_DEFERRED;
+  }
+
+  public boolean isStopping() {
+    return sessionState.isStopping();
+  }
+
+  public boolean isStarting() {
+    return sessionState.getState() == SessionStateMachine.State.STARTING;
   }
 
   public boolean isBusy() {
-    synchronized (captureLock) {
-      return isCapturingPhoto || stopRequested;
+    SessionStateMachine.State state = sessionState.getState();
+    return state != SessionStateMachine.State.IDLE && state != SessionStateMachine.State.RUNNING;
+  }
+
+  public SessionStateMachine.State getSessionState() {
+    return sessionState.getState();
+  }
+
+  /**
+   * Attach the timeline for the next {@link #startSession}. Its steps are marked as they are
+   * reached and the first frame is marked once the preview streams.
+   */
+  public void setStartupTimeline(StartupTimeline timeline) {
+    this.startupTimeline = timeline;
+  }
+
+  public ControlCoalescer getControlCoalescer() {
+    return controlCoalescer;
+  }
+
+  private void markStartup(String name) {
+    StartupTimeline timeline = startupTimeline;
+    if (timeline != null) {
+      timeline.mark(name);
     }
   }
 
+  /**
+   * Run the task once this session has fully torn down (immediately if it is idle).
+   */
+  public void runWhenIdle(Runnable task) {
+    sessionState.runWhenIdle(task);
+  }
+
   public CameraXView(Context context, WebView webView) {
     this.context = context;
     this.webView = webView;
@@ -200,7 +303,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
   }
 
   public boolean isRunning() {
-    return isRunning;
+    return sessionState.isRunning();
   }
 
   public View getPreviewContainer() {
@@ -272,11 +375,18 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
               null
       );
     } catch (IOException e) {
-      Log.e(TAG, "Error saving image to gallery", e);
+      CameraLog.e(TAG, "Error saving image to gallery", e);
     }
   }
 
   public void startSession(CameraSessionConfiguration config) {
+    if (!sessionState.tryStart()) {
+      CameraLog.w(TAG, "startSession: Session is {}, ignoring start", sessionState.getState());
+      if (listener != null) {
+        listener.onCameraStartError("Camera session is already " + sessionState.getState().name().toLowerCase(Locale.US));
+      }
+      return;
+    }
     this.sessionConfig = config;
     cameraExecutor = Executors.newSingleThreadExecutor();
     mainExecutor.execute(() -> {
@@ -285,34 +395,72 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
     });
   }
 
-  public void stopSession() {
-    // If a capture is in progress, defer heavy teardown until it completes.
-    synchronized (captureLock) {
-      if (isCapturingPhoto) {
-        stopRequested = true;
-        // Hide/detach the preview immediately so UI can close, but keep camera running
-        if (!previewDetachedOnDeferredStop) {
-          mainExecutor.execute(() -> {
-            try {
-              if (previewContainer != null) {
-                ViewGroup parent = (ViewGroup) previewContainer.getParent();
-                if (parent != null) {
-                  parent.removeView(previewContainer);
-                }
-              }
-              previewDetachedOnDeferredStop = true;
-            } catch (Exception ignored) {}
-          });
-        }
-        return;
+  /**
+   * Pause into warm standby: the lifecycle drops to CREATED so CameraX closes the camera device,
+   * while the provider, bound use cases, negotiated sizes and the view hierarchy stay in place.
+   * Returns false (and does nothing) unless the session is running and idle.
+   */
+  public boolean enterStandby() {
+    if (!sessionState.enterStandby()) {
+      return false;
+    }
+    mainExecutor.execute(() -> {
+      if (sessionState.getState() == SessionStateMachine.State.STANDBY) {
+        lifecycleRegistry.setCurrentState(Lifecycle.State.CREATED);
+        CameraLog.d(TAG, "enterStandby: Camera closed, use cases kept bound");
       }
+    });
+    return true;
+  }
+
+  /**
+   * Resume from warm standby. Only the camera device has to be reopened; the first frame is
+   * delivered to the existing PreviewView without re-running setup or binding.
+   */
+  public boolean resumeFromStandby() {
+    if (!sessionState.exitStandby()) {
+      return false;
+    }
+    StartupTimeline timeline = StartupTimeline.forResume();
+    mainExecutor.execute(() -> {
+      lifecycleRegistry.setCurrentState(Lifecycle.State.STARTED);
+      CameraLog.d(TAG, "resumeFromStandby: Lifecycle started, reopening camera");
+      observeFirstFrame(timeline, timeline::finish);
+    });
+    return true;
+  }
+
+  public boolean isInStandby() {
+    return sessionState.getState() == SessionStateMachine.State.STANDBY;
+  }
+
+  public void stopSession() {
+    SessionStateMachine.StopAction action = sessionState.requestStop();
+    if (action == SessionStateMachine.StopAction.DEFERRED) {
+      // A capture is in progress: defer heavy teardown until it completes, but hide/detach
+      // the preview immediately so UI can close. The transition happens once, so this runs once.
+      mainExecutor.execute(() -> {
+        try {
+          if (previewContainer != null) {
+            ViewGroup parent = (ViewGroup) previewContainer.getParent();
+            if (parent != null) {
+              parent.removeView(previewContainer);
+            }
+          }
+        } catch (Exception ignored) {}
+      });
+      return;
+    }
+    if (action == SessionStateMachine.StopAction.NONE && sessionState.getState() != SessionStateMachine.State.IDLE) {
+      CameraLog.d(TAG, "stopSession: Stop already in progress ({})", sessionState.getState());
+      return;
     }
 
     performImmediateStop();
   }
 
   private void performImmediateStop() {
-    isRunning = false;
+    stopThermalMonitoring();
     // Cancel any ongoing focus operation when stopping session
     if (currentFocusFuture != null && !currentFocusFuture.isDone()) {
       currentFocusFuture.cancel(true);
@@ -321,50 +469,217 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
 
     mainExecutor.execute(() -> {
       try {
+        if (zoomController != null) {
+          zoomController.detach();
+        }
+        // Destroying the lifecycle removes the state observers
+        observedCameraInfo = null;
+        stateSnapshot = CameraStateSnapshot.EMPTY;
         lifecycleRegistry.setCurrentState(Lifecycle.State.DESTROYED);
         if (cameraProvider != null) {
           cameraProvider.unbindAll();
         }
+        boundUseCases.clear();
+        boundCameraId = null;
+        // The next session builds its own use cases
+        previewUseCaseKey = null;
+        imageCaptureKey = null;
+        videoCaptureQuality = null;
+        previewSelectedForBound = null;
+        previewGrowPending = false;
+        imageCaptureSwapPending = false;
+        powerMode.reset(false);
         lifecycleRegistry.setCurrentState(Lifecycle.State.DESTROYED);
         if (cameraExecutor != null) {
           cameraExecutor.shutdown();
         }
         removePreviewView();
       } catch (Exception e) {
-        Log.w(TAG, "performImmediateStop: error during stop", e);
+        CameraLog.w(TAG, "performImmediateStop: error during stop", e);
       } finally {
-        stopRequested = false;
-        previewDetachedOnDeferredStop = false;
         if (listener != null) {
           try {
             listener.onCameraStopped();
           } catch (Exception ignored) {}
         }
+        // Serve anything queued behind the stop (e.g. a start() issued during teardown)
+        sessionState.stopped();
       }
     });
   }
 
+  /**
+   * Start CameraX provider initialization ahead of the first session. When a limiter position
+   * ("rear"/"front") is given, CameraX only enumerates and initializes cameras of that facing.
+   * Subsequent calls return the same future so the provider is created once per process.
+   */
+  @OptIn(markerClass = ExperimentalCameraProviderConfiguration.class)
+  public static synchronized ListenableFuture<ProcessCameraProvider> prewarmCameraProvider(
+          Context context,
+          String limiterPosition
+  ) {
+    if (sharedCameraProviderFuture != null && !hasProviderFailed(sharedCameraProviderFuture)) {
+      return sharedCameraProviderFuture;
+    }
+
+    if (limiterPosition != null && !limiterPosition.isEmpty()) {
+      int lensFacing = "front".equals(limiterPosition)
+              ? CameraSelector.LENS_FACING_FRONT
+              : CameraSelector.LENS_FACING_BACK;
+      try {
+        ProcessCameraProvider.configureInstance(
+                CameraXConfig.Builder.fromConfig(Camera2Config.defaultConfig())
+                        .setAvailableCamerasLimiter(
+                                new CameraSelector.Builder()
+                                        .requireLensFacing(lensFacing)
+                                        .build()
+                        )
+                        .build()
+        );
+        CameraLog.d(TAG, "prewarmCameraProvider: Limiting available cameras to {}", limiterPosition);
+      } catch (IllegalStateException e) {
+        // CameraX was already configured (e.g. by the host app), keep its configuration
+        CameraLog.w(TAG, "prewarmCameraProvider: CameraX already configured, ignoring limiter", e);
+      }
+    }
+
+    sharedCameraProviderFuture = ProcessCameraProvider.getInstance(
+            context.getApplicationContext()
+    );
+    return sharedCameraProviderFuture;
+  }
+
+  private static ListenableFuture<ProcessCameraProvider> getCameraProviderFuture(
+          Context context
+  ) {
+    return prewarmCameraProvider(context, null);
+  }
+
+  private static boolean hasProviderFailed(
+          ListenableFuture<ProcessCameraProvider> future
+  ) {
+    if (future.isCancelled()) return true;
+    if (!future.isDone()) return false;
+    try {
+      future.get();
+      return false;
+    } catch (Exception e) {
+      return true;
+    }
+  }
+
   private void setupCamera() {
+    if (cameraProvider != null) {
+      // Provider is process-wide; reuse it instead of waiting on another future round-trip
+      markStartup("providerReady");
+      try {
+        attachViews();
+        bindCameraUseCases();
+      } catch (Exception e) {
+        notifyStartError("Error initializing camera: " + e.getMessage());
+      }
+      return;
+    }
+
     ListenableFuture<ProcessCameraProvider> cameraProviderFuture =
-            ProcessCameraProvider.getInstance(context);
+            getCameraProviderFuture(context);
     cameraProviderFuture.addListener(
             () -> {
               try {
                 cameraProvider = cameraProviderFuture.get();
-                setupPreviewView();
+                markStartup("providerReady");
+                attachViews();
                 bindCameraUseCases();
               } catch (Exception e) {
-                if (listener != null) {
-                  listener.onCameraStartError(
-                          "Error initializing camera: " + e.getMessage()
-                  );
-                }
+                notifyStartError("Error initializing camera: " + e.getMessage());
               }
             },
             mainExecutor
     );
   }
 
+  /**
+   * Run headless: the next session binds ImageCapture (and VideoCapture in video mode) only and
+   * attaches nothing to the window. Must be set before startSession().
+   */
+  public void setHeadless(boolean headless) {
+    this.headless = headless;
+  }
+
+  public boolean isHeadless() {
+    return headless;
+  }
+
+  // Display rotation for use case target rotations; headless sessions have no PreviewView to ask
+  @SuppressWarnings("deprecation")
+  private int getDisplayRotation() {
+    if (previewView != null && previewView.getDisplay() != null) {
+      return previewView.getDisplay().getRotation();
+    }
+    WindowManager windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+    if (windowManager != null) {
+      return windowManager.getDefaultDisplay().getRotation();
+    }
+    return android.view.Surface.ROTATION_0;
+  }
+
+  private void attachViews() {
+    if (headless) return;
+    setupPreviewView();
+    markStartup("viewAttached");
+  }
+
+  /**
+   * Watch for the PreviewView to report STREAMING, marking "firstFrame" on the timeline and
+   * recording the time to it in {@link PerformanceMetrics#firstFrame}. onDone runs on the first
+   * frame or after {@link #FIRST_FRAME_TIMEOUT_MS} without one; nothing waits on it. Must be called
+   * on the main thread.
+   */
+  private void observeFirstFrame(StartupTimeline timeline, Runnable then) {
+    // Ends the first frame section when the frame never comes; a no-op after it was marked
+    Runnable onDone = () -> {
+      timeline.endFirstFrameWait();
+      then.run();
+    };
+    if (previewView == null) {
+      onDone.run();
+      return;
+    }
+    LiveData<PreviewView.StreamState> streamState = previewView.getPreviewStreamState();
+    if (streamState.getValue() == PreviewView.StreamState.STREAMING) {
+      recordFirstFrame(timeline);
+      onDone.run();
+      return;
+    }
+    AtomicBoolean done = new AtomicBoolean(false);
+    Observer<PreviewView.StreamState> observer = new Observer<PreviewView.StreamState>() {
+      @Override
+      public void onChanged(PreviewView.StreamState state) {
+        if (state == PreviewView.StreamState.STREAMING && done.compareAndSet(false, true)) {
+          streamState.removeObserver(this);
+          recordFirstFrame(timeline);
+          onDone.run();
+        }
+      }
+    };
+    streamState.observe(this, observer);
+    // Not posted on the view: a view detached by a stop would never run the timeout
+    new Handler(Looper.getMainLooper()).postDelayed(() -> {
+      if (done.compareAndSet(false, true)) {
+        streamState.removeObserver(observer);
+        CameraLog.w(TAG, "observeFirstFrame: No frame after {}ms", FIRST_FRAME_TIMEOUT_MS);
+        onDone.run();
+      }
+    }, FIRST_FRAME_TIMEOUT_MS);
+  }
+
+  private static void recordFirstFrame(StartupTimeline timeline) {
+    timeline.mark("firstFrame");
+    PerformanceMetrics.getInstance().firstFrame.recordMicros(
+            Math.round(timeline.getElapsedMs("firstFrame") * 1000)
+    );
+  }
+
   private void setupPreviewView() {
     if (previewView != null) {
       removePreviewView();
@@ -379,9 +694,6 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
     previewContainer.setClickable(true);
     previewContainer.setFocusable(true);
 
-    // Disable any potential drawing artifacts that might cause 1px offset
-    previewContainer.setLayerType(View.LAYER_TYPE_HARDWARE, null);
-
     // Ensure no clip bounds that might cause visual offset
     previewContainer.setClipChildren(false);
     previewContainer.setClipToPadding(false);
@@ -397,53 +709,66 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
                     ? PreviewView.ScaleType.FIT_CENTER
                     : PreviewView.ScaleType.FILL_CENTER
     );
+    // SurfaceView (PERFORMANCE) is composed by the system without a GPU copy of every frame;
+    // TextureView (COMPATIBLE) is only needed when the preview has to be translucent
+    previewView.setImplementationMode(
+            sessionConfig != null && sessionConfig.getEnableOpacity()
+                    ? PreviewView.ImplementationMode.COMPATIBLE
+                    : PreviewView.ImplementationMode.PERFORMANCE
+    );
     // Also make preview view touchable as backup
     previewView.setClickable(true);
     previewView.setFocusable(true);
 
     // Add touch listener to both container and preview view for maximum compatibility
+    ensureZoomController();
     View.OnTouchListener touchListener = new View.OnTouchListener() {
+      // Whether the current gesture turned into a pinch, in which case lifting doesn't focus
+      private boolean gestureScaled = false;
+
       @Override
       public boolean onTouch(View v, MotionEvent event) {
-        Log.d(
-                TAG,
-                "onTouch: " +
-                        v.getClass().getSimpleName() +
-                        " received touch event: " +
-                        event.getAction() +
-                        " at (" +
-                        event.getX() +
-                        ", " +
-                        event.getY() +
-                        ")"
-        );
-
-        if (event.getAction() == MotionEvent.ACTION_DOWN) {
+        powerMode.onInteraction();
+        int focusAction = MotionEvent.ACTION_DOWN;
+        // Read per event so updateSession can turn pinch zoom on and off
+        CameraSessionConfiguration config = sessionConfig;
+        if (config != null && config.getEnableZoom()) {
+          zoomController.getScaleDetector().onTouchEvent(event);
+          if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            gestureScaled = false;
+          }
+          if (zoomController.isScaling()) {
+            gestureScaled = true;
+          }
+          // Focus when the finger lifts, so the first finger of a pinch doesn't refocus
+          focusAction = MotionEvent.ACTION_UP;
+          if (event.getActionMasked() != MotionEvent.ACTION_UP) {
+            return true;
+          }
+          if (gestureScaled) {
+            return true;
+          }
+        }
+        if (event.getActionMasked() == focusAction) {
           float x = event.getX() / v.getWidth();
           float y = event.getY() / v.getHeight();
 
-          Log.d(
-                  TAG,
-                  "onTouch: Touch detected at raw coords (" +
-                          event.getX() +
-                          ", " +
-                          event.getY() +
-                          "), view size: " +
-                          v.getWidth() +
-                          "x" +
-                          v.getHeight() +
-                          ", normalized: (" +
-                          x +
-                          ", " +
-                          y +
-                          ")"
-          );
+          if (CameraLog.isLoggable(Log.VERBOSE)) {
+            CameraLog.v(
+                    TAG,
+                    "onTouch: Tap at ({}, {}), normalized ({}, {})",
+                    event.getX(),
+                    event.getY(),
+                    x,
+                    y
+            );
+          }
 
           try {
             // Trigger focus with indicator
             setFocus(x, y);
           } catch (Exception e) {
-            Log.e(TAG, "Error during tap-to-focus: " + e.getMessage(), e);
+            CameraLog.e(TAG, "Error during tap-to-focus: " + e.getMessage(), e);
           }
           return true;
         }
@@ -462,24 +787,17 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
             )
     );
 
-    // Create and setup the grid overlay
-    gridOverlayView = new GridOverlayView(context);
-    // Make grid overlay not intercept touch events
-    gridOverlayView.setClickable(false);
-    gridOverlayView.setFocusable(false);
+    // Create the overlay drawing the grid, focus reticle and horizon level
+    overlayView = new OverlayCompositorView(context);
+    overlayView.setLevelEnabled(isHorizonLevelActive());
     previewContainer.addView(
-            gridOverlayView,
+            overlayView,
             new FrameLayout.LayoutParams(
                     FrameLayout.LayoutParams.MATCH_PARENT,
                     FrameLayout.LayoutParams.MATCH_PARENT
             )
     );
-    // Set grid mode after adding to container to ensure proper layout
-    gridOverlayView.post(() -> {
-      String currentGridMode = sessionConfig.getGridMode();
-      Log.d(TAG, "setupPreviewView: Setting grid mode to: " + currentGridMode);
-      gridOverlayView.setGridMode(currentGridMode);
-    });
+    overlayView.setGridMode(sessionConfig.getGridMode());
 
     // Add a layout listener to update grid bounds when preview view changes size
     previewView.addOnLayoutChangeListener(
@@ -490,8 +808,10 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
                               right != oldRight ||
                               bottom != oldBottom
               ) {
-                Log.d(TAG, "PreviewView layout changed, updating grid bounds");
+                CameraLog.d(TAG, "PreviewView layout changed, updating grid bounds");
                 updateGridOverlayBounds();
+                // Rebinding from inside a layout pass would re-enter it
+                previewView.post(this::growPreviewStreamIfNeeded);
               }
             }
     );
@@ -503,45 +823,28 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
       if (sessionConfig.isToBack()) webView.bringToFront();
 
       // Log the actual position after layout
-      previewContainer.post(() -> {
-        Log.d(TAG, "========================");
-        Log.d(TAG, "ACTUAL CAMERA VIEW POSITION (after layout):");
-        Log.d(
-                TAG,
-                "Container position - Left: " +
-                        previewContainer.getLeft() +
-                        ", Top: " +
-                        previewContainer.getTop() +
-                        ", Right: " +
-                        previewContainer.getRight() +
-                        ", Bottom: " +
-                        previewContainer.getBottom()
-        );
-        Log.d(
-                TAG,
-                "Container size - Width: " +
-                        previewContainer.getWidth() +
-                        ", Height: " +
-                        previewContainer.getHeight()
-        );
-
-        // Get parent info
-        ViewGroup containerParent = (ViewGroup) previewContainer.getParent();
-        if (containerParent != null) {
-          Log.d(
-                  TAG,
-                  "Parent class: " + containerParent.getClass().getSimpleName()
-          );
-          Log.d(
+      if (CameraLog.isDebugEnabled()) {
+        previewContainer.post(() -> {
+          ViewGroup containerParent = (ViewGroup) previewContainer.getParent();
+          CameraLog.d(
                   TAG,
-                  "Parent size - Width: " +
-                          containerParent.getWidth() +
-                          ", Height: " +
-                          containerParent.getHeight()
+                  "Preview laid out at ({},{}) size {}x{}",
+                  previewContainer.getLeft(),
+                  previewContainer.getTop(),
+                  previewContainer.getWidth(),
+                  previewContainer.getHeight()
           );
-        }
-        Log.d(TAG, "========================");
-      });
+          if (containerParent != null) {
+            CameraLog.d(
+                    TAG,
+                    "Preview parent {} size {}x{}",
+                    containerParent.getClass().getSimpleName(),
+                    containerParent.getWidth(),
+                    containerParent.getHeight()
+            );
+          }
+        });
+      }
     }
   }
 
@@ -553,166 +856,26 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
     int height = sessionConfig.getHeight();
     String aspectRatio = sessionConfig.getAspectRatio();
 
-    // Get comprehensive display information
-    int screenWidthPx, screenHeightPx;
-    float density;
-
-    // Get density using DisplayMetrics (available on all API levels)
-    WindowManager windowManager = (WindowManager) this.context.getSystemService(
-            Context.WINDOW_SERVICE
-    );
-    DisplayMetrics displayMetrics = new DisplayMetrics();
-    windowManager.getDefaultDisplay().getMetrics(displayMetrics);
-    density = displayMetrics.density;
-
-    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
-      // API 30+ (Android 11+) - use WindowMetrics for screen dimensions
-      WindowMetrics metrics = windowManager.getCurrentWindowMetrics();
-      Rect bounds = metrics.getBounds();
-      screenWidthPx = bounds.width();
-      screenHeightPx = bounds.height();
-    } else {
-      // API < 30 - use legacy DisplayMetrics for screen dimensions
-      screenWidthPx = displayMetrics.widthPixels;
-      screenHeightPx = displayMetrics.heightPixels;
-    }
-
-    int screenWidthDp = (int) (screenWidthPx / density);
-    int screenHeightDp = (int) (screenHeightPx / density);
-
-    // Get WebView dimensions
-    int webViewWidth = webView != null ? webView.getWidth() : 0;
-    int webViewHeight = webView != null ? webView.getHeight() : 0;
-
-    // Get parent dimensions
-    ViewGroup parent = (ViewGroup) webView.getParent();
-    int parentWidth = parent != null ? parent.getWidth() : 0;
-    int parentHeight = parent != null ? parent.getHeight() : 0;
-
-    Log.d(
-            TAG,
-            "======================== CALCULATE PREVIEW LAYOUT PARAMS ========================"
-    );
-    Log.d(
-            TAG,
-            "Screen dimensions - Pixels: " +
-                    screenWidthPx +
-                    "x" +
-                    screenHeightPx +
-                    ", DP: " +
-                    screenWidthDp +
-                    "x" +
-                    screenHeightDp +
-                    ", Density: " +
-                    density
-    );
-    Log.d(TAG, "WebView dimensions: " + webViewWidth + "x" + webViewHeight);
-    Log.d(TAG, "Parent dimensions: " + parentWidth + "x" + parentHeight);
-    Log.d(
-            TAG,
-            "SessionConfig values - x:" +
-                    x +
-                    " y:" +
-                    y +
-                    " width:" +
-                    width +
-                    " height:" +
-                    height +
-                    " aspectRatio:" +
-                    aspectRatio +
-                    " isCentered:" +
-                    sessionConfig.isCentered()
-    );
-
-    // Apply aspect ratio if specified
+    // Centered mode with an aspect ratio takes the largest box that fits the window, like iOS
     if (
             aspectRatio != null &&
                     !aspectRatio.isEmpty() &&
                     sessionConfig.isCentered()
     ) {
-      String[] ratios = aspectRatio.split(":");
-      if (ratios.length == 2) {
-        try {
-          // Match iOS logic exactly
-          double ratioWidth = Double.parseDouble(ratios[0]);
-          double ratioHeight = Double.parseDouble(ratios[1]);
-          boolean isPortrait =
-                  context.getResources().getConfiguration().orientation ==
-                          Configuration.ORIENTATION_PORTRAIT;
-
-          Log.d(
-                  TAG,
-                  "Aspect ratio parsing - Original: " +
-                          aspectRatio +
-                          " (width=" +
-                          ratioWidth +
-                          ", height=" +
-                          ratioHeight +
-                          ")"
-          );
-          Log.d(
-                  TAG,
-                  "Device orientation: " + (isPortrait ? "PORTRAIT" : "LANDSCAPE")
-          );
-
-          // iOS: let ratio = !isPortrait ? ratioParts[0] / ratioParts[1] : ratioParts[1] / ratioParts[0]
-          double ratio = !isPortrait
-                  ? (ratioWidth / ratioHeight)
-                  : (ratioHeight / ratioWidth);
-
-          Log.d(
-                  TAG,
-                  "Computed ratio: " +
-                          ratio +
-                          " (iOS formula: " +
-                          (!isPortrait ? "width/height" : "height/width") +
-                          ")"
-          );
-
-          // For centered mode with aspect ratio, calculate maximum size that fits
-          int availableWidth = screenWidthPx;
-          int availableHeight = screenHeightPx;
-
-          Log.d(
-                  TAG,
-                  "Available space for preview: " +
-                          availableWidth +
-                          "x" +
-                          availableHeight
-          );
-
-          // Calculate maximum size that fits the aspect ratio in available space
-          double maxWidthByHeight = availableHeight * ratio;
-          double maxHeightByWidth = availableWidth / ratio;
-
-          Log.d(
-                  TAG,
-                  "Aspect ratio calculations - maxWidthByHeight: " +
-                          maxWidthByHeight +
-                          ", maxHeightByWidth: " +
-                          maxHeightByWidth
-          );
-
-          if (maxWidthByHeight <= availableWidth) {
-            // Height is the limiting factor
-            width = (int) maxWidthByHeight;
-            height = availableHeight;
-            Log.d(TAG, "Height-limited sizing: " + width + "x" + height);
-          } else {
-            // Width is the limiting factor
-            width = availableWidth;
-            height = (int) maxHeightByWidth;
-            Log.d(TAG, "Width-limited sizing: " + width + "x" + height);
-          }
-
-          // Center the preview
-          x = (availableWidth - width) / 2;
-          y = (availableHeight - height) / 2;
-
-          Log.d(TAG, "Auto-centered position: x=" + x + ", y=" + y);
-        } catch (NumberFormatException e) {
-          Log.e(TAG, "Invalid aspect ratio format: " + aspectRatio, e);
-        }
+      double ratio = PreviewGeometry.displayRatio(aspectRatio, isPortrait());
+      if (Double.isNaN(ratio)) {
+        CameraLog.e(TAG, "Invalid aspect ratio format: " + aspectRatio);
+      } else {
+        int[] window = getWindowSizePx();
+        PreviewGeometry.Box box = geometry.getCenteredLayout(
+                window[0],
+                window[1],
+                ratio
+        );
+        x = box.left;
+        y = box.top;
+        width = box.width;
+        height = box.height;
       }
     }
 
@@ -726,25 +889,39 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
     layoutParams.leftMargin = x;
     layoutParams.topMargin = y;
 
-    Log.d(
-            TAG,
-            "Final layout params - Margins: left=" +
-                    layoutParams.leftMargin +
-                    ", top=" +
-                    layoutParams.topMargin +
-                    ", Size: " +
-                    width +
-                    "x" +
-                    height
-    );
-    Log.d(
+    CameraLog.d(
             TAG,
-            "================================================================================"
+            "calculatePreviewLayoutParams: {}x{} at {} for aspectRatio {}",
+            width,
+            height,
+            x + "," + y,
+            aspectRatio
     );
 
     return layoutParams;
   }
 
+  private boolean isPortrait() {
+    return (
+            context.getResources().getConfiguration().orientation ==
+                    Configuration.ORIENTATION_PORTRAIT
+    );
+  }
+
+  // Window size in pixels: WindowMetrics on API 30+, legacy DisplayMetrics before
+  private int[] getWindowSizePx() {
+    WindowManager windowManager = (WindowManager) this.context.getSystemService(
+            Context.WINDOW_SERVICE
+    );
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+      Rect bounds = windowManager.getCurrentWindowMetrics().getBounds();
+      return new int[] { bounds.width(), bounds.height() };
+    }
+    DisplayMetrics displayMetrics = new DisplayMetrics();
+    windowManager.getDefaultDisplay().getMetrics(displayMetrics);
+    return new int[] { displayMetrics.widthPixels, displayMetrics.heightPixels };
+  }
+
   private void removePreviewView() {
     if (previewContainer != null) {
       ViewGroup parent = (ViewGroup) previewContainer.getParent();
@@ -756,13 +933,12 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
     if (previewView != null) {
       previewView = null;
     }
-    if (gridOverlayView != null) {
-      gridOverlayView = null;
+    if (overlayView != null) {
+      overlayView = null;
     }
-    if (focusIndicatorView != null) {
-      focusIndicatorView = null;
+    if (!headless) {
+      webView.setBackgroundColor(android.graphics.Color.WHITE);
     }
-    webView.setBackgroundColor(android.graphics.Color.WHITE);
   }
 
   // Helper: map our string quality to CameraX QualitySelector with graceful fallbacks
@@ -815,30 +991,10 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
     if (sessionConfig == null) return;
 
     // Recreate sessionConfig preserving everything but quality
-    sessionConfig = new com.ahm.capacitor.camera.preview.model.CameraSessionConfiguration(
-            sessionConfig.getDeviceId(),
-            sessionConfig.getPosition(),
-            sessionConfig.getX(),
-            sessionConfig.getY(),
-            sessionConfig.getWidth(),
-            sessionConfig.getHeight(),
-            sessionConfig.getPaddingBottom(),
-            sessionConfig.getToBack(),
-            sessionConfig.getStoreToFile(),
-            sessionConfig.getEnableOpacity(),
-            sessionConfig.getEnableZoom(),
-            sessionConfig.getDisableExifHeaderStripping(),
-            sessionConfig.getDisableAudio(),
-            sessionConfig.getZoomFactor(),
-            sessionConfig.getAspectRatio(),
-            sessionConfig.getGridMode(),
-            sessionConfig.getDisableFocusIndicator(),
-            sessionConfig.isVideoModeEnabled(),
-            newQuality
-    );
+    sessionConfig = sessionConfig.toBuilder().setVideoQuality(newQuality).build();
 
     // If we're already bound with videoCapture, rebind with the updated quality
-    if (isRunning && videoCapture != null && cameraProvider != null && previewView != null && currentRecording == null) {
+    if (isRunning() && videoCapture != null && cameraProvider != null && (previewView != null || headless) && currentRecording == null) {
       try {
         QualitySelector qualitySelector = buildQualitySelector(newQuality);
         Recorder recorder = new Recorder.Builder()
@@ -846,21 +1002,25 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
                 .build();
         VideoCapture<Recorder> newVideoCapture = VideoCapture.withOutput(recorder);
 
-        // Rebind use cases with the new video capture
-        Preview preview = previewUseCase != null ? previewUseCase : new Preview.Builder().build();
-        cameraProvider.unbindAll();
-        preview.setSurfaceProvider(previewView.getSurfaceProvider());
+        // Swap only the VideoCapture; preview and image capture stay bound
+        Preview preview = previewUseCase;
+        if (preview == null && !headless) {
+          preview = new Preview.Builder().build();
+          preview.setSurfaceProvider(previewView.getSurfaceProvider());
+        }
         if (imageCapture == null) {
           imageCapture = new ImageCapture.Builder().build();
+          imageCaptureKey = null;
         }
-        camera = cameraProvider.bindToLifecycle(this, currentCameraSelector, preview, imageCapture, newVideoCapture);
+        bindUseCases(currentCameraSelector, preview, imageCapture, newVideoCapture);
         videoCapture = newVideoCapture;
+        videoCaptureQuality = newQuality;
         currentVideoQualitySelector = qualitySelector;
         Quality resolved = null;
         resolved = resolveQualityForCamera(currentVideoQualitySelector, camera);
-        Log.i(TAG, "updateVideoQuality: requested='" + newQuality + "' resolved='" + qualityToString(resolved) + "'");
+        CameraLog.i(TAG, "updateVideoQuality: requested='{}' resolved='{}'", newQuality, qualityToString(resolved));
       } catch (Exception e) {
-        Log.w(TAG, "updateVideoQuality: Failed to rebind with new quality: " + e.getMessage());
+        CameraLog.w(TAG, "updateVideoQuality: Failed to rebind with new quality: {}", e.getMessage());
       }
     }
   }
@@ -886,9 +1046,14 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
     }
   }
 
-  private static List<Quality> getDeviceSupportedQualities(Camera cam) {
-    List<Quality> supported = new ArrayList<>();
+  private List<Quality> getDeviceSupportedQualities(Camera cam) {
     String camIdStr = Camera2CameraInfo.from(cam.getCameraInfo()).getCameraId();
+    CameraProfileStore profileStore = CameraProfileStore.getInstance(context);
+    List<Quality> stored = profileStore.getSupportedQualities(camIdStr);
+    if (stored != null) {
+      return stored;
+    }
+    List<Quality> supported = new ArrayList<>();
     int camId = -1;
     try {
       camId = Integer.parseInt(camIdStr);
@@ -904,241 +1069,451 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
       supported.add(Quality.SD);
     if ((camId >= 0) ? CamcorderProfile.hasProfile(camId, CamcorderProfile.QUALITY_QVGA) : CamcorderProfile.hasProfile(CamcorderProfile.QUALITY_QVGA))
       supported.add(Quality.LOWEST);
+    profileStore.putSupportedQualities(camIdStr, supported);
     return supported;
   }
 
   // Resolve a Quality from a QualitySelector for the given Camera by checking device support
-  private static Quality resolveQualityForCamera(QualitySelector selector, Camera cam) {
+  private Quality resolveQualityForCamera(QualitySelector selector, Camera cam) {
     try {
       if (selector == null || cam == null) return null;
+      // Prioritized list is already filtered down to the qualities the device supports
       List<Quality> priorities = selector.getPrioritizedQualities(getDeviceSupportedQualities(cam));
-      String camIdStr = Camera2CameraInfo.from(cam.getCameraInfo()).getCameraId();
-      int camId = -1;
-      try { camId = Integer.parseInt(camIdStr); } catch (Exception ignored) {}
-      for (Quality q : priorities) {
-        int profile = CamcorderProfile.QUALITY_720P;
-        if (q == UHD) profile = CamcorderProfile.QUALITY_2160P;
-        else if (q == FHD) profile = CamcorderProfile.QUALITY_1080P;
-        else if (q == HD) profile = CamcorderProfile.QUALITY_720P;
-        else if (q == SD) profile = CamcorderProfile.QUALITY_480P;
-        else if (q == LOWEST) profile = CamcorderProfile.QUALITY_QVGA;
-        boolean has = (camId >= 0) ? CamcorderProfile.hasProfile(camId, profile) : CamcorderProfile.hasProfile(profile);
-        if (has) return q;
-      }
+      if (!priorities.isEmpty()) return priorities.get(0);
     } catch (Throwable t) {
       // Safety: fall through and return null
     }
     return null;
   }
 
+  /**
+   * Reconcile the bound use cases with the desired set (null entries are skipped). When the
+   * selector resolves to the camera that is already bound, only the use cases that changed are
+   * unbound/bound and the camera stays open; otherwise everything is unbound first.
+   * Must be called on the main thread.
+   */
   @OptIn(markerClass = ExperimentalCamera2Interop.class)
-  private void bindCameraUseCases() {
-    if (cameraProvider == null) return;
-    mainExecutor.execute(() -> {
-      try {
-        Log.d(
-                TAG,
-                "Building camera selector with deviceId: " +
-                        sessionConfig.getDeviceId() +
-                        " and position: " +
-                        sessionConfig.getPosition()
-        );
-        currentCameraSelector = buildCameraSelector();
-
-        ResolutionSelector.Builder resolutionSelectorBuilder =
-                new ResolutionSelector.Builder()
-                        .setResolutionStrategy(
-                                ResolutionStrategy.HIGHEST_AVAILABLE_STRATEGY
-                        );
+  private Camera bindUseCases(CameraSelector selector, UseCase... desired) {
+    long startNanos = SystemClock.elapsedRealtimeNanos();
+    List<UseCase> target = new ArrayList<>();
+    for (UseCase useCase : desired) {
+      if (useCase != null) target.add(useCase);
+    }
 
-        if (sessionConfig.getAspectRatio() != null) {
-          int aspectRatio;
-          if ("16:9".equals(sessionConfig.getAspectRatio())) {
-            aspectRatio = AspectRatio.RATIO_16_9;
-          } else { // "4:3"
-            aspectRatio = AspectRatio.RATIO_4_3;
-          }
-          resolutionSelectorBuilder.setAspectRatioStrategy(
-                  new AspectRatioStrategy(
-                          aspectRatio,
-                          AspectRatioStrategy.FALLBACK_RULE_AUTO
-                  )
-          );
-        }
+    String targetCameraId = getSelectedCameraId(selector);
 
-        ResolutionSelector resolutionSelector =
-                resolutionSelectorBuilder.build();
+    String path;
+    if (camera == null || targetCameraId == null || !targetCameraId.equals(boundCameraId)) {
+      cameraProvider.unbindAll();
+      boundUseCases.clear();
+      path = "full";
+    } else {
+      List<UseCase> stale = new ArrayList<>(boundUseCases);
+      stale.removeAll(target);
+      if (stale.isEmpty() && target.equals(boundUseCases)) {
+        return camera;
+      }
+      if (!stale.isEmpty()) {
+        cameraProvider.unbind(stale.toArray(new UseCase[0]));
+      }
+      path = "diff (-" + stale.size() + ")";
+    }
 
-        int rotation = previewView != null && previewView.getDisplay() != null
-                ? previewView.getDisplay().getRotation()
-                : android.view.Surface.ROTATION_0;
+    // Use cases that are already bound to this lifecycle are left untouched by bindToLifecycle
+    camera = cameraProvider.bindToLifecycle(this, selector, target.toArray(new UseCase[0]));
+    boundUseCases.clear();
+    boundUseCases.addAll(target);
+    boundCameraId = Camera2CameraInfo.from(camera.getCameraInfo()).getCameraId();
+
+    lastRebindNanos = SystemClock.elapsedRealtimeNanos() - startNanos;
+    lastRebindPath = path;
+    rebindCount++;
+    PerformanceMetrics.getInstance().bind.recordNanos(lastRebindNanos);
+    PerformanceMetrics.getInstance().rebinds.incrementAndGet();
+    CameraLog.i(
+            TAG,
+            "bindUseCases: {} rebind of {} use cases on camera {} took {} ms",
+            path,
+            target.size(),
+            boundCameraId,
+            lastRebindNanos / 1_000_000.0
+    );
+    return camera;
+  }
 
-        Preview preview = new Preview.Builder()
-                .setResolutionSelector(resolutionSelector)
-                .setTargetRotation(rotation)
-                .build();
-        // Keep reference to preview use case for later re-binding (e.g., when enabling video)
-        previewUseCase = preview;
-        imageCapture = new ImageCapture.Builder()
-                .setResolutionSelector(resolutionSelector)
-                .setCaptureMode(ImageCapture.CAPTURE_MODE_MINIMIZE_LATENCY)
-                .setFlashMode(currentFlashMode)
-                .setTargetRotation(rotation)
-                .build();
-        sampleImageCapture = imageCapture;
+  // Camera2 id of the camera the selector resolves to, or null if none matches
+  @OptIn(markerClass = ExperimentalCamera2Interop.class)
+  private String getSelectedCameraId(CameraSelector selector) {
+    List<CameraInfo> matches = selector.filter(cameraProvider.getAvailableCameraInfos());
+    return matches.isEmpty() ? null : Camera2CameraInfo.from(matches.get(0)).getCameraId();
+  }
 
-        // Only setup VideoCapture if enableVideoMode is true
-        if (sessionConfig.isVideoModeEnabled()) {
-          QualitySelector qualitySelector = buildQualitySelector(sessionConfig.getVideoQuality());
-          Recorder recorder = new Recorder.Builder()
-                  .setQualitySelector(qualitySelector)
-                  .build();
-          videoCapture = VideoCapture.withOutput(recorder);
-          currentVideoQualitySelector = qualitySelector;
-        }
+  public int getRebindCount() {
+    return rebindCount;
+  }
 
-        // Unbind any existing use cases and bind new ones
-        cameraProvider.unbindAll();
+  public double getLastRebindMillis() {
+    return lastRebindNanos / 1_000_000.0;
+  }
 
-        // Re-set the surface provider after unbinding to ensure the preview
-        // is connected and video frames are captured correctly
-        preview.setSurfaceProvider(previewView.getSurfaceProvider());
+  public String getLastRebindPath() {
+    return lastRebindPath;
+  }
 
-        // Bind with or without video capture based on enableVideoMode
-        if (sessionConfig.isVideoModeEnabled() && videoCapture != null) {
-          camera = cameraProvider.bindToLifecycle(
-                  this,
-                  currentCameraSelector,
-                  preview,
-                  imageCapture,
-                  videoCapture
-          );
-        } else {
-          camera = cameraProvider.bindToLifecycle(
-                  this,
-                  currentCameraSelector,
-                  preview,
-                  imageCapture
+  // Match iOS behavior: FIT when no aspect ratio, FILL when aspect ratio is set
+  private void applyPreviewScaleType() {
+    if (previewView == null) return;
+    String ar = sessionConfig != null ? sessionConfig.getAspectRatio() : null;
+    previewView.setScaleType(
+            (ar == null || ar.isEmpty())
+                    ? PreviewView.ScaleType.FIT_CENTER
+                    : PreviewView.ScaleType.FILL_CENTER
+    );
+  }
+
+  // Prefer a known-good size while keeping the aspect ratio strategy of the base selector
+  private static ResolutionSelector withPreferredSize(
+          ResolutionSelector base,
+          Size preferredSize
+  ) {
+    if (preferredSize == null) return base;
+    return ResolutionSelector.Builder.fromResolutionSelector(base)
+            .setResolutionStrategy(
+                    new ResolutionStrategy(
+                            preferredSize,
+                            ResolutionStrategy.FALLBACK_RULE_CLOSEST_HIGHER_THEN_LOWER
+                    )
+            )
+            .build();
+  }
+
+  private static String useCaseKey(String aspectRatio, Size preferredSize) {
+    return aspectRatio + "|" + preferredSize;
+  }
+
+  /**
+   * Pixel size the preview stream should cover: the container, capped by the window, expressed
+   * in sensor orientation (long side first). Null when nothing is laid out yet.
+   */
+  private Size getPreviewBoundPx() {
+    int[] window = getWindowSizePx();
+    int width = previewContainer != null ? previewContainer.getWidth() : 0;
+    int height = previewContainer != null ? previewContainer.getHeight() : 0;
+    if ((width <= 0 || height <= 0) && sessionConfig != null) {
+      width = sessionConfig.getWidth();
+      height = sessionConfig.getHeight();
+    }
+    if (width <= 0 || height <= 0) {
+      width = window[0];
+      height = window[1];
+    }
+    if (width <= 0 || height <= 0) return null;
+    int windowLong = Math.max(window[0], window[1]);
+    int windowShort = Math.min(window[0], window[1]);
+    int longSide = Math.max(width, height);
+    int shortSide = Math.min(width, height);
+    if (windowLong > 0 && windowShort > 0) {
+      longSide = Math.min(longSide, windowLong);
+      shortSide = Math.min(shortSide, windowShort);
+    }
+    return new Size(longSide, shortSide);
+  }
+
+  // A stored preview size is reused only while it still covers the container without being
+  // more than twice its size, the range a closest-higher lookup for the bound would land in
+  private static boolean fitsPreviewBound(Size size, Size bound) {
+    if (bound == null) return true;
+    int longSide = Math.max(size.getWidth(), size.getHeight());
+    int shortSide = Math.min(size.getWidth(), size.getHeight());
+    return longSide >= bound.getWidth()
+            && shortSide >= bound.getHeight()
+            && longSide <= bound.getWidth() * 2;
+  }
+
+  /**
+   * Sets the still capture size used by the next bind. It is snapped to the fastest JPEG size
+   * covering it, then CameraX picks the closest supported size for the session aspect ratio; null
+   * captures at the largest available size.
+   */
+  public void setCaptureTargetSize(Size size) {
+    if (size == null) {
+      captureTargetSize = null;
+      return;
+    }
+    captureTargetSize = new Size(
+            Math.max(size.getWidth(), size.getHeight()),
+            Math.min(size.getWidth(), size.getHeight())
+    );
+  }
+
+  private Preview buildPreview(ResolutionSelector selector, int rotation) {
+    Preview.Builder previewBuilder = new Preview.Builder()
+            .setResolutionSelector(selector)
+            .setTargetRotation(rotation);
+    // Count delivered and dropped preview frames for getPerformanceStats()
+    new Camera2Interop.Extender<>(previewBuilder)
+            .setSessionCaptureCallback(PerformanceMetrics.getInstance().frameCallback);
+    Preview preview = previewBuilder.build();
+    // Connect the new preview before binding so the first frames reach the PreviewView
+    preview.setSurfaceProvider(previewView.getSurfaceProvider());
+    return preview;
+  }
+
+  private ImageCapture buildImageCapture(ResolutionSelector selector, int rotation) {
+    return new ImageCapture.Builder()
+            .setResolutionSelector(selector)
+            .setCaptureMode(ImageCapture.CAPTURE_MODE_MINIMIZE_LATENCY)
+            .setFlashMode(currentFlashMode)
+            .setTargetRotation(rotation)
+            .build();
+  }
+
+  // The configured capture target, capped while the thermal ladder lowers capture resolution.
+  // It is snapped to the JPEG size covering it that the camera outputs the fastest, so CameraX
+  // doesn't settle on a larger, slower size of the same aspect ratio.
+  private Size getEffectiveCaptureTargetSize(String cameraId) {
+    Size target = captureTargetSize;
+    if (thermalSteps.contains(ThermalMonitor.Step.LOWER_CAPTURE_RESOLUTION)
+            && (target == null
+            || (long) target.getWidth() * target.getHeight()
+            > (long) THERMAL_CAPTURE_SIZE.getWidth() * THERMAL_CAPTURE_SIZE.getHeight())) {
+      target = THERMAL_CAPTURE_SIZE;
+    }
+    if (target == null || cameraId == null) return target;
+    CameraCapabilities capabilities = CameraCapabilityCache.getInstance(context).get(cameraId);
+    Size fastest = capabilities != null
+            ? capabilities.getFastestJpegSizeAtLeast(target.getWidth(), target.getHeight())
+            : null;
+    return fastest != null ? fastest : target;
+  }
+
+  /** Resolution of the bound preview stream, null before the first bind. */
+  public Size getPreviewResolution() {
+    return currentPreviewResolution;
+  }
+
+  /** Resolution of the bound still capture use case, null before the first bind. */
+  public Size getCaptureResolution() {
+    return currentCaptureResolution;
+  }
+
+  /**
+   * Debug dump of the camera and resolutions a bind landed on. Callers gate it on the log level.
+   */
+  @OptIn(markerClass = ExperimentalCamera2Interop.class)
+  private void logBoundCamera(
+          CameraInfo cameraInfo,
+          ZoomState zoomState,
+          ResolutionInfo imageCaptureResolution
+  ) {
+    CameraLog.d(TAG, "Bound camera {}", Camera2CameraInfo.from(cameraInfo).getCameraId());
+    if (zoomState != null) {
+      CameraLog.d(
+              TAG,
+              "Active zoom state: min={}, max={}, current={}",
+              zoomState.getMinZoomRatio(),
+              zoomState.getMaxZoomRatio(),
+              zoomState.getZoomRatio()
+      );
+    }
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+      for (CameraInfo physical : cameraInfo.getPhysicalCameraInfos()) {
+        CameraLog.d(TAG, "  - Physical camera ID: {}", Camera2CameraInfo.from(physical).getCameraId());
+      }
+    }
+    if (currentPreviewResolution != null) {
+      double actualRatio =
+              (double) currentPreviewResolution.getWidth() /
+                      (double) currentPreviewResolution.getHeight();
+      double expectedRatio = "16:9".equals(sessionConfig.getAspectRatio())
+              ? 16.0 / 9.0
+              : 4.0 / 3.0;
+      CameraLog.d(
+              TAG,
+              "Preview resolution: {} (ratio {}, requested {}, difference {})",
+              currentPreviewResolution,
+              actualRatio,
+              sessionConfig.getAspectRatio(),
+              Math.abs(actualRatio - expectedRatio)
+      );
+    }
+    if (imageCaptureResolution != null) {
+      CameraLog.d(TAG, "Image capture resolution: {}", imageCaptureResolution.getResolution());
+    }
+  }
+
+  @OptIn(markerClass = ExperimentalCamera2Interop.class)
+  private void bindCameraUseCases() {
+    if (cameraProvider == null) return;
+    mainExecutor.execute(() -> {
+      try {
+        CameraLog.d(
+                TAG,
+                "Building camera selector with deviceId: {} and position: {}",
+                sessionConfig.getDeviceId(),
+                sessionConfig.getPosition()
+        );
+        currentCameraSelector = buildCameraSelector();
+
+        ResolutionSelector.Builder resolutionSelectorBuilder =
+                new ResolutionSelector.Builder()
+                        .setResolutionStrategy(
+                                ResolutionStrategy.HIGHEST_AVAILABLE_STRATEGY
+                        );
+
+        if (sessionConfig.getAspectRatio() != null) {
+          int aspectRatio;
+          if ("16:9".equals(sessionConfig.getAspectRatio())) {
+            aspectRatio = AspectRatio.RATIO_16_9;
+          } else { // "4:3"
+            aspectRatio = AspectRatio.RATIO_4_3;
+          }
+          resolutionSelectorBuilder.setAspectRatioStrategy(
+                  new AspectRatioStrategy(
+                          aspectRatio,
+                          AspectRatioStrategy.FALLBACK_RULE_AUTO
+                  )
           );
         }
 
-        // Log details about the active camera
-        Log.d(TAG, "Use cases bound. Inspecting active camera and use cases.");
-        CameraInfo cameraInfo = camera.getCameraInfo();
-        Log.d(
-                TAG,
-                "Bound Camera ID: " + Camera2CameraInfo.from(cameraInfo).getCameraId()
+        ResolutionSelector resolutionSelector =
+                resolutionSelectorBuilder.build();
+        // The preview only needs as many pixels as the container shows; capture keeps its own
+        // policy so a full-sensor still does not force a full-sensor preview stream
+        Size previewBound = getPreviewBoundPx();
+        ResolutionSelector previewSelector = withPreferredSize(resolutionSelector, previewBound);
+        baseResolutionSelector = resolutionSelector;
+        Size captureTarget = getEffectiveCaptureTargetSize(getSelectedCameraId(currentCameraSelector));
+
+        // Reuse the sizes negotiated for this camera by the last successful session, so the
+        // layout is right from the first frame and CameraX lands on the same configuration
+        CameraProfileStore profileStore = CameraProfileStore.getInstance(context);
+        String profileCameraId = sessionConfig.getDeviceId() != null
+                ? sessionConfig.getDeviceId()
+                : profileStore.getCameraIdForPosition(sessionConfig.getPosition());
+        Size storedPreviewSize = profileStore.getPreviewSize(
+                profileCameraId,
+                sessionConfig.getAspectRatio()
+        );
+        Size storedCaptureSize = profileStore.getCaptureSize(
+                profileCameraId,
+                sessionConfig.getAspectRatio()
         );
+        if (storedPreviewSize != null && !fitsPreviewBound(storedPreviewSize, previewBound)) {
+          // Recorded under a different container size or sizing policy
+          storedPreviewSize = null;
+        }
+        if (captureTarget != null) {
+          storedCaptureSize = null;
+        }
+        if (storedPreviewSize != null) {
+          currentPreviewResolution = storedPreviewSize;
+          CameraLog.d(TAG, "Using stored preview size {} for camera {}", storedPreviewSize, profileCameraId);
+        }
 
-        // Log zoom state
-        ZoomState zoomState = cameraInfo.getZoomState().getValue();
-        if (zoomState != null) {
-          Log.d(
-                  TAG,
-                  "Active Zoom State: " +
-                          "min=" +
-                          zoomState.getMinZoomRatio() +
-                          ", " +
-                          "max=" +
-                          zoomState.getMaxZoomRatio() +
-                          ", " +
-                          "current=" +
-                          zoomState.getZoomRatio()
+        int rotation = getDisplayRotation();
+
+        // Use cases whose selection is unchanged are kept, so bindUseCases only swaps the
+        // ones that differ; a kept use case just takes the current rotation
+        String aspectRatio = sessionConfig.getAspectRatio();
+        Preview preview = null;
+        if (!headless) {
+          String previewKey = useCaseKey(
+                  aspectRatio,
+                  storedPreviewSize != null ? storedPreviewSize : previewBound
           );
+          if (previewUseCase != null && previewKey.equals(previewUseCaseKey)) {
+            preview = previewUseCase;
+            preview.setTargetRotation(rotation);
+          } else {
+            preview = buildPreview(withPreferredSize(previewSelector, storedPreviewSize), rotation);
+            previewSelectedForBound = previewBound;
+          }
+          previewUseCaseKey = previewKey;
         }
+        // Keep reference to preview use case for later re-binding (e.g., when enabling video)
+        previewUseCase = preview;
 
-        // Log physical cameras of the active camera
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
-          Set<CameraInfo> physicalCameras = cameraInfo.getPhysicalCameraInfos();
-          Log.d(
-                  TAG,
-                  "Active camera has " + physicalCameras.size() + " physical cameras."
+        Size capturePreferred = captureTarget != null ? captureTarget : storedCaptureSize;
+        String captureKey = useCaseKey(aspectRatio, capturePreferred);
+        if (imageCapture != null && captureKey.equals(imageCaptureKey)) {
+          imageCapture.setTargetRotation(rotation);
+        } else {
+          imageCapture = buildImageCapture(
+                  withPreferredSize(resolutionSelector, capturePreferred),
+                  rotation
           );
-          for (CameraInfo physical : physicalCameras) {
-            Log.d(
-                    TAG,
-                    "  - Physical camera ID: " +
-                            Camera2CameraInfo.from(physical).getCameraId()
-            );
+          imageCaptureKey = captureKey;
+        }
+        sampleImageCapture = imageCapture;
+
+        // Only setup VideoCapture if enableVideoMode is true
+        if (sessionConfig.isVideoModeEnabled()) {
+          String quality = sessionConfig.getVideoQuality();
+          if (videoCapture != null && Objects.equals(quality, videoCaptureQuality)) {
+            videoCapture.setTargetRotation(rotation);
+          } else {
+            QualitySelector qualitySelector = buildQualitySelector(quality);
+            Recorder recorder = new Recorder.Builder()
+                    .setQualitySelector(qualitySelector)
+                    .build();
+            videoCapture = VideoCapture.withOutput(recorder);
+            videoCaptureQuality = quality;
+            currentVideoQualitySelector = qualitySelector;
           }
         }
 
-        // Log resolution info
-        ResolutionInfo previewResolution = preview.getResolutionInfo();
+        // Bind with or without video capture based on enableVideoMode
+        bindUseCases(
+                currentCameraSelector,
+                preview,
+                imageCapture,
+                sessionConfig.isVideoModeEnabled() ? videoCapture : null
+        );
+        markStartup("bindComplete");
+        observeCameraInfo(camera.getCameraInfo());
+        ensureZoomController();
+        zoomController.attach(camera);
+        // Back to the full rate after a bind; the exposure lock, if any, is written again
+        powerMode.reset(true);
+        applyCamera2Options();
+
+        CameraInfo cameraInfo = camera.getCameraInfo();
+        ZoomState zoomState = cameraInfo.getZoomState().getValue();
+        ResolutionInfo previewResolution = preview != null ? preview.getResolutionInfo() : null;
         if (previewResolution != null) {
           currentPreviewResolution = previewResolution.getResolution();
-          Log.d(TAG, "Preview resolution: " + currentPreviewResolution);
-
-          // Log the actual aspect ratio of the selected resolution
-          if (currentPreviewResolution != null) {
-            double actualRatio =
-                    (double) currentPreviewResolution.getWidth() /
-                            (double) currentPreviewResolution.getHeight();
-            Log.d(
-                    TAG,
-                    "Actual preview aspect ratio: " +
-                            actualRatio +
-                            " (width=" +
-                            currentPreviewResolution.getWidth() +
-                            ", height=" +
-                            currentPreviewResolution.getHeight() +
-                            ")"
-            );
-
-            // Compare with requested ratio
-            if ("4:3".equals(sessionConfig.getAspectRatio())) {
-              double expectedRatio = 4.0 / 3.0;
-              double difference = Math.abs(actualRatio - expectedRatio);
-              Log.d(
-                      TAG,
-                      "4:3 ratio check - Expected: " +
-                              expectedRatio +
-                              ", Actual: " +
-                              actualRatio +
-                              ", Difference: " +
-                              difference
-              );
-            } else if ("16:9".equals(sessionConfig.getAspectRatio())) {
-              double expectedRatio = 16.0 / 9.0;
-              double difference = Math.abs(actualRatio - expectedRatio);
-              Log.d(
-                      TAG,
-                      "16:9 ratio check - Expected: " +
-                              expectedRatio +
-                              ", Actual: " +
-                              actualRatio +
-                              ", Difference: " +
-                              difference
-              );
-            }
-          }
         }
         ResolutionInfo imageCaptureResolution =
                 imageCapture.getResolutionInfo();
-        if (imageCaptureResolution != null) {
-          Log.d(
-                  TAG,
-                  "Image capture resolution: " +
-                          imageCaptureResolution.getResolution()
-          );
+        currentCaptureResolution = imageCaptureResolution != null
+                ? imageCaptureResolution.getResolution()
+                : null;
+        if (CameraLog.isDebugEnabled()) {
+          logBoundCamera(cameraInfo, zoomState, imageCaptureResolution);
         }
+        profileStore.recordSession(
+                Camera2CameraInfo.from(cameraInfo).getCameraId(),
+                sessionConfig.getDeviceId() == null ? sessionConfig.getPosition() : null,
+                sessionConfig.getAspectRatio(),
+                previewResolution != null ? previewResolution.getResolution() : null,
+                // An explicit or thermal capture target is not a hint for the next default session
+                imageCaptureResolution != null && captureTarget == null
+                        ? imageCaptureResolution.getResolution()
+                        : null
+        );
+
+        boundAspectRatio = sessionConfig.getAspectRatio();
 
         // Update scale type based on aspect ratio whenever (re)binding
-        String ar = sessionConfig != null
-                ? sessionConfig.getAspectRatio()
-                : null;
-        previewView.setScaleType(
-                (ar == null || ar.isEmpty())
-                        ? PreviewView.ScaleType.FIT_CENTER
-                        : PreviewView.ScaleType.FILL_CENTER
-        );
+        applyPreviewScaleType();
 
         // Set initial zoom if specified, prioritizing targetZoom over default zoomFactor
         float initialZoom = sessionConfig.getTargetZoom() != 1.0f
                 ? sessionConfig.getTargetZoom()
                 : sessionConfig.getZoomFactor();
         if (initialZoom != 1.0f) {
-          Log.d(TAG, "Applying initial zoom of " + initialZoom);
+          CameraLog.d(TAG, "Applying initial zoom of {}", initialZoom);
 
           // Validate zoom is within bounds
           if (zoomState != null) {
@@ -1147,6 +1522,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
 
             if (initialZoom < minZoom || initialZoom > maxZoom) {
               if (listener != null) {
+                sessionState.startFailed();
                 listener.onCameraStartError(
                         "Initial zoom level " +
                                 initialZoom +
@@ -1164,11 +1540,19 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
           setZoom(initialZoom);
         }
 
-        isRunning = true;
-        Log.d(TAG, "bindCameraUseCases: Camera bound successfully");
+        if (!sessionState.markRunning()) {
+          CameraLog.d(TAG, "bindCameraUseCases: Session stopped while binding, not reporting start");
+          if (listener != null) {
+            listener.onCameraStartError("Camera stopped while starting");
+          }
+          return;
+        }
+        CameraLog.d(TAG, "bindCameraUseCases: Camera bound successfully");
         if (listener != null) {
           // Post the callback to ensure layout is complete
-          previewContainer.post(() -> {
+          Runnable reportStarted = headless
+                  ? () -> listener.onCameraStarted(0, 0, 0, 0)
+                  : () -> previewContainer.post(() -> {
             // Return actual preview container dimensions instead of requested dimensions
             // Get the actual camera dimensions and position
             int actualWidth = getPreviewWidth();
@@ -1176,16 +1560,13 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
             int actualX = getPreviewX();
             int actualY = getPreviewY();
 
-            Log.d(
+            CameraLog.d(
                     TAG,
-                    "onCameraStarted callback - actualX=" +
-                            actualX +
-                            ", actualY=" +
-                            actualY +
-                            ", actualWidth=" +
-                            actualWidth +
-                            ", actualHeight=" +
-                            actualHeight
+                    "onCameraStarted callback - actualX={}, actualY={}, actualWidth={}, actualHeight={}",
+                    actualX,
+                    actualY,
+                    actualWidth,
+                    actualHeight
             );
 
             // Update grid overlay bounds after camera is started
@@ -1198,19 +1579,46 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
                     actualY
             );
           });
+          reportStarted.run();
+          // start() doesn't wait for the first frame; its time is reported when it arrives
+          StartupTimeline timeline = startupTimeline;
+          startupTimeline = null;
+          if (timeline != null && headless) {
+            timeline.endFirstFrameWait();
+          } else if (timeline != null) {
+            observeFirstFrame(timeline, () -> {
+              double elapsedMs = timeline.getElapsedMs("firstFrame");
+              if (elapsedMs >= 0 && listener != null) {
+                listener.onFirstFrame(timeline.getKind(), elapsedMs);
+              }
+            });
+          }
         }
         // Log resolved quality after binding
         Quality resolved = null;
         resolved = resolveQualityForCamera(currentVideoQualitySelector, camera);
-        Log.i(TAG, "VideoCapture initialized with quality: requested='" + (sessionConfig != null ? sessionConfig.getVideoQuality() : null) + "' resolved='" + qualityToString(resolved) + "'");
-      } catch (Exception e) {
-        if (listener != null) listener.onCameraStartError(
-                "Error binding camera: " + e.getMessage()
+        CameraLog.i(
+                TAG,
+                "VideoCapture initialized with quality: requested='{}' resolved='{}'",
+                (sessionConfig != null ? sessionConfig.getVideoQuality() : null),
+                qualityToString(resolved)
         );
+      } catch (Exception e) {
+        notifyStartError("Error binding camera: " + e.getMessage());
       }
     });
   }
 
+  // A failure while starting returns the session to IDLE; failures of later rebinds leave it running
+  private void notifyStartError(String message) {
+    CameraLog.e(TAG, message);
+    CameraLog.dump("start failed: " + message);
+    sessionState.startFailed();
+    if (listener != null) {
+      listener.onCameraStartError(message);
+    }
+  }
+
   @OptIn(markerClass = ExperimentalCamera2Interop.class)
   private CameraSelector buildCameraSelector() {
     CameraSelector.Builder builder = new CameraSelector.Builder();
@@ -1271,7 +1679,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
       );
       return !backCameras.isEmpty();
     } catch (Exception e) {
-      Log.w(TAG, "Error determining camera direction, assuming back camera", e);
+      CameraLog.w(TAG, "Error determining camera direction, assuming back camera", e);
       return true; // Default to back camera
     }
   }
@@ -1283,16 +1691,15 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
           Integer height,
           Location location
   ) {
-    Log.d(
+    CameraLog.d(
             TAG,
-            "capturePhoto: Starting photo capture with quality: " +
-                    quality +
-                    ", width: " +
-                    width +
-                    ", height: " +
-                    height
+            "capturePhoto: Starting photo capture with quality: {}, width: {}, height: {}",
+            quality,
+            width,
+            height
     );
 
+    powerMode.onInteraction();
     if (imageCapture == null) {
       if (listener != null) {
         listener.onPictureTakenError("Camera not ready");
@@ -1300,13 +1707,18 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
       return;
     }
 
-    synchronized (captureLock) {
-      isCapturingPhoto = true;
+    if (!sessionState.beginCapture()) {
+      if (listener != null) {
+        listener.onPictureTakenError("Camera is not running");
+      }
+      return;
     }
 
     File tempFile = new File(context.getCacheDir(), "temp_image.jpg");
     ImageCapture.OutputFileOptions outputFileOptions =
             new ImageCapture.OutputFileOptions.Builder(tempFile).build();
+    PerformanceMetrics metrics = PerformanceMetrics.getInstance();
+    final long captureStartNanos = SystemClock.elapsedRealtimeNanos();
 
     imageCapture.takePicture(
             outputFileOptions,
@@ -1314,25 +1726,24 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
             new ImageCapture.OnImageSavedCallback() {
               @Override
               public void onError(@NonNull ImageCaptureException exception) {
-                Log.e(TAG, "capturePhoto: Photo capture failed", exception);
+                metrics.captureFailures.incrementAndGet();
+                CameraLog.e(TAG, "capturePhoto: Photo capture failed", exception);
+                CameraLog.dump("capture failed");
                 if (listener != null) {
                   listener.onPictureTakenError(
                           "Photo capture failed: " + exception.getMessage()
                   );
                 }
                 // End of capture lifecycle
-                synchronized (captureLock) {
-                  isCapturingPhoto = false;
-                  if (stopRequested) {
-                    performImmediateStop();
-                  }
-                }
+                finishCapture();
               }
 
               @Override
               public void onImageSaved(
                       @NonNull ImageCapture.OutputFileResults output
               ) {
+                long stageStart = SystemClock.elapsedRealtimeNanos();
+                metrics.capture.recordNanos(stageStart - captureStartNanos);
                 try {
                   // Read file using FileInputStream for compatibility
                   byte[] bytes = new byte[(int) tempFile.length()];
@@ -1340,6 +1751,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
                   fis.read(bytes);
                   fis.close();
 
+                  long exifStart = SystemClock.elapsedRealtimeNanos();
                   ExifInterface exifInterface = new ExifInterface(
                           tempFile.getAbsolutePath()
                   );
@@ -1349,7 +1761,9 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
                   }
 
                   JSONObject exifData = getExifData(exifInterface);
+                  long exifNanos = SystemClock.elapsedRealtimeNanos() - exifStart;
 
+                  long processingStart = SystemClock.elapsedRealtimeNanos();
                   if (width != null || height != null) {
                     Bitmap bitmap = BitmapFactory.decodeByteArray(
                             bytes,
@@ -1368,9 +1782,6 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
                             stream
                     );
                     bytes = stream.toByteArray();
-
-                    // Write EXIF data back to resized image
-                    bytes = writeExifToImageBytes(bytes, exifInterface);
                   } else {
                     // No explicit size/ratio: crop to match current preview content
                     Bitmap originalBitmap = BitmapFactory.decodeByteArray(
@@ -1386,9 +1797,19 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
                             stream
                     );
                     bytes = stream.toByteArray();
-                    // Preserve EXIF
-                    bytes = writeExifToImageBytes(bytes, exifInterface);
                   }
+                  metrics.processing.recordNanos(
+                          SystemClock.elapsedRealtimeNanos() - processingStart
+                  );
+
+                  // Write EXIF data back to the processed image
+                  exifStart = SystemClock.elapsedRealtimeNanos();
+                  bytes = writeExifToImageBytes(bytes, exifInterface);
+                  metrics.exif.recordNanos(
+                          exifNanos + SystemClock.elapsedRealtimeNanos() - exifStart
+                  );
+
+                  long outputStart = SystemClock.elapsedRealtimeNanos();
 
                   // Save to gallery asynchronously if requested
                   if (saveToGallery) {
@@ -1399,6 +1820,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
                   }
 
                   String resultValue;
+                  boolean wroteFile = false;
                   boolean returnFileUri =
                           sessionConfig != null && sessionConfig.isStoreToFile();
                   if (returnFileUri) {
@@ -1415,11 +1837,12 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
                       FileOutputStream outFos = new FileOutputStream(outFile);
                       outFos.write(bytes);
                       outFos.close();
+                      wroteFile = true;
 
                       // Return a file path; apps can convert via Capacitor.convertFileSrc on JS side
                       resultValue = outFile.getAbsolutePath();
                     } catch (IOException ioEx) {
-                      Log.e(TAG, "capturePhoto: Failed to write image file", ioEx);
+                      CameraLog.e(TAG, "capturePhoto: Failed to write image file", ioEx);
                       // Fallback to base64 if file write fails
                       resultValue = Base64.encodeToString(bytes, Base64.NO_WRAP);
                     }
@@ -1429,12 +1852,18 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
                   }
 
                   tempFile.delete();
+                  metrics.output.recordNanos(SystemClock.elapsedRealtimeNanos() - outputStart);
+                  metrics.bytesReturned.addAndGet(
+                          wroteFile ? bytes.length : resultValue.length()
+                  );
+                  metrics.captures.incrementAndGet();
 
                   if (listener != null) {
                     listener.onPictureTaken(resultValue, exifData);
                   }
                 } catch (Exception e) {
-                  Log.e(TAG, "capturePhoto: Error processing image", e);
+                  metrics.captureFailures.incrementAndGet();
+                  CameraLog.e(TAG, "capturePhoto: Error processing image", e);
                   if (listener != null) {
                     listener.onPictureTakenError(
                             "Error processing image: " + e.getMessage()
@@ -1442,12 +1871,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
                   }
                 } finally {
                   // End of capture lifecycle
-                  synchronized (captureLock) {
-                    isCapturingPhoto = false;
-                    if (stopRequested) {
-                      performImmediateStop();
-                    }
-                  }
+                  finishCapture();
                 }
               }
             }
@@ -1506,7 +1930,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
         }
       }
     } catch (Exception e) {
-      Log.e(TAG, "getExifData: Error reading exif data", e);
+      CameraLog.e(TAG, "getExifData: Error reading exif data", e);
     }
     return exifData;
   }
@@ -1718,16 +2142,13 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
 
       return result;
     } catch (Exception e) {
-      Log.e(TAG, "writeExifToImageBytes: Error writing EXIF data", e);
+      CameraLog.e(TAG, "writeExifToImageBytes: Error writing EXIF data", e);
       return imageBytes; // Return original bytes if error
     }
   }
 
   public void captureSample(int quality) {
-    Log.d(
-            TAG,
-            "captureSample: Starting sample capture with quality: " + quality
-    );
+    CameraLog.d(TAG, "captureSample: Starting sample capture with quality: {}", quality);
 
     if (sampleImageCapture == null) {
       if (listener != null) {
@@ -1735,13 +2156,14 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
       }
       return;
     }
+    powerMode.onInteraction();
 
     sampleImageCapture.takePicture(
             cameraExecutor,
             new ImageCapture.OnImageCapturedCallback() {
               @Override
               public void onError(@NonNull ImageCaptureException exception) {
-                Log.e(TAG, "captureSample: Sample capture failed", exception);
+                CameraLog.e(TAG, "captureSample: Sample capture failed", exception);
                 if (listener != null) {
                   listener.onSampleTakenError(
                           "Sample capture failed: " + exception.getMessage()
@@ -1760,7 +2182,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
                     listener.onSampleTaken(base64);
                   }
                 } catch (Exception e) {
-                  Log.e(TAG, "captureSample: Error processing sample", e);
+                  CameraLog.e(TAG, "captureSample: Error processing sample", e);
                   if (listener != null) {
                     listener.onSampleTakenError(
                             "Error processing sample: " + e.getMessage()
@@ -1786,39 +2208,24 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
     if (previewContainer == null || previewView == null) {
       return image;
     }
-    int containerWidth = previewContainer.getWidth();
-    int containerHeight = previewContainer.getHeight();
-    if (containerWidth == 0 || containerHeight == 0) {
+    if (previewContainer.getWidth() == 0 || previewContainer.getHeight() == 0) {
       return image;
     }
-    // Compute preview aspect based on actual camera content bounds
-    Rect bounds = getActualCameraBounds();
-    int previewW = Math.max(1, bounds.width());
-    int previewH = Math.max(1, bounds.height());
-    float previewRatio = (float) previewW / (float) previewH;
-
-    int imgW = image.getWidth();
-    int imgH = image.getHeight();
-    float imgRatio = (float) imgW / (float) imgH;
-
-    int targetW = imgW;
-    int targetH = imgH;
-    if (imgRatio > previewRatio) {
-      // Image wider than preview: crop width
-      targetW = Math.round(imgH * previewRatio);
-    } else if (imgRatio < previewRatio) {
-      // Image taller than preview: crop height
-      targetH = Math.round(imgW / previewRatio);
-    }
-    int x = Math.max(0, (imgW - targetW) / 2);
-    int y = Math.max(0, (imgH - targetH) / 2);
+    // Crop to the aspect of the actual camera content bounds
+    PreviewGeometry.Box bounds = getActualCameraBounds();
+    PreviewGeometry.Box crop = PreviewGeometry.cropRect(
+            image.getWidth(),
+            image.getHeight(),
+            bounds.width,
+            bounds.height
+    );
     try {
       return Bitmap.createBitmap(
               image,
-              x,
-              y,
-              Math.min(targetW, imgW - x),
-              Math.min(targetH, imgH - y)
+              crop.left,
+              crop.top,
+              crop.width,
+              crop.height
       );
     } catch (Exception ignore) {
       return image;
@@ -1830,19 +2237,33 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
   public static List<
           com.ahm.capacitor.camera.preview.model.CameraDevice
           > getAvailableDevicesStatic(Context context) {
-    Log.d(
-            TAG,
-            "getAvailableDevicesStatic: Starting CameraX device enumeration with getPhysicalCameraInfos."
+    CameraCapabilityCache capabilityCache = CameraCapabilityCache.getInstance(
+            context
     );
+    List<com.ahm.capacitor.camera.preview.model.CameraDevice> cached =
+            capabilityCache.getDevices();
+    if (cached != null) {
+      return cached;
+    }
+
+    // A previous launch on this build may already have enumerated the same cameras
+    CameraProfileStore profileStore = CameraProfileStore.getInstance(context);
+    Set<String> cameraIds = capabilityCache.getCameraIds();
+    List<com.ahm.capacitor.camera.preview.model.CameraDevice> stored =
+            profileStore.getDevices(cameraIds);
+    if (stored != null) {
+      CameraLog.d(TAG, "getAvailableDevicesStatic: Using {} devices from profile", stored.size());
+      capabilityCache.putDevices(stored);
+      return capabilityCache.getDevices();
+    }
+
+    CameraLog.d(TAG, "getAvailableDevicesStatic: Starting CameraX device enumeration with getPhysicalCameraInfos.");
     List<com.ahm.capacitor.camera.preview.model.CameraDevice> devices =
             new ArrayList<>();
     try {
       ListenableFuture<ProcessCameraProvider> cameraProviderFuture =
-              ProcessCameraProvider.getInstance(context);
+              getCameraProviderFuture(context);
       ProcessCameraProvider cameraProvider = cameraProviderFuture.get();
-      CameraManager cameraManager = (CameraManager) context.getSystemService(
-              Context.CAMERA_SERVICE
-      );
 
       for (CameraInfo cameraInfo : cameraProvider.getAvailableCameraInfos()) {
         String logicalCameraId = Camera2CameraInfo.from(
@@ -1868,17 +2289,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
                         true
                 )
         );
-        Log.d(
-                TAG,
-                "Found logical camera: " +
-                        logicalCameraId +
-                        " (" +
-                        position +
-                        ") with zoom " +
-                        minZoom +
-                        "-" +
-                        maxZoom
-        );
+        CameraLog.d(TAG, "Found logical camera: {} ({}) with zoom {}-{}", logicalCameraId, position, minZoom, maxZoom);
 
         // Get and add physical cameras
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
@@ -1886,105 +2297,47 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
                   cameraInfo.getPhysicalCameraInfos();
           if (physicalCameraInfos.isEmpty()) continue;
 
-          Log.d(
-                  TAG,
-                  "Logical camera " +
-                          logicalCameraId +
-                          " has " +
-                          physicalCameraInfos.size() +
-                          " physical cameras."
-          );
-
           for (CameraInfo physicalCameraInfo : physicalCameraInfos) {
             String physicalId = Camera2CameraInfo.from(
                     physicalCameraInfo
             ).getCameraId();
             if (physicalId.equals(logicalCameraId)) continue; // Already added as logical
 
-            try {
-              CameraCharacteristics characteristics =
-                      cameraManager.getCameraCharacteristics(physicalId);
-              String deviceType = "wideAngle";
-              float[] focalLengths = characteristics.get(
-                      CameraCharacteristics.LENS_INFO_AVAILABLE_FOCAL_LENGTHS
-              );
-              android.util.SizeF sensorSize = characteristics.get(
-                      CameraCharacteristics.SENSOR_INFO_PHYSICAL_SIZE
-              );
-
-              if (
-                      focalLengths != null &&
-                              focalLengths.length > 0 &&
-                              sensorSize != null &&
-                              sensorSize.getWidth() > 0
-              ) {
-                double fov =
-                        2 *
-                                Math.toDegrees(
-                                        Math.atan(sensorSize.getWidth() / (2 * focalLengths[0]))
-                                );
-                if (fov > 90) deviceType = "ultraWide";
-                else if (fov < 40) deviceType = "telephoto";
-              } else if (focalLengths != null && focalLengths.length > 0) {
-                if (focalLengths[0] < 3.0f) deviceType = "ultraWide";
-                else if (focalLengths[0] > 5.0f) deviceType = "telephoto";
-              }
-
-              float physicalMinZoom = 1.0f;
-              float physicalMaxZoom = 1.0f;
-              if (
-                      android.os.Build.VERSION.SDK_INT >=
-                              android.os.Build.VERSION_CODES.R
-              ) {
-                android.util.Range<Float> zoomRange = characteristics.get(
-                        CameraCharacteristics.CONTROL_ZOOM_RATIO_RANGE
-                );
-                if (zoomRange != null) {
-                  physicalMinZoom = zoomRange.getLower();
-                  physicalMaxZoom = zoomRange.getUpper();
-                }
-              }
-
-              String label = "Physical " + deviceType + " (" + position + ")";
-              List<LensInfo> physicalLenses = new ArrayList<>();
-              physicalLenses.add(
-                      new LensInfo(
-                              focalLengths != null ? focalLengths[0] : 4.25f,
-                              deviceType,
-                              1.0f,
-                              physicalMaxZoom
-                      )
-              );
+            CameraCapabilities capabilities = capabilityCache.get(physicalId);
+            if (capabilities == null) continue;
+
+            String deviceType = capabilities.getDeviceType();
+            String label = "Physical " + deviceType + " (" + position + ")";
+            List<LensInfo> physicalLenses = new ArrayList<>();
+            physicalLenses.add(
+                    new LensInfo(
+                            capabilities.getFocalLength(),
+                            deviceType,
+                            1.0f,
+                            capabilities.getMaxZoom()
+                    )
+            );
 
-              devices.add(
-                      new com.ahm.capacitor.camera.preview.model.CameraDevice(
-                              physicalId,
-                              label,
-                              position,
-                              physicalLenses,
-                              physicalMinZoom,
-                              physicalMaxZoom,
-                              false
-                      )
-              );
-              Log.d(
-                      TAG,
-                      "Found physical camera: " + physicalId + " (" + label + ")"
-              );
-            } catch (CameraAccessException e) {
-              Log.e(
-                      TAG,
-                      "Failed to access characteristics for physical camera " +
-                              physicalId,
-                      e
-              );
-            }
+            devices.add(
+                    new com.ahm.capacitor.camera.preview.model.CameraDevice(
+                            physicalId,
+                            label,
+                            position,
+                            physicalLenses,
+                            capabilities.getMinZoom(),
+                            capabilities.getMaxZoom(),
+                            false
+                    )
+            );
+            CameraLog.d(TAG, "Found physical camera: {} ({})", physicalId, label);
           }
         }
       }
+      capabilityCache.putDevices(devices);
+      profileStore.putDevices(cameraIds, devices);
       return devices;
     } catch (Exception e) {
-      Log.e(TAG, "getAvailableDevicesStatic: Error getting devices", e);
+      CameraLog.e(TAG, "getAvailableDevicesStatic: Error getting devices", e);
       return Collections.emptyList();
     }
   }
@@ -1997,17 +2350,11 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
       float minZoom = 1.0f;
       float maxZoom = 10.0f;
 
-      Log.d(
-              TAG,
-              "getZoomFactorsStatic: Final range - minZoom: " +
-                      minZoom +
-                      ", maxZoom: " +
-                      maxZoom
-      );
+      CameraLog.d(TAG, "getZoomFactorsStatic: Final range - minZoom: {}, maxZoom: {}", minZoom, maxZoom);
       LensInfo defaultLens = new LensInfo(4.25f, "wideAngle", 1.0f, 1.0f);
       return new ZoomFactors(minZoom, maxZoom, 1.0f, defaultLens);
     } catch (Exception e) {
-      Log.e(TAG, "getZoomFactorsStatic: Error getting zoom factors", e);
+      CameraLog.e(TAG, "getZoomFactorsStatic: Error getting zoom factors", e);
       LensInfo defaultLens = new LensInfo(4.25f, "wideAngle", 1.0f, 1.0f);
       return new ZoomFactors(1.0f, 10.0f, 1.0f, defaultLens);
     }
@@ -2018,42 +2365,16 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
       return getZoomFactorsStatic();
     }
 
-    try {
-      // Get the current zoom from active camera
-      float currentZoom = Objects.requireNonNull(
-              camera.getCameraInfo().getZoomState().getValue()
-      ).getZoomRatio();
-      float minZoom = camera
-              .getCameraInfo()
-              .getZoomState()
-              .getValue()
-              .getMinZoomRatio();
-      float maxZoom = camera
-              .getCameraInfo()
-              .getZoomState()
-              .getValue()
-              .getMaxZoomRatio();
-
-      Log.d(
-              TAG,
-              "getZoomFactors: Combined range - minZoom: " +
-                      minZoom +
-                      ", maxZoom: " +
-                      maxZoom +
-                      ", currentZoom: " +
-                      currentZoom
-      );
-
-      return new ZoomFactors(
-              minZoom,
-              maxZoom,
-              currentZoom,
-              getCurrentLensInfo()
-      );
-    } catch (Exception e) {
-      Log.e(TAG, "getZoomFactors: Error getting zoom factors", e);
+    CameraStateSnapshot snapshot = stateSnapshot;
+    if (!snapshot.hasZoom()) {
       return new ZoomFactors(1.0f, 1.0f, 1.0f, getCurrentLensInfo());
     }
+    return new ZoomFactors(
+            snapshot.getMinZoom(),
+            snapshot.getMaxZoom(),
+            snapshot.getZoomRatio(),
+            getCurrentLensInfo()
+    );
   }
 
   private LensInfo getCurrentLensInfo() {
@@ -2061,22 +2382,16 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
       return new LensInfo(4.25f, "wideAngle", 1.0f, 1.0f);
     }
 
-    try {
-      float currentZoom = Objects.requireNonNull(
-              camera.getCameraInfo().getZoomState().getValue()
-      ).getZoomRatio();
+    CameraStateSnapshot snapshot = stateSnapshot;
+    float currentZoom = snapshot.hasZoom() ? snapshot.getZoomRatio() : 1.0f;
 
-      // Determine device type based on zoom capabilities
-      String deviceType = "wideAngle";
-      float baseZoomRatio = 1.0f;
+    // Determine device type based on zoom capabilities
+    String deviceType = "wideAngle";
+    float baseZoomRatio = 1.0f;
 
-      float digitalZoom = currentZoom / baseZoomRatio;
+    float digitalZoom = currentZoom / baseZoomRatio;
 
-      return new LensInfo(4.25f, deviceType, baseZoomRatio, digitalZoom);
-    } catch (Exception e) {
-      Log.e(TAG, "getCurrentLensInfo: Error getting lens info", e);
-      return new LensInfo(4.25f, "wideAngle", 1.0f, 1.0f);
-    }
+    return new LensInfo(4.25f, deviceType, baseZoomRatio, digitalZoom);
   }
 
   public void setZoom(float zoomRatio) throws Exception {
@@ -2084,80 +2399,123 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
       throw new Exception("Camera not initialized");
     }
 
-    Log.d(TAG, "setZoom: Requested zoom ratio: " + zoomRatio);
+    CameraLog.d(TAG, "setZoom: Requested zoom ratio: {}", zoomRatio);
+    powerMode.onInteraction();
 
     // Just let CameraX handle everything - it should automatically switch lenses
     try {
-      ZoomFactors zoomFactors = getZoomFactors();
-
-      if (zoomRatio < zoomFactors.getMin()) {
-        zoomRatio = zoomFactors.getMin();
-      } else if (zoomRatio > zoomFactors.getMax()) {
-        zoomRatio = zoomFactors.getMax();
+      ZoomState zoomState = camera.getCameraInfo().getZoomState().getValue();
+      if (zoomState != null) {
+        zoomRatio = Math.max(
+                zoomState.getMinZoomRatio(),
+                Math.min(zoomRatio, zoomState.getMaxZoomRatio())
+        );
       }
 
-      camera.getCameraControl().setZoomRatio(zoomRatio);
+      if (zoomController != null) {
+        zoomController.setZoom(zoomRatio);
+      } else {
+        camera.getCameraControl().setZoomRatio(zoomRatio);
+      }
       // Note: autofocus is intentionally not triggered on zoom because it's done by CameraX
     } catch (Exception e) {
-      Log.e(TAG, "Failed to set zoom: " + e.getMessage());
+      CameraLog.e(TAG, "Failed to set zoom: " + e.getMessage());
       throw e;
     }
   }
 
+  /**
+   * Create the zoom controller on first use. Headless sessions have no preview to pinch,
+   * but still ramp zoom through it, so it is not tied to setupPreviewView.
+   */
+  private void ensureZoomController() {
+    if (zoomController == null) {
+      zoomController = new ZoomController(context, zoomRatio -> {
+        if (listener != null) {
+          listener.onZoomChanged(zoomRatio);
+        }
+      });
+    }
+  }
+
+  /**
+   * Animate the zoom to the given ratio over durationMs, driven natively frame by frame.
+   */
+  public void rampZoom(float zoomRatio, long durationMs) throws Exception {
+    if (camera == null || zoomController == null) {
+      throw new Exception("Camera not initialized");
+    }
+    powerMode.onInteraction();
+    zoomController.rampTo(zoomRatio, durationMs);
+  }
+
   public void setFocus(float x, float y) throws Exception {
     if (camera == null) {
       throw new Exception("Camera not initialized");
     }
 
-    if (previewView == null) {
+    if (previewView == null && !headless) {
       throw new Exception("Preview view not initialized");
     }
+    powerMode.onInteraction();
 
     // Validate that coordinates are within bounds (0-1 range)
     if (x < 0f || x > 1f || y < 0f || y > 1f) {
-      Log.w(TAG, "setFocus: Coordinates out of bounds - x: " + x + ", y: " + y);
+      CameraLog.w(TAG, "setFocus: Coordinates out of bounds - x: {}, y: {}", x, y);
       throw new Exception("Focus coordinates must be between 0 and 1");
     }
 
     // Cancel any ongoing focus operation
     if (currentFocusFuture != null && !currentFocusFuture.isDone()) {
-      Log.d(TAG, "setFocus: Cancelling previous focus operation");
+      CameraLog.d(TAG, "setFocus: Cancelling previous focus operation");
       currentFocusFuture.cancel(true);
     }
 
     // Reset exposure compensation to 0 on tap-to-focus
     try {
-      ExposureState state = camera.getCameraInfo().getExposureState();
-      Range<Integer> range = state.getExposureCompensationRange();
-      int zeroIdx = 0;
-      if (range != null && !range.contains(0)) {
-        // Choose the closest index to 0 if 0 is not available
-        zeroIdx = Math.abs(range.getLower()) < Math.abs(range.getUpper())
-                ? range.getLower()
-                : range.getUpper();
+      CameraStateSnapshot snapshot = stateSnapshot;
+      // Choose the closest index to 0 if 0 is not available
+      int zeroIdx = Math.max(
+              snapshot.getExposureMinIndex(),
+              Math.min(0, snapshot.getExposureMaxIndex())
+      );
+      if (snapshot.getExposureIndex() != zeroIdx) {
+        applyExposureIndex(zeroIdx);
       }
-      camera.getCameraControl().setExposureCompensationIndex(zeroIdx);
     } catch (Exception e) {
-      Log.w(TAG, "setFocus: Failed to reset exposure compensation to 0", e);
+      CameraLog.w(TAG, "setFocus: Failed to reset exposure compensation to 0", e);
     }
 
-    int viewWidth = previewView.getWidth();
-    int viewHeight = previewView.getHeight();
+    MeteringPoint point;
+    if (headless) {
+      // No view to map through: the coordinates are normalized to the sensor output
+      point = new SurfaceOrientedMeteringPointFactory(1f, 1f).createPoint(x, y);
+    } else {
+      int viewWidth = previewView.getWidth();
+      int viewHeight = previewView.getHeight();
+
+      if (viewWidth <= 0 || viewHeight <= 0) {
+        throw new Exception(
+                "Preview view has invalid dimensions: " + viewWidth + "x" + viewHeight
+        );
+      }
 
-    if (viewWidth <= 0 || viewHeight <= 0) {
-      throw new Exception(
-              "Preview view has invalid dimensions: " + viewWidth + "x" + viewHeight
+      // Tap position in view pixels, kept inside the visible camera content
+      float[] viewPoint = PreviewGeometry.meteringPoint(
+              x,
+              y,
+              viewWidth,
+              viewHeight,
+              getActualCameraBounds()
       );
-    }
 
-    // Only show focus indicator after validation passes
-    float indicatorX = x * viewWidth;
-    float indicatorY = y * viewHeight;
-    showFocusIndicator(indicatorX, indicatorY);
+      // Only show focus indicator after validation passes
+      showFocusIndicator(viewPoint[0], viewPoint[1]);
 
-    // Create MeteringPoint using the preview view
-    MeteringPointFactory factory = previewView.getMeteringPointFactory();
-    MeteringPoint point = factory.createPoint(x * viewWidth, y * viewHeight);
+      // Create MeteringPoint using the preview view
+      MeteringPointFactory factory = previewView.getMeteringPointFactory();
+      point = factory.createPoint(viewPoint[0], viewPoint[1]);
+    }
 
     // Create focus and metering action (persistent, no auto-cancel) to match iOS behavior
     FocusMeteringAction action = new FocusMeteringAction.Builder(
@@ -2168,6 +2526,9 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
             .build();
 
     try {
+      PerformanceMetrics metrics = PerformanceMetrics.getInstance();
+      metrics.focusRequests.incrementAndGet();
+      final long focusStartNanos = SystemClock.elapsedRealtimeNanos();
       final ListenableFuture<FocusMeteringResult> future = camera
               .getCameraControl()
               .startFocusAndMetering(action);
@@ -2176,7 +2537,8 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
       future.addListener(
               () -> {
                 try {
-                  FocusMeteringResult result = future.get();
+                  future.get();
+                  metrics.focus.recordNanos(SystemClock.elapsedRealtimeNanos() - focusStartNanos);
                 } catch (Exception e) {
                   // Handle cancellation gracefully - this is expected when rapid taps occur
                   if (
@@ -2190,12 +2552,10 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
                                                   .getSimpleName()
                                                   .contains("OperationCanceledException"))
                   ) {
-                    Log.d(
-                            TAG,
-                            "Focus operation was cancelled by a newer focus request"
-                    );
+                    metrics.focusCancelled.incrementAndGet();
+                    CameraLog.d(TAG, "Focus operation was cancelled by a newer focus request");
                   } else {
-                    Log.e(TAG, "Error during focus: " + e.getMessage());
+                    CameraLog.e(TAG, "Error during focus: " + e.getMessage());
                   }
                 } finally {
                   if (currentFocusFuture == future && currentFocusFuture.isDone()) {
@@ -2207,7 +2567,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
       );
     } catch (Exception e) {
       currentFocusFuture = null;
-      Log.e(TAG, "Failed to set focus: " + e.getMessage());
+      CameraLog.e(TAG, "Failed to set focus: " + e.getMessage());
       throw e;
     }
   }
@@ -2221,7 +2581,6 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
     return currentExposureMode;
   }
 
-  @OptIn(markerClass = ExperimentalCamera2Interop.class)
   public void setExposureMode(String mode) throws Exception {
     if (camera == null) {
       throw new Exception("Camera not initialized");
@@ -2230,56 +2589,279 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
       throw new Exception("mode is required");
     }
     String normalized = mode.toUpperCase(Locale.US);
+    if (!"LOCK".equals(normalized) && !"CONTINUOUS".equals(normalized)) {
+      throw new Exception("Unsupported exposure mode: " + mode);
+    }
+    currentExposureMode = normalized;
+    exposureModeSet = true;
+    powerMode.onInteraction();
+    mainExecutor.execute(this::applyCamera2Options);
+  }
+
+  /**
+   * Push the Camera2 request options owned by this view. setCaptureRequestOptions replaces the
+   * whole set, so the exposure lock and the idle frame rate are always written together.
+   * Main thread only.
+   */
+  @OptIn(markerClass = ExperimentalCamera2Interop.class)
+  private void applyCamera2Options() {
+    if (camera == null) return;
+    CaptureRequestOptions.Builder builder = new CaptureRequestOptions.Builder();
+    if (exposureModeSet) {
+      builder
+              .setCaptureRequestOption(
+                      CaptureRequest.CONTROL_AE_LOCK,
+                      "LOCK".equals(currentExposureMode)
+              )
+              .setCaptureRequestOption(
+                      CaptureRequest.CONTROL_AE_MODE,
+                      CaptureRequest.CONTROL_AE_MODE_ON
+              );
+    }
+    boolean reducedRate = powerMode.isIdle()
+            || thermalSteps.contains(ThermalMonitor.Step.LOWER_FRAME_RATE);
+    Range<Integer> fpsRange = reducedRate ? getIdleFpsRange() : null;
+    if (fpsRange != null) {
+      builder.setCaptureRequestOption(CaptureRequest.CONTROL_AE_TARGET_FPS_RANGE, fpsRange);
+    }
+    CameraLog.d(TAG, "applyCamera2Options: exposure={}, idle fps={}", currentExposureMode, fpsRange);
+    Camera2CameraControl.from(camera.getCameraControl()).setCaptureRequestOptions(builder.build());
+  }
+
+  // Picked once per camera id from the cached capability table; also used for thermal throttling
+  private Range<Integer> getIdleFpsRange() {
+    String cameraId = boundCameraId;
+    if (cameraId == null) return null;
+    if (!cameraId.equals(idleFpsRangeCameraId)) {
+      CameraCapabilities capabilities = CameraCapabilityCache.getInstance(context).get(cameraId);
+      idleFpsRange = capabilities != null ? capabilities.getFpsRangeAtMost(IDLE_MAX_FPS) : null;
+      idleFpsRangeCameraId = cameraId;
+    }
+    return idleFpsRange;
+  }
+
+  /**
+   * Configure the power mode: "full" keeps the preview at its full frame rate, "adaptive" drops
+   * the AE target range to about 15 fps after idleTimeoutMs without touch, zoom, focus, exposure
+   * or capture activity, and restores it on the next one.
+   */
+  public void setPowerMode(String mode, long idleTimeoutMs) {
+    powerMode.configure(mode, idleTimeoutMs);
+  }
+
+  public boolean isPowerIdle() {
+    return powerMode.isIdle();
+  }
+
+  /**
+   * Follow the device thermal status from PowerManager and degrade the session along the ladder.
+   *
+   * @param thresholds status at which each step activates, null for the defaults
+   */
+  void startThermalMonitoring(Map<ThermalMonitor.Step, Integer> thresholds) {
+    startThermalMonitoring(new PowerManagerThermalSource(context), thresholds);
+  }
+
+  void startThermalMonitoring(
+          ThermalStatusSource source,
+          Map<ThermalMonitor.Step, Integer> thresholds
+  ) {
+    stopThermalMonitoring();
+    ThermalMonitor monitor = new ThermalMonitor(source, thresholds, this::onThermalStateChanged);
+    thermalMonitor = monitor;
+    mainExecutor.execute(monitor::start);
+  }
+
+  // The session is being torn down, so the steps are forgotten rather than undone
+  private void stopThermalMonitoring() {
+    ThermalMonitor monitor = thermalMonitor;
+    thermalMonitor = null;
+    if (monitor != null) {
+      mainExecutor.execute(monitor::stop);
+    }
+    thermalSteps = Collections.emptySet();
+    thermalVideoReduced = false;
+    thermalSavedVideoQuality = null;
+  }
+
+  public String getThermalStatus() {
+    ThermalMonitor monitor = thermalMonitor;
+    return ThermalMonitor.statusName(monitor != null ? monitor.getStatus() : ThermalMonitor.STATUS_NONE);
+  }
+
+  private void onThermalStateChanged(
+          int status,
+          float headroom,
+          Set<ThermalMonitor.Step> steps
+  ) {
+    mainExecutor.execute(() -> {
+      if (thermalMonitor == null) return;
+      Set<ThermalMonitor.Step> previous = thermalSteps;
+      thermalSteps = steps;
+      CameraLog.i(TAG, "Thermal status {}, degradation steps {}", ThermalMonitor.statusName(status), steps);
+      if (stepChanged(previous, steps, ThermalMonitor.Step.LOWER_FRAME_RATE)) {
+        applyCamera2Options();
+      }
+      if (stepChanged(previous, steps, ThermalMonitor.Step.DISABLE_ANALYSIS) && overlayView != null) {
+        overlayView.setLevelEnabled(isHorizonLevelActive());
+      }
+      if (stepChanged(previous, steps, ThermalMonitor.Step.REDUCE_VIDEO_QUALITY)) {
+        applyThermalVideoQuality(steps.contains(ThermalMonitor.Step.REDUCE_VIDEO_QUALITY));
+      }
+      if (stepChanged(previous, steps, ThermalMonitor.Step.LOWER_CAPTURE_RESOLUTION)) {
+        swapImageCapture();
+      }
+      if (listener != null) {
+        List<String> keys = new ArrayList<>();
+        for (ThermalMonitor.Step step : steps) {
+          keys.add(step.key);
+        }
+        listener.onThermalStateChanged(ThermalMonitor.statusName(status), headroom, keys);
+      }
+    });
+  }
+
+  private static boolean stepChanged(
+          Set<ThermalMonitor.Step> previous,
+          Set<ThermalMonitor.Step> next,
+          ThermalMonitor.Step step
+  ) {
+    return previous.contains(step) != next.contains(step);
+  }
+
+  // Drop the recording quality to HD while hot and put the configured one back afterwards.
+  // A recording in progress keeps its quality; the change applies to the next one.
+  private void applyThermalVideoQuality(boolean reduce) {
+    if (sessionConfig == null || !sessionConfig.isVideoModeEnabled()) return;
+    if (reduce) {
+      String quality = sessionConfig.getVideoQuality();
+      String normalized = quality == null ? "fhd" : quality.toLowerCase(Locale.US);
+      if (!thermalVideoReduced && Arrays.asList("max", "uhd", "fhd").contains(normalized)) {
+        thermalSavedVideoQuality = quality;
+        thermalVideoReduced = true;
+        updateVideoQuality(THERMAL_VIDEO_QUALITY);
+      }
+    } else if (thermalVideoReduced) {
+      thermalVideoReduced = false;
+      updateVideoQuality(thermalSavedVideoQuality);
+    }
+  }
 
+  /**
+   * Re-select the preview stream when the container grew past the bound it was selected for, so
+   * a preview enlarged after start does not show an upscaled low-resolution stream. Only the
+   * Preview is swapped; capture and video stay bound. While captures are in flight the swap waits
+   * for them, since changing the session can abort a capture. Must be called on the main thread.
+   */
+  private void growPreviewStreamIfNeeded() {
+    previewGrowPending = false;
+    if (headless || !isRunning() || cameraProvider == null || previewUseCase == null
+            || baseResolutionSelector == null) {
+      return;
+    }
+    Size stream = currentPreviewResolution;
+    Size selectedFor = previewSelectedForBound;
+    Size bound = getPreviewBoundPx();
+    if (stream == null || selectedFor == null || bound == null
+            || !PreviewGeometry.needsLargerPreviewStream(
+                    stream.getWidth(),
+                    stream.getHeight(),
+                    selectedFor.getWidth(),
+                    selectedFor.getHeight(),
+                    bound.getWidth(),
+                    bound.getHeight()
+            )) {
+      return;
+    }
+    if (sessionState.getCapturesInFlight() > 0) {
+      previewGrowPending = true;
+      return;
+    }
+    Preview next = buildPreview(
+            withPreferredSize(baseResolutionSelector, bound),
+            previewUseCase.getTargetRotation()
+    );
     try {
-      Camera2CameraControl c2 = Camera2CameraControl.from(
-              camera.getCameraControl()
+      bindUseCases(
+              currentCameraSelector,
+              next,
+              imageCapture,
+              boundUseCases.contains(videoCapture) ? videoCapture : null
       );
-      switch (normalized) {
-        case "LOCK": {
-          CaptureRequestOptions opts = new CaptureRequestOptions.Builder()
-                  .setCaptureRequestOption(CaptureRequest.CONTROL_AE_LOCK, true)
-                  .setCaptureRequestOption(
-                          CaptureRequest.CONTROL_AE_MODE,
-                          CaptureRequest.CONTROL_AE_MODE_ON
-                  )
-                  .build();
-          mainExecutor.execute(() -> c2.setCaptureRequestOptions(opts));
-          currentExposureMode = "LOCK";
-          break;
-        }
-        case "CONTINUOUS": {
-          CaptureRequestOptions opts = new CaptureRequestOptions.Builder()
-                  .setCaptureRequestOption(CaptureRequest.CONTROL_AE_LOCK, false)
-                  .setCaptureRequestOption(
-                          CaptureRequest.CONTROL_AE_MODE,
-                          CaptureRequest.CONTROL_AE_MODE_ON
-                  )
-                  .build();
-          mainExecutor.execute(() -> c2.setCaptureRequestOptions(opts));
-          currentExposureMode = "CONTINUOUS";
-          break;
-        }
-        default:
-          throw new Exception("Unsupported exposure mode: " + mode);
+    } catch (Exception e) {
+      CameraLog.w(TAG, "growPreviewStream: Failed to rebind preview: {}", e.getMessage());
+      return;
+    }
+    previewUseCase = next;
+    previewUseCaseKey = useCaseKey(boundAspectRatio, bound);
+    previewSelectedForBound = bound;
+    ResolutionInfo resolution = next.getResolutionInfo();
+    if (resolution != null) {
+      currentPreviewResolution = resolution.getResolution();
+    }
+    updateGridOverlayBounds();
+    CameraLog.d(TAG, "growPreviewStream: Stream {} -> {} for bound {}", stream, currentPreviewResolution, bound);
+  }
+
+  // End of one capture: tear down a deferred stop, or apply the swaps that waited for the
+  // captures to finish
+  private void finishCapture() {
+    if (sessionState.endCapture()) {
+      performImmediateStop();
+    } else if (sessionState.getCapturesInFlight() == 0) {
+      if (imageCaptureSwapPending) {
+        mainExecutor.execute(this::swapImageCapture);
+      }
+      if (previewGrowPending) {
+        mainExecutor.execute(this::growPreviewStreamIfNeeded);
       }
+    }
+  }
+
+  // Rebind ImageCapture alone with the current effective capture target; preview stays bound.
+  // While a capture is in flight the swap waits for it to finish. Must be called on the main thread.
+  private void swapImageCapture() {
+    imageCaptureSwapPending = false;
+    if (!isRunning() || cameraProvider == null || (previewUseCase == null && !headless) || baseResolutionSelector == null) {
+      return; // The next bind uses the effective target
+    }
+    if (sessionState.getCapturesInFlight() > 0) {
+      CameraLog.d(TAG, "swapImageCapture: Capture in flight, swapping once it completes");
+      imageCaptureSwapPending = true;
+      return;
+    }
+    Size target = getEffectiveCaptureTargetSize(boundCameraId);
+    ImageCapture next = buildImageCapture(
+            withPreferredSize(baseResolutionSelector, target),
+            imageCapture != null ? imageCapture.getTargetRotation() : getDisplayRotation()
+    );
+    try {
+      bindUseCases(
+              currentCameraSelector,
+              previewUseCase,
+              next,
+              boundUseCases.contains(videoCapture) ? videoCapture : null
+      );
     } catch (Exception e) {
-      throw e;
+      CameraLog.w(TAG, "swapImageCapture: Failed to rebind image capture: {}", e.getMessage());
+      return;
     }
+    imageCapture = next;
+    imageCaptureKey = useCaseKey(boundAspectRatio, target);
+    sampleImageCapture = next;
+    ResolutionInfo resolution = next.getResolutionInfo();
+    currentCaptureResolution = resolution != null ? resolution.getResolution() : null;
+    CameraLog.d(TAG, "swapImageCapture: Capture resolution now {}", currentCaptureResolution);
   }
 
   public float[] getExposureCompensationRange() throws Exception {
     if (camera == null) {
       throw new Exception("Camera not initialized");
     }
-    ExposureState state = camera.getCameraInfo().getExposureState();
-    Range<Integer> idxRange = state.getExposureCompensationRange();
-    Rational step = state.getExposureCompensationStep();
-    float evStep = step != null
-            ? (float) step.getNumerator() / (float) step.getDenominator()
-            : 1.0f;
-    float min = idxRange.getLower() * evStep;
-    float max = idxRange.getUpper() * evStep;
+    CameraStateSnapshot snapshot = stateSnapshot;
+    float evStep = snapshot.getExposureStep();
+    float min = snapshot.getExposureMinIndex() * evStep;
+    float max = snapshot.getExposureMaxIndex() * evStep;
     return new float[] { min, max, evStep };
   }
 
@@ -2287,274 +2869,170 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
     if (camera == null) {
       throw new Exception("Camera not initialized");
     }
-    ExposureState state = camera.getCameraInfo().getExposureState();
-    int idx = state.getExposureCompensationIndex();
-    Rational step = state.getExposureCompensationStep();
-    float evStep = step != null
-            ? (float) step.getNumerator() / (float) step.getDenominator()
-            : 1.0f;
-    return idx * evStep;
+    return stateSnapshot.getExposureCompensation();
   }
 
   public void setExposureCompensation(float ev) throws Exception {
     if (camera == null) {
       throw new Exception("Camera not initialized");
     }
-    ExposureState state = camera.getCameraInfo().getExposureState();
-    Range<Integer> idxRange = state.getExposureCompensationRange();
-    Rational step = state.getExposureCompensationStep();
-    float evStep = step != null
-            ? (float) step.getNumerator() / (float) step.getDenominator()
-            : 1.0f;
-    if (evStep <= 0f) evStep = 1.0f;
-    int idx = Math.round(ev / evStep);
+    CameraStateSnapshot snapshot = stateSnapshot;
+    int idx = Math.round(ev / snapshot.getExposureStep());
     // clamp
-    if (idx < idxRange.getLower()) idx = idxRange.getLower();
-    if (idx > idxRange.getUpper()) idx = idxRange.getUpper();
-    camera.getCameraControl().setExposureCompensationIndex(idx);
+    idx = Math.max(
+            snapshot.getExposureMinIndex(),
+            Math.min(idx, snapshot.getExposureMaxIndex())
+    );
+    applyExposureIndex(idx);
   }
 
-  private void showFocusIndicator(float x, float y) {
-    if (disableFocusIndicator || sessionConfig.getDisableFocusIndicator()) {
-      return;
-    }
-    if (previewContainer == null) {
-      Log.w(TAG, "showFocusIndicator: previewContainer is null");
-      return;
-    }
+  /**
+   * Set the exposure compensation index. ExposureState is not observable, so the snapshot is
+   * updated with the index the camera confirms.
+   */
+  private void applyExposureIndex(int index) {
+    ListenableFuture<Integer> future = camera
+            .getCameraControl()
+            .setExposureCompensationIndex(index);
+    future.addListener(
+            () -> {
+              try {
+                stateSnapshot = stateSnapshot.withExposureIndex(future.get());
+              } catch (Exception e) {
+                CameraLog.d(TAG, "applyExposureIndex: Not applied: {}", e.getMessage());
+              }
+            },
+            mainExecutor
+    );
+  }
 
-    // Check if container has been laid out
-    if (previewContainer.getWidth() == 0 || previewContainer.getHeight() == 0) {
-      Log.w(
-              TAG,
-              "showFocusIndicator: previewContainer not laid out yet, posting to run after layout"
-      );
-      previewContainer.post(() -> showFocusIndicator(x, y));
+  /**
+   * Observe ZoomState, TorchState and CameraState of a newly bound camera. Rebinds that keep the
+   * same camera keep the existing observers.
+   */
+  private void observeCameraInfo(CameraInfo cameraInfo) {
+    if (cameraInfo == observedCameraInfo) {
       return;
     }
-
-    // Remove any existing focus indicator and cancel its animation
-    if (focusIndicatorView != null) {
-      try {
-        focusIndicatorView.clearAnimation();
-      } catch (Exception ignore) {}
-      previewContainer.removeView(focusIndicatorView);
-      focusIndicatorView = null;
+    if (observedCameraInfo != null) {
+      observedCameraInfo.getZoomState().removeObservers(this);
+      observedCameraInfo.getTorchState().removeObservers(this);
+      observedCameraInfo.getCameraState().removeObservers(this);
     }
-
-    // Create an elegant focus indicator
-    FrameLayout container = new FrameLayout(context);
-    int size = (int) (80 * context.getResources().getDisplayMetrics().density); // match iOS size
-    FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(size, size);
-
-    // Center the indicator on the touch point with bounds checking
-    int containerWidth = previewContainer.getWidth();
-    int containerHeight = previewContainer.getHeight();
-
-    params.leftMargin = Math.max(
-            0,
-            Math.min((int) (x - size / 2), containerWidth - size)
-    );
-    params.topMargin = Math.max(
-            0,
-            Math.min((int) (y - size / 2), containerHeight - size)
+    observedCameraInfo = cameraInfo;
+
+    ExposureState exposure = cameraInfo.getExposureState();
+    Range<Integer> exposureRange = exposure.getExposureCompensationRange();
+    Rational step = exposure.getExposureCompensationStep();
+    stateSnapshot = CameraStateSnapshot.EMPTY.withExposure(
+            exposure.getExposureCompensationIndex(),
+            exposureRange.getLower(),
+            exposureRange.getUpper(),
+            step != null && step.getDenominator() != 0
+                    ? (float) step.getNumerator() / (float) step.getDenominator()
+                    : 1.0f
     );
 
-    // iOS Camera style: square with mid-edge ticks
-    GradientDrawable border = new GradientDrawable();
-    border.setShape(GradientDrawable.RECTANGLE);
-    int stroke = (int) (2 * context.getResources().getDisplayMetrics().density);
-    border.setStroke(stroke, Color.YELLOW);
-    border.setCornerRadius(0);
-    border.setColor(Color.TRANSPARENT);
-    container.setBackground(border);
-
-    // Add 4 tiny mid-edge ticks inside the square
-    int tickLen = (int) (12 *
-            context.getResources().getDisplayMetrics().density);
-    int inset = stroke; // ticks should touch the sides
-    // Top tick (perpendicular): vertical inward from top edge
-    View topTick = new View(context);
-    FrameLayout.LayoutParams topParams = new FrameLayout.LayoutParams(
-            stroke,
-            tickLen
-    );
-    topParams.leftMargin = (size - stroke) / 2;
-    topParams.topMargin = inset;
-    topTick.setLayoutParams(topParams);
-    topTick.setBackgroundColor(Color.YELLOW);
-    container.addView(topTick);
-    // Bottom tick (perpendicular): vertical inward from bottom edge
-    View bottomTick = new View(context);
-    FrameLayout.LayoutParams bottomParams = new FrameLayout.LayoutParams(
-            stroke,
-            tickLen
-    );
-    bottomParams.leftMargin = (size - stroke) / 2;
-    bottomParams.topMargin = size - inset - tickLen;
-    bottomTick.setLayoutParams(bottomParams);
-    bottomTick.setBackgroundColor(Color.YELLOW);
-    container.addView(bottomTick);
-    // Left tick (perpendicular): horizontal inward from left edge
-    View leftTick = new View(context);
-    FrameLayout.LayoutParams leftParams = new FrameLayout.LayoutParams(
-            tickLen,
-            stroke
-    );
-    leftParams.leftMargin = inset;
-    leftParams.topMargin = (size - stroke) / 2;
-    leftTick.setLayoutParams(leftParams);
-    leftTick.setBackgroundColor(Color.YELLOW);
-    container.addView(leftTick);
-    // Right tick (perpendicular): horizontal inward from right edge
-    View rightTick = new View(context);
-    FrameLayout.LayoutParams rightParams = new FrameLayout.LayoutParams(
-            tickLen,
-            stroke
+    cameraInfo.getZoomState().observe(this, zoom ->
+            stateSnapshot = stateSnapshot.withZoom(
+                    zoom.getZoomRatio(),
+                    zoom.getMinZoomRatio(),
+                    zoom.getMaxZoomRatio(),
+                    zoom.getLinearZoom()
+            )
     );
-    rightParams.leftMargin = size - inset - tickLen;
-    rightParams.topMargin = (size - stroke) / 2;
-    rightTick.setLayoutParams(rightParams);
-    rightTick.setBackgroundColor(Color.YELLOW);
-    container.addView(rightTick);
-
-    focusIndicatorView = container;
-    // Bump animation token; everything after this must validate against this token
-    final long thisAnimationId = ++focusIndicatorAnimationId;
-    final View thisIndicatorView = focusIndicatorView;
-
-    // Set initial state for smooth animation (mirror iOS)
-    focusIndicatorView.setAlpha(0f);
-    focusIndicatorView.setScaleX(1.5f);
-    focusIndicatorView.setScaleY(1.5f);
-    focusIndicatorView.setVisibility(View.VISIBLE);
-
-    // Ensure container doesn't intercept touch events
-    container.setClickable(false);
-    container.setFocusable(false);
-
-    // Ensure the focus indicator has a high elevation for visibility
-    if (
-            android.os.Build.VERSION.SDK_INT >=
-                    android.os.Build.VERSION_CODES.LOLLIPOP
-    ) {
-      focusIndicatorView.setElevation(10f);
-    }
+    cameraInfo.getTorchState().observe(this, torch -> {
+      boolean enabled = torch != null && torch == TorchState.ON;
+      boolean changed = enabled != stateSnapshot.isTorchOn();
+      stateSnapshot = stateSnapshot.withTorch(enabled);
+      if (changed && listener != null) {
+        listener.onTorchChanged(enabled);
+      }
+    });
+    cameraInfo.getCameraState().observe(this, state -> {
+      String type = cameraStateToString(state.getType());
+      String error = state.getError() != null
+              ? cameraStateErrorToString(state.getError().getCode())
+              : null;
+      CameraStateSnapshot previous = stateSnapshot;
+      if (
+              type.equals(previous.getCameraState()) &&
+                      Objects.equals(error, previous.getCameraError())
+      ) {
+        return;
+      }
+      stateSnapshot = previous.withCameraState(type, error);
+      if (error != null) {
+        CameraLog.w(TAG, "Camera state {} with error {}", type, error);
+        if (state.getError().getType() == CameraState.ErrorType.CRITICAL) {
+          CameraLog.dump("camera error " + error);
+        }
+      }
+      if (listener != null) {
+        listener.onCameraStateChanged(type, error);
+      }
+    });
+  }
 
-    // Add to container first
-    previewContainer.addView(focusIndicatorView, params);
+  private static String cameraStateToString(CameraState.Type type) {
+    switch (type) {
+      case PENDING_OPEN:
+        return "pendingOpen";
+      case OPENING:
+        return "opening";
+      case OPEN:
+        return "open";
+      case CLOSING:
+        return "closing";
+      default:
+        return "closed";
+    }
+  }
 
-    // Fix z-ordering: ensure focus indicator is always on top
-    focusIndicatorView.bringToFront();
+  private static String cameraStateErrorToString(int code) {
+    switch (code) {
+      case CameraState.ERROR_MAX_CAMERAS_IN_USE:
+        return "maxCamerasInUse";
+      case CameraState.ERROR_CAMERA_IN_USE:
+        return "cameraInUse";
+      case CameraState.ERROR_OTHER_RECOVERABLE_ERROR:
+        return "recoverable";
+      case CameraState.ERROR_STREAM_CONFIG:
+        return "streamConfig";
+      case CameraState.ERROR_CAMERA_DISABLED:
+        return "cameraDisabled";
+      case CameraState.ERROR_CAMERA_FATAL_ERROR:
+        return "cameraFatal";
+      case CameraState.ERROR_DO_NOT_DISTURB_MODE_ENABLED:
+        return "doNotDisturbEnabled";
+      default:
+        return "unknown";
+    }
+  }
 
-    // Force a layout pass to ensure the view is properly positioned
-    previewContainer.requestLayout();
+  private void showFocusIndicator(float x, float y) {
+    if (disableFocusIndicator || sessionConfig.getDisableFocusIndicator()) {
+      return;
+    }
+    if (overlayView == null) {
+      CameraLog.w(TAG, "showFocusIndicator: overlayView is null");
+      return;
+    }
 
-    // First phase: fade in and scale to 1.0 over 150ms
-    focusIndicatorView
-            .animate()
-            .alpha(1f)
-            .scaleX(1f)
-            .scaleY(1f)
-            .setDuration(150)
-            .start();
+    // Check if the overlay has been laid out
+    if (overlayView.getWidth() == 0 || overlayView.getHeight() == 0) {
+      CameraLog.w(TAG, "showFocusIndicator: overlay not laid out yet, posting to run after layout");
+      overlayView.post(() -> showFocusIndicator(x, y));
+      return;
+    }
 
-    // Phase 2: after 500ms, fade to 0.3 over 200ms
-    focusIndicatorView.postDelayed(
-            new Runnable() {
-              @Override
-              public void run() {
-                // Ensure this runnable belongs to the latest indicator
-                if (
-                        focusIndicatorView != null &&
-                                thisIndicatorView == focusIndicatorView &&
-                                thisAnimationId == focusIndicatorAnimationId
-                ) {
-                  focusIndicatorView
-                          .animate()
-                          .alpha(0.3f)
-                          .setDuration(200)
-                          .withEndAction(
-                                  new Runnable() {
-                                    @Override
-                                    public void run() {
-                                      // Phase 3: after 200ms more, fade out to 0 and scale to 0.8 over 300ms
-                                      focusIndicatorView.postDelayed(
-                                              new Runnable() {
-                                                @Override
-                                                public void run() {
-                                                  if (
-                                                          focusIndicatorView != null &&
-                                                                  thisIndicatorView == focusIndicatorView &&
-                                                                  thisAnimationId == focusIndicatorAnimationId
-                                                  ) {
-                                                    focusIndicatorView
-                                                            .animate()
-                                                            .alpha(0f)
-                                                            .scaleX(0.8f)
-                                                            .scaleY(0.8f)
-                                                            .setDuration(300)
-                                                            .setInterpolator(
-                                                                    new android.view.animation.AccelerateInterpolator()
-                                                            )
-                                                            .withEndAction(
-                                                                    new Runnable() {
-                                                                      @Override
-                                                                      public void run() {
-                                                                        if (
-                                                                                focusIndicatorView != null &&
-                                                                                        previewContainer != null &&
-                                                                                        thisIndicatorView == focusIndicatorView &&
-                                                                                        thisAnimationId ==
-                                                                                                focusIndicatorAnimationId
-                                                                        ) {
-                                                                          try {
-                                                                            focusIndicatorView.clearAnimation();
-                                                                          } catch (Exception ignore) {}
-                                                                          previewContainer.removeView(
-                                                                                  focusIndicatorView
-                                                                          );
-                                                                          focusIndicatorView = null;
-                                                                        }
-                                                                      }
-                                                                    }
-                                                            );
-                                                  }
-                                                }
-                                              },
-                                              200
-                                      );
-                                    }
-                                  }
-                          );
-                }
-              }
-            },
-            500
-    );
+    overlayView.showFocus(x, y);
   }
 
-  public static List<Size> getSupportedPictureSizes(String facing) {
-    List<Size> sizes = new ArrayList<>();
-    try {
-      CameraSelector.Builder builder = new CameraSelector.Builder();
-      if ("front".equals(facing)) {
-        builder.requireLensFacing(CameraSelector.LENS_FACING_FRONT);
-      } else {
-        builder.requireLensFacing(CameraSelector.LENS_FACING_BACK);
-      }
-
-      // This part is complex because we need characteristics, which are not directly on CameraInfo.
-      // For now, returning a static list of common sizes.
-      // A more advanced implementation would use Camera2interop to get StreamConfigurationMap.
-      sizes.add(new Size(4032, 3024));
-      sizes.add(new Size(1920, 1080));
-      sizes.add(new Size(1280, 720));
-      sizes.add(new Size(640, 480));
-    } catch (Exception e) {
-      Log.e(TAG, "Error getting supported picture sizes", e);
-    }
-    return sizes;
+  public static CameraCapabilities getPictureCapabilities(Context context, String facing) {
+    return CameraCapabilityCache.getInstance(context).getPrimary(
+            "front".equals(facing) ? "front" : "rear"
+    );
   }
 
   public static List<String> getSupportedFlashModesStatic() {
@@ -2563,7 +3041,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
       // Most modern cameras support these modes
       return Arrays.asList("off", "on", "auto", "torch");
     } catch (Exception e) {
-      Log.e(TAG, "getSupportedFlashModesStatic: Error getting flash modes", e);
+      CameraLog.e(TAG, "getSupportedFlashModesStatic: Error getting flash modes", e);
       return Collections.singletonList("off");
     }
   }
@@ -2582,21 +3060,16 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
         return Collections.singletonList("off");
       }
     } catch (Exception e) {
-      Log.e(TAG, "getSupportedFlashModes: Error getting flash modes", e);
+      CameraLog.e(TAG, "getSupportedFlashModes: Error getting flash modes", e);
       return Collections.singletonList("off");
     }
   }
 
   public String getFlashMode() {
     // If torch is enabled, report torch regardless of ImageCapture flash mode
-    try {
-      if (camera != null) {
-        Integer torch = camera.getCameraInfo().getTorchState().getValue();
-        if (torch != null && torch == TorchState.ON) {
-          return "torch";
-        }
-      }
-    } catch (Exception ignore) {}
+    if (camera != null && stateSnapshot.isTorchOn()) {
+      return "torch";
+    }
 
     switch (currentFlashMode) {
       case ImageCapture.FLASH_MODE_ON:
@@ -2616,7 +3089,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
           camera.getCameraControl().enableTorch(true);
         }
       } catch (Exception e) {
-        Log.e(TAG, "setFlashMode: Failed to enable torch", e);
+        CameraLog.e(TAG, "setFlashMode: Failed to enable torch", e);
       }
       // Keep ImageCapture flash mode OFF to avoid conflicts with torch
       currentFlashMode = ImageCapture.FLASH_MODE_OFF;
@@ -2635,7 +3108,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
         camera.getCameraControl().enableTorch(false);
       }
     } catch (Exception e) {
-      Log.w(TAG, "setFlashMode: Failed to disable torch", e);
+      CameraLog.w(TAG, "setFlashMode: Failed to disable torch", e);
     }
 
     int flashMode;
@@ -2667,7 +3140,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
 
   @OptIn(markerClass = ExperimentalCamera2Interop.class)
   public void switchToDevice(String deviceId) {
-    Log.d(TAG, "switchToDevice: Attempting to switch to device " + deviceId);
+    CameraLog.d(TAG, "switchToDevice: Attempting to switch to device {}", deviceId);
 
     mainExecutor.execute(() -> {
       try {
@@ -2684,11 +3157,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
         }
 
         if (targetCameraInfo != null) {
-          Log.d(
-                  TAG,
-                  "switchToDevice: Found matching CameraInfo for deviceId: " +
-                          deviceId
-          );
+          CameraLog.d(TAG, "switchToDevice: Found matching CameraInfo for deviceId: {}", deviceId);
           final CameraInfo finalTarget = targetCameraInfo;
 
           // This filter will receive a list of all cameras and must return the one we want.
@@ -2702,51 +3171,28 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
           currentDeviceId = deviceId;
           bindCameraUseCases(); // Rebind with the new, highly specific selector
         } else {
-          Log.e(
-                  TAG,
-                  "switchToDevice: Could not find any CameraInfo matching deviceId: " +
-                          deviceId
-          );
+          CameraLog.w(TAG, "switchToDevice: Could not find any CameraInfo matching deviceId: {}", deviceId);
         }
       } catch (Exception e) {
-        Log.e(TAG, "switchToDevice: Error switching camera", e);
+        CameraLog.e(TAG, "switchToDevice: Error switching camera", e);
       }
     });
   }
 
   public void flipCamera() {
-    Log.d(TAG, "flipCamera: Flipping camera");
+    CameraLog.d(TAG, "flipCamera: Flipping camera");
 
     // Determine current position based on session config and flip it
     String currentPosition = sessionConfig.getPosition();
     String newPosition = "front".equals(currentPosition) ? "rear" : "front";
 
-    Log.d(
-            TAG,
-            "flipCamera: Switching from " + currentPosition + " to " + newPosition
-    );
+    CameraLog.d(TAG, "flipCamera: Switching from {} to {}", currentPosition, newPosition);
 
-    sessionConfig = new CameraSessionConfiguration(
-            null, // deviceId - clear device ID to force position-based selection
-            newPosition, // position
-            sessionConfig.getX(), // x
-            sessionConfig.getY(), // y
-            sessionConfig.getWidth(), // width
-            sessionConfig.getHeight(), // height
-            sessionConfig.getPaddingBottom(), // paddingBottom
-            sessionConfig.getToBack(), // toBack
-            sessionConfig.getStoreToFile(), // storeToFile
-            sessionConfig.getEnableOpacity(), // enableOpacity
-            sessionConfig.getEnableZoom(), // enableZoom
-            sessionConfig.getDisableExifHeaderStripping(), // disableExifHeaderStripping
-            sessionConfig.getDisableAudio(), // disableAudio
-            sessionConfig.getZoomFactor(), // zoomFactor
-            sessionConfig.getAspectRatio(), // aspectRatio
-            sessionConfig.getGridMode(), // gridMode
-            sessionConfig.getDisableFocusIndicator(), // disableFocusIndicator
-            sessionConfig.isVideoModeEnabled(), // enableVideoMode
-            sessionConfig.getVideoQuality() // videoQuality
-    );
+    sessionConfig = sessionConfig.toBuilder()
+            .setDeviceId(null) // clear device ID to force position-based selection
+            .setPosition(newPosition)
+            .setTargetZoom(1.0f) // the other camera starts unzoomed
+            .build();
 
     // Clear current device ID to force position-based selection
     currentDeviceId = null;
@@ -2758,12 +3204,188 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
     });
   }
 
+  /**
+   * Check {@code next} against the running configuration and decide how each difference is
+   * applied; see {@link SessionUpdate}. Returns the path for each changed field, in declaration
+   * order, without applying anything. Throws when the update isn't possible in the current
+   * session. Must be called on the main thread, right before {@link #updateSession}.
+   */
+  public Map<String, String> planSessionUpdate(CameraSessionConfiguration next) throws Exception {
+    if (!isRunning() || sessionConfig == null) {
+      throw new Exception("Camera is not running");
+    }
+    List<String> changed = sessionConfig.diff(next);
+    if (changed.contains("toBack")) {
+      // The preview sits behind or in front of the WebView from the moment its views are added
+      throw new Exception("toBack can't change while the camera is running; stop and start the camera instead");
+    }
+    boolean layoutChanged = isLayoutChange(changed);
+    boolean aspectChanged = changed.contains("aspectRatio");
+    if (headless && (layoutChanged || aspectChanged)) {
+      throw new Exception("There is no preview in headless mode");
+    }
+    if (layoutChanged && aspectChanged) {
+      throw new Exception("Cannot set both aspectRatio and a position or size (x/y/width/height)");
+    }
+    boolean rebind = changed.contains("deviceId") || changed.contains("position") ||
+            (aspectChanged && !Objects.equals(next.getAspectRatio(), boundAspectRatio));
+    boolean videoChanged = changed.contains("enableVideoMode") || changed.contains("videoQuality");
+    if (currentRecording != null && (rebind || videoChanged)) {
+      throw new Exception("Can't change the camera, aspect ratio or video settings while recording");
+    }
+    return SessionUpdate.plan(changed, rebind, next.isVideoModeEnabled(), thermalVideoReduced);
+  }
+
+  /**
+   * Apply an update planned by {@link #planSessionUpdate} in place, each field along its path.
+   * The callback runs on the main thread once the new layout is in place. Must be called on the
+   * main thread.
+   */
+  public void updateSession(
+          CameraSessionConfiguration next,
+          Map<String, String> paths,
+          Runnable callback
+  ) {
+    if (paths.isEmpty() || sessionConfig == null) {
+      if (callback != null) mainExecutor.execute(callback);
+      return;
+    }
+    CameraLog.i(TAG, "updateSession: {}", paths);
+    Set<String> changed = paths.keySet();
+    boolean layoutChanged = isLayoutChange(changed);
+    boolean aspectChanged = changed.contains("aspectRatio");
+    boolean rebind = paths.containsValue(SessionUpdate.REBIND);
+
+    CameraSessionConfiguration.Builder builder = next.toBuilder();
+    if (changed.contains("videoQuality") && thermalVideoReduced) {
+      thermalSavedVideoQuality = next.getVideoQuality();
+      builder.setVideoQuality(THERMAL_VIDEO_QUALITY);
+    }
+    if (aspectChanged) {
+      // Like setAspectRatio: a new aspect ratio re-centers the preview
+      builder.setX(-1).setY(-1).setCentered(true);
+    }
+    if (rebind) {
+      builder.setTargetZoom(1.0f); // the new bind starts from the configured zoom
+    }
+    boolean wasVideoMode = sessionConfig.isVideoModeEnabled();
+    sessionConfig = builder.build();
+
+    if (aspectChanged) {
+      updatePreviewLayoutForAspectRatio(next.getAspectRatio(), null, null);
+    }
+    if (changed.contains("enableOpacity") && previewView != null) {
+      // Opacity set through setOpacity keeps the TextureView it needs
+      if (next.getEnableOpacity()) {
+        applyImplementationMode(PreviewView.ImplementationMode.COMPATIBLE);
+      } else if (previewView.getAlpha() >= 1f) {
+        applyImplementationMode(PreviewView.ImplementationMode.PERFORMANCE);
+      }
+    }
+    if (changed.contains("gridMode") && overlayView != null) {
+      overlayView.setGridMode(next.getGridMode());
+    }
+
+    if (rebind) {
+      if (changed.contains("deviceId") || changed.contains("position")) {
+        currentDeviceId = next.getDeviceId();
+      }
+      bindCameraUseCases();
+    } else {
+      if (aspectChanged) {
+        applyPreviewScaleType();
+      }
+      if (next.isVideoModeEnabled() != wasVideoMode) {
+        applyVideoMode(next.isVideoModeEnabled());
+      } else if (SessionUpdate.USE_CASE.equals(paths.get("videoQuality"))) {
+        updateVideoQuality(next.getVideoQuality());
+      }
+      if (changed.contains("initialZoomLevel")) {
+        try {
+          setZoom(next.getZoomFactor());
+        } catch (Exception e) {
+          CameraLog.w(TAG, "updateSession: Failed to set zoom: {}", e.getMessage());
+        }
+      }
+    }
+
+    if (layoutChanged) {
+      // x and y are already layout margins (see toPreviewMargins); -1 and 0 keep the current value
+      setPreviewLayout(
+              changed.contains("x") ? next.getX() : -1,
+              changed.contains("y") ? next.getY() : -1,
+              changed.contains("width") ? next.getWidth() : 0,
+              changed.contains("height") ? next.getHeight() : 0,
+              callback
+      );
+    } else if (previewContainer != null && (aspectChanged || paths.containsValue(SessionUpdate.VIEW))) {
+      previewContainer.post(() -> {
+        updateGridOverlayBounds();
+        if (callback != null) callback.run();
+      });
+    } else if (callback != null) {
+      mainExecutor.execute(callback);
+    }
+  }
+
+  private static boolean isLayoutChange(Collection<String> changed) {
+    return changed.contains("x") || changed.contains("y") ||
+            changed.contains("width") || changed.contains("height");
+  }
+
+  // Add or drop VideoCapture next to the bound preview and image capture. Main thread.
+  private void applyVideoMode(boolean enabled) {
+    try {
+      if (enabled) {
+        if (videoCapture == null || !boundUseCases.contains(videoCapture)) {
+          initializeVideoCapture();
+        }
+      } else if (videoCapture != null) {
+        bindUseCases(currentCameraSelector, previewUseCase, imageCapture);
+        videoCapture = null;
+        videoCaptureQuality = null;
+      }
+    } catch (Exception e) {
+      CameraLog.w(TAG, "applyVideoMode: Failed to {} video capture: {}", enabled ? "add" : "remove", e.getMessage());
+    }
+  }
+
   public void setOpacity(float opacity) {
-    if (previewView != null) {
+    if (previewView == null) return;
+    mainExecutor.execute(() -> {
+      if (previewView == null) return;
+      if (opacity < 1f) {
+        applyImplementationMode(PreviewView.ImplementationMode.COMPATIBLE);
+      }
       previewView.setAlpha(opacity);
+    });
+  }
+
+  /**
+   * Switch the preview between a SurfaceView (PERFORMANCE) and a TextureView (COMPATIBLE, so alpha
+   * applies to it). The mode only takes effect for a new surface request, so the surface provider
+   * is set again; the camera stays bound.
+   */
+  private void applyImplementationMode(PreviewView.ImplementationMode mode) {
+    if (previewView.getImplementationMode() == mode) {
+      return;
+    }
+    CameraLog.d(TAG, "Switching preview to {} implementation mode", mode);
+    previewView.setImplementationMode(mode);
+    if (previewUseCase != null) {
+      previewUseCase.setSurfaceProvider(previewView.getSurfaceProvider());
     }
   }
 
+  /** "performance" (SurfaceView) or "compatible" (TextureView), or null without a preview. */
+  public String getImplementationMode() {
+    if (previewView == null) return null;
+    return previewView.getImplementationMode() ==
+            PreviewView.ImplementationMode.COMPATIBLE
+            ? "compatible"
+            : "performance";
+  }
+
   private void updateLayoutParams() {
     if (sessionConfig == null) return;
 
@@ -2804,6 +3426,26 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
     return "4:3";
   }
 
+  public void setHorizonLevelEnabled(boolean enabled) {
+    horizonLevelEnabled = enabled;
+    if (overlayView != null) {
+      mainExecutor.execute(() -> {
+        if (overlayView != null) {
+          overlayView.setLevelEnabled(isHorizonLevelActive());
+        }
+      });
+    }
+  }
+
+  public boolean isHorizonLevelEnabled() {
+    return horizonLevelEnabled;
+  }
+
+  // The level's sensor work is the first thing dropped when the device runs hot
+  private boolean isHorizonLevelActive() {
+    return horizonLevelEnabled && !thermalSteps.contains(ThermalMonitor.Step.DISABLE_ANALYSIS);
+  }
+
   public String getGridMode() {
     if (sessionConfig != null) {
       return sessionConfig.getGridMode();
@@ -2825,117 +3467,67 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
           Float y,
           Runnable callback
   ) {
-    Log.d(
-            TAG,
-            "======================== SET ASPECT RATIO ========================"
-    );
-    Log.d(
-            TAG,
-            "Input parameters - aspectRatio: " +
-                    aspectRatio +
-                    ", x: " +
-                    x +
-                    ", y: " +
-                    y
-    );
+    CameraLog.d(TAG, "setAspectRatio: {} (x={}, y={})", aspectRatio, x, y);
 
     if (sessionConfig == null) {
-      Log.d(TAG, "SessionConfig is null, returning");
+      CameraLog.d(TAG, "SessionConfig is null, returning");
       if (callback != null) callback.run();
       return;
     }
 
     String currentAspectRatio = sessionConfig.getAspectRatio();
 
-    // Get current display information
-    DisplayMetrics metrics = context.getResources().getDisplayMetrics();
-    int screenWidthPx = metrics.widthPixels;
-    int screenHeightPx = metrics.heightPixels;
-    boolean isPortrait =
-            context.getResources().getConfiguration().orientation ==
-                    Configuration.ORIENTATION_PORTRAIT;
-
-    Log.d(
-            TAG,
-            "Current screen: " +
-                    screenWidthPx +
-                    "x" +
-                    screenHeightPx +
-                    " (" +
-                    (isPortrait ? "PORTRAIT" : "LANDSCAPE") +
-                    ")"
-    );
-    Log.d(TAG, "Current aspect ratio: " + currentAspectRatio);
-
     // Don't restart camera if aspect ratio hasn't changed and no position specified
     if (
             aspectRatio != null &&
                     aspectRatio.equals(currentAspectRatio) &&
+                    (!isRunning() || aspectRatio.equals(boundAspectRatio)) &&
                     x == null &&
                     y == null
     ) {
-      Log.d(TAG, "Aspect ratio unchanged and no position specified, skipping");
+      CameraLog.d(TAG, "Aspect ratio unchanged and no position specified, skipping");
       if (callback != null) callback.run();
       return;
     }
 
     String currentGridMode = sessionConfig.getGridMode();
-    Log.d(
-            TAG,
-            "Changing aspect ratio from " + currentAspectRatio + " to " + aspectRatio
-    );
-    Log.d(TAG, "Auto-centering will be applied (matching iOS behavior)");
+    CameraLog.d(TAG, "Changing aspect ratio from {} to {}", currentAspectRatio, aspectRatio);
 
     // Match iOS behavior: when aspect ratio changes, always auto-center
-    sessionConfig = new CameraSessionConfiguration(
-            sessionConfig.getDeviceId(),
-            sessionConfig.getPosition(),
-            -1, // Force auto-center X (iOS: self.posX = -1)
-            -1, // Force auto-center Y (iOS: self.posY = -1)
-            sessionConfig.getWidth(),
-            sessionConfig.getHeight(),
-            sessionConfig.getPaddingBottom(),
-            sessionConfig.getToBack(),
-            sessionConfig.getStoreToFile(),
-            sessionConfig.getEnableOpacity(),
-            sessionConfig.getEnableZoom(),
-            sessionConfig.getDisableExifHeaderStripping(),
-            sessionConfig.getDisableAudio(),
-            sessionConfig.getZoomFactor(),
-            aspectRatio,
-            currentGridMode,
-            sessionConfig.getDisableFocusIndicator(),
-            sessionConfig.isVideoModeEnabled(),
-            sessionConfig.getVideoQuality()
-    );
-    sessionConfig.setCentered(true);
+    sessionConfig = sessionConfig.toBuilder()
+            .setX(-1) // Force auto-center X (iOS: self.posX = -1)
+            .setY(-1) // Force auto-center Y (iOS: self.posY = -1)
+            .setAspectRatio(aspectRatio)
+            .setGridMode(currentGridMode)
+            .setTargetZoom(1.0f)
+            .setCentered(true)
+            .build();
 
     // Update layout and rebind camera with new aspect ratio
-    if (isRunning && previewContainer != null) {
+    if (isRunning() && previewContainer != null) {
       mainExecutor.execute(() -> {
         // First update the UI layout - always pass null for x,y to force auto-centering (matching iOS)
         updatePreviewLayoutForAspectRatio(aspectRatio, null, null);
 
-        // Then rebind the camera with new aspect ratio configuration
-        Log.d(
-                TAG,
-                "setAspectRatio: Rebinding camera with new aspect ratio: " +
-                        aspectRatio
-        );
-        bindCameraUseCases();
+        // Only rebind when the sensor streams need a different aspect ratio; otherwise the
+        // new layout is all that changes
+        if (!Objects.equals(aspectRatio, boundAspectRatio)) {
+          CameraLog.d(TAG, "setAspectRatio: Rebinding camera with new aspect ratio: {}", aspectRatio);
+          bindCameraUseCases();
+        } else {
+          CameraLog.d(TAG, "setAspectRatio: Stream already at {}, layout only", aspectRatio);
+          applyPreviewScaleType();
+        }
 
         // Preserve grid mode and wait for completion
-        if (gridOverlayView != null) {
-          gridOverlayView.post(() -> {
-            Log.d(
-                    TAG,
-                    "setAspectRatio: Re-applying grid mode: " + currentGridMode
-            );
-            gridOverlayView.setGridMode(currentGridMode);
+        if (overlayView != null) {
+          overlayView.post(() -> {
+            CameraLog.d(TAG, "setAspectRatio: Re-applying grid mode: {}", currentGridMode);
+            overlayView.setGridMode(currentGridMode);
 
             // Wait one more frame for grid to be applied, then call callback
             if (callback != null) {
-              gridOverlayView.post(callback);
+              overlayView.post(callback);
             }
           });
         } else {
@@ -2945,103 +3537,111 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
           }
         }
 
-        Log.d(
-                TAG,
-                "=================================================================="
-        );
       });
     } else {
-      Log.d(TAG, "Camera not running, just saving configuration");
-      Log.d(
-              TAG,
-              "=================================================================="
-      );
+      CameraLog.d(TAG, "Camera not running, just saving configuration");
+      if (callback != null) callback.run();
+    }
+  }
+
+  /**
+   * Follow a display rotation without rebinding: the use cases get the new target rotation so
+   * captures are oriented correctly, and the preview is re-laid out from the geometry cache. The
+   * callback runs once the new layout has been applied. The time from {@code detectedNanos} to
+   * that point is recorded as the rotation latency.
+   */
+  public void handleDisplayRotation(long detectedNanos, Runnable callback) {
+    if (!isRunning() || (previewContainer == null && !headless)) {
       if (callback != null) callback.run();
+      return;
     }
+    mainExecutor.execute(() -> {
+      int rotation = getDisplayRotation();
+      if (previewUseCase != null) previewUseCase.setTargetRotation(rotation);
+      if (imageCapture != null) imageCapture.setTargetRotation(rotation);
+      if (sampleImageCapture != null) sampleImageCapture.setTargetRotation(rotation);
+      if (videoCapture != null) videoCapture.setTargetRotation(rotation);
+      if (headless) {
+        // Only the capture orientation follows; there is no layout to update
+        if (callback != null) callback.run();
+        return;
+      }
+
+      // Rotation keeps the aspect ratio, so the stream stays as bound; only the layout follows
+      String aspectRatio = sessionConfig != null ? sessionConfig.getAspectRatio() : null;
+      if (aspectRatio != null && !aspectRatio.isEmpty()) {
+        // Match iOS behavior: the preview is re-centered after a rotation
+        sessionConfig.setCentered(true);
+        updatePreviewLayoutForAspectRatio(aspectRatio, null, null);
+      }
+
+      previewContainer.post(() -> {
+        updateGridOverlayBounds();
+        long elapsedNanos = SystemClock.elapsedRealtimeNanos() - detectedNanos;
+        PerformanceMetrics.getInstance().rotation.recordNanos(elapsedNanos);
+        CameraLog.d(
+                TAG,
+                "handleDisplayRotation: Rotation {} applied in {} ms",
+                rotation,
+                elapsedNanos / 1_000_000
+        );
+        if (callback != null) callback.run();
+      });
+    });
   }
 
-  // Force aspect ratio recalculation (used during orientation changes)
+  // Re-center the preview at the given aspect ratio, rebinding only if the stream ratio changes
   public void forceAspectRatioRecalculation(
           String aspectRatio,
           Float x,
           Float y,
           Runnable callback
   ) {
-    Log.d(
-            TAG,
-            "======================== FORCE ASPECT RATIO RECALCULATION ========================"
-    );
-    Log.d(
-            TAG,
-            "Input parameters - aspectRatio: " +
-                    aspectRatio +
-                    ", x: " +
-                    x +
-                    ", y: " +
-                    y
-    );
+    CameraLog.d(TAG, "forceAspectRatioRecalculation: {} (x={}, y={})", aspectRatio, x, y);
 
     if (sessionConfig == null) {
-      Log.d(TAG, "SessionConfig is null, returning");
+      CameraLog.d(TAG, "SessionConfig is null, returning");
       if (callback != null) callback.run();
       return;
     }
 
     String currentGridMode = sessionConfig.getGridMode();
-    Log.d(TAG, "Forcing aspect ratio recalculation for: " + aspectRatio);
-    Log.d(TAG, "Auto-centering will be applied (matching iOS behavior)");
 
     // Match iOS behavior: when aspect ratio changes, always auto-center
-    sessionConfig = new CameraSessionConfiguration(
-            sessionConfig.getDeviceId(),
-            sessionConfig.getPosition(),
-            -1, // Force auto-center X (iOS: self.posX = -1)
-            -1, // Force auto-center Y (iOS: self.posY = -1)
-            sessionConfig.getWidth(),
-            sessionConfig.getHeight(),
-            sessionConfig.getPaddingBottom(),
-            sessionConfig.getToBack(),
-            sessionConfig.getStoreToFile(),
-            sessionConfig.getEnableOpacity(),
-            sessionConfig.getEnableZoom(),
-            sessionConfig.getDisableExifHeaderStripping(),
-            sessionConfig.getDisableAudio(),
-            sessionConfig.getZoomFactor(),
-            aspectRatio,
-            currentGridMode,
-            sessionConfig.getDisableFocusIndicator(),
-            sessionConfig.isVideoModeEnabled(),
-            sessionConfig.getVideoQuality()
-    );
-    sessionConfig.setCentered(true);
+    sessionConfig = sessionConfig.toBuilder()
+            .setX(-1) // Force auto-center X (iOS: self.posX = -1)
+            .setY(-1) // Force auto-center Y (iOS: self.posY = -1)
+            .setAspectRatio(aspectRatio)
+            .setGridMode(currentGridMode)
+            .setTargetZoom(1.0f)
+            .setCentered(true)
+            .build();
 
     // Update layout and rebind camera with new aspect ratio
-    if (isRunning && previewContainer != null) {
+    if (isRunning() && previewContainer != null) {
       mainExecutor.execute(() -> {
         // First update the UI layout - always pass null for x,y to force auto-centering (matching iOS)
         updatePreviewLayoutForAspectRatio(aspectRatio, null, null);
 
-        // Then rebind the camera with new aspect ratio configuration
-        Log.d(
-                TAG,
-                "forceAspectRatioRecalculation: Rebinding camera with aspect ratio: " +
-                        aspectRatio
-        );
-        bindCameraUseCases();
+        // Only rebind when the sensor streams need a different aspect ratio; otherwise the
+        // new layout is all that changes
+        if (!Objects.equals(aspectRatio, boundAspectRatio)) {
+          CameraLog.d(TAG, "forceAspectRatioRecalculation: Rebinding camera with aspect ratio: {}", aspectRatio);
+          bindCameraUseCases();
+        } else {
+          CameraLog.d(TAG, "forceAspectRatioRecalculation: Stream already at {}, layout only", aspectRatio);
+          applyPreviewScaleType();
+        }
 
         // Preserve grid mode and wait for completion
-        if (gridOverlayView != null) {
-          gridOverlayView.post(() -> {
-            Log.d(
-                    TAG,
-                    "forceAspectRatioRecalculation: Re-applying grid mode: " +
-                            currentGridMode
-            );
-            gridOverlayView.setGridMode(currentGridMode);
+        if (overlayView != null) {
+          overlayView.post(() -> {
+            CameraLog.d(TAG, "forceAspectRatioRecalculation: Re-applying grid mode: {}", currentGridMode);
+            overlayView.setGridMode(currentGridMode);
 
             // Wait one more frame for grid to be applied, then call callback
             if (callback != null) {
-              gridOverlayView.post(callback);
+              overlayView.post(callback);
             }
           });
         } else {
@@ -3051,51 +3651,23 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
           }
         }
 
-        Log.d(
-                TAG,
-                "=================================================================="
-        );
       });
     } else {
-      Log.d(TAG, "Camera not running, just saving configuration");
-      Log.d(
-              TAG,
-              "=================================================================="
-      );
+      CameraLog.d(TAG, "Camera not running, just saving configuration");
       if (callback != null) callback.run();
     }
   }
 
   public void setGridMode(String gridMode) {
     if (sessionConfig != null) {
-      Log.d(TAG, "setGridMode: Changing grid mode to: " + gridMode);
-      sessionConfig = new CameraSessionConfiguration(
-              sessionConfig.getDeviceId(),
-              sessionConfig.getPosition(),
-              sessionConfig.getX(),
-              sessionConfig.getY(),
-              sessionConfig.getWidth(),
-              sessionConfig.getHeight(),
-              sessionConfig.getPaddingBottom(),
-              sessionConfig.getToBack(),
-              sessionConfig.getStoreToFile(),
-              sessionConfig.getEnableOpacity(),
-              sessionConfig.getEnableZoom(),
-              sessionConfig.getDisableExifHeaderStripping(),
-              sessionConfig.getDisableAudio(),
-              sessionConfig.getZoomFactor(),
-              sessionConfig.getAspectRatio(),
-              gridMode,
-              sessionConfig.getDisableFocusIndicator(),
-              sessionConfig.isVideoModeEnabled(),
-              sessionConfig.getVideoQuality()
-      );
+      CameraLog.d(TAG, "setGridMode: Changing grid mode to: {}", gridMode);
+      sessionConfig = sessionConfig.toBuilder().setGridMode(gridMode).build();
 
       // Update the grid overlay immediately
-      if (gridOverlayView != null) {
-        gridOverlayView.post(() -> {
-          Log.d(TAG, "setGridMode: Applying grid mode to overlay: " + gridMode);
-          gridOverlayView.setGridMode(gridMode);
+      if (overlayView != null) {
+        overlayView.post(() -> {
+          CameraLog.d(TAG, "setGridMode: Applying grid mode to overlay: {}", gridMode);
+          overlayView.setGridMode(gridMode);
         });
       }
     }
@@ -3104,26 +3676,11 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
   public int getPreviewX() {
     if (previewContainer == null) return 0;
 
-    // Get the container position
+    // Container position plus the offset of the camera content within it
     ViewGroup.LayoutParams layoutParams = previewContainer.getLayoutParams();
     if (layoutParams instanceof ViewGroup.MarginLayoutParams) {
       int containerX = ((ViewGroup.MarginLayoutParams) layoutParams).leftMargin;
-
-      // Get the actual camera bounds within the container
-      Rect cameraBounds = getActualCameraBounds();
-      int actualX = containerX + cameraBounds.left;
-
-      Log.d(
-              TAG,
-              "getPreviewX: containerX=" +
-                      containerX +
-                      ", cameraBounds.left=" +
-                      cameraBounds.left +
-                      ", actualX=" +
-                      actualX
-      );
-
-      return actualX;
+      return containerX + getActualCameraBounds().left;
     }
     return previewContainer.getLeft();
   }
@@ -3131,203 +3688,39 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
   public int getPreviewY() {
     if (previewContainer == null) return 0;
 
-    // Get the container position
+    // Container position plus the offset of the camera content within it
     ViewGroup.LayoutParams layoutParams = previewContainer.getLayoutParams();
     if (layoutParams instanceof ViewGroup.MarginLayoutParams) {
       int containerY = ((ViewGroup.MarginLayoutParams) layoutParams).topMargin;
-
-      // Get the actual camera bounds within the container
-      Rect cameraBounds = getActualCameraBounds();
-      int actualY = containerY + cameraBounds.top;
-
-      Log.d(
-              TAG,
-              "getPreviewY: containerY=" +
-                      containerY +
-                      ", cameraBounds.top=" +
-                      cameraBounds.top +
-                      ", actualY=" +
-                      actualY
-      );
-
-      return actualY;
+      return containerY + getActualCameraBounds().top;
     }
     return previewContainer.getTop();
   }
 
-  // Get the actual camera content bounds within the PreviewView
-  private Rect getActualCameraBounds() {
+  // Get the actual camera content bounds within the PreviewView, memoized on the layout inputs
+  private PreviewGeometry.Box getActualCameraBounds() {
     if (previewView == null || previewContainer == null) {
-      return new Rect(0, 0, 0, 0);
+      return new PreviewGeometry.Box(0, 0, 0, 0);
     }
-
-    // Get the container bounds
-    int containerWidth = previewContainer.getWidth();
-    int containerHeight = previewContainer.getHeight();
-
-    // Get the preview transformation info to understand how the camera is scaled/positioned
-    // For FIT_CENTER, the camera content is scaled to fit within the container
-    // This might create letterboxing (black bars) on top/bottom or left/right
-
-    // Get the actual preview resolution
-    if (currentPreviewResolution == null) {
-      // If we don't have the resolution yet, assume the container is filled
-      return new Rect(0, 0, containerWidth, containerHeight);
-    }
-
-    // CameraX delivers preview in sensor orientation (always landscape)
-    // But PreviewView internally rotates it to match device orientation
-    // So we need to swap dimensions in portrait mode
-    int cameraWidth = currentPreviewResolution.getWidth();
-    int cameraHeight = currentPreviewResolution.getHeight();
-
-    // Check if we're in portrait mode
-    boolean isPortrait =
-            context.getResources().getConfiguration().orientation ==
-                    Configuration.ORIENTATION_PORTRAIT;
-
-    // Swap dimensions if in portrait mode to match how PreviewView displays it
-    if (isPortrait) {
-      int temp = cameraWidth;
-      cameraWidth = cameraHeight;
-      cameraHeight = temp;
-    }
-
-    // When we have an aspect ratio set, we use FILL_CENTER which scales to fill
-    // the container while maintaining aspect ratio, potentially cropping
-    boolean usesFillCenter =
-            sessionConfig != null && sessionConfig.getAspectRatio() != null;
-
-    // For FILL_CENTER with aspect ratio, we need to calculate the actual visible bounds
-    // The preview might extend beyond the container bounds and get clipped
-    if (usesFillCenter) {
-      // Calculate how the camera preview is scaled to fill the container
-      float widthScale = (float) containerWidth / cameraWidth;
-      float heightScale = (float) containerHeight / cameraHeight;
-      float scale = Math.max(widthScale, heightScale); // max for FILL_CENTER
-
-      // Calculate the scaled dimensions
-      int scaledWidth = Math.round(cameraWidth * scale);
-      int scaledHeight = Math.round(cameraHeight * scale);
-
-      // Calculate how much is clipped on each side
-      int excessWidth = Math.max(0, scaledWidth - containerWidth);
-      int excessHeight = Math.max(0, scaledHeight - containerHeight);
-
-      // For the actual visible bounds, we need to account for potential
-      // internal misalignment of PreviewView's SurfaceView
-      int adjustedWidth = containerWidth;
-      int adjustedHeight = containerHeight;
-
-      // Apply small adjustments for 4:3 ratio to prevent blue line
-      // This compensates for PreviewView's internal SurfaceView misalignment
-      String aspectRatio = sessionConfig != null
-              ? sessionConfig.getAspectRatio()
-              : null;
-      if ("4:3".equals(aspectRatio)) {
-        // For 4:3, reduce the reported width slightly to account for
-        // the SurfaceView drawing outside its bounds
-        adjustedWidth = containerWidth - 2;
-        adjustedHeight = containerHeight - 2;
-      }
-
-      Log.d(
-              TAG,
-              "getActualCameraBounds FILL_CENTER: container=" +
-                      containerWidth +
-                      "x" +
-                      containerHeight +
-                      ", camera=" +
-                      cameraWidth +
-                      "x" +
-                      cameraHeight +
-                      " (portrait=" +
-                      isPortrait +
-                      ")" +
-                      ", scale=" +
-                      scale +
-                      ", scaled=" +
-                      scaledWidth +
-                      "x" +
-                      scaledHeight +
-                      ", excess=" +
-                      excessWidth +
-                      "x" +
-                      excessHeight +
-                      ", adjusted=" +
-                      adjustedWidth +
-                      "x" +
-                      adjustedHeight +
-                      ", ratio=" +
-                      aspectRatio
-      );
-
-      // Return slightly inset bounds for 4:3 to avoid blue line
-      if ("4:3".equals(aspectRatio)) {
-        return new Rect(1, 1, adjustedWidth + 1, adjustedHeight + 1);
-      } else {
-        return new Rect(0, 0, containerWidth, containerHeight);
-      }
-    }
-
-    // For FIT_CENTER (no aspect ratio), calculate letterboxing
-    float widthScale = (float) containerWidth / cameraWidth;
-    float heightScale = (float) containerHeight / cameraHeight;
-    float scale = Math.min(widthScale, heightScale);
-
-    // Calculate the actual size of the camera content after scaling
-    int scaledWidth = Math.round(cameraWidth * scale);
-    int scaledHeight = Math.round(cameraHeight * scale);
-
-    // Calculate the offset to center the content
-    int offsetX = (containerWidth - scaledWidth) / 2;
-    int offsetY = (containerHeight - scaledHeight) / 2;
-
-    Log.d(
-            TAG,
-            "getActualCameraBounds FIT_CENTER: container=" +
-                    containerWidth +
-                    "x" +
-                    containerHeight +
-                    ", camera=" +
-                    cameraWidth +
-                    "x" +
-                    cameraHeight +
-                    " (swapped=" +
-                    isPortrait +
-                    ")" +
-                    ", scale=" +
-                    scale +
-                    ", scaled=" +
-                    scaledWidth +
-                    "x" +
-                    scaledHeight +
-                    ", offset=(" +
-                    offsetX +
-                    "," +
-                    offsetY +
-                    ")"
-    );
-
-    // Return the bounds relative to the container
-    return new Rect(
-            Math.max(0, offsetX),
-            Math.max(0, offsetY),
-            Math.min(containerWidth, offsetX + scaledWidth),
-            Math.min(containerHeight, offsetY + scaledHeight)
+    Size resolution = currentPreviewResolution;
+    return geometry.getContentBounds(
+            previewContainer.getWidth(),
+            previewContainer.getHeight(),
+            resolution != null ? resolution.getWidth() : 0,
+            resolution != null ? resolution.getHeight() : 0,
+            isPortrait(),
+            sessionConfig != null ? sessionConfig.getAspectRatio() : null
     );
   }
 
   public int getPreviewWidth() {
     if (previewContainer == null) return 0;
-    Rect bounds = getActualCameraBounds();
-    return bounds.width();
+    return getActualCameraBounds().width;
   }
 
   public int getPreviewHeight() {
     if (previewContainer == null) return 0;
-    Rect bounds = getActualCameraBounds();
-    return bounds.height();
+    return getActualCameraBounds().height;
   }
 
   public void setPreviewSize(int x, int y, int width, int height) {
@@ -3348,194 +3741,143 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
 
     // Ensure this runs on the main UI thread
     mainExecutor.execute(() -> {
-      ViewGroup.LayoutParams layoutParams = previewContainer.getLayoutParams();
-      if (layoutParams instanceof ViewGroup.MarginLayoutParams) {
-        ViewGroup.MarginLayoutParams params =
-                (ViewGroup.MarginLayoutParams) layoutParams;
-
-        // Only add insets for positioning coordinates, not for full-screen sizes
-        int webViewTopInset = getWebViewTopInset();
-        int webViewLeftInset = getWebViewLeftInset();
-
-        // Handle positioning - preserve current values if new values are not specified (negative)
-        if (x >= 0) {
-          // Don't add insets if this looks like a calculated full-screen coordinate (x=0, y=0)
-          if (x == 0 && y == 0) {
-            params.leftMargin = x;
-            Log.d(
-                    TAG,
-                    "setPreviewSize: Full-screen mode - keeping x=0 without insets"
-            );
-          } else {
-            params.leftMargin = x + webViewLeftInset;
-            Log.d(
-                    TAG,
-                    "setPreviewSize: Positioned mode - x=" +
-                            x +
-                            " + inset=" +
-                            webViewLeftInset +
-                            " = " +
-                            (x + webViewLeftInset)
-            );
-          }
-        }
-        if (y >= 0) {
-          // Don't add insets if this looks like a calculated full-screen coordinate (x=0, y=0)
-          if (x == 0 && y == 0) {
-            params.topMargin = y;
-            Log.d(
-                    TAG,
-                    "setPreviewSize: Full-screen mode - keeping y=0 without insets"
-            );
-          } else {
-            params.topMargin = y + webViewTopInset;
-            Log.d(
-                    TAG,
-                    "setPreviewSize: Positioned mode - y=" +
-                            y +
-                            " + inset=" +
-                            webViewTopInset +
-                            " = " +
-                            (y + webViewTopInset)
-            );
-          }
-        }
-        if (width > 0) params.width = width;
-        if (height > 0) params.height = height;
+      int[] margins = toPreviewMargins(x, y);
+      setPreviewLayout(margins[0], margins[1], width, height, callback);
+    });
+  }
 
-        previewContainer.setLayoutParams(params);
-        previewContainer.requestLayout();
+  /**
+   * Layout margins for a preview position in screen pixels, the space the session configuration
+   * keeps x and y in. The WebView insets are added, except for the (0, 0) full-screen origin; a
+   * negative coordinate keeps the current margin. Must be called on the main thread.
+   */
+  public int[] toPreviewMargins(int x, int y) {
+    int currentLeft = sessionConfig != null ? sessionConfig.getX() : 0;
+    int currentTop = sessionConfig != null ? sessionConfig.getY() : 0;
+    ViewGroup.LayoutParams layoutParams = previewContainer != null
+            ? previewContainer.getLayoutParams()
+            : null;
+    if (layoutParams instanceof ViewGroup.MarginLayoutParams) {
+      currentLeft = ((ViewGroup.MarginLayoutParams) layoutParams).leftMargin;
+      currentTop = ((ViewGroup.MarginLayoutParams) layoutParams).topMargin;
+    }
+    // Don't add insets if this looks like a calculated full-screen coordinate (x=0, y=0)
+    boolean origin = x == 0 && y == 0;
+    int[] insets = getWebViewInsets();
+    return new int[] {
+            x < 0 ? currentLeft : origin ? 0 : x + insets[0],
+            y < 0 ? currentTop : origin ? 0 : y + insets[1]
+    };
+  }
 
-        Log.d(
-                TAG,
-                "setPreviewSize: Updated to " +
-                        params.width +
-                        "x" +
-                        params.height +
-                        " at (" +
-                        params.leftMargin +
-                        "," +
-                        params.topMargin +
-                        ")"
-        );
+  // Lay the container out at the given margins, keeping a negative margin or a zero width or
+  // height as it is, and record the new layout in the session configuration. Main thread.
+  private void setPreviewLayout(
+          int leftMargin,
+          int topMargin,
+          int width,
+          int height,
+          Runnable callback
+  ) {
+    if (previewContainer == null) {
+      if (callback != null) callback.run();
+      return;
+    }
+    ViewGroup.LayoutParams layoutParams = previewContainer.getLayoutParams();
+    if (layoutParams instanceof ViewGroup.MarginLayoutParams) {
+      ViewGroup.MarginLayoutParams params =
+              (ViewGroup.MarginLayoutParams) layoutParams;
+      if (leftMargin >= 0) params.leftMargin = leftMargin;
+      if (topMargin >= 0) params.topMargin = topMargin;
+      if (width > 0) params.width = width;
+      if (height > 0) params.height = height;
 
-        // Update session config to reflect actual layout
-        if (sessionConfig != null) {
-          String currentAspectRatio = sessionConfig.getAspectRatio();
-
-          // Calculate aspect ratio from actual dimensions if both width and height are provided
-          String calculatedAspectRatio = currentAspectRatio;
-          if (params.width > 0 && params.height > 0) {
-            // Always use larger dimension / smaller dimension for consistent comparison
-            float ratio =
-                    Math.max(params.width, params.height) /
-                            (float) Math.min(params.width, params.height);
-            // Standard ratios: 16:9 ≈ 1.778, 4:3 ≈ 1.333
-            float ratio16_9 = 16f / 9f; // 1.778
-            float ratio4_3 = 4f / 3f; // 1.333
-
-            // Determine closest standard aspect ratio
-            if (Math.abs(ratio - ratio16_9) < Math.abs(ratio - ratio4_3)) {
-              calculatedAspectRatio = "16:9";
-            } else {
-              calculatedAspectRatio = "4:3";
-            }
-            Log.d(
-                    TAG,
-                    "setPreviewSize: Calculated aspect ratio from " +
-                            params.width +
-                            "x" +
-                            params.height +
-                            " = " +
-                            calculatedAspectRatio +
-                            " (normalized ratio=" +
-                            ratio +
-                            ")"
-            );
-          }
+      previewContainer.setLayoutParams(params);
+      previewContainer.requestLayout();
+
+      CameraLog.d(
+              TAG,
+              "setPreviewSize: Updated to {}x{} at ({},{})",
+              params.width,
+              params.height,
+              params.leftMargin,
+              params.topMargin
+      );
+
+      // Update session config to reflect actual layout
+      if (sessionConfig != null) {
+        String currentAspectRatio = sessionConfig.getAspectRatio();
 
-          sessionConfig = new CameraSessionConfiguration(
-                  sessionConfig.getDeviceId(),
-                  sessionConfig.getPosition(),
-                  params.leftMargin,
-                  params.topMargin,
+        // Calculate aspect ratio from actual dimensions if both width and height are provided
+        String calculatedAspectRatio = currentAspectRatio;
+        if (params.width > 0 && params.height > 0) {
+          calculatedAspectRatio = PreviewGeometry.nearestStandardAspect(
+                  params.width,
+                  params.height
+          );
+          CameraLog.d(
+                  TAG,
+                  "setPreviewSize: Calculated aspect ratio from {}x{} = {}",
                   params.width,
                   params.height,
-                  sessionConfig.getPaddingBottom(),
-                  sessionConfig.getToBack(),
-                  sessionConfig.getStoreToFile(),
-                  sessionConfig.getEnableOpacity(),
-                  sessionConfig.getEnableZoom(),
-                  sessionConfig.getDisableExifHeaderStripping(),
-                  sessionConfig.getDisableAudio(),
-                  sessionConfig.getZoomFactor(),
-                  calculatedAspectRatio,
-                  sessionConfig.getGridMode(),
-                  sessionConfig.getDisableFocusIndicator(),
-                  sessionConfig.isVideoModeEnabled(),
-                  sessionConfig.getVideoQuality()
+                  calculatedAspectRatio
           );
+        }
 
-          // If aspect ratio changed due to size update, rebind camera
-          if (
-                  isRunning &&
-                          !Objects.equals(currentAspectRatio, calculatedAspectRatio)
-          ) {
-            Log.d(
-                    TAG,
-                    "setPreviewSize: Aspect ratio changed from " +
-                            currentAspectRatio +
-                            " to " +
-                            calculatedAspectRatio +
-                            ", rebinding camera"
-            );
-            bindCameraUseCases();
+        sessionConfig = sessionConfig.toBuilder()
+                .setX(params.leftMargin)
+                .setY(params.topMargin)
+                .setWidth(params.width)
+                .setHeight(params.height)
+                .setAspectRatio(calculatedAspectRatio)
+                .setTargetZoom(1.0f)
+                .setCentered(false)
+                .build();
 
-            // Wait for camera rebinding to complete, then call callback
-            if (callback != null) {
-              previewContainer.post(() -> {
-                updateGridOverlayBounds();
-                previewContainer.post(callback);
-              });
-            } else {
-              previewContainer.post(() -> updateGridOverlayBounds());
-            }
-          } else {
-            // No camera rebinding needed, wait for layout to complete then call callback
-            previewContainer.post(() -> {
-              updateGridOverlayBounds();
-              if (callback != null) {
-                callback.run();
-              }
-            });
-          }
-        } else {
-          // No sessionConfig, just wait for layout then call callback
-          previewContainer.post(() -> {
-            updateGridOverlayBounds();
-            if (callback != null) {
-              callback.run();
-            }
-          });
+        // The sensor stream is left as bound: FILL_CENTER crops it to the new container and
+        // captures are cropped to the visible preview, so resizing never restarts the camera.
+        // The new aspect ratio is picked up by the next full rebind.
+        if (!Objects.equals(boundAspectRatio, calculatedAspectRatio)) {
+          CameraLog.d(
+                  TAG,
+                  "setPreviewSize: Layout aspect {} differs from stream aspect {}, re-laying out without rebinding",
+                  calculatedAspectRatio,
+                  boundAspectRatio
+          );
         }
+        applyPreviewScaleType();
+        previewContainer.post(() -> {
+          updateGridOverlayBounds();
+          if (callback != null) {
+            callback.run();
+          }
+        });
       } else {
-        Log.w(
-                TAG,
-                "setPreviewSize: Cannot set margins on layout params of type " +
-                        layoutParams.getClass().getSimpleName()
-        );
-        // Fallback: just set width and height if specified
-        if (width > 0) layoutParams.width = width;
-        if (height > 0) layoutParams.height = height;
-        previewContainer.setLayoutParams(layoutParams);
-        previewContainer.requestLayout();
-
-        // Wait for layout then call callback
-        if (callback != null) {
-          previewContainer.post(callback);
-        }
+        // No sessionConfig, just wait for layout then call callback
+        previewContainer.post(() -> {
+          updateGridOverlayBounds();
+          if (callback != null) {
+            callback.run();
+          }
+        });
       }
-    });
+    } else {
+      CameraLog.w(
+              TAG,
+              "setPreviewSize: Cannot set margins on layout params of type {}",
+              layoutParams.getClass().getSimpleName()
+      );
+      // Fallback: just set width and height if specified
+      if (width > 0) layoutParams.width = width;
+      if (height > 0) layoutParams.height = height;
+      previewContainer.setLayoutParams(layoutParams);
+      previewContainer.requestLayout();
+
+      // Wait for layout then call callback
+      if (callback != null) {
+        previewContainer.post(callback);
+      }
+    }
   }
 
   private void updatePreviewLayoutForAspectRatio(String aspectRatio) {
@@ -3549,350 +3891,69 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
   ) {
     if (previewContainer == null || aspectRatio == null) return;
 
-    Log.d(
-            TAG,
-            "======================== UPDATE PREVIEW LAYOUT FOR ASPECT RATIO ========================"
-    );
-    Log.d(
-            TAG,
-            "Input parameters - aspectRatio: " +
-                    aspectRatio +
-                    ", x: " +
-                    x +
-                    ", y: " +
-                    y
-    );
-
-    // Get comprehensive display information
-    WindowManager windowManager = (WindowManager) this.context.getSystemService(
-            Context.WINDOW_SERVICE
-    );
-    int screenWidthPx, screenHeightPx;
-    float density;
-
-    // Get density using DisplayMetrics (available on all API levels)
-    DisplayMetrics displayMetrics = new DisplayMetrics();
-    windowManager.getDefaultDisplay().getMetrics(displayMetrics);
-    density = displayMetrics.density;
-
-    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
-      // API 30+ (Android 11+) - use WindowMetrics for screen dimensions
-      WindowMetrics metrics = windowManager.getCurrentWindowMetrics();
-      Rect bounds = metrics.getBounds();
-      screenWidthPx = bounds.width();
-      screenHeightPx = bounds.height();
-    } else {
-      // API < 30 - use legacy DisplayMetrics for screen dimensions
-      screenWidthPx = displayMetrics.widthPixels;
-      screenHeightPx = displayMetrics.heightPixels;
-    }
-
-    // Get WebView dimensions
-    int webViewWidth = webView.getWidth();
-    int webViewHeight = webView.getHeight();
-
-    // Get current preview container info
-    ViewGroup.LayoutParams currentParams = previewContainer.getLayoutParams();
-    int currentWidth = currentParams != null ? currentParams.width : 0;
-    int currentHeight = currentParams != null ? currentParams.height : 0;
-    int currentX = 0;
-    int currentY = 0;
-    if (currentParams instanceof ViewGroup.MarginLayoutParams) {
-      ViewGroup.MarginLayoutParams marginParams =
-              (ViewGroup.MarginLayoutParams) currentParams;
-      currentX = marginParams.leftMargin;
-      currentY = marginParams.topMargin;
-    }
-
-    Log.d(
-            TAG,
-            "Screen dimensions: " +
-                    screenWidthPx +
-                    "x" +
-                    screenHeightPx +
-                    " pixels, density: " +
-                    density
-    );
-    Log.d(TAG, "WebView dimensions: " + webViewWidth + "x" + webViewHeight);
-    Log.d(
-            TAG,
-            "Current preview position: " +
-                    currentX +
-                    "," +
-                    currentY +
-                    " size: " +
-                    currentWidth +
-                    "x" +
-                    currentHeight
-    );
-
-    // Parse aspect ratio as width:height (e.g., 4:3 -> r=4/3)
-    String[] ratios = aspectRatio.split(":");
-    if (ratios.length != 2) {
-      Log.e(TAG, "Invalid aspect ratio format: " + aspectRatio);
+    double ratio = PreviewGeometry.displayRatio(aspectRatio, isPortrait());
+    if (Double.isNaN(ratio)) {
+      CameraLog.e(TAG, "Invalid aspect ratio format: " + aspectRatio);
       return;
     }
 
-    try {
-      // Match iOS logic exactly
-      double ratioWidth = Double.parseDouble(ratios[0]);
-      double ratioHeight = Double.parseDouble(ratios[1]);
-      boolean isPortrait =
-              context.getResources().getConfiguration().orientation ==
-                      Configuration.ORIENTATION_PORTRAIT;
-
-      Log.d(
-              TAG,
-              "Aspect ratio parsing - Original: " +
-                      aspectRatio +
-                      " (width=" +
-                      ratioWidth +
-                      ", height=" +
-                      ratioHeight +
-                      ")"
-      );
-      Log.d(
-              TAG,
-              "Device orientation: " + (isPortrait ? "PORTRAIT" : "LANDSCAPE")
-      );
-
-      // iOS: let ratio = !isPortrait ? ratioParts[0] / ratioParts[1] : ratioParts[1] / ratioParts[0]
-      double ratio = !isPortrait
-              ? (ratioWidth / ratioHeight)
-              : (ratioHeight / ratioWidth);
-
-      Log.d(
-              TAG,
-              "Computed ratio: " +
-                      ratio +
-                      " (iOS formula: " +
-                      (!isPortrait ? "width/height" : "height/width") +
-                      ")"
-      );
-
-      // Get available space from webview dimensions
-      int availableWidth = webViewWidth;
-      int availableHeight = webViewHeight;
-
-      Log.d(
-              TAG,
-              "Available space from WebView: " +
-                      availableWidth +
-                      "x" +
-                      availableHeight
-      );
-
-      // Calculate position and size
-      int finalX, finalY, finalWidth, finalHeight;
-
-      if (x != null && y != null) {
-        // Manual positioning mode
-        int webViewTopInset = getWebViewTopInset();
-        int webViewLeftInset = getWebViewLeftInset();
-
-        Log.d(
-                TAG,
-                "Manual positioning mode - WebView insets: left=" +
-                        webViewLeftInset +
-                        ", top=" +
-                        webViewTopInset
-        );
-
-        finalX = Math.max(
-                0,
-                Math.min(x.intValue() + webViewLeftInset, availableWidth)
-        );
-        finalY = Math.max(
-                0,
-                Math.min(y.intValue() + webViewTopInset, availableHeight)
-        );
-
-        // Calculate maximum available space from the given position
-        int maxWidth = availableWidth - finalX;
-        int maxHeight = availableHeight - finalY;
-
-        Log.d(
-                TAG,
-                "Max available space from position: " + maxWidth + "x" + maxHeight
-        );
-
-        // Calculate optimal size while maintaining aspect ratio within available space
-        finalWidth = maxWidth;
-        finalHeight = (int) (maxWidth / ratio);
-
-        if (finalHeight > maxHeight) {
-          // Height constraint is tighter, fit by height
-          finalHeight = maxHeight;
-          finalWidth = (int) (maxHeight * ratio);
-          Log.d(TAG, "Height-constrained sizing");
-        } else {
-          Log.d(TAG, "Width-limited sizing");
-        }
-
-        // Ensure final position stays within bounds
-        finalX = Math.max(0, Math.min(finalX, availableWidth - finalWidth));
-        finalY = Math.max(0, Math.min(finalY, availableHeight - finalHeight));
-      } else {
-        // Auto-center mode - match iOS behavior exactly
-        Log.d(TAG, "Auto-center mode");
-
-        // Calculate maximum size that fits the aspect ratio in available space
-        double maxWidthByHeight = availableHeight * ratio;
-        double maxHeightByWidth = availableWidth / ratio;
-
-        Log.d(
-                TAG,
-                "Aspect ratio calculations - maxWidthByHeight: " +
-                        maxWidthByHeight +
-                        ", maxHeightByWidth: " +
-                        maxHeightByWidth
-        );
-
-        if (maxWidthByHeight <= availableWidth) {
-          // Height is the limiting factor
-          finalWidth = (int) maxWidthByHeight;
-          finalHeight = availableHeight;
-          Log.d(
-                  TAG,
-                  "Height-limited sizing: " + finalWidth + "x" + finalHeight
-          );
-        } else {
-          // Width is the limiting factor
-          finalWidth = availableWidth;
-          finalHeight = (int) maxHeightByWidth;
-          Log.d(TAG, "Width-limited sizing: " + finalWidth + "x" + finalHeight);
-        }
-
-        // Center the preview
-        finalX = (availableWidth - finalWidth) / 2;
-        finalY = (availableHeight - finalHeight) / 2;
-
-        Log.d(
-                TAG,
-                "Auto-center mode: calculated size " +
-                        finalWidth +
-                        "x" +
-                        finalHeight +
-                        " at position (" +
-                        finalX +
-                        ", " +
-                        finalY +
-                        ")"
-        );
-      }
-
-      Log.d(
-              TAG,
-              "Final calculated layout - Position: (" +
-                      finalX +
-                      "," +
-                      finalY +
-                      "), Size: " +
-                      finalWidth +
-                      "x" +
-                      finalHeight
-      );
-
-      // Calculate and log the actual displayed aspect ratio
-      double displayedRatio = (double) finalWidth / (double) finalHeight;
-      Log.d(
-              TAG,
-              "Displayed aspect ratio: " +
-                      displayedRatio +
-                      " (width=" +
-                      finalWidth +
-                      ", height=" +
-                      finalHeight +
-                      ")"
+    // Available space is the WebView
+    int availableWidth = webView.getWidth();
+    int availableHeight = webView.getHeight();
+    PreviewGeometry.Box box;
+    if (x != null && y != null) {
+      // Manual positioning mode: largest box from the given position
+      int[] insets = getWebViewInsets();
+      box = PreviewGeometry.fitAt(
+              x.intValue() + insets[0],
+              y.intValue() + insets[1],
+              availableWidth,
+              availableHeight,
+              ratio
       );
-
-      // Compare with expected ratio based on orientation
-      if (aspectRatio != null) {
-        String[] parts = aspectRatio.split(":");
-        if (parts.length == 2) {
-          double expectedDisplayRatio = isPortrait
-                  ? (ratioHeight / ratioWidth)
-                  : (ratioWidth / ratioHeight);
-          double difference = Math.abs(displayedRatio - expectedDisplayRatio);
-          Log.d(
-                  TAG,
-                  "Display ratio check - Expected: " +
-                          expectedDisplayRatio +
-                          ", Actual: " +
-                          displayedRatio +
-                          ", Difference: " +
-                          difference +
-                          " (tolerance should be < 0.01)"
-          );
-        }
-      }
-
-      // Update layout params
-      ViewGroup.LayoutParams layoutParams = previewContainer.getLayoutParams();
-      if (layoutParams instanceof ViewGroup.MarginLayoutParams) {
-        ViewGroup.MarginLayoutParams params =
-                (ViewGroup.MarginLayoutParams) layoutParams;
-        params.width = finalWidth;
-        params.height = finalHeight;
-        params.leftMargin = finalX;
-        params.topMargin = finalY;
-        previewContainer.setLayoutParams(params);
-        previewContainer.requestLayout();
-
-        Log.d(TAG, "Layout params applied successfully");
-
-        // Update grid overlay bounds after aspect ratio change
-        previewContainer.post(() -> {
-          Log.d(
-                  TAG,
-                  "Post-layout verification - Actual position: " +
-                          previewContainer.getLeft() +
-                          "," +
-                          previewContainer.getTop() +
-                          ", Actual size: " +
-                          previewContainer.getWidth() +
-                          "x" +
-                          previewContainer.getHeight()
-          );
-          updateGridOverlayBounds();
-        });
-      }
-    } catch (NumberFormatException e) {
-      Log.e(TAG, "Invalid aspect ratio format: " + aspectRatio, e);
+    } else {
+      // Auto-center mode - match iOS behavior exactly
+      box = geometry.getCenteredLayout(availableWidth, availableHeight, ratio);
     }
 
-    Log.d(
+    CameraLog.d(
             TAG,
-            "========================================================================================"
+            "updatePreviewLayoutForAspectRatio: {} in {}x{} for {}",
+            box,
+            availableWidth,
+            availableHeight,
+            aspectRatio
     );
-  }
 
-  private int getWebViewTopInset() {
-    try {
-      if (webView != null) {
-        // Get the actual WebView position on screen
-        int[] location = new int[2];
-        webView.getLocationOnScreen(location);
-        return location[1]; // Y position is the top inset
-      }
-    } catch (Exception e) {
-      Log.w(TAG, "Failed to get WebView top inset", e);
+    ViewGroup.LayoutParams layoutParams = previewContainer.getLayoutParams();
+    if (layoutParams instanceof ViewGroup.MarginLayoutParams) {
+      ViewGroup.MarginLayoutParams params =
+              (ViewGroup.MarginLayoutParams) layoutParams;
+      params.width = box.width;
+      params.height = box.height;
+      params.leftMargin = box.left;
+      params.topMargin = box.top;
+      previewContainer.setLayoutParams(params);
+      previewContainer.requestLayout();
+
+      // Update grid overlay bounds after aspect ratio change
+      previewContainer.post(this::updateGridOverlayBounds);
     }
-    return 0;
   }
 
-  private int getWebViewLeftInset() {
+  // WebView position on screen as {left, top}; edge-to-edge layouts offset it by the system bars
+  private int[] getWebViewInsets() {
+    int[] location = new int[2];
     try {
       if (webView != null) {
-        // Get the actual WebView position on screen for consistency
-        int[] location = new int[2];
         webView.getLocationOnScreen(location);
-        return location[0]; // X position is the left inset
       }
     } catch (Exception e) {
-      Log.w(TAG, "Failed to get WebView left inset", e);
+      CameraLog.w(TAG, "Failed to get WebView insets", e);
+      location[0] = 0;
+      location[1] = 0;
     }
-    return 0;
+    return location;
   }
 
   /**
@@ -3903,82 +3964,46 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
       return new int[] { 0, 0, 0, 0 }; // x, y, width, height
     }
 
-    // Get actual camera preview bounds (accounts for letterboxing/pillarboxing)
-    int actualX = getPreviewX();
-    int actualY = getPreviewY();
-    int actualWidth = getPreviewWidth();
-    int actualHeight = getPreviewHeight();
-
-    // Convert to logical pixels for JavaScript
-    DisplayMetrics metrics = context.getResources().getDisplayMetrics();
-    float pixelRatio = metrics.density;
-
-    // Remove WebView insets from coordinates
-    int webViewTopInset = getWebViewTopInset();
-    int webViewLeftInset = getWebViewLeftInset();
-
-    // Use proper rounding strategy to avoid gaps:
-    // - For positions (x, y): floor to avoid gaps at top/left
-    // - For dimensions (width, height): ceil to avoid gaps at bottom/right
-    int x = Math.max(
-            0,
-            (int) Math.ceil((actualX - webViewLeftInset) / pixelRatio)
+    // Actual camera preview bounds on screen (accounts for letterboxing/pillarboxing)
+    PreviewGeometry.Box content = getActualCameraBounds();
+    PreviewGeometry.Box screenBounds = new PreviewGeometry.Box(
+            getPreviewX(),
+            getPreviewY(),
+            content.width,
+            content.height
     );
-    int y = Math.max(
-            0,
-            (int) Math.ceil((actualY - webViewTopInset) / pixelRatio)
+    int[] insets = getWebViewInsets();
+    float pixelRatio = context.getResources().getDisplayMetrics().density;
+    int[] bounds = PreviewGeometry.toLogicalBounds(
+            screenBounds,
+            insets[0],
+            insets[1],
+            pixelRatio
     );
-    int width = (int) Math.floor(actualWidth / pixelRatio);
-    int height = (int) Math.floor(actualHeight / pixelRatio);
 
-    // Debug logging to understand the blue line issue
-    Log.d(
+    CameraLog.d(
             TAG,
-            "getCurrentPreviewBounds DEBUG: " +
-                    "actualBounds=(" +
-                    actualX +
-                    "," +
-                    actualY +
-                    "," +
-                    actualWidth +
-                    "x" +
-                    actualHeight +
-                    "), " +
-                    "logicalBounds=(" +
-                    x +
-                    "," +
-                    y +
-                    "," +
-                    width +
-                    "x" +
-                    height +
-                    "), " +
-                    "pixelRatio=" +
-                    pixelRatio +
-                    ", " +
-                    "insets=(" +
-                    webViewLeftInset +
-                    "," +
-                    webViewTopInset +
-                    ")"
+            "getCurrentPreviewBounds: screen={}, logical={}, pixelRatio={}, insets={}",
+            screenBounds,
+            Arrays.toString(bounds),
+            pixelRatio,
+            Arrays.toString(insets)
     );
 
-    return new int[] { x, y, width, height };
+    return bounds;
   }
 
   private void updateGridOverlayBounds() {
-    if (gridOverlayView != null && previewView != null) {
-      // Get the actual camera bounds
-      Rect cameraBounds = getActualCameraBounds();
-
-      // Update the grid overlay with the camera bounds
-      gridOverlayView.setCameraBounds(cameraBounds);
-
-      Log.d(
-              TAG,
-              "updateGridOverlayBounds: Updated grid bounds to " +
-                      cameraBounds.toString()
+    if (overlayView != null && previewView != null) {
+      // Overlays are drawn relative to the actual camera bounds
+      PreviewGeometry.Box bounds = getActualCameraBounds();
+      overlayView.setCameraBounds(
+              bounds.left,
+              bounds.top,
+              bounds.right(),
+              bounds.bottom()
       );
+      CameraLog.d(TAG, "updateGridOverlayBounds: Updated overlay bounds to {}", bounds);
     }
   }
 
@@ -3987,14 +4012,18 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
       return;
     }
 
-    Log.d(TAG, "triggerAutoFocus: Triggering autofocus at center");
+    CameraLog.d(TAG, "triggerAutoFocus: Triggering autofocus at center");
 
     // Cancel any ongoing focus operation
     if (currentFocusFuture != null && !currentFocusFuture.isDone()) {
-      Log.d(TAG, "triggerAutoFocus: Cancelling previous focus operation");
+      CameraLog.d(TAG, "triggerAutoFocus: Cancelling previous focus operation");
       currentFocusFuture.cancel(true);
     }
 
+    if (previewView == null) {
+      return;
+    }
+
     // Focus on the center of the view
     int viewWidth = previewView.getWidth();
     int viewHeight = previewView.getHeight();
@@ -4023,11 +4052,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
               () -> {
                 try {
                   FocusMeteringResult result = currentFocusFuture.get();
-                  Log.d(
-                          TAG,
-                          "triggerAutoFocus: Focus completed successfully: " +
-                                  result.isFocusSuccessful()
-                  );
+                  CameraLog.d(TAG, "triggerAutoFocus: Focus completed successfully: {}", result.isFocusSuccessful());
                 } catch (Exception e) {
                   // Handle cancellation gracefully - this is expected when rapid operations occur
                   if (
@@ -4041,12 +4066,9 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
                                                   .getSimpleName()
                                                   .contains("OperationCanceledException"))
                   ) {
-                    Log.d(
-                            TAG,
-                            "triggerAutoFocus: Auto-focus was cancelled by a newer focus request"
-                    );
+                    CameraLog.d(TAG, "triggerAutoFocus: Auto-focus was cancelled by a newer focus request");
                   } else {
-                    Log.e(TAG, "triggerAutoFocus: Error during focus", e);
+                    CameraLog.e(TAG, "triggerAutoFocus: Error during focus", e);
                   }
                 } finally {
                   // Clear the reference if this is still the current operation
@@ -4059,7 +4081,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
       );
     } catch (Exception e) {
       currentFocusFuture = null;
-      Log.e(TAG, "triggerAutoFocus: Failed to trigger autofocus", e);
+      CameraLog.e(TAG, "triggerAutoFocus: Failed to trigger autofocus", e);
     }
   }
 
@@ -4091,7 +4113,7 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
     androidx.core.util.Consumer<VideoRecordEvent> videoRecordEventListener =
             videoRecordEvent -> {
               if (videoRecordEvent instanceof VideoRecordEvent.Start) {
-                Log.d(TAG, "Video recording started");
+                CameraLog.d(TAG, "Video recording started");
               } else if (videoRecordEvent instanceof VideoRecordEvent.Finalize) {
                 VideoRecordEvent.Finalize finalizeEvent =
                         (VideoRecordEvent.Finalize) videoRecordEvent;
@@ -4099,6 +4121,9 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
               }
             };
 
+    // Full frame rate for the whole recording
+    powerMode.hold(true);
+
     // Start recording
     if (sessionConfig != null && !sessionConfig.isDisableAudio()) {
       currentRecording = videoCapture
@@ -4122,32 +4147,30 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
     // Log the quality being used at the moment recording starts
     if (currentVideoQualitySelector != null && camera != null) {
       Quality resolved = resolveQualityForCamera(currentVideoQualitySelector, camera);
-      Log.i(TAG, "Starting video recording with quality: requested='" + (sessionConfig != null ? sessionConfig.getVideoQuality() : null) + "' resolved='" + qualityToString(resolved) + "'");
+      CameraLog.i(
+              TAG,
+              "Starting video recording with quality: requested='{}' resolved='{}'",
+              (sessionConfig != null ? sessionConfig.getVideoQuality() : null),
+              qualityToString(resolved)
+      );
     } else {
-      Log.i(TAG, "Starting video recording with quality: not available (video pipeline not initialized)");
+      CameraLog.i(TAG, "Starting video recording with quality: not available (video pipeline not initialized)");
     }
 
-    Log.d(
-            TAG,
-            "Video recording started to: " + currentVideoFile.getAbsolutePath()
-    );
+    CameraLog.d(TAG, "Video recording started to: {}", currentVideoFile.getAbsolutePath());
   }
 
   private void initializeVideoCapture() throws Exception {
-    if (isVideoCaptureInitializing) {
-      throw new Exception("VideoCapture initialization is already in progress");
-    }
     if (cameraProvider == null || camera == null) {
       throw new Exception("Camera is not initialized");
     }
-
-    isVideoCaptureInitializing = true;
+    if (!isVideoCaptureInitializing.compareAndSet(false, true)) {
+      throw new Exception("VideoCapture initialization is already in progress");
+    }
 
     try {
       // Get current rotation for video capture
-      int rotation = previewView != null && previewView.getDisplay() != null
-              ? previewView.getDisplay().getRotation()
-              : android.view.Surface.ROTATION_0;
+      int rotation = getDisplayRotation();
 
       // Setup VideoCapture with rotation and quality mapping
       QualitySelector qualitySelector = buildQualitySelector(sessionConfig != null ? sessionConfig.getVideoQuality() : null);
@@ -4155,37 +4178,32 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
               .setQualitySelector(qualitySelector)
               .build();
       videoCapture = VideoCapture.withOutput(recorder);
+      videoCaptureQuality = sessionConfig != null ? sessionConfig.getVideoQuality() : null;
       currentVideoQualitySelector = qualitySelector;
 
       // Reuse the Preview use case we created during initial binding
       Preview preview = previewUseCase;
 
-      // Rebind with video capture included
-      cameraProvider.unbindAll();
-      if (preview != null) {
-        // CRITICAL: Re-set the surface provider after unbinding
-        // Without this, the preview won't be connected to the surface and video won't be captured
-        preview.setSurfaceProvider(previewView.getSurfaceProvider());
-
-        camera = cameraProvider.bindToLifecycle(
-                this,
-                currentCameraSelector,
-                preview,
-                imageCapture,
-                videoCapture
-        );
+      // Add video capture next to the already bound preview and image capture
+      if (preview != null || headless) {
+        bindUseCases(currentCameraSelector, preview, imageCapture, videoCapture);
 
         // Log resolved quality after binding
         Quality resolved = resolveQualityForCamera(currentVideoQualitySelector, camera);
-        Log.i(TAG, "VideoCapture initialized with quality: requested='" + (sessionConfig != null ? sessionConfig.getVideoQuality() : null) + "' resolved='" + qualityToString(resolved) + "'");
+        CameraLog.i(
+                TAG,
+                "VideoCapture initialized with quality: requested='{}' resolved='{}'",
+                (sessionConfig != null ? sessionConfig.getVideoQuality() : null),
+                qualityToString(resolved)
+        );
       } else {
         // Shouldn't happen, but handle gracefully
         throw new Exception("Preview use case not found");
       }
 
-      Log.d(TAG, "VideoCapture initialized successfully");
+      CameraLog.d(TAG, "VideoCapture initialized successfully");
     } finally {
-      isVideoCaptureInitializing = false;
+      isVideoCaptureInitializing.set(false);
     }
   }
 
@@ -4199,20 +4217,20 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
     currentVideoCallback = callback;
     currentRecording.stop();
 
-    Log.d(TAG, "Video recording stop requested");
+    CameraLog.d(TAG, "Video recording stop requested");
   }
 
   private void handleRecordingFinalized(
           VideoRecordEvent.Finalize finalizeEvent
   ) {
     if (!finalizeEvent.hasError()) {
-      Log.d(TAG, "Video recording completed successfully");
+      CameraLog.d(TAG, "Video recording completed successfully");
       if (currentVideoCallback != null) {
         String filePath = "file://" + currentVideoFile.getAbsolutePath();
         currentVideoCallback.onSuccess(filePath);
       }
     } else {
-      Log.e(TAG, "Video recording failed: " + finalizeEvent.getError());
+      CameraLog.e(TAG, "Video recording failed: " + finalizeEvent.getError());
       if (currentVideoCallback != null) {
         currentVideoCallback.onError(
                 "Video recording failed: " + finalizeEvent.getError()
@@ -4224,5 +4242,13 @@ public class CameraXView implements LifecycleOwner, LifecycleObserver {
     currentRecording = null;
     currentVideoFile = null;
     currentVideoCallback = null;
+    powerMode.hold(false);
+
+    // A quality change made during the recording (e.g. by the thermal ladder) was only stored;
+    // bind it now so the next recording uses it
+    if (sessionConfig != null && videoCapture != null
+            && !Objects.equals(sessionConfig.getVideoQuality(), videoCaptureQuality)) {
+      updateVideoQuality(sessionConfig.getVideoQuality());
+    }
   }
 }
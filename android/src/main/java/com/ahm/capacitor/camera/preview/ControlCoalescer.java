@@ -0,0 +1,69 @@
+package com.ahm.capacitor.camera.preview;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latest-wins command queue for high-frequency camera controls.
+ *
+ * Each control type has a single pending slot. Submitting replaces whatever is pending for that
+ * control, and pending commands are applied on the main thread at most once per display frame, so
+ * a slider firing on every input event costs one CameraControl call per frame instead of one per
+ * event. Replaced commands are told they were superseded, and counted in {@link PerformanceMetrics}.
+ */
+final class ControlCoalescer implements Choreographer.FrameCallback {
+
+  enum Channel {
+    ZOOM,
+    FOCUS,
+    EXPOSURE_MODE,
+    EXPOSURE_COMPENSATION,
+  }
+
+  interface Command {
+    /** Apply the control. Runs on the main thread. */
+    void apply();
+
+    /** A newer command for the same control replaced this one before it was applied. */
+    void superseded();
+  }
+
+  private static final Channel[] CHANNELS = Channel.values();
+
+  private final AtomicReferenceArray<Command> pending = new AtomicReferenceArray<>(
+    CHANNELS.length
+  );
+  private final AtomicBoolean frameScheduled = new AtomicBoolean(false);
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+  /**
+   * Queue the command for the next frame, replacing any command pending for the same control.
+   * Safe to call from any thread.
+   */
+  void submit(Channel channel, Command command) {
+    Command previous = pending.getAndSet(channel.ordinal(), command);
+    if (previous != null) {
+      PerformanceMetrics.getInstance().coalesced.incrementAndGet(channel.ordinal());
+      previous.superseded();
+    }
+    if (frameScheduled.compareAndSet(false, true)) {
+      // Choreographer is per-looper; always schedule from the main thread
+      mainHandler.post(() -> Choreographer.getInstance().postFrameCallback(this));
+    }
+  }
+
+  @Override
+  public void doFrame(long frameTimeNanos) {
+    // Clear first so commands submitted while applying schedule the next frame
+    frameScheduled.set(false);
+    for (Channel channel : CHANNELS) {
+      Command command = pending.getAndSet(channel.ordinal(), null);
+      if (command != null) {
+        command.apply();
+      }
+    }
+  }
+}
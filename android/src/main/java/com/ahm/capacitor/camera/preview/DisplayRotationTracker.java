@@ -0,0 +1,93 @@
+package com.ahm.capacitor.camera.preview;
+
+import android.content.Context;
+import android.hardware.display.DisplayManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Display;
+
+/**
+ * Reports rotations of one display, driven by DisplayManager callbacks rather than the
+ * accelerometer, so nothing runs while the device is held still.
+ *
+ * A new rotation is only reported once it has held for {@link #SETTLE_MS}, and only if it differs
+ * from the last reported one, so a rotation that is reverted mid-way or announced by several
+ * display changes produces at most one event. Callbacks run on the main thread.
+ */
+final class DisplayRotationTracker implements DisplayManager.DisplayListener {
+
+  interface Listener {
+    /**
+     * @param rotation one of the Surface.ROTATION_* constants
+     * @param detectedNanos elapsedRealtimeNanos when the rotation was first seen
+     */
+    void onRotationChanged(int rotation, long detectedNanos);
+  }
+
+  private static final long SETTLE_MS = 100;
+
+  private final DisplayManager displayManager;
+  private final Display display;
+  private final Listener listener;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final Runnable settle = this::settle;
+
+  private int reportedRotation;
+  private int pendingRotation = -1;
+  private long pendingSinceNanos;
+  private boolean started = false;
+
+  DisplayRotationTracker(Context context, Display display, Listener listener) {
+    this.displayManager = (DisplayManager) context.getSystemService(
+      Context.DISPLAY_SERVICE
+    );
+    this.display = display;
+    this.listener = listener;
+  }
+
+  void start() {
+    if (started) return;
+    started = true;
+    reportedRotation = display.getRotation();
+    displayManager.registerDisplayListener(this, handler);
+  }
+
+  void stop() {
+    if (!started) return;
+    started = false;
+    displayManager.unregisterDisplayListener(this);
+    handler.removeCallbacks(settle);
+    pendingRotation = -1;
+  }
+
+  @Override
+  public void onDisplayChanged(int displayId) {
+    if (displayId != display.getDisplayId()) return;
+    int rotation = display.getRotation();
+    if (rotation == pendingRotation) return;
+    handler.removeCallbacks(settle);
+    if (rotation == reportedRotation) {
+      // Back where we started before settling: nothing to report
+      pendingRotation = -1;
+      return;
+    }
+    pendingRotation = rotation;
+    pendingSinceNanos = SystemClock.elapsedRealtimeNanos();
+    handler.postDelayed(settle, SETTLE_MS);
+  }
+
+  @Override
+  public void onDisplayAdded(int displayId) {}
+
+  @Override
+  public void onDisplayRemoved(int displayId) {}
+
+  private void settle() {
+    int rotation = pendingRotation;
+    pendingRotation = -1;
+    if (!started || rotation < 0 || rotation == reportedRotation) return;
+    reportedRotation = rotation;
+    listener.onRotationChanged(rotation, pendingSinceNanos);
+  }
+}
@@ -0,0 +1,104 @@
+package com.ahm.capacitor.camera.preview;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with fixed log-linear buckets, in the spirit of HdrHistogram.
+ *
+ * Values are recorded in microseconds. Values below 16us get one bucket each; above that every
+ * power of two is split into 8 buckets, so any reported percentile is within 12.5% of the true
+ * value. Values are clamped to ~18 minutes, which keeps the whole histogram at 224 counters.
+ */
+final class LatencyHistogram {
+
+  private static final int SUB_BITS = 4;
+  private static final int SUB_COUNT = 1 << SUB_BITS;
+  private static final int HALF_SUB_COUNT = SUB_COUNT / 2;
+  private static final int MAX_MSB = 29;
+  private static final long MAX_VALUE_US = (1L << (MAX_MSB + 1)) - 1;
+  static final int BUCKET_COUNT =
+    SUB_COUNT + (MAX_MSB - SUB_BITS + 1) * HALF_SUB_COUNT;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+  private final AtomicLong totalCount = new AtomicLong();
+  private final AtomicLong totalMicros = new AtomicLong();
+  private final AtomicLong maxMicros = new AtomicLong();
+
+  void recordNanos(long nanos) {
+    recordMicros(nanos / 1000);
+  }
+
+  void recordMicros(long micros) {
+    long value = Math.max(0, Math.min(micros, MAX_VALUE_US));
+    counts.incrementAndGet(bucketIndex(value));
+    totalCount.incrementAndGet();
+    totalMicros.addAndGet(value);
+    long max;
+    do {
+      max = maxMicros.get();
+    } while (value > max && !maxMicros.compareAndSet(max, value));
+  }
+
+  long getCount() {
+    return totalCount.get();
+  }
+
+  double getMeanMillis() {
+    long count = totalCount.get();
+    return count == 0 ? 0 : totalMicros.get() / (count * 1000.0);
+  }
+
+  double getMaxMillis() {
+    return maxMicros.get() / 1000.0;
+  }
+
+  /**
+   * Upper bound of the bucket holding the given percentile (0-100), in milliseconds. Concurrent
+   * writers may make the result lag by the values being recorded at the same time.
+   */
+  double getPercentileMillis(double percentile) {
+    long count = totalCount.get();
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += counts.get(i);
+      if (seen >= rank) {
+        return Math.min(bucketUpperBound(i), maxMicros.get()) / 1000.0;
+      }
+    }
+    return getMaxMillis();
+  }
+
+  void reset() {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts.set(i, 0);
+    }
+    totalCount.set(0);
+    totalMicros.set(0);
+    maxMicros.set(0);
+  }
+
+  static int bucketIndex(long micros) {
+    if (micros < SUB_COUNT) {
+      return (int) micros;
+    }
+    int msb = 63 - Long.numberOfLeadingZeros(micros);
+    int shift = msb - SUB_BITS + 1;
+    int sub = (int) (micros >>> shift);
+    return SUB_COUNT + (shift - 1) * HALF_SUB_COUNT + (sub - HALF_SUB_COUNT);
+  }
+
+  static long bucketUpperBound(int index) {
+    if (index < SUB_COUNT) {
+      return index;
+    }
+    int offset = index - SUB_COUNT;
+    int shift = offset / HALF_SUB_COUNT + 1;
+    long sub = offset % HALF_SUB_COUNT + HALF_SUB_COUNT;
+    return ((sub + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,462 @@
+package com.ahm.capacitor.camera.preview;
+
+import android.animation.ValueAnimator;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.SystemClock;
+import android.view.Display;
+import android.view.Surface;
+import android.view.View;
+import android.view.animation.AccelerateInterpolator;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
+import android.view.animation.LinearInterpolator;
+
+/**
+ * Single view drawing every native overlay on top of the preview: the composition grid, the
+ * tap-to-focus reticle and the horizon level.
+ *
+ * Each overlay is kept as a prebuilt float[] line buffer, rebuilt only when its inputs change
+ * (grid mode, camera bounds, level angle), so onDraw is a handful of drawLines calls. Updates
+ * invalidate the area the overlay covers; the reticle animation in particular never touches the
+ * rest of the view. Draw time is recorded in {@link PerformanceMetrics#overlayDraw}.
+ */
+public class OverlayCompositorView extends View implements SensorEventListener {
+
+  private static final String TAG = "CameraPreview Overlay";
+
+  // Focus reticle timeline, matching iOS: fade in while shrinking from 1.5x, hold, dim to 30%,
+  // hold, then fade out while shrinking to 0.8x
+  private static final long FADE_IN_MS = 150;
+  private static final long DIM_AT_MS = 500;
+  private static final long DIM_MS = 200;
+  private static final long FADE_OUT_AT_MS = 900;
+  private static final long FADE_OUT_MS = 300;
+  private static final long TOTAL_MS = FADE_OUT_AT_MS + FADE_OUT_MS;
+  private static final float DIM_ALPHA = 0.3f;
+
+  // Level angle change that triggers a redraw, and the tolerance shown as level
+  private static final float LEVEL_STEP_DEGREES = 0.5f;
+  private static final float LEVEL_TOLERANCE_DEGREES = 1f;
+
+  private final float density;
+
+  // Grid
+  private final Paint gridPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+  private String gridMode = "none";
+  private int gridColumns = 0;
+  private int gridRows = 0;
+  private float[] gridLines = new float[0];
+  private int gridLineFloats = 0;
+
+  // Camera content bounds inside this view; everything is drawn relative to them
+  private final Rect cameraBounds = new Rect();
+  private final Rect contentBounds = new Rect();
+  private boolean hasCameraBounds = false;
+
+  // Focus reticle, drawn around (0, 0) and translated to the tap
+  private final Paint focusPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+  private final Interpolator decelerate = new DecelerateInterpolator();
+  private final Interpolator accelerate = new AccelerateInterpolator();
+  private final ValueAnimator focusAnimator = ValueAnimator.ofFloat(0f, 1f);
+  private final float focusSize;
+  private final float[] focusLines;
+  private final Rect focusDirty = new Rect();
+  private float focusX;
+  private float focusY;
+  private float focusAlpha = 0f;
+  private float focusScale = 1f;
+
+  // Horizon level
+  private final Paint levelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+  private final float[] levelLines = new float[12];
+  private final float[] rotationMatrix = new float[9];
+  private final Rect levelDirty = new Rect();
+  private boolean levelEnabled = false;
+  private boolean levelRegistered = false;
+  private float levelDegrees = Float.NaN;
+
+  public OverlayCompositorView(Context context) {
+    super(context);
+    density = context.getResources().getDisplayMetrics().density;
+
+    gridPaint.setColor(0x80FFFFFF); // Semi-transparent white
+    gridPaint.setStrokeWidth(2f);
+    gridPaint.setStyle(Paint.Style.STROKE);
+
+    focusSize = 80 * density; // match iOS size
+    float stroke = 2 * density;
+    float tickLength = 12 * density;
+    focusPaint.setColor(Color.YELLOW);
+    focusPaint.setStyle(Paint.Style.STROKE);
+    focusPaint.setStrokeWidth(stroke);
+    focusPaint.setStrokeCap(Paint.Cap.SQUARE);
+    // Square with its stroke inside the bounds, and mid-edge ticks from the inner edge
+    float h = focusSize / 2 - stroke / 2;
+    float in = focusSize / 2 - stroke;
+    focusLines = new float[] {
+      -h, -h, h, -h,
+      h, -h, h, h,
+      h, h, -h, h,
+      -h, h, -h, -h,
+      0, -in, 0, -in + tickLength,
+      0, in, 0, in - tickLength,
+      -in, 0, -in + tickLength, 0,
+      in, 0, in - tickLength, 0,
+    };
+
+    levelPaint.setStyle(Paint.Style.STROKE);
+    levelPaint.setStrokeWidth(2 * density);
+    levelPaint.setStrokeCap(Paint.Cap.ROUND);
+
+    setClickable(false);
+    setFocusable(false);
+    setWillNotDraw(false);
+
+    focusAnimator.setDuration(TOTAL_MS);
+    focusAnimator.setInterpolator(new LinearInterpolator());
+    focusAnimator.addUpdateListener(animation -> {
+      updateFocusFrame(animation.getCurrentPlayTime());
+      invalidateFocus();
+    });
+  }
+
+  public void setCameraBounds(int left, int top, int right, int bottom) {
+    if (
+      hasCameraBounds &&
+      cameraBounds.left == left &&
+      cameraBounds.top == top &&
+      cameraBounds.right == right &&
+      cameraBounds.bottom == bottom
+    ) {
+      return;
+    }
+    cameraBounds.set(left, top, right, bottom);
+    hasCameraBounds = true;
+    rebuildGrid();
+    rebuildLevel();
+    invalidate();
+  }
+
+  /** "none", "3x3" or "4x4". Anything else shows no grid. */
+  public void setGridMode(String mode) {
+    String newMode = mode != null ? mode : "none";
+    if (newMode.equals(gridMode)) {
+      return;
+    }
+    gridMode = newMode;
+    gridColumns = 0;
+    gridRows = 0;
+    if ("3x3".equals(gridMode)) {
+      gridColumns = 3;
+      gridRows = 3;
+    } else if ("4x4".equals(gridMode)) {
+      gridColumns = 4;
+      gridRows = 4;
+    }
+    CameraLog.d(
+      TAG,
+      "setGridMode: {} ({}x{})",
+      gridMode,
+      gridColumns,
+      gridRows
+    );
+    rebuildGrid();
+    invalidate();
+  }
+
+  public String getGridMode() {
+    return gridMode;
+  }
+
+  /** Show the focus reticle centered on (x, y), restarting its animation. */
+  public void showFocus(float x, float y) {
+    // Clear where the previous reticle was before moving it
+    invalidateFocus();
+    float half = focusSize / 2;
+    focusX = Math.max(half, Math.min(x, getWidth() - half));
+    focusY = Math.max(half, Math.min(y, getHeight() - half));
+    focusAnimator.cancel();
+    updateFocusFrame(0);
+    focusAnimator.start();
+    invalidateFocus();
+  }
+
+  public void hideFocus() {
+    focusAnimator.cancel();
+    focusAlpha = 0f;
+    invalidateFocus();
+  }
+
+  /** Show a horizon line driven by the rotation vector sensor while the view is attached. */
+  public void setLevelEnabled(boolean enabled) {
+    if (levelEnabled == enabled) {
+      return;
+    }
+    levelEnabled = enabled;
+    levelDegrees = Float.NaN;
+    updateLevelRegistration();
+    invalidate();
+  }
+
+  public boolean isLevelEnabled() {
+    return levelEnabled;
+  }
+
+  @Override
+  protected void onAttachedToWindow() {
+    super.onAttachedToWindow();
+    updateLevelRegistration();
+  }
+
+  @Override
+  protected void onDetachedFromWindow() {
+    focusAnimator.cancel();
+    focusAlpha = 0f;
+    updateLevelRegistration();
+    super.onDetachedFromWindow();
+  }
+
+  @Override
+  protected void onDraw(Canvas canvas) {
+    super.onDraw(canvas);
+    long start = SystemClock.elapsedRealtimeNanos();
+
+    if (gridLineFloats > 0) {
+      canvas.drawLines(gridLines, 0, gridLineFloats, gridPaint);
+    }
+
+    if (levelEnabled && !Float.isNaN(levelDegrees)) {
+      canvas.drawLines(levelLines, levelPaint);
+    }
+
+    if (focusAlpha > 0f) {
+      focusPaint.setAlpha(Math.round(focusAlpha * 255));
+      int save = canvas.save();
+      canvas.translate(focusX, focusY);
+      canvas.scale(focusScale, focusScale);
+      canvas.drawLines(focusLines, focusPaint);
+      canvas.restoreToCount(save);
+    }
+
+    PerformanceMetrics.getInstance().overlayDraw.recordNanos(
+      SystemClock.elapsedRealtimeNanos() - start
+    );
+  }
+
+  @Override
+  public void onSensorChanged(SensorEvent event) {
+    SensorManager.getRotationMatrixFromVector(rotationMatrix, event.values);
+    // World up in device coordinates is the last row of the rotation matrix
+    float upX = rotationMatrix[6];
+    float upY = rotationMatrix[7];
+    if (upX * upX + upY * upY < 0.01f) {
+      // Device lying flat: the horizon is undefined
+      return;
+    }
+    float degrees = (float) Math.toDegrees(Math.atan2(upX, upY));
+    degrees -= displayRotationDegrees();
+    degrees = ((degrees + 540f) % 360f) - 180f;
+    if (
+      !Float.isNaN(levelDegrees) &&
+      Math.abs(degrees - levelDegrees) < LEVEL_STEP_DEGREES
+    ) {
+      return;
+    }
+    invalidate(levelDirty);
+    levelDegrees = degrees;
+    rebuildLevel();
+    invalidate(levelDirty);
+  }
+
+  @Override
+  public void onAccuracyChanged(Sensor sensor, int accuracy) {}
+
+  // The camera bounds, or the whole view until they are known. Filled into a scratch rect so the
+  // stored bounds keep reflecting what setCameraBounds was given.
+  private Rect contentRect() {
+    if (!hasCameraBounds || cameraBounds.isEmpty()) {
+      contentBounds.set(0, 0, getWidth(), getHeight());
+    } else {
+      contentBounds.set(cameraBounds);
+    }
+    return contentBounds;
+  }
+
+  @Override
+  protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+    super.onSizeChanged(w, h, oldw, oldh);
+    rebuildGrid();
+    rebuildLevel();
+  }
+
+  private void rebuildGrid() {
+    Rect bounds = contentRect();
+    int lines = Math.max(0, gridColumns - 1) + Math.max(0, gridRows - 1);
+    if (gridColumns == 0 || bounds.isEmpty() || lines == 0) {
+      gridLineFloats = 0;
+      return;
+    }
+    if (gridLines.length < lines * 4) {
+      gridLines = new float[lines * 4];
+    }
+    float stepX = (float) bounds.width() / gridColumns;
+    float stepY = (float) bounds.height() / gridRows;
+    int i = 0;
+    for (int c = 1; c < gridColumns; c++) {
+      float x = bounds.left + c * stepX;
+      gridLines[i++] = x;
+      gridLines[i++] = bounds.top;
+      gridLines[i++] = x;
+      gridLines[i++] = bounds.bottom;
+    }
+    for (int r = 1; r < gridRows; r++) {
+      float y = bounds.top + r * stepY;
+      gridLines[i++] = bounds.left;
+      gridLines[i++] = y;
+      gridLines[i++] = bounds.right;
+      gridLines[i++] = y;
+    }
+    gridLineFloats = i;
+  }
+
+  /**
+   * Horizon line through the center of the content, tilted by the level angle, between two fixed
+   * reference ticks. It turns yellow when the device is level.
+   */
+  private void rebuildLevel() {
+    if (Float.isNaN(levelDegrees)) {
+      return;
+    }
+    Rect bounds = contentRect();
+    float cx = bounds.exactCenterX();
+    float cy = bounds.exactCenterY();
+    float half = bounds.width() / 6f;
+    float gap = 8 * density;
+    float tick = 16 * density;
+    double radians = Math.toRadians(levelDegrees);
+    float dx = (float) Math.cos(radians) * half;
+    float dy = (float) Math.sin(radians) * half;
+
+    levelLines[0] = cx - dx;
+    levelLines[1] = cy - dy;
+    levelLines[2] = cx + dx;
+    levelLines[3] = cy + dy;
+    levelLines[4] = cx - half - gap - tick;
+    levelLines[5] = cy;
+    levelLines[6] = cx - half - gap;
+    levelLines[7] = cy;
+    levelLines[8] = cx + half + gap;
+    levelLines[9] = cy;
+    levelLines[10] = cx + half + gap + tick;
+    levelLines[11] = cy;
+
+    boolean level = Math.abs(levelDegrees) < LEVEL_TOLERANCE_DEGREES;
+    levelPaint.setColor(level ? Color.YELLOW : 0xCCFFFFFF);
+
+    int pad = (int) Math.ceil(levelPaint.getStrokeWidth());
+    levelDirty.set(
+      (int) (cx - half - gap - tick) - pad,
+      (int) (cy - half) - pad,
+      (int) Math.ceil(cx + half + gap + tick) + pad,
+      (int) Math.ceil(cy + half) + pad
+    );
+  }
+
+  private void updateFocusFrame(long t) {
+    if (t < FADE_IN_MS) {
+      float f = decelerate.getInterpolation(t / (float) FADE_IN_MS);
+      focusAlpha = f;
+      focusScale = 1.5f - 0.5f * f;
+    } else if (t < DIM_AT_MS) {
+      focusAlpha = 1f;
+      focusScale = 1f;
+    } else if (t < DIM_AT_MS + DIM_MS) {
+      float f = decelerate.getInterpolation(
+        (t - DIM_AT_MS) / (float) DIM_MS
+      );
+      focusAlpha = 1f - (1f - DIM_ALPHA) * f;
+      focusScale = 1f;
+    } else if (t < FADE_OUT_AT_MS) {
+      focusAlpha = DIM_ALPHA;
+      focusScale = 1f;
+    } else if (t < TOTAL_MS) {
+      float f = accelerate.getInterpolation(
+        (t - FADE_OUT_AT_MS) / (float) FADE_OUT_MS
+      );
+      focusAlpha = DIM_ALPHA * (1f - f);
+      focusScale = 1f - 0.2f * f;
+    } else {
+      focusAlpha = 0f;
+      focusScale = 0.8f;
+    }
+  }
+
+  // Area covered by the reticle at its largest (1.5x) scale
+  private void invalidateFocus() {
+    int reach = (int) Math.ceil(focusSize * 0.75f) + 1;
+    focusDirty.set(
+      (int) focusX - reach,
+      (int) focusY - reach,
+      (int) focusX + reach,
+      (int) focusY + reach
+    );
+    invalidate(focusDirty);
+  }
+
+  private void updateLevelRegistration() {
+    boolean wanted = levelEnabled && isAttachedToWindow();
+    if (wanted == levelRegistered) {
+      return;
+    }
+    SensorManager sensorManager = (SensorManager) getContext().getSystemService(
+      Context.SENSOR_SERVICE
+    );
+    if (sensorManager == null) {
+      return;
+    }
+    if (wanted) {
+      Sensor sensor = sensorManager.getDefaultSensor(
+        Sensor.TYPE_ROTATION_VECTOR
+      );
+      if (sensor == null) {
+        CameraLog.w(TAG, "No rotation vector sensor, level disabled");
+        return;
+      }
+      sensorManager.registerListener(
+        this,
+        sensor,
+        SensorManager.SENSOR_DELAY_UI
+      );
+      levelRegistered = true;
+    } else {
+      sensorManager.unregisterListener(this);
+      levelRegistered = false;
+      levelDegrees = Float.NaN;
+    }
+  }
+
+  private float displayRotationDegrees() {
+    Display display = getDisplay();
+    if (display == null) {
+      return 0f;
+    }
+    switch (display.getRotation()) {
+      case Surface.ROTATION_90:
+        return 90f;
+      case Surface.ROTATION_180:
+        return 180f;
+      case Surface.ROTATION_270:
+        return 270f;
+      default:
+        return 0f;
+    }
+  }
+}
@@ -0,0 +1,243 @@
+package com.ahm.capacitor.camera.preview;
+
+import android.hardware.camera2.CameraCaptureSession;
+import android.hardware.camera2.CaptureFailure;
+import android.hardware.camera2.CaptureRequest;
+import android.hardware.camera2.TotalCaptureResult;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.FrameMetrics;
+import android.view.Surface;
+import android.view.Window;
+import androidx.annotation.NonNull;
+import com.getcapacitor.JSObject;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Process-wide counters and latency histograms for the camera pipeline, exposed through
+ * getPerformanceStats(). Recording is lock-free so it can sit on capture and frame callbacks.
+ */
+final class PerformanceMetrics {
+
+  private static final PerformanceMetrics INSTANCE = new PerformanceMetrics();
+
+  // Latencies
+  final LatencyHistogram bind = new LatencyHistogram();
+  final LatencyHistogram capture = new LatencyHistogram();
+  final LatencyHistogram processing = new LatencyHistogram();
+  final LatencyHistogram exif = new LatencyHistogram();
+  final LatencyHistogram output = new LatencyHistogram();
+  final LatencyHistogram focus = new LatencyHistogram();
+  // start() or a standby resume reaching native code to the preview streaming
+  final LatencyHistogram firstFrame = new LatencyHistogram();
+  // Display rotation detected to preview re-laid out
+  final LatencyHistogram rotation = new LatencyHistogram();
+  // One onDraw of the native overlay
+  final LatencyHistogram overlayDraw = new LatencyHistogram();
+  // Total UI frame time of the activity window, from FrameMetrics (API 24+)
+  final LatencyHistogram uiFrame = new LatencyHistogram();
+
+  // Counters
+  final AtomicLong rebinds = new AtomicLong();
+  final AtomicLong captures = new AtomicLong();
+  final AtomicLong captureFailures = new AtomicLong();
+  final AtomicLong bytesReturned = new AtomicLong();
+  final AtomicLong framesDelivered = new AtomicLong();
+  final AtomicLong framesDropped = new AtomicLong();
+  final AtomicLong focusRequests = new AtomicLong();
+  final AtomicLong focusCancelled = new AtomicLong();
+  final AtomicLong uiFrames = new AtomicLong();
+  // UI frames that took longer than the display's frame interval
+  final AtomicLong uiJankyFrames = new AtomicLong();
+  // Control commands superseded before being applied, indexed by ControlCoalescer.Channel
+  final AtomicLongArray coalesced = new AtomicLongArray(
+    ControlCoalescer.Channel.values().length
+  );
+
+  /**
+   * Session capture callback for the preview stream: counts completed frames, and failed or
+   * buffer-lost frames as dropped.
+   */
+  final CameraCaptureSession.CaptureCallback frameCallback =
+    new CameraCaptureSession.CaptureCallback() {
+      @Override
+      public void onCaptureCompleted(
+        @NonNull CameraCaptureSession session,
+        @NonNull CaptureRequest request,
+        @NonNull TotalCaptureResult result
+      ) {
+        framesDelivered.incrementAndGet();
+      }
+
+      @Override
+      public void onCaptureFailed(
+        @NonNull CameraCaptureSession session,
+        @NonNull CaptureRequest request,
+        @NonNull CaptureFailure failure
+      ) {
+        framesDropped.incrementAndGet();
+      }
+
+      @Override
+      public void onCaptureBufferLost(
+        @NonNull CameraCaptureSession session,
+        @NonNull CaptureRequest request,
+        @NonNull Surface target,
+        long frameNumber
+      ) {
+        framesDropped.incrementAndGet();
+      }
+    };
+
+  private HandlerThread frameMetricsThread;
+  private Window.OnFrameMetricsAvailableListener frameMetricsListener;
+  private Window frameMetricsWindow;
+
+  private PerformanceMetrics() {}
+
+  /**
+   * Record the total duration of every UI frame of the window, so the cost of compositing the
+   * preview with the WebView can be compared between implementation modes. Callbacks are delivered
+   * on a background thread that lives until {@link #stopFrameMetrics()}. Must be called on the main
+   * thread; a no-op below API 24.
+   */
+  synchronized void startFrameMetrics(Window window, float refreshRate) {
+    if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N || window == null) {
+      return;
+    }
+    stopFrameMetrics();
+    frameMetricsThread = new HandlerThread("CameraFrameMetrics");
+    frameMetricsThread.start();
+    final long frameIntervalNanos = (long) (1_000_000_000L /
+      (refreshRate > 0 ? refreshRate : 60f));
+    frameMetricsListener = (w, frameMetrics, dropCount) -> {
+      long total = frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION);
+      uiFrame.recordNanos(total);
+      uiFrames.incrementAndGet();
+      if (total > frameIntervalNanos) {
+        uiJankyFrames.incrementAndGet();
+      }
+    };
+    window.addOnFrameMetricsAvailableListener(
+      frameMetricsListener,
+      new Handler(frameMetricsThread.getLooper())
+    );
+    frameMetricsWindow = window;
+  }
+
+  synchronized void stopFrameMetrics() {
+    if (
+      Build.VERSION.SDK_INT < Build.VERSION_CODES.N ||
+      frameMetricsWindow == null
+    ) {
+      return;
+    }
+    try {
+      frameMetricsWindow.removeOnFrameMetricsAvailableListener(
+        frameMetricsListener
+      );
+    } catch (IllegalArgumentException ignored) {
+      // Listener was already removed with the window
+    }
+    frameMetricsWindow = null;
+    frameMetricsListener = null;
+    // Nothing else posts to the thread, so it can go once the listener is removed
+    frameMetricsThread.quitSafely();
+    frameMetricsThread = null;
+  }
+
+  static PerformanceMetrics getInstance() {
+    return INSTANCE;
+  }
+
+  void reset() {
+    bind.reset();
+    capture.reset();
+    processing.reset();
+    exif.reset();
+    output.reset();
+    focus.reset();
+    firstFrame.reset();
+    rotation.reset();
+    overlayDraw.reset();
+    uiFrame.reset();
+    rebinds.set(0);
+    captures.set(0);
+    captureFailures.set(0);
+    bytesReturned.set(0);
+    framesDelivered.set(0);
+    framesDropped.set(0);
+    focusRequests.set(0);
+    focusCancelled.set(0);
+    uiFrames.set(0);
+    uiJankyFrames.set(0);
+    for (int i = 0; i < coalesced.length(); i++) {
+      coalesced.set(i, 0);
+    }
+  }
+
+  JSObject toJSObject() {
+    JSObject counters = new JSObject();
+    counters.put("rebinds", rebinds.get());
+    counters.put("captures", captures.get());
+    counters.put("captureFailures", captureFailures.get());
+    counters.put("bytesReturned", bytesReturned.get());
+    counters.put("framesDelivered", framesDelivered.get());
+    counters.put("framesDropped", framesDropped.get());
+    counters.put("focusRequests", focusRequests.get());
+    counters.put("focusCancelled", focusCancelled.get());
+    counters.put("uiFrames", uiFrames.get());
+    counters.put("uiJankyFrames", uiJankyFrames.get());
+
+    JSObject latencies = new JSObject();
+    latencies.put("bind", toJSObject(bind));
+    latencies.put("capture", toJSObject(capture));
+    latencies.put("processing", toJSObject(processing));
+    latencies.put("exif", toJSObject(exif));
+    latencies.put("output", toJSObject(output));
+    latencies.put("focus", toJSObject(focus));
+    latencies.put("firstFrame", toJSObject(firstFrame));
+    latencies.put("rotation", toJSObject(rotation));
+    latencies.put("overlayDraw", toJSObject(overlayDraw));
+    latencies.put("uiFrame", toJSObject(uiFrame));
+
+    JSObject coalescedJs = new JSObject();
+    coalescedJs.put("zoom", coalesced(ControlCoalescer.Channel.ZOOM));
+    coalescedJs.put("focus", coalesced(ControlCoalescer.Channel.FOCUS));
+    coalescedJs.put(
+      "exposureMode",
+      coalesced(ControlCoalescer.Channel.EXPOSURE_MODE)
+    );
+    coalescedJs.put(
+      "exposureCompensation",
+      coalesced(ControlCoalescer.Channel.EXPOSURE_COMPENSATION)
+    );
+
+    JSObject result = new JSObject();
+    result.put("counters", counters);
+    result.put("coalesced", coalescedJs);
+    result.put("latencies", latencies);
+    return result;
+  }
+
+  private long coalesced(ControlCoalescer.Channel channel) {
+    return coalesced.get(channel.ordinal());
+  }
+
+  private static JSObject toJSObject(LatencyHistogram histogram) {
+    JSObject stats = new JSObject();
+    stats.put("count", histogram.getCount());
+    stats.put("mean", round(histogram.getMeanMillis()));
+    stats.put("p50", round(histogram.getPercentileMillis(50)));
+    stats.put("p90", round(histogram.getPercentileMillis(90)));
+    stats.put("p99", round(histogram.getPercentileMillis(99)));
+    stats.put("max", round(histogram.getMaxMillis()));
+    return stats;
+  }
+
+  private static double round(double ms) {
+    return Math.round(ms * 100.0) / 100.0;
+  }
+}
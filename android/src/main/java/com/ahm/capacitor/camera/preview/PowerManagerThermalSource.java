@@ -0,0 +1,84 @@
+package com.ahm.capacitor.camera.preview;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PowerManager;
+
+/**
+ * Thermal status from PowerManager: status callbacks on API 29+, plus a slow poll of the thermal
+ * headroom forecast on API 30+ so throttling can be anticipated before the status moves. On older
+ * devices nothing is ever reported.
+ */
+final class PowerManagerThermalSource implements ThermalStatusSource {
+
+  // getThermalHeadroom returns NaN when called more than about once per second
+  private static final long HEADROOM_POLL_MS = 10_000;
+  private static final int HEADROOM_FORECAST_SECONDS = 10;
+
+  private final PowerManager powerManager;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final Runnable pollHeadroom = this::pollHeadroom;
+
+  private Callback callback;
+  private PowerManager.OnThermalStatusChangedListener statusListener;
+  private int status = ThermalMonitor.STATUS_NONE;
+  private float headroom = Float.NaN;
+
+  PowerManagerThermalSource(Context context) {
+    this.powerManager = (PowerManager) context.getSystemService(
+      Context.POWER_SERVICE
+    );
+  }
+
+  @Override
+  public void start(Callback callback) {
+    if (
+      Build.VERSION.SDK_INT < Build.VERSION_CODES.Q ||
+      powerManager == null ||
+      statusListener != null
+    ) {
+      return;
+    }
+    this.callback = callback;
+    status = powerManager.getCurrentThermalStatus();
+    statusListener = newStatus -> {
+      status = newStatus;
+      dispatch();
+    };
+    // Registered without an executor, so callbacks arrive on the main thread
+    powerManager.addThermalStatusListener(statusListener);
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+      pollHeadroom();
+    } else {
+      dispatch();
+    }
+  }
+
+  @Override
+  public void stop() {
+    handler.removeCallbacks(pollHeadroom);
+    if (statusListener != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+      powerManager.removeThermalStatusListener(statusListener);
+    }
+    statusListener = null;
+    callback = null;
+  }
+
+  private void pollHeadroom() {
+    if (statusListener == null) return;
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+      headroom = powerManager.getThermalHeadroom(HEADROOM_FORECAST_SECONDS);
+    }
+    dispatch();
+    handler.postDelayed(pollHeadroom, HEADROOM_POLL_MS);
+  }
+
+  private void dispatch() {
+    Callback target = callback;
+    if (target != null) {
+      target.onThermalChanged(status, headroom);
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package com.ahm.capacitor.camera.preview;
+
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * Idle tracking for the adaptive power mode.
+ *
+ * Every user interaction re-arms a single main-thread timeout; when it fires without a new
+ * interaction the session is reported idle, and the next interaction reports it active again
+ * before re-arming. Interactions while already active only move the timeout, so touch streams
+ * cost one Handler re-post each and no camera calls.
+ */
+final class PowerModeController {
+
+  interface Listener {
+    /** Called on the main thread when the session goes idle or becomes active again. */
+    void onIdleChanged(boolean idle);
+  }
+
+  static final String MODE_FULL = "full";
+  static final String MODE_ADAPTIVE = "adaptive";
+  static final long DEFAULT_IDLE_TIMEOUT_MS = 10_000;
+
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final Listener listener;
+  private final Runnable goIdle = this::goIdle;
+
+  private volatile boolean enabled = false;
+  private volatile long idleTimeoutMs = DEFAULT_IDLE_TIMEOUT_MS;
+  private volatile boolean idle = false;
+  // Set while a recording runs: the stream must keep its full rate however long it lasts
+  private volatile boolean held = false;
+
+  PowerModeController(Listener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Switch between {@link #MODE_FULL} and {@link #MODE_ADAPTIVE}. Leaving adaptive mode wakes the
+   * session immediately. Safe to call from any thread.
+   */
+  void configure(String mode, long idleTimeoutMs) {
+    this.enabled = MODE_ADAPTIVE.equals(mode);
+    if (idleTimeoutMs > 0) {
+      this.idleTimeoutMs = idleTimeoutMs;
+    }
+    runOnMain(() -> {
+      handler.removeCallbacks(goIdle);
+      if (enabled) {
+        handler.postDelayed(goIdle, this.idleTimeoutMs);
+      } else {
+        setIdle(false);
+      }
+    });
+  }
+
+  boolean isEnabled() {
+    return enabled;
+  }
+
+  boolean isIdle() {
+    return idle;
+  }
+
+  /** Record a touch, zoom, focus or capture. Safe to call from any thread. */
+  void onInteraction() {
+    if (!enabled) return;
+    runOnMain(this::rearm);
+  }
+
+  /** Keep the session active until released, then start a fresh idle period. */
+  void hold(boolean held) {
+    this.held = held;
+    runOnMain(this::rearm);
+  }
+
+  /**
+   * Forget the idle state without notifying, for a camera that was just bound or released and
+   * so runs at its default rate. Pass rearm to start counting towards the next idle period.
+   */
+  void reset(boolean rearm) {
+    runOnMain(() -> {
+      handler.removeCallbacks(goIdle);
+      idle = false;
+      if (rearm && enabled) {
+        handler.postDelayed(goIdle, idleTimeoutMs);
+      }
+    });
+  }
+
+  private void runOnMain(Runnable task) {
+    if (Looper.myLooper() == Looper.getMainLooper()) {
+      task.run();
+    } else {
+      handler.post(task);
+    }
+  }
+
+  private void rearm() {
+    handler.removeCallbacks(goIdle);
+    if (!enabled) return;
+    setIdle(false);
+    handler.postDelayed(goIdle, idleTimeoutMs);
+  }
+
+  private void goIdle() {
+    if (enabled && !held) {
+      setIdle(true);
+    }
+  }
+
+  private void setIdle(boolean idle) {
+    if (this.idle == idle) return;
+    this.idle = idle;
+    listener.onIdleChanged(idle);
+  }
+}
@@ -0,0 +1,449 @@
+package com.ahm.capacitor.camera.preview;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Framework-free preview geometry: where the preview container is placed, which part of it shows
+ * camera content, how captures are cropped to match, and where taps meter. Inputs are plain pixel
+ * sizes so the math runs, and is tested, on the JVM.
+ *
+ * The static methods are pure. An instance memoizes the last result of the computations that the
+ * bridge getters repeat (content bounds and centered layout), keyed on all of their inputs, so a
+ * getPreviewSize() call that asks for x, y, width and height computes the bounds once.
+ */
+final class PreviewGeometry {
+
+  /** Immutable integer rectangle; android.graphics.Rect is not usable off-device. */
+  static final class Box {
+
+    final int left;
+    final int top;
+    final int width;
+    final int height;
+
+    Box(int left, int top, int width, int height) {
+      this.left = left;
+      this.top = top;
+      this.width = width;
+      this.height = height;
+    }
+
+    static Box fromEdges(int left, int top, int right, int bottom) {
+      return new Box(left, top, right - left, bottom - top);
+    }
+
+    int right() {
+      return left + width;
+    }
+
+    int bottom() {
+      return top + height;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Box)) return false;
+      Box other = (Box) o;
+      return (
+        left == other.left &&
+        top == other.top &&
+        width == other.width &&
+        height == other.height
+      );
+    }
+
+    @Override
+    public int hashCode() {
+      int result = left;
+      result = 31 * result + top;
+      result = 31 * result + width;
+      result = 31 * result + height;
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return "(" + left + "," + top + " " + width + "x" + height + ")";
+    }
+  }
+
+  private static final Box EMPTY = new Box(0, 0, 0, 0);
+
+  /** Inputs and result of one content bounds computation. */
+  private static final class BoundsEntry {
+
+    final int containerWidth;
+    final int containerHeight;
+    final int sensorWidth;
+    final int sensorHeight;
+    final boolean portrait;
+    final String aspectRatio;
+    final Box result;
+
+    BoundsEntry(
+      int containerWidth,
+      int containerHeight,
+      int sensorWidth,
+      int sensorHeight,
+      boolean portrait,
+      String aspectRatio,
+      Box result
+    ) {
+      this.containerWidth = containerWidth;
+      this.containerHeight = containerHeight;
+      this.sensorWidth = sensorWidth;
+      this.sensorHeight = sensorHeight;
+      this.portrait = portrait;
+      this.aspectRatio = aspectRatio;
+      this.result = result;
+    }
+  }
+
+  /** Inputs and result of one centered layout computation. */
+  private static final class LayoutEntry {
+
+    final int availableWidth;
+    final int availableHeight;
+    final double ratio;
+    final Box result;
+
+    LayoutEntry(
+      int availableWidth,
+      int availableHeight,
+      double ratio,
+      Box result
+    ) {
+      this.availableWidth = availableWidth;
+      this.availableHeight = availableHeight;
+      this.ratio = ratio;
+      this.result = result;
+    }
+  }
+
+  // Last computation of each kind. Entries are immutable, so a hit is one volatile read and a
+  // few compares; concurrent misses just compute the same value twice.
+  private volatile BoundsEntry lastBounds;
+  private volatile LayoutEntry lastLayout;
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Visible camera content inside the container, relative to the container. Memoized on the
+   * inputs; see {@link #computeContentBounds}.
+   */
+  Box getContentBounds(
+    int containerWidth,
+    int containerHeight,
+    int sensorWidth,
+    int sensorHeight,
+    boolean portrait,
+    String aspectRatio
+  ) {
+    BoundsEntry entry = lastBounds;
+    if (
+      entry != null &&
+      containerWidth == entry.containerWidth &&
+      containerHeight == entry.containerHeight &&
+      sensorWidth == entry.sensorWidth &&
+      sensorHeight == entry.sensorHeight &&
+      portrait == entry.portrait &&
+      equals(aspectRatio, entry.aspectRatio)
+    ) {
+      return entry.result;
+    }
+    misses.incrementAndGet();
+    Box result = computeContentBounds(
+      containerWidth,
+      containerHeight,
+      sensorWidth,
+      sensorHeight,
+      portrait,
+      aspectRatio
+    );
+    lastBounds = new BoundsEntry(
+      containerWidth,
+      containerHeight,
+      sensorWidth,
+      sensorHeight,
+      portrait,
+      aspectRatio,
+      result
+    );
+    return result;
+  }
+
+  /** Largest box of the given ratio centered in the available space. Memoized on the inputs. */
+  Box getCenteredLayout(int availableWidth, int availableHeight, double ratio) {
+    LayoutEntry entry = lastLayout;
+    if (
+      entry != null &&
+      availableWidth == entry.availableWidth &&
+      availableHeight == entry.availableHeight &&
+      Double.compare(ratio, entry.ratio) == 0
+    ) {
+      return entry.result;
+    }
+    misses.incrementAndGet();
+    Box result = fitCentered(availableWidth, availableHeight, ratio);
+    lastLayout = new LayoutEntry(availableWidth, availableHeight, ratio, result);
+    return result;
+  }
+
+  /** Number of memoized lookups that had to compute. */
+  long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * Display ratio (width / height) of an aspect string such as "4:3". The string names the
+   * landscape ratio, so in portrait it is inverted, matching iOS. NaN if it does not parse.
+   */
+  static double displayRatio(String aspectRatio, boolean portrait) {
+    if (aspectRatio == null) {
+      return Double.NaN;
+    }
+    String[] parts = aspectRatio.split(":");
+    if (parts.length != 2) {
+      return Double.NaN;
+    }
+    try {
+      double ratioWidth = Double.parseDouble(parts[0]);
+      double ratioHeight = Double.parseDouble(parts[1]);
+      if (!(ratioWidth > 0) || !(ratioHeight > 0)) {
+        return Double.NaN;
+      }
+      return portrait ? ratioHeight / ratioWidth : ratioWidth / ratioHeight;
+    } catch (NumberFormatException e) {
+      return Double.NaN;
+    }
+  }
+
+  /** Largest box of the given ratio centered in the available space. */
+  static Box fitCentered(int availableWidth, int availableHeight, double ratio) {
+    int width;
+    int height;
+    double maxWidthByHeight = availableHeight * ratio;
+    if (maxWidthByHeight <= availableWidth) {
+      // Height is the limiting factor
+      width = (int) maxWidthByHeight;
+      height = availableHeight;
+    } else {
+      // Width is the limiting factor
+      width = availableWidth;
+      height = (int) (availableWidth / ratio);
+    }
+    return new Box(
+      (availableWidth - width) / 2,
+      (availableHeight - height) / 2,
+      width,
+      height
+    );
+  }
+
+  /**
+   * Largest box of the given ratio whose top-left corner is at (x, y), shifted back inside the
+   * available space if needed.
+   */
+  static Box fitAt(
+    int x,
+    int y,
+    int availableWidth,
+    int availableHeight,
+    double ratio
+  ) {
+    int left = clamp(x, 0, availableWidth);
+    int top = clamp(y, 0, availableHeight);
+    int maxWidth = availableWidth - left;
+    int maxHeight = availableHeight - top;
+
+    int width = maxWidth;
+    int height = (int) (maxWidth / ratio);
+    if (height > maxHeight) {
+      height = maxHeight;
+      width = (int) (maxHeight * ratio);
+    }
+    left = Math.max(0, Math.min(left, availableWidth - width));
+    top = Math.max(0, Math.min(top, availableHeight - height));
+    return new Box(left, top, width, height);
+  }
+
+  /**
+   * Visible camera content inside the container, relative to the container.
+   *
+   * The sensor size is the preview stream resolution in sensor orientation (landscape); PreviewView
+   * rotates it, so the sides are swapped in portrait. With an aspect ratio the preview uses
+   * FILL_CENTER and fills the container, except that 4:3 is inset by a pixel to hide the edge
+   * PreviewView's SurfaceView draws outside its bounds. Without one it uses FIT_CENTER and is
+   * letterboxed. An unknown sensor size (0) is treated as filling the container.
+   */
+  static Box computeContentBounds(
+    int containerWidth,
+    int containerHeight,
+    int sensorWidth,
+    int sensorHeight,
+    boolean portrait,
+    String aspectRatio
+  ) {
+    if (containerWidth <= 0 || containerHeight <= 0) {
+      return EMPTY;
+    }
+    if (sensorWidth <= 0 || sensorHeight <= 0) {
+      return new Box(0, 0, containerWidth, containerHeight);
+    }
+    if (aspectRatio != null && !aspectRatio.isEmpty()) {
+      if ("4:3".equals(aspectRatio)) {
+        return new Box(1, 1, containerWidth - 2, containerHeight - 2);
+      }
+      return new Box(0, 0, containerWidth, containerHeight);
+    }
+
+    int cameraWidth = portrait ? sensorHeight : sensorWidth;
+    int cameraHeight = portrait ? sensorWidth : sensorHeight;
+    float scale = Math.min(
+      (float) containerWidth / cameraWidth,
+      (float) containerHeight / cameraHeight
+    );
+    int scaledWidth = Math.round(cameraWidth * scale);
+    int scaledHeight = Math.round(cameraHeight * scale);
+    int offsetX = (containerWidth - scaledWidth) / 2;
+    int offsetY = (containerHeight - scaledHeight) / 2;
+    return Box.fromEdges(
+      Math.max(0, offsetX),
+      Math.max(0, offsetY),
+      Math.min(containerWidth, offsetX + scaledWidth),
+      Math.min(containerHeight, offsetY + scaledHeight)
+    );
+  }
+
+  /**
+   * Centered crop of a captured image to the aspect ratio of the visible preview, so the saved
+   * photo shows what the user framed.
+   */
+  static Box cropRect(
+    int imageWidth,
+    int imageHeight,
+    int previewWidth,
+    int previewHeight
+  ) {
+    float previewRatio =
+      (float) Math.max(1, previewWidth) / (float) Math.max(1, previewHeight);
+    float imageRatio = (float) imageWidth / (float) imageHeight;
+
+    int targetWidth = imageWidth;
+    int targetHeight = imageHeight;
+    if (imageRatio > previewRatio) {
+      // Image wider than preview: crop width
+      targetWidth = Math.round(imageHeight * previewRatio);
+    } else if (imageRatio < previewRatio) {
+      // Image taller than preview: crop height
+      targetHeight = Math.round(imageWidth / previewRatio);
+    }
+    int x = Math.max(0, (imageWidth - targetWidth) / 2);
+    int y = Math.max(0, (imageHeight - targetHeight) / 2);
+    return new Box(
+      x,
+      y,
+      Math.min(targetWidth, imageWidth - x),
+      Math.min(targetHeight, imageHeight - y)
+    );
+  }
+
+  /**
+   * View coordinates to meter at for a tap given as a fraction of the view. Taps on letterbox bars
+   * are moved to the nearest edge of the visible content, since points outside the image are
+   * rejected by the metering system.
+   */
+  static float[] meteringPoint(
+    float normalizedX,
+    float normalizedY,
+    int viewWidth,
+    int viewHeight,
+    Box content
+  ) {
+    float x = normalizedX * viewWidth;
+    float y = normalizedY * viewHeight;
+    if (content != null && content.width > 0 && content.height > 0) {
+      x = Math.max(content.left, Math.min(x, content.right()));
+      y = Math.max(content.top, Math.min(y, content.bottom()));
+    }
+    return new float[] { x, y };
+  }
+
+  /**
+   * Screen-pixel bounds to the web view's logical coordinates {x, y, width, height}. Positions are
+   * rounded up and sizes down so the reported rectangle never covers pixels outside the preview.
+   */
+  static int[] toLogicalBounds(
+    Box screenBounds,
+    int insetLeft,
+    int insetTop,
+    float density
+  ) {
+    return new int[] {
+      Math.max(0, (int) Math.ceil((screenBounds.left - insetLeft) / density)),
+      Math.max(0, (int) Math.ceil((screenBounds.top - insetTop) / density)),
+      (int) Math.floor(screenBounds.width / density),
+      (int) Math.floor(screenBounds.height / density),
+    };
+  }
+
+  /**
+   * Whether the preview stream should be re-selected because its container grew: the bound (the
+   * container capped by the window) needs more pixels than the stream has on some side, and more
+   * than the bound the stream was selected for. The second check keeps a camera whose largest
+   * stream is already in use from being rebound on every layout. Sizes may be in either
+   * orientation; unknown (non-positive) sizes never ask for a new stream.
+   */
+  static boolean needsLargerPreviewStream(
+    int streamWidth,
+    int streamHeight,
+    int selectedForWidth,
+    int selectedForHeight,
+    int boundWidth,
+    int boundHeight
+  ) {
+    if (
+      streamWidth <= 0 ||
+      streamHeight <= 0 ||
+      selectedForWidth <= 0 ||
+      selectedForHeight <= 0 ||
+      boundWidth <= 0 ||
+      boundHeight <= 0
+    ) {
+      return false;
+    }
+    return (
+      exceeds(boundWidth, boundHeight, streamWidth, streamHeight) &&
+      exceeds(boundWidth, boundHeight, selectedForWidth, selectedForHeight)
+    );
+  }
+
+  // Whether the first size is larger than the second on its long or its short side
+  private static boolean exceeds(
+    int width,
+    int height,
+    int otherWidth,
+    int otherHeight
+  ) {
+    return (
+      Math.max(width, height) > Math.max(otherWidth, otherHeight) ||
+      Math.min(width, height) > Math.min(otherWidth, otherHeight)
+    );
+  }
+
+  /** "16:9" or "4:3", whichever is closer to the box's long side over short side. */
+  static String nearestStandardAspect(int width, int height) {
+    float ratio = Math.max(width, height) / (float) Math.min(width, height);
+    return Math.abs(ratio - 16f / 9f) < Math.abs(ratio - 4f / 3f)
+      ? "16:9"
+      : "4:3";
+  }
+
+  private static int clamp(int value, int min, int max) {
+    return Math.max(min, Math.min(value, max));
+  }
+
+  private static boolean equals(String a, String b) {
+    return a == null ? b == null : a.equals(b);
+  }
+}
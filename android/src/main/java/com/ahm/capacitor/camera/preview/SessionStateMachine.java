@@ -0,0 +1,245 @@
+package com.ahm.capacitor.camera.preview;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free lifecycle of a camera session.
+ *
+ * <pre>
+ * IDLE      -> STARTING                     tryStart()
+ * STARTING  -> RUNNING | IDLE               markRunning() / startFailed()
+ * RUNNING   -> CAPTURING -> RUNNING         beginCapture() / endCapture()
+ * RUNNING   -> STANDBY -> RUNNING           enterStandby() / exitStandby()
+ * RUNNING, STARTING, STANDBY -> STOPPING    requestStop()
+ * CAPTURING -> STOP_DEFERRED -> STOPPING    requestStop() / endCapture() of the last capture
+ * STOPPING  -> IDLE                         stopped()
+ * </pre>
+ *
+ * STANDBY is a paused session whose use cases stay bound while the camera itself is closed.
+ *
+ * Every transition is a compare-and-set on an immutable snapshot, so callers on the main thread,
+ * the camera executor and capture callbacks never need a shared lock. Work that needs an idle
+ * session (e.g. a start() issued while a deferred stop is pending) can be queued with
+ * {@link #runWhenIdle(Runnable)} and is run as soon as teardown completes.
+ */
+public final class SessionStateMachine {
+
+  public enum State {
+    IDLE,
+    STARTING,
+    RUNNING,
+    CAPTURING,
+    STOP_DEFERRED,
+    STOPPING,
+    STANDBY,
+  }
+
+  /** Result of {@link #requestStop()}. */
+  public enum StopAction {
+    /** Tear down now. */
+    IMMEDIATE,
+    /** A capture is in flight; teardown happens when it completes. */
+    DEFERRED,
+    /** Nothing to stop, or a stop is already under way. */
+    NONE,
+  }
+
+  private static final class Snapshot {
+
+    final State state;
+    final int captures;
+
+    Snapshot(State state, int captures) {
+      this.state = state;
+      this.captures = captures;
+    }
+  }
+
+  private final AtomicReference<Snapshot> current = new AtomicReference<>(
+    new Snapshot(State.IDLE, 0)
+  );
+  private final Queue<Runnable> idleQueue = new ConcurrentLinkedQueue<>();
+
+  public State getState() {
+    return current.get().state;
+  }
+
+  public int getCapturesInFlight() {
+    return current.get().captures;
+  }
+
+  /** Camera is bound and usable (possibly capturing). */
+  public boolean isRunning() {
+    State state = getState();
+    return state == State.RUNNING || state == State.CAPTURING;
+  }
+
+  /** A stop has been requested and teardown has not finished yet. */
+  public boolean isStopping() {
+    State state = getState();
+    return state == State.STOP_DEFERRED || state == State.STOPPING;
+  }
+
+  /** IDLE -> STARTING. Returns false if the session is not idle. */
+  public boolean tryStart() {
+    return casFrom(State.IDLE, new Snapshot(State.STARTING, 0));
+  }
+
+  /**
+   * STARTING -> RUNNING. Also accepted while already running (rebinds). Returns false when the
+   * session was stopped while starting, in which case the caller must not report it as started.
+   */
+  public boolean markRunning() {
+    while (true) {
+      Snapshot snapshot = current.get();
+      switch (snapshot.state) {
+        case STARTING:
+          if (
+            current.compareAndSet(snapshot, new Snapshot(State.RUNNING, 0))
+          ) {
+            return true;
+          }
+          break;
+        case RUNNING:
+        case CAPTURING:
+          return true;
+        default:
+          return false;
+      }
+    }
+  }
+
+  /** STARTING -> IDLE after a failed start. No effect in any other state. */
+  public void startFailed() {
+    if (casFrom(State.STARTING, new Snapshot(State.IDLE, 0))) {
+      drainIdleQueue();
+    }
+  }
+
+  /** RUNNING/CAPTURING -> CAPTURING with one more capture in flight. */
+  public boolean beginCapture() {
+    while (true) {
+      Snapshot snapshot = current.get();
+      if (
+        snapshot.state != State.RUNNING && snapshot.state != State.CAPTURING
+      ) {
+        return false;
+      }
+      Snapshot next = new Snapshot(State.CAPTURING, snapshot.captures + 1);
+      if (current.compareAndSet(snapshot, next)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * One capture finished. Returns true when this was the last capture of a deferred stop; the
+   * session is then STOPPING and the caller must perform the teardown.
+   */
+  public boolean endCapture() {
+    while (true) {
+      Snapshot snapshot = current.get();
+      int remaining = Math.max(0, snapshot.captures - 1);
+      Snapshot next;
+      switch (snapshot.state) {
+        case CAPTURING:
+          next = new Snapshot(
+            remaining > 0 ? State.CAPTURING : State.RUNNING,
+            remaining
+          );
+          break;
+        case STOP_DEFERRED:
+          next = new Snapshot(
+            remaining > 0 ? State.STOP_DEFERRED : State.STOPPING,
+            remaining
+          );
+          break;
+        default:
+          return false;
+      }
+      if (current.compareAndSet(snapshot, next)) {
+        return next.state == State.STOPPING;
+      }
+    }
+  }
+
+  /** RUNNING -> STANDBY. Returns false in any other state (e.g. while capturing). */
+  public boolean enterStandby() {
+    return casFrom(State.RUNNING, new Snapshot(State.STANDBY, 0));
+  }
+
+  /** STANDBY -> RUNNING. */
+  public boolean exitStandby() {
+    return casFrom(State.STANDBY, new Snapshot(State.RUNNING, 0));
+  }
+
+  /**
+   * Request teardown: RUNNING/STARTING/STANDBY -> STOPPING, CAPTURING -> STOP_DEFERRED.
+   */
+  public StopAction requestStop() {
+    while (true) {
+      Snapshot snapshot = current.get();
+      Snapshot next;
+      StopAction action;
+      switch (snapshot.state) {
+        case STARTING:
+        case RUNNING:
+        case STANDBY:
+          next = new Snapshot(State.STOPPING, 0);
+          action = StopAction.IMMEDIATE;
+          break;
+        case CAPTURING:
+          next = new Snapshot(State.STOP_DEFERRED, snapshot.captures);
+          action = StopAction.DEFERRED;
+          break;
+        default:
+          return StopAction.NONE;
+      }
+      if (current.compareAndSet(snapshot, next)) {
+        return action;
+      }
+    }
+  }
+
+  /** Teardown finished: any state -> IDLE, then run queued work. */
+  public void stopped() {
+    current.set(new Snapshot(State.IDLE, 0));
+    drainIdleQueue();
+  }
+
+  /**
+   * Run the task now if the session is idle, otherwise once it becomes idle. Queued tasks run on
+   * the thread that completes the teardown.
+   */
+  public void runWhenIdle(Runnable task) {
+    idleQueue.add(task);
+    if (getState() == State.IDLE) {
+      drainIdleQueue();
+    }
+  }
+
+  private void drainIdleQueue() {
+    // A queued task may start a new session; the rest then wait for the next idle period
+    while (getState() == State.IDLE) {
+      Runnable task = idleQueue.poll();
+      if (task == null) {
+        return;
+      }
+      task.run();
+    }
+  }
+
+  private boolean casFrom(State expected, Snapshot next) {
+    while (true) {
+      Snapshot snapshot = current.get();
+      if (snapshot.state != expected) {
+        return false;
+      }
+      if (current.compareAndSet(snapshot, next)) {
+        return true;
+      }
+    }
+  }
+}
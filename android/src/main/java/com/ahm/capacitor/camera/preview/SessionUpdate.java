@@ -0,0 +1,103 @@
+package com.ahm.capacitor.camera.preview;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How updateSession applies each changed option, cheapest first: a value read at use time
+ * ({@link #CONFIG}), a view update ({@link #VIEW}), a camera control call ({@link #CONTROL}), a
+ * swap of a single use case ({@link #USE_CASE}) or a rebind of all of them ({@link #REBIND}).
+ *
+ * The mapping only depends on which fields changed and a few session facts, so it is computed
+ * before anything is applied and the plugin can report it without waiting on the update.
+ */
+final class SessionUpdate {
+
+  static final String CONFIG = "config";
+  static final String VIEW = "view";
+  static final String CONTROL = "control";
+  static final String USE_CASE = "useCase";
+  static final String REBIND = "rebind";
+
+  private static final List<String> PATHS = Arrays.asList(
+    CONFIG,
+    VIEW,
+    CONTROL,
+    USE_CASE,
+    REBIND
+  );
+
+  private SessionUpdate() {}
+
+  /**
+   * Path for each changed field, in the order given.
+   *
+   * @param rebind the camera or the stream aspect ratio changes, so everything is rebound
+   * @param videoMode video mode is enabled after the update
+   * @param videoQualityHeld the recorder is held at the thermal quality, so a new quality is
+   *     only stored until the device cools
+   */
+  static Map<String, String> plan(
+    List<String> changed,
+    boolean rebind,
+    boolean videoMode,
+    boolean videoQualityHeld
+  ) {
+    Map<String, String> paths = new LinkedHashMap<>();
+    for (String field : changed) {
+      switch (field) {
+        case "deviceId":
+        case "position":
+          paths.put(field, REBIND);
+          break;
+        case "aspectRatio":
+          paths.put(field, rebind ? REBIND : VIEW);
+          break;
+        case "x":
+        case "y":
+        case "width":
+        case "height":
+        case "enableOpacity":
+        case "enableZoom":
+        case "gridMode":
+        case "disableFocusIndicator":
+          paths.put(field, VIEW);
+          break;
+        case "initialZoomLevel":
+          paths.put(field, rebind ? REBIND : CONTROL);
+          break;
+        case "enableVideoMode":
+          paths.put(field, rebind ? REBIND : USE_CASE);
+          break;
+        case "videoQuality":
+          paths.put(
+            field,
+            rebind
+              ? REBIND
+              : videoMode && !videoQualityHeld ? USE_CASE : CONFIG
+          );
+          break;
+        default:
+          // paddingBottom, storeToFile, disableExifHeaderStripping, disableAudio
+          paths.put(field, CONFIG);
+          break;
+      }
+    }
+    return paths;
+  }
+
+  /** The most expensive of the given paths, or null when there are none. */
+  static String costliest(Iterable<String> paths) {
+    String costliest = null;
+    for (String path : paths) {
+      if (
+        costliest == null || PATHS.indexOf(path) > PATHS.indexOf(costliest)
+      ) {
+        costliest = path;
+      }
+    }
+    return costliest;
+  }
+}
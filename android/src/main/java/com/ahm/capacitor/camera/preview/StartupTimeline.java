@@ -0,0 +1,191 @@
+package com.ahm.capacitor.camera.preview;
+
+import android.os.Build;
+import android.os.SystemClock;
+import android.os.Trace;
+import com.getcapacitor.JSObject;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Monotonic timeline of a camera session start.
+ *
+ * Marks are offsets in milliseconds from the moment the timeline was created, taken with
+ * {@link SystemClock#elapsedRealtimeNanos()}. The interval between two consecutive start steps is
+ * also emitted as an async {@link Trace} section named after the marks it spans
+ * ("CameraPreview#providerReady..viewAttached"), and the wait for the first frame as
+ * "CameraPreview#start..firstFrame", so starts can be inspected in Perfetto next to the CameraX
+ * and HAL tracks.
+ */
+final class StartupTimeline {
+
+  private static final String TAG = "CameraPreview Timeline";
+  private static final AtomicBoolean processStarted = new AtomicBoolean(false);
+  private static final AtomicInteger nextCookie = new AtomicInteger(1);
+
+  // Marks of a start() in the order they are reached; firstFrame is traced on its own
+  private static final String[] START_STEPS = {
+    "permissionChecked",
+    "providerReady",
+    "viewAttached",
+    "bindComplete",
+    "resolved",
+  };
+  private static final String[] HEADLESS_START_STEPS = {
+    "permissionChecked",
+    "providerReady",
+    "bindComplete",
+    "resolved",
+  };
+  private static final String[] NO_STEPS = {};
+
+  private final String kind;
+  private final String[] steps;
+  private final long originNanos;
+  private final int cookie;
+  private final int firstFrameCookie;
+  private final Map<String, Double> marks = new LinkedHashMap<>();
+  private String openSection;
+  private String firstFrameSection;
+  private boolean finished;
+
+  private StartupTimeline(String kind, String origin, String[] steps) {
+    this.kind = kind;
+    this.steps = steps;
+    this.originNanos = SystemClock.elapsedRealtimeNanos();
+    this.cookie = nextCookie.getAndIncrement();
+    this.firstFrameCookie = nextCookie.getAndIncrement();
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+      firstFrameSection = "CameraPreview#" + origin + "..firstFrame";
+      Trace.beginAsyncSection(firstFrameSection, firstFrameCookie);
+      if (steps.length > 0) {
+        openSection = "CameraPreview#" + origin + ".." + steps[0];
+        Trace.beginAsyncSection(openSection, cookie);
+      }
+    }
+  }
+
+  /**
+   * Timeline for a start() call; the first one in the process is "cold", later ones "warm". A
+   * headless start attaches no views, so it has no "viewAttached" step.
+   */
+  static StartupTimeline forStart(boolean headless) {
+    return new StartupTimeline(
+      processStarted.compareAndSet(false, true) ? "cold" : "warm",
+      "start",
+      headless ? HEADLESS_START_STEPS : START_STEPS
+    );
+  }
+
+  /**
+   * Timeline for a resume from warm standby, which only waits for the first frame.
+   */
+  static StartupTimeline forResume() {
+    return new StartupTimeline("standby", "resume", NO_STEPS);
+  }
+
+  String getKind() {
+    return kind;
+  }
+
+  /**
+   * Record a mark. Only the first occurrence of a name is kept. The mark ends the trace section
+   * leading up to it and, until {@link #finish()}, opens the one towards the next step.
+   */
+  synchronized void mark(String name) {
+    if (marks.containsKey(name)) {
+      return;
+    }
+    double elapsedMs =
+      (SystemClock.elapsedRealtimeNanos() - originNanos) / 1_000_000.0;
+    marks.put(name, elapsedMs);
+
+    if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+      return;
+    }
+    if ("firstFrame".equals(name)) {
+      endFirstFrameSection();
+      return;
+    }
+    if (openSection != null) {
+      Trace.endAsyncSection(openSection, cookie);
+      openSection = null;
+    }
+    int index = Arrays.asList(steps).indexOf(name);
+    if (!finished && index >= 0 && index + 1 < steps.length) {
+      openSection = "CameraPreview#" + name + ".." + steps[index + 1];
+      Trace.beginAsyncSection(openSection, cookie);
+    }
+  }
+
+  synchronized double getElapsedMs(String name) {
+    Double value = marks.get(name);
+    return value != null ? value : -1;
+  }
+
+  /**
+   * Close the step section and log the timeline. Further marks are still recorded, and
+   * "firstFrame" still ends its section, but no new section is opened.
+   */
+  synchronized void finish() {
+    finished = true;
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && openSection != null) {
+      Trace.endAsyncSection(openSection, cookie);
+      openSection = null;
+    }
+    // A copy: the recorder keeps the argument and later marks still go into the map
+    CameraLog.i(TAG, "{} start: {}", kind, new LinkedHashMap<>(marks));
+  }
+
+  /**
+   * Close every open section without logging, for a start that failed.
+   */
+  synchronized void close() {
+    finished = true;
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+      if (openSection != null) {
+        Trace.endAsyncSection(openSection, cookie);
+        openSection = null;
+      }
+      endFirstFrameSection();
+    }
+  }
+
+  /**
+   * End the first frame section for a start that has no frame to wait for, or whose frame never
+   * came.
+   */
+  synchronized void endFirstFrameWait() {
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+      endFirstFrameSection();
+    }
+  }
+
+  private void endFirstFrameSection() {
+    if (firstFrameSection != null) {
+      Trace.endAsyncSection(firstFrameSection, firstFrameCookie);
+      firstFrameSection = null;
+    }
+  }
+
+  synchronized JSObject toJSObject() {
+    JSObject result = new JSObject();
+    result.put("kind", kind);
+    JSObject marksJs = new JSObject();
+    double total = 0;
+    for (Map.Entry<String, Double> entry : marks.entrySet()) {
+      marksJs.put(entry.getKey(), round(entry.getValue()));
+      total = Math.max(total, entry.getValue());
+    }
+    result.put("marks", marksJs);
+    result.put("totalMs", round(total));
+    return result;
+  }
+
+  private static double round(double ms) {
+    return Math.round(ms * 100.0) / 100.0;
+  }
+}
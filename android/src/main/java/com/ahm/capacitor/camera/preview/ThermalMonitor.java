@@ -0,0 +1,193 @@
+package com.ahm.capacitor.camera.preview;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns thermal reports into a degradation ladder.
+ *
+ * Each {@link Step} has a status threshold; a step is active while the effective status is at or
+ * above it. The effective status is the reported one, raised when the headroom forecast says
+ * throttling is coming. The listener hears about every change of the reported status or of the
+ * active steps, on the thread the source reports on. Plain Java so the ladder can be unit tested
+ * with a fake {@link ThermalStatusSource}.
+ */
+final class ThermalMonitor implements ThermalStatusSource.Callback {
+
+  enum Step {
+    LOWER_FRAME_RATE("lowerFrameRate"),
+    DISABLE_ANALYSIS("disableAnalysis"),
+    REDUCE_VIDEO_QUALITY("reduceVideoQuality"),
+    LOWER_CAPTURE_RESOLUTION("lowerCaptureResolution");
+
+    final String key;
+
+    Step(String key) {
+      this.key = key;
+    }
+  }
+
+  interface Listener {
+    void onThermalStateChanged(int status, float headroom, Set<Step> steps);
+  }
+
+  // Same values as PowerManager.THERMAL_STATUS_*
+  static final int STATUS_NONE = 0;
+  static final int STATUS_LIGHT = 1;
+  static final int STATUS_MODERATE = 2;
+  static final int STATUS_SEVERE = 3;
+  static final int STATUS_CRITICAL = 4;
+  static final int STATUS_EMERGENCY = 5;
+  static final int STATUS_SHUTDOWN = 6;
+  // Threshold of a step that never activates
+  static final int STATUS_OFF = Integer.MAX_VALUE;
+
+  private static final String[] STATUS_NAMES = {
+    "none",
+    "light",
+    "moderate",
+    "severe",
+    "critical",
+    "emergency",
+    "shutdown",
+  };
+
+  // Headroom of 1.0 means severe throttling is expected within the forecast window
+  static final float HEADROOM_SEVERE = 1.0f;
+  static final float HEADROOM_MODERATE = 0.85f;
+
+  private final ThermalStatusSource source;
+  private final Map<Step, Integer> thresholds;
+  private final Listener listener;
+
+  private boolean started = false;
+  private int status = STATUS_NONE;
+  private float headroom = Float.NaN;
+  private Set<Step> steps = Collections.unmodifiableSet(
+    EnumSet.noneOf(Step.class)
+  );
+
+  /**
+   * @param thresholds status at which each step activates; missing steps use the defaults
+   */
+  ThermalMonitor(
+    ThermalStatusSource source,
+    Map<Step, Integer> thresholds,
+    Listener listener
+  ) {
+    this.source = source;
+    this.thresholds = defaultThresholds();
+    if (thresholds != null) {
+      this.thresholds.putAll(thresholds);
+    }
+    this.listener = listener;
+  }
+
+  /** Frame rate first, capture resolution last: the cheapest visible loss goes first. */
+  static Map<Step, Integer> defaultThresholds() {
+    Map<Step, Integer> defaults = new EnumMap<>(Step.class);
+    defaults.put(Step.LOWER_FRAME_RATE, STATUS_MODERATE);
+    defaults.put(Step.DISABLE_ANALYSIS, STATUS_MODERATE);
+    defaults.put(Step.REDUCE_VIDEO_QUALITY, STATUS_SEVERE);
+    defaults.put(Step.LOWER_CAPTURE_RESOLUTION, STATUS_CRITICAL);
+    return defaults;
+  }
+
+  /**
+   * @return the STATUS_* value for a status name, or {@link #STATUS_OFF} for "off"
+   * @throws IllegalArgumentException for anything else
+   */
+  static int parseStatus(String name) {
+    String normalized = name == null ? "" : name.toLowerCase(Locale.US);
+    if ("off".equals(normalized)) {
+      return STATUS_OFF;
+    }
+    for (int i = 0; i < STATUS_NAMES.length; i++) {
+      if (STATUS_NAMES[i].equals(normalized)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("Unknown thermal status: " + name);
+  }
+
+  static String statusName(int status) {
+    if (status < 0 || status >= STATUS_NAMES.length) {
+      return "none";
+    }
+    return STATUS_NAMES[status];
+  }
+
+  static int effectiveStatus(int status, float headroom) {
+    if (Float.isNaN(headroom)) {
+      return status;
+    }
+    if (headroom >= HEADROOM_SEVERE) {
+      return Math.max(status, STATUS_SEVERE);
+    }
+    if (headroom >= HEADROOM_MODERATE) {
+      return Math.max(status, STATUS_MODERATE);
+    }
+    return status;
+  }
+
+  Set<Step> stepsFor(int effectiveStatus) {
+    Set<Step> active = EnumSet.noneOf(Step.class);
+    for (Map.Entry<Step, Integer> entry : thresholds.entrySet()) {
+      if (effectiveStatus >= entry.getValue()) {
+        active.add(entry.getKey());
+      }
+    }
+    return Collections.unmodifiableSet(active);
+  }
+
+  void start() {
+    synchronized (this) {
+      if (started) return;
+      started = true;
+    }
+    source.start(this);
+  }
+
+  /** Stop listening and forget the state; no callback is made for the reset. */
+  void stop() {
+    synchronized (this) {
+      if (!started) return;
+      started = false;
+      status = STATUS_NONE;
+      headroom = Float.NaN;
+      steps = Collections.unmodifiableSet(EnumSet.noneOf(Step.class));
+    }
+    source.stop();
+  }
+
+  synchronized int getStatus() {
+    return status;
+  }
+
+  synchronized float getHeadroom() {
+    return headroom;
+  }
+
+  synchronized Set<Step> getSteps() {
+    return steps;
+  }
+
+  @Override
+  public void onThermalChanged(int status, float headroom) {
+    Set<Step> next;
+    synchronized (this) {
+      if (!started) return;
+      next = stepsFor(effectiveStatus(status, headroom));
+      boolean changed = status != this.status || !next.equals(steps);
+      this.status = status;
+      this.headroom = headroom;
+      if (!changed) return;
+      steps = next;
+    }
+    listener.onThermalStateChanged(status, headroom, next);
+  }
+}
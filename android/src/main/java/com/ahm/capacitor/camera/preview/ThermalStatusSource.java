@@ -0,0 +1,21 @@
+package com.ahm.capacitor.camera.preview;
+
+/**
+ * Where {@link ThermalMonitor} gets the device thermal state from. The production source wraps
+ * PowerManager; tests feed statuses by hand.
+ */
+interface ThermalStatusSource {
+  interface Callback {
+    /**
+     * @param status one of the ThermalMonitor.STATUS_* values (the PowerManager.THERMAL_STATUS_*
+     *     constants)
+     * @param headroom forecast thermal headroom, 1.0 meaning severe throttling, or NaN when unknown
+     */
+    void onThermalChanged(int status, float headroom);
+  }
+
+  /** Begin reporting. The current state is reported right away if it is known. */
+  void start(Callback callback);
+
+  void stop();
+}
@@ -0,0 +1,234 @@
+package com.ahm.capacitor.camera.preview;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.ScaleGestureDetector;
+import androidx.camera.core.Camera;
+import androidx.camera.core.ZoomState;
+
+/**
+ * Native zoom driving: pinch gestures and timed ramps, applied directly to the CameraControl with
+ * no bridge traffic per frame. Zoom changes made here are reported through the listener at most
+ * every {@link #EVENT_INTERVAL_MS}, plus once when a gesture or ramp ends.
+ *
+ * Must be used from the main thread.
+ */
+final class ZoomController
+  extends ScaleGestureDetector.SimpleOnScaleGestureListener
+  implements Choreographer.FrameCallback {
+
+  interface Listener {
+    void onZoomChanged(float zoomRatio);
+  }
+
+  private static final long EVENT_INTERVAL_MS = 100;
+
+  private final ScaleGestureDetector scaleDetector;
+  private final Listener listener;
+  private Camera camera;
+
+  // Zoom ratio last sent to the camera; ZoomState lags behind by a few frames
+  private float currentRatio = 1f;
+  private boolean scaling = false;
+  private long lastEventMs = 0;
+  private boolean eventPending = false;
+
+  // Active ramp, in linear zoom space
+  private boolean ramping = false;
+  private float rampFrom;
+  private float rampTo;
+  private float rampTargetRatio;
+  private long rampStartNanos;
+  private long rampDurationNanos;
+
+  ZoomController(Context context, Listener listener) {
+    this.scaleDetector = new ScaleGestureDetector(context, this);
+    this.listener = listener;
+  }
+
+  ScaleGestureDetector getScaleDetector() {
+    return scaleDetector;
+  }
+
+  /** True while a pinch is in progress; taps should not trigger focus then. */
+  boolean isScaling() {
+    return scaling;
+  }
+
+  void attach(Camera camera) {
+    this.camera = camera;
+    ZoomState state = camera.getCameraInfo().getZoomState().getValue();
+    if (state != null) {
+      currentRatio = state.getZoomRatio();
+    }
+  }
+
+  void detach() {
+    cancelRamp();
+    camera = null;
+  }
+
+  /** Set the zoom immediately, cancelling any ramp in progress. */
+  void setZoom(float zoomRatio) {
+    cancelRamp();
+    applyRatio(zoomRatio);
+  }
+
+  /**
+   * Animate to the given zoom ratio over {@code durationMs}, one setLinearZoom() per frame. Linear
+   * zoom is perceptually even, so the ramp does not speed up at the telephoto end.
+   */
+  void rampTo(float zoomRatio, long durationMs) {
+    ZoomState state = zoomState();
+    if (state == null || durationMs <= 0) {
+      setZoom(zoomRatio);
+      return;
+    }
+    float min = state.getMinZoomRatio();
+    float max = state.getMaxZoomRatio();
+    rampTargetRatio = clamp(zoomRatio, min, max);
+    rampFrom = toLinear(currentRatio, min, max);
+    rampTo = toLinear(rampTargetRatio, min, max);
+    rampStartNanos = SystemClock.elapsedRealtimeNanos();
+    rampDurationNanos = durationMs * 1_000_000L;
+    if (!ramping) {
+      ramping = true;
+      Choreographer.getInstance().postFrameCallback(this);
+    }
+  }
+
+  @Override
+  public void doFrame(long frameTimeNanos) {
+    if (!ramping || camera == null) {
+      ramping = false;
+      return;
+    }
+    float t = Math.min(
+      1f,
+      (SystemClock.elapsedRealtimeNanos() - rampStartNanos) /
+      (float) rampDurationNanos
+    );
+    if (t >= 1f) {
+      ramping = false;
+      applyRatio(rampTargetRatio);
+      flushEvent();
+      return;
+    }
+    // Ease out: fast start, gentle landing
+    float eased = 1f - (1f - t) * (1f - t);
+    float linear = rampFrom + (rampTo - rampFrom) * eased;
+    camera.getCameraControl().setLinearZoom(linear);
+    ZoomState state = zoomState();
+    if (state != null) {
+      currentRatio = fromLinear(
+        linear,
+        state.getMinZoomRatio(),
+        state.getMaxZoomRatio()
+      );
+    }
+    maybeEmit();
+    Choreographer.getInstance().postFrameCallback(this);
+  }
+
+  @Override
+  public boolean onScaleBegin(ScaleGestureDetector detector) {
+    if (camera == null) {
+      return false;
+    }
+    cancelRamp();
+    scaling = true;
+    return true;
+  }
+
+  @Override
+  public boolean onScale(ScaleGestureDetector detector) {
+    applyRatio(currentRatio * detector.getScaleFactor());
+    return true;
+  }
+
+  @Override
+  public void onScaleEnd(ScaleGestureDetector detector) {
+    scaling = false;
+    flushEvent();
+  }
+
+  private void cancelRamp() {
+    if (ramping) {
+      ramping = false;
+      Choreographer.getInstance().removeFrameCallback(this);
+    }
+  }
+
+  private void applyRatio(float zoomRatio) {
+    if (camera == null) {
+      return;
+    }
+    ZoomState state = zoomState();
+    if (state != null) {
+      zoomRatio = clamp(
+        zoomRatio,
+        state.getMinZoomRatio(),
+        state.getMaxZoomRatio()
+      );
+    }
+    if (zoomRatio == currentRatio) {
+      return;
+    }
+    currentRatio = zoomRatio;
+    camera.getCameraControl().setZoomRatio(zoomRatio);
+    maybeEmit();
+  }
+
+  private void maybeEmit() {
+    long now = SystemClock.uptimeMillis();
+    if (now - lastEventMs >= EVENT_INTERVAL_MS) {
+      lastEventMs = now;
+      eventPending = false;
+      listener.onZoomChanged(currentRatio);
+    } else {
+      eventPending = true;
+    }
+  }
+
+  /** Emit the final value of a gesture or ramp if throttling held it back. */
+  private void flushEvent() {
+    if (eventPending) {
+      eventPending = false;
+      lastEventMs = SystemClock.uptimeMillis();
+      listener.onZoomChanged(currentRatio);
+    }
+  }
+
+  private ZoomState zoomState() {
+    return camera != null
+      ? camera.getCameraInfo().getZoomState().getValue()
+      : null;
+  }
+
+  private static float clamp(float value, float min, float max) {
+    return Math.max(min, Math.min(value, max));
+  }
+
+  /**
+   * Same mapping CameraX uses between zoom ratio and linear zoom: linear in 1/ratio, so equal
+   * steps change the field of view evenly.
+   */
+  static float toLinear(float ratio, float min, float max) {
+    if (max <= min) {
+      return 0f;
+    }
+    return clamp(
+      (1f / ratio - 1f / min) / (1f / max - 1f / min),
+      0f,
+      1f
+    );
+  }
+
+  static float fromLinear(float linear, float min, float max) {
+    if (max <= min) {
+      return min;
+    }
+    return 1f / (1f / min + linear * (1f / max - 1f / min));
+  }
+}
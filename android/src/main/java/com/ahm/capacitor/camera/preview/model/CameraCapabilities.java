@@ -0,0 +1,246 @@
+package com.ahm.capacitor.camera.preview.model;
+
+import android.util.Range;
+import android.util.Size;
+import android.util.SizeF;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the static characteristics of a single camera id.
+ */
+public class CameraCapabilities {
+
+  private final String cameraId;
+  private final String position;
+  private final String deviceType;
+  private final float[] focalLengths;
+  private final SizeF sensorSize;
+  private final float minZoom;
+  private final float maxZoom;
+  private final List<Size> jpegSizes;
+  private final List<Size> highResolutionJpegSizes;
+  private final Map<Size, Long> jpegMinFrameDurations;
+  private final List<Range<Integer>> fpsRanges;
+  private final boolean zslSupported;
+  private final List<Integer> supportedExtensions;
+  private final List<String> physicalCameraIds;
+
+  public CameraCapabilities(
+    String cameraId,
+    String position,
+    String deviceType,
+    float[] focalLengths,
+    SizeF sensorSize,
+    float minZoom,
+    float maxZoom,
+    List<Size> jpegSizes,
+    List<Size> highResolutionJpegSizes,
+    Map<Size, Long> jpegMinFrameDurations,
+    List<Range<Integer>> fpsRanges,
+    boolean zslSupported,
+    List<Integer> supportedExtensions,
+    List<String> physicalCameraIds
+  ) {
+    this.cameraId = cameraId;
+    this.position = position;
+    this.deviceType = deviceType;
+    this.focalLengths = focalLengths != null ? focalLengths : new float[0];
+    this.sensorSize = sensorSize;
+    this.minZoom = minZoom;
+    this.maxZoom = maxZoom;
+    this.jpegSizes = Collections.unmodifiableList(jpegSizes);
+    this.highResolutionJpegSizes = Collections.unmodifiableList(
+      highResolutionJpegSizes
+    );
+    this.jpegMinFrameDurations = Collections.unmodifiableMap(
+      jpegMinFrameDurations
+    );
+    this.fpsRanges = Collections.unmodifiableList(fpsRanges);
+    this.zslSupported = zslSupported;
+    this.supportedExtensions = Collections.unmodifiableList(
+      supportedExtensions
+    );
+    this.physicalCameraIds = Collections.unmodifiableList(physicalCameraIds);
+  }
+
+  public String getCameraId() {
+    return cameraId;
+  }
+
+  public String getPosition() {
+    return position;
+  }
+
+  public String getDeviceType() {
+    return deviceType;
+  }
+
+  /**
+   * Primary focal length in millimeters, or the 4.25mm default used elsewhere when unknown.
+   */
+  public float getFocalLength() {
+    return focalLengths.length > 0 ? focalLengths[0] : 4.25f;
+  }
+
+  public float[] getFocalLengths() {
+    return focalLengths.clone();
+  }
+
+  public SizeF getSensorSize() {
+    return sensorSize;
+  }
+
+  public float getMinZoom() {
+    return minZoom;
+  }
+
+  public float getMaxZoom() {
+    return maxZoom;
+  }
+
+  public List<Size> getJpegSizes() {
+    return jpegSizes;
+  }
+
+  public List<Size> getHighResolutionJpegSizes() {
+    return highResolutionJpegSizes;
+  }
+
+  /**
+   * Minimum frame duration in nanoseconds for a JPEG output of the given size, or 0 if unknown.
+   */
+  public long getJpegMinFrameDuration(Size size) {
+    Long duration = jpegMinFrameDurations.get(size);
+    return duration != null ? duration : 0L;
+  }
+
+  /**
+   * All JPEG sizes, regular and high resolution, largest first.
+   */
+  public List<Size> getAllJpegSizes() {
+    List<Size> sizes = new ArrayList<>(jpegSizes);
+    for (Size size : highResolutionJpegSizes) {
+      if (!sizes.contains(size)) {
+        sizes.add(size);
+      }
+    }
+    Collections.sort(sizes, (a, b) ->
+      Long.compare(
+        (long) b.getWidth() * b.getHeight(),
+        (long) a.getWidth() * a.getHeight()
+      )
+    );
+    return sizes;
+  }
+
+  /**
+   * The JPEG size covering at least the target (in either orientation) that can be captured the
+   * fastest, preferring the smaller size when durations tie. Returns the largest size if none is
+   * big enough, or null when no sizes are known.
+   */
+  public Size getFastestJpegSizeAtLeast(int targetWidth, int targetHeight) {
+    List<Size> sizes = getAllJpegSizes();
+    int[] widths = new int[sizes.size()];
+    int[] heights = new int[sizes.size()];
+    long[] durations = new long[sizes.size()];
+    for (int i = 0; i < sizes.size(); i++) {
+      Size size = sizes.get(i);
+      widths[i] = size.getWidth();
+      heights[i] = size.getHeight();
+      durations[i] = getJpegMinFrameDuration(size);
+    }
+    int index = indexOfFastestAtLeast(
+      widths,
+      heights,
+      durations,
+      targetWidth,
+      targetHeight
+    );
+    return index >= 0 ? sizes.get(index) : null;
+  }
+
+  /**
+   * Selection behind {@link #getFastestJpegSizeAtLeast} on plain arrays, so it can be unit tested
+   * without android.util.Size. Sizes must be sorted largest first; a duration of 0 is unknown and
+   * counts as the fastest. Returns -1 for no sizes.
+   */
+  static int indexOfFastestAtLeast(
+    int[] widths,
+    int[] heights,
+    long[] durations,
+    int targetWidth,
+    int targetHeight
+  ) {
+    int targetLong = Math.max(targetWidth, targetHeight);
+    int targetShort = Math.min(targetWidth, targetHeight);
+    int best = -1;
+    long bestDuration = Long.MAX_VALUE;
+    for (int i = 0; i < widths.length; i++) {
+      int longSide = Math.max(widths[i], heights[i]);
+      int shortSide = Math.min(widths[i], heights[i]);
+      if (longSide < targetLong || shortSide < targetShort) {
+        continue;
+      }
+      // Largest first, so ties resolve to the later (smaller) size
+      if (durations[i] <= bestDuration) {
+        best = i;
+        bestDuration = durations[i];
+      }
+    }
+    if (best < 0 && widths.length > 0) {
+      return 0;
+    }
+    return best;
+  }
+
+  public List<Range<Integer>> getFpsRanges() {
+    return fpsRanges;
+  }
+
+  /**
+   * The advertised AE target range whose upper bound is the highest one not above maxFps, with
+   * the lowest lower bound among those so auto-exposure can slow down further in low light.
+   * Falls back to the range with the smallest upper bound when none fits; null when the camera
+   * reports no ranges.
+   */
+  public Range<Integer> getFpsRangeAtMost(int maxFps) {
+    Range<Integer> best = null;
+    Range<Integer> slowest = null;
+    for (Range<Integer> range : fpsRanges) {
+      int upper = range.getUpper();
+      if (
+        slowest == null ||
+        upper < slowest.getUpper() ||
+        (upper == slowest.getUpper() && range.getLower() < slowest.getLower())
+      ) {
+        slowest = range;
+      }
+      if (upper > maxFps) {
+        continue;
+      }
+      if (
+        best == null ||
+        upper > best.getUpper() ||
+        (upper == best.getUpper() && range.getLower() < best.getLower())
+      ) {
+        best = range;
+      }
+    }
+    return best != null ? best : slowest;
+  }
+
+  public boolean isZslSupported() {
+    return zslSupported;
+  }
+
+  public List<Integer> getSupportedExtensions() {
+    return supportedExtensions;
+  }
+
+  public List<String> getPhysicalCameraIds() {
+    return physicalCameraIds;
+  }
+}
@@ -1,5 +1,9 @@
 package com.ahm.capacitor.camera.preview.model;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
 /**
  * Configuration for a camera session.
  */
@@ -69,6 +73,47 @@ public class CameraSessionConfiguration {
     this.videoQuality = videoQuality;
   }
 
+  /**
+   * A builder initialised with every field of this configuration, including the target zoom and
+   * centering flag, for deriving a changed copy.
+   */
+  public Builder toBuilder() {
+    return new Builder(this);
+  }
+
+  /**
+   * Names of the fields that differ in the other configuration, in declaration order. Names match
+   * the plugin options. The target zoom and centering flag are start-time layout state and are
+   * not compared.
+   */
+  public List<String> diff(CameraSessionConfiguration other) {
+    List<String> changed = new ArrayList<>();
+    if (!Objects.equals(deviceId, other.deviceId)) changed.add("deviceId");
+    if (!Objects.equals(position, other.position)) changed.add("position");
+    if (x != other.x) changed.add("x");
+    if (y != other.y) changed.add("y");
+    if (width != other.width) changed.add("width");
+    if (height != other.height) changed.add("height");
+    if (paddingBottom != other.paddingBottom) changed.add("paddingBottom");
+    if (toBack != other.toBack) changed.add("toBack");
+    if (storeToFile != other.storeToFile) changed.add("storeToFile");
+    if (enableOpacity != other.enableOpacity) changed.add("enableOpacity");
+    if (enableZoom != other.enableZoom) changed.add("enableZoom");
+    if (disableExifHeaderStripping != other.disableExifHeaderStripping) {
+      changed.add("disableExifHeaderStripping");
+    }
+    if (disableAudio != other.disableAudio) changed.add("disableAudio");
+    if (zoomFactor != other.zoomFactor) changed.add("initialZoomLevel");
+    if (!Objects.equals(aspectRatio, other.aspectRatio)) changed.add("aspectRatio");
+    if (!Objects.equals(gridMode, other.gridMode)) changed.add("gridMode");
+    if (disableFocusIndicator != other.disableFocusIndicator) {
+      changed.add("disableFocusIndicator");
+    }
+    if (enableVideoMode != other.enableVideoMode) changed.add("enableVideoMode");
+    if (!Objects.equals(videoQuality, other.videoQuality)) changed.add("videoQuality");
+    return changed;
+  }
+
   public void setTargetZoom(float zoom) {
     this.targetZoom = zoom;
   }
@@ -187,4 +232,187 @@ public class CameraSessionConfiguration {
   }
 
   public String getVideoQuality() { return videoQuality; }
+
+  public static class Builder {
+
+    private String deviceId;
+    private String position;
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+    private int paddingBottom;
+    private boolean toBack;
+    private boolean storeToFile;
+    private boolean enableOpacity;
+    private boolean enableZoom;
+    private boolean disableExifHeaderStripping;
+    private boolean disableAudio;
+    private float zoomFactor = 1.0f;
+    private String aspectRatio;
+    private String gridMode;
+    private boolean disableFocusIndicator;
+    private boolean enableVideoMode;
+    private String videoQuality;
+    private float targetZoom = 1.0f;
+    private boolean centered = false;
+
+    public Builder() {}
+
+    private Builder(CameraSessionConfiguration config) {
+      deviceId = config.deviceId;
+      position = config.position;
+      x = config.x;
+      y = config.y;
+      width = config.width;
+      height = config.height;
+      paddingBottom = config.paddingBottom;
+      toBack = config.toBack;
+      storeToFile = config.storeToFile;
+      enableOpacity = config.enableOpacity;
+      enableZoom = config.enableZoom;
+      disableExifHeaderStripping = config.disableExifHeaderStripping;
+      disableAudio = config.disableAudio;
+      zoomFactor = config.zoomFactor;
+      aspectRatio = config.aspectRatio;
+      gridMode = config.gridMode;
+      disableFocusIndicator = config.disableFocusIndicator;
+      enableVideoMode = config.enableVideoMode;
+      videoQuality = config.videoQuality;
+      targetZoom = config.targetZoom;
+      centered = config.isCentered;
+    }
+
+    public Builder setDeviceId(String deviceId) {
+      this.deviceId = deviceId;
+      return this;
+    }
+
+    public Builder setPosition(String position) {
+      this.position = position;
+      return this;
+    }
+
+    public Builder setX(int x) {
+      this.x = x;
+      return this;
+    }
+
+    public Builder setY(int y) {
+      this.y = y;
+      return this;
+    }
+
+    public Builder setWidth(int width) {
+      this.width = width;
+      return this;
+    }
+
+    public Builder setHeight(int height) {
+      this.height = height;
+      return this;
+    }
+
+    public Builder setPaddingBottom(int paddingBottom) {
+      this.paddingBottom = paddingBottom;
+      return this;
+    }
+
+    public Builder setToBack(boolean toBack) {
+      this.toBack = toBack;
+      return this;
+    }
+
+    public Builder setStoreToFile(boolean storeToFile) {
+      this.storeToFile = storeToFile;
+      return this;
+    }
+
+    public Builder setEnableOpacity(boolean enableOpacity) {
+      this.enableOpacity = enableOpacity;
+      return this;
+    }
+
+    public Builder setEnableZoom(boolean enableZoom) {
+      this.enableZoom = enableZoom;
+      return this;
+    }
+
+    public Builder setDisableExifHeaderStripping(boolean disableExifHeaderStripping) {
+      this.disableExifHeaderStripping = disableExifHeaderStripping;
+      return this;
+    }
+
+    public Builder setDisableAudio(boolean disableAudio) {
+      this.disableAudio = disableAudio;
+      return this;
+    }
+
+    public Builder setZoomFactor(float zoomFactor) {
+      this.zoomFactor = zoomFactor;
+      return this;
+    }
+
+    public Builder setAspectRatio(String aspectRatio) {
+      this.aspectRatio = aspectRatio;
+      return this;
+    }
+
+    public Builder setGridMode(String gridMode) {
+      this.gridMode = gridMode;
+      return this;
+    }
+
+    public Builder setDisableFocusIndicator(boolean disableFocusIndicator) {
+      this.disableFocusIndicator = disableFocusIndicator;
+      return this;
+    }
+
+    public Builder setEnableVideoMode(boolean enableVideoMode) {
+      this.enableVideoMode = enableVideoMode;
+      return this;
+    }
+
+    public Builder setVideoQuality(String videoQuality) {
+      this.videoQuality = videoQuality;
+      return this;
+    }
+
+    public Builder setTargetZoom(float targetZoom) {
+      this.targetZoom = targetZoom;
+      return this;
+    }
+
+    public Builder setCentered(boolean centered) {
+      this.centered = centered;
+      return this;
+    }
+
+    public CameraSessionConfiguration build() {
+      CameraSessionConfiguration config = new CameraSessionConfiguration(
+        deviceId,
+        position,
+        x,
+        y,
+        width,
+        height,
+        paddingBottom,
+        toBack,
+        storeToFile,
+        enableOpacity,
+        enableZoom,
+        disableExifHeaderStripping,
+        disableAudio,
+        zoomFactor,
+        aspectRatio,
+        gridMode,
+        disableFocusIndicator,
+        enableVideoMode,
+        videoQuality
+      );
+      config.setTargetZoom(targetZoom);
+      config.setCentered(centered);
+      return config;
+    }
+  }
 }
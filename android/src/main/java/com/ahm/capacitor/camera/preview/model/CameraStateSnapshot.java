@@ -0,0 +1,212 @@
+package com.ahm.capacitor.camera.preview.model;
+
+/**
+ * Immutable snapshot of the dynamic state of the bound camera: zoom, torch, exposure compensation
+ * and the camera device state. Updates produce a new instance, so a snapshot can be published
+ * through a volatile field and read from any thread without locking.
+ */
+public class CameraStateSnapshot {
+
+  public static final CameraStateSnapshot EMPTY = new CameraStateSnapshot(
+    false,
+    1f,
+    1f,
+    1f,
+    0f,
+    false,
+    0,
+    0,
+    0,
+    1f,
+    "closed",
+    null
+  );
+
+  private final boolean hasZoom;
+  private final float zoomRatio;
+  private final float minZoom;
+  private final float maxZoom;
+  private final float linearZoom;
+  private final boolean torchOn;
+  private final int exposureIndex;
+  private final int exposureMinIndex;
+  private final int exposureMaxIndex;
+  private final float exposureStep;
+  private final String cameraState;
+  private final String cameraError;
+
+  private CameraStateSnapshot(
+    boolean hasZoom,
+    float zoomRatio,
+    float minZoom,
+    float maxZoom,
+    float linearZoom,
+    boolean torchOn,
+    int exposureIndex,
+    int exposureMinIndex,
+    int exposureMaxIndex,
+    float exposureStep,
+    String cameraState,
+    String cameraError
+  ) {
+    this.hasZoom = hasZoom;
+    this.zoomRatio = zoomRatio;
+    this.minZoom = minZoom;
+    this.maxZoom = maxZoom;
+    this.linearZoom = linearZoom;
+    this.torchOn = torchOn;
+    this.exposureIndex = exposureIndex;
+    this.exposureMinIndex = exposureMinIndex;
+    this.exposureMaxIndex = exposureMaxIndex;
+    this.exposureStep = exposureStep;
+    this.cameraState = cameraState;
+    this.cameraError = cameraError;
+  }
+
+  public CameraStateSnapshot withZoom(
+    float zoomRatio,
+    float minZoom,
+    float maxZoom,
+    float linearZoom
+  ) {
+    return new CameraStateSnapshot(
+      true,
+      zoomRatio,
+      minZoom,
+      maxZoom,
+      linearZoom,
+      torchOn,
+      exposureIndex,
+      exposureMinIndex,
+      exposureMaxIndex,
+      exposureStep,
+      cameraState,
+      cameraError
+    );
+  }
+
+  public CameraStateSnapshot withTorch(boolean torchOn) {
+    return new CameraStateSnapshot(
+      hasZoom,
+      zoomRatio,
+      minZoom,
+      maxZoom,
+      linearZoom,
+      torchOn,
+      exposureIndex,
+      exposureMinIndex,
+      exposureMaxIndex,
+      exposureStep,
+      cameraState,
+      cameraError
+    );
+  }
+
+  public CameraStateSnapshot withExposure(
+    int exposureIndex,
+    int exposureMinIndex,
+    int exposureMaxIndex,
+    float exposureStep
+  ) {
+    return new CameraStateSnapshot(
+      hasZoom,
+      zoomRatio,
+      minZoom,
+      maxZoom,
+      linearZoom,
+      torchOn,
+      exposureIndex,
+      exposureMinIndex,
+      exposureMaxIndex,
+      exposureStep > 0f ? exposureStep : 1f,
+      cameraState,
+      cameraError
+    );
+  }
+
+  public CameraStateSnapshot withExposureIndex(int exposureIndex) {
+    return withExposure(
+      exposureIndex,
+      exposureMinIndex,
+      exposureMaxIndex,
+      exposureStep
+    );
+  }
+
+  public CameraStateSnapshot withCameraState(
+    String cameraState,
+    String cameraError
+  ) {
+    return new CameraStateSnapshot(
+      hasZoom,
+      zoomRatio,
+      minZoom,
+      maxZoom,
+      linearZoom,
+      torchOn,
+      exposureIndex,
+      exposureMinIndex,
+      exposureMaxIndex,
+      exposureStep,
+      cameraState,
+      cameraError
+    );
+  }
+
+  /** False until the first ZoomState of the bound camera has been observed. */
+  public boolean hasZoom() {
+    return hasZoom;
+  }
+
+  public float getZoomRatio() {
+    return zoomRatio;
+  }
+
+  public float getMinZoom() {
+    return minZoom;
+  }
+
+  public float getMaxZoom() {
+    return maxZoom;
+  }
+
+  public float getLinearZoom() {
+    return linearZoom;
+  }
+
+  public boolean isTorchOn() {
+    return torchOn;
+  }
+
+  public int getExposureIndex() {
+    return exposureIndex;
+  }
+
+  public int getExposureMinIndex() {
+    return exposureMinIndex;
+  }
+
+  public int getExposureMaxIndex() {
+    return exposureMaxIndex;
+  }
+
+  /** EV per exposure compensation index step. */
+  public float getExposureStep() {
+    return exposureStep;
+  }
+
+  /** Exposure compensation in EV. */
+  public float getExposureCompensation() {
+    return exposureIndex * exposureStep;
+  }
+
+  /** "pendingOpen", "opening", "open", "closing" or "closed". */
+  public String getCameraState() {
+    return cameraState;
+  }
+
+  /** Error reported with the camera state, or null. */
+  public String getCameraError() {
+    return cameraError;
+  }
+}
@@ -0,0 +1,120 @@
+package com.ahm.capacitor.camera.preview;
+
+import static org.junit.Assert.*;
+
+import com.ahm.capacitor.camera.preview.PreviewGeometry.Box;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * The bridge getters ask for the content bounds four times per getPreviewSize() call and on every
+ * tap, so repeated lookups must hit the memo and changed inputs must never return a stale box.
+ */
+public class PreviewGeometryMemoizationTest {
+
+  @Test
+  public void repeatedContentBoundsComputeOnce() {
+    PreviewGeometry geometry = new PreviewGeometry();
+    Box first = geometry.getContentBounds(1080, 1920, 1920, 1080, true, null);
+    assertEquals(new Box(0, 0, 1080, 1920), first);
+    for (int i = 0; i < 4; i++) {
+      assertSame(
+        first,
+        geometry.getContentBounds(1080, 1920, 1920, 1080, true, null)
+      );
+    }
+    assertEquals(1, geometry.getMisses());
+  }
+
+  @Test
+  public void eachChangedInputRecomputes() {
+    PreviewGeometry geometry = new PreviewGeometry();
+    geometry.getContentBounds(1080, 1920, 1920, 1080, true, null);
+    Box taller = geometry.getContentBounds(1080, 2400, 1920, 1080, true, null);
+    assertEquals(
+      PreviewGeometry.computeContentBounds(1080, 2400, 1920, 1080, true, null),
+      taller
+    );
+    geometry.getContentBounds(1080, 2400, 1920, 1080, true, "4:3");
+    geometry.getContentBounds(1080, 2400, 1920, 1080, false, "4:3");
+    geometry.getContentBounds(1080, 2400, 4000, 3000, false, "4:3");
+    assertEquals(5, geometry.getMisses());
+  }
+
+  @Test
+  public void alternatingInputsNeverReturnTheOtherBox() {
+    PreviewGeometry geometry = new PreviewGeometry();
+    Box portrait = PreviewGeometry.computeContentBounds(
+      1080,
+      1920,
+      1920,
+      1080,
+      true,
+      null
+    );
+    Box landscape = PreviewGeometry.computeContentBounds(
+      1920,
+      1080,
+      1920,
+      1080,
+      false,
+      null
+    );
+    for (int i = 0; i < 10; i++) {
+      assertEquals(
+        portrait,
+        geometry.getContentBounds(1080, 1920, 1920, 1080, true, null)
+      );
+      assertEquals(
+        landscape,
+        geometry.getContentBounds(1920, 1080, 1920, 1080, false, null)
+      );
+    }
+    assertEquals(20, geometry.getMisses());
+  }
+
+  @Test
+  public void centeredLayoutIsMemoized() {
+    PreviewGeometry geometry = new PreviewGeometry();
+    Box layout = geometry.getCenteredLayout(1080, 2400, 0.75);
+    assertEquals(new Box(0, 480, 1080, 1440), layout);
+    assertSame(layout, geometry.getCenteredLayout(1080, 2400, 0.75));
+    assertEquals(1, geometry.getMisses());
+  }
+
+  @Test
+  public void concurrentLookupsAgreeWithTheComputedBox() throws Exception {
+    PreviewGeometry geometry = new PreviewGeometry();
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      Future<?>[] futures = new Future<?>[4];
+      for (int t = 0; t < futures.length; t++) {
+        final int height = 1920 + t;
+        final Box expected = PreviewGeometry.computeContentBounds(
+          1080,
+          height,
+          1920,
+          1080,
+          true,
+          null
+        );
+        futures[t] = pool.submit(() -> {
+          for (int i = 0; i < 1000; i++) {
+            assertEquals(
+              expected,
+              geometry.getContentBounds(1080, height, 1920, 1080, true, null)
+            );
+          }
+        });
+      }
+      for (Future<?> future : futures) {
+        future.get(10, TimeUnit.SECONDS);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,366 @@
+package com.ahm.capacitor.camera.preview;
+
+import static org.junit.Assert.*;
+
+import com.ahm.capacitor.camera.preview.PreviewGeometry.Box;
+import java.util.Random;
+import org.junit.Test;
+
+public class PreviewGeometryTest {
+
+  private static final int RUNS = 5000;
+  private static final String[] ASPECTS = { null, "", "4:3", "16:9" };
+
+  private static void assertInside(Box box, int width, int height) {
+    assertTrue(box + " left", box.left >= 0);
+    assertTrue(box + " top", box.top >= 0);
+    assertTrue(box + " right in " + width, box.right() <= width);
+    assertTrue(box + " bottom in " + height, box.bottom() <= height);
+  }
+
+  // Rounding to whole pixels moves each side by at most one pixel
+  private static void assertRatio(Box box, double ratio) {
+    assertTrue(box + " width vs ratio " + ratio, box.width <= (box.height + 1) * ratio + 1);
+    assertTrue(box + " height vs ratio " + ratio, box.height <= (box.width + 1) / ratio + 1);
+  }
+
+  private static void assertCentered(Box box, int width, int height) {
+    assertTrue(box + " centered in " + width, Math.abs(width - box.right() - box.left) <= 1);
+    assertTrue(box + " centered in " + height, Math.abs(height - box.bottom() - box.top) <= 1);
+  }
+
+  @Test
+  public void displayRatioFollowsOrientation() {
+    assertEquals(4.0 / 3.0, PreviewGeometry.displayRatio("4:3", false), 1e-9);
+    assertEquals(3.0 / 4.0, PreviewGeometry.displayRatio("4:3", true), 1e-9);
+    assertEquals(9.0 / 16.0, PreviewGeometry.displayRatio("16:9", true), 1e-9);
+    assertTrue(Double.isNaN(PreviewGeometry.displayRatio(null, true)));
+    assertTrue(Double.isNaN(PreviewGeometry.displayRatio("", true)));
+    assertTrue(Double.isNaN(PreviewGeometry.displayRatio("4x3", true)));
+    assertTrue(Double.isNaN(PreviewGeometry.displayRatio("a:b", true)));
+    assertTrue(Double.isNaN(PreviewGeometry.displayRatio("4:0", true)));
+  }
+
+  @Test
+  public void fitCenteredIsLargestCenteredBoxOfRatio() {
+    Random random = new Random(1);
+    for (int i = 0; i < RUNS; i++) {
+      int width = 1 + random.nextInt(4000);
+      int height = 1 + random.nextInt(4000);
+      double ratio = 0.25 + random.nextDouble() * 4;
+      Box box = PreviewGeometry.fitCentered(width, height, ratio);
+      assertInside(box, width, height);
+      assertRatio(box, ratio);
+      assertCentered(box, width, height);
+      // Largest: one side spans the available space
+      assertTrue(box.toString(), box.width == width || box.height == height);
+    }
+  }
+
+  @Test
+  public void fitCenteredMatchesKnownLayouts() {
+    // 3:4 portrait preview on a 1080x2400 window fills the width
+    assertEquals(
+      new Box(0, 480, 1080, 1440),
+      PreviewGeometry.fitCentered(1080, 2400, 3.0 / 4.0)
+    );
+    // 16:9 landscape on a 2400x1080 window fills the height
+    assertEquals(
+      new Box(240, 0, 1920, 1080),
+      PreviewGeometry.fitCentered(2400, 1080, 16.0 / 9.0)
+    );
+  }
+
+  @Test
+  public void fitAtStaysInsideAndKeepsRatio() {
+    Random random = new Random(2);
+    for (int i = 0; i < RUNS; i++) {
+      int width = 1 + random.nextInt(4000);
+      int height = 1 + random.nextInt(4000);
+      int x = random.nextInt(5000) - 500;
+      int y = random.nextInt(5000) - 500;
+      double ratio = 0.25 + random.nextDouble() * 4;
+      Box box = PreviewGeometry.fitAt(x, y, width, height, ratio);
+      assertInside(box, width, height);
+      assertRatio(box, ratio);
+    }
+  }
+
+  @Test
+  public void fitAtKeepsRequestedPositionWhenItFits() {
+    Box box = PreviewGeometry.fitAt(100, 200, 1080, 2000, 3.0 / 4.0);
+    assertEquals(100, box.left);
+    assertEquals(200, box.top);
+    assertEquals(980, box.width);
+  }
+
+  @Test
+  public void fitContentIsCenteredLetterboxOfSensor() {
+    Random random = new Random(3);
+    for (int i = 0; i < RUNS; i++) {
+      int containerWidth = 1 + random.nextInt(3000);
+      int containerHeight = 1 + random.nextInt(3000);
+      int sensorWidth = 1 + random.nextInt(4000);
+      int sensorHeight = 1 + random.nextInt(4000);
+      boolean portrait = random.nextBoolean();
+      Box box = PreviewGeometry.computeContentBounds(
+        containerWidth,
+        containerHeight,
+        sensorWidth,
+        sensorHeight,
+        portrait,
+        null
+      );
+      assertInside(box, containerWidth, containerHeight);
+      assertCentered(box, containerWidth, containerHeight);
+      assertTrue(
+        box.toString(),
+        box.width >= containerWidth - 1 || box.height >= containerHeight - 1
+      );
+      double ratio = portrait
+        ? (double) sensorHeight / sensorWidth
+        : (double) sensorWidth / sensorHeight;
+      if (box.width > 1 && box.height > 1) {
+        assertRatio(box, ratio);
+      }
+    }
+  }
+
+  @Test
+  public void fillContentCoversContainer() {
+    assertEquals(
+      new Box(0, 0, 1080, 1920),
+      PreviewGeometry.computeContentBounds(1080, 1920, 1920, 1080, true, "16:9")
+    );
+    // 4:3 is inset by a pixel on each side
+    assertEquals(
+      new Box(1, 1, 1078, 1438),
+      PreviewGeometry.computeContentBounds(1080, 1440, 1440, 1080, true, "4:3")
+    );
+    // An empty aspect ratio is FIT_CENTER, like the scale type
+    assertEquals(
+      new Box(0, 240, 1080, 1440),
+      PreviewGeometry.computeContentBounds(1080, 1920, 1440, 1080, true, "")
+    );
+  }
+
+  @Test
+  public void contentWithoutResolutionFillsContainer() {
+    assertEquals(
+      new Box(0, 0, 800, 600),
+      PreviewGeometry.computeContentBounds(800, 600, 0, 0, false, null)
+    );
+    assertEquals(
+      new Box(0, 0, 0, 0),
+      PreviewGeometry.computeContentBounds(0, 0, 1920, 1080, false, null)
+    );
+  }
+
+  @Test
+  public void cropRectIsCenteredCropToPreviewRatio() {
+    Random random = new Random(4);
+    for (int i = 0; i < RUNS; i++) {
+      int imageWidth = 1 + random.nextInt(8000);
+      int imageHeight = 1 + random.nextInt(8000);
+      int previewWidth = 1 + random.nextInt(3000);
+      int previewHeight = 1 + random.nextInt(3000);
+      Box crop = PreviewGeometry.cropRect(
+        imageWidth,
+        imageHeight,
+        previewWidth,
+        previewHeight
+      );
+      assertInside(crop, imageWidth, imageHeight);
+      assertCentered(crop, imageWidth, imageHeight);
+      // Only one side is cropped
+      assertTrue(
+        crop.toString(),
+        crop.width == imageWidth || crop.height == imageHeight
+      );
+    }
+    assertEquals(
+      new Box(0, 500, 3000, 3000),
+      PreviewGeometry.cropRect(3000, 4000, 1080, 1080)
+    );
+  }
+
+  @Test
+  public void meteringPointStaysOnContent() {
+    Random random = new Random(5);
+    for (int i = 0; i < RUNS; i++) {
+      int viewWidth = 1 + random.nextInt(3000);
+      int viewHeight = 1 + random.nextInt(3000);
+      Box content = PreviewGeometry.computeContentBounds(
+        viewWidth,
+        viewHeight,
+        1 + random.nextInt(4000),
+        1 + random.nextInt(4000),
+        random.nextBoolean(),
+        null
+      );
+      if (content.width == 0 || content.height == 0) {
+        continue;
+      }
+      float[] point = PreviewGeometry.meteringPoint(
+        random.nextFloat(),
+        random.nextFloat(),
+        viewWidth,
+        viewHeight,
+        content
+      );
+      assertTrue(point[0] >= content.left && point[0] <= content.right());
+      assertTrue(point[1] >= content.top && point[1] <= content.bottom());
+    }
+    // Inside the content a tap is unchanged
+    float[] point = PreviewGeometry.meteringPoint(
+      0.5f,
+      0.25f,
+      1000,
+      2000,
+      new Box(0, 250, 1000, 1500)
+    );
+    assertEquals(500f, point[0], 0f);
+    assertEquals(500f, point[1], 0f);
+  }
+
+  @Test
+  public void logicalBoundsNeverExceedScreenBounds() {
+    Random random = new Random(6);
+    for (int i = 0; i < RUNS; i++) {
+      Box screen = new Box(
+        random.nextInt(2000),
+        random.nextInt(2000),
+        random.nextInt(3000),
+        random.nextInt(3000)
+      );
+      int insetLeft = random.nextInt(200);
+      int insetTop = random.nextInt(200);
+      float density = 1f + random.nextInt(8) * 0.5f;
+      int[] logical = PreviewGeometry.toLogicalBounds(
+        screen,
+        insetLeft,
+        insetTop,
+        density
+      );
+      assertTrue(logical[0] >= 0 && logical[1] >= 0);
+      if (screen.left >= insetLeft) {
+        assertTrue(logical[0] * density >= screen.left - insetLeft - 1e-3);
+      }
+      if (screen.top >= insetTop) {
+        assertTrue(logical[1] * density >= screen.top - insetTop - 1e-3);
+      }
+      assertTrue(logical[2] * density <= screen.width + 1e-3);
+      assertTrue(logical[3] * density <= screen.height + 1e-3);
+    }
+  }
+
+  @Test
+  public void nearestStandardAspect() {
+    assertEquals("16:9", PreviewGeometry.nearestStandardAspect(1080, 1920));
+    assertEquals("16:9", PreviewGeometry.nearestStandardAspect(2400, 1080));
+    assertEquals("4:3", PreviewGeometry.nearestStandardAspect(1080, 1440));
+    assertEquals("4:3", PreviewGeometry.nearestStandardAspect(1000, 1000));
+  }
+
+  @Test
+  public void containerGrowingAfterStartNeedsALargerStream() {
+    // Started in a 1080x810 box, then made full screen on a 2400x1080 window
+    assertTrue(
+      PreviewGeometry.needsLargerPreviewStream(1440, 1080, 1080, 810, 2400, 1080)
+    );
+    // Same, with the container reported in portrait
+    assertTrue(
+      PreviewGeometry.needsLargerPreviewStream(1440, 1080, 810, 1080, 1080, 2400)
+    );
+    // Wider on the short side only
+    assertTrue(
+      PreviewGeometry.needsLargerPreviewStream(1280, 720, 1280, 720, 1280, 960)
+    );
+  }
+
+  @Test
+  public void streamCoveringTheNewContainerIsKept() {
+    assertFalse(
+      PreviewGeometry.needsLargerPreviewStream(1920, 1440, 1080, 810, 1440, 1080)
+    );
+    // Shrinking never asks for a new stream
+    assertFalse(
+      PreviewGeometry.needsLargerPreviewStream(1440, 1080, 1440, 1080, 800, 600)
+    );
+  }
+
+  @Test
+  public void largestStreamIsNotReselectedForTheSameBound() {
+    // The camera could not cover the bound last time; asking again would land on the same stream
+    assertFalse(
+      PreviewGeometry.needsLargerPreviewStream(1280, 960, 2400, 1080, 2400, 1080)
+    );
+    assertTrue(
+      PreviewGeometry.needsLargerPreviewStream(1280, 960, 1600, 1080, 2400, 1080)
+    );
+  }
+
+  @Test
+  public void unknownSizesNeverAskForANewStream() {
+    assertFalse(
+      PreviewGeometry.needsLargerPreviewStream(0, 0, 1080, 810, 2400, 1080)
+    );
+    assertFalse(
+      PreviewGeometry.needsLargerPreviewStream(1440, 1080, 0, 0, 2400, 1080)
+    );
+    assertFalse(
+      PreviewGeometry.needsLargerPreviewStream(1440, 1080, 1080, 810, 0, 0)
+    );
+  }
+
+  @Test
+  public void memoizedResultsMatchAndAreReused() {
+    PreviewGeometry geometry = new PreviewGeometry();
+    Random random = new Random(7);
+    for (int i = 0; i < RUNS; i++) {
+      int containerWidth = 1 + random.nextInt(3000);
+      int containerHeight = 1 + random.nextInt(3000);
+      int sensorWidth = random.nextInt(4000);
+      int sensorHeight = random.nextInt(4000);
+      boolean portrait = random.nextBoolean();
+      String aspect = ASPECTS[random.nextInt(ASPECTS.length)];
+      Box first = geometry.getContentBounds(
+        containerWidth,
+        containerHeight,
+        sensorWidth,
+        sensorHeight,
+        portrait,
+        aspect
+      );
+      assertEquals(
+        PreviewGeometry.computeContentBounds(
+          containerWidth,
+          containerHeight,
+          sensorWidth,
+          sensorHeight,
+          portrait,
+          aspect
+        ),
+        first
+      );
+      assertSame(
+        first,
+        geometry.getContentBounds(
+          containerWidth,
+          containerHeight,
+          sensorWidth,
+          sensorHeight,
+          portrait,
+          aspect == null ? null : new String(aspect)
+        )
+      );
+    }
+    // Only the first lookup of each input set computes
+    assertTrue(geometry.getMisses() <= RUNS);
+
+    Box layout = geometry.getCenteredLayout(1080, 2400, 0.75);
+    assertEquals(PreviewGeometry.fitCentered(1080, 2400, 0.75), layout);
+    assertSame(layout, geometry.getCenteredLayout(1080, 2400, 0.75));
+    assertNotSame(layout, geometry.getCenteredLayout(2400, 1080, 0.75));
+  }
+}
@@ -0,0 +1,230 @@
+package com.ahm.capacitor.camera.preview;
+
+import static org.junit.Assert.*;
+
+import com.ahm.capacitor.camera.preview.SessionStateMachine.State;
+import com.ahm.capacitor.camera.preview.SessionStateMachine.StopAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class SessionStateMachineTest {
+
+  private SessionStateMachine running() {
+    SessionStateMachine machine = new SessionStateMachine();
+    assertTrue(machine.tryStart());
+    assertTrue(machine.markRunning());
+    return machine;
+  }
+
+  @Test
+  public void startsIdle() {
+    SessionStateMachine machine = new SessionStateMachine();
+    assertEquals(State.IDLE, machine.getState());
+    assertFalse(machine.isRunning());
+    assertFalse(machine.isStopping());
+  }
+
+  @Test
+  public void startTransitions() {
+    SessionStateMachine machine = new SessionStateMachine();
+    assertTrue(machine.tryStart());
+    assertEquals(State.STARTING, machine.getState());
+    assertFalse(machine.tryStart());
+    assertTrue(machine.markRunning());
+    assertEquals(State.RUNNING, machine.getState());
+    // Rebinding while running keeps the session running
+    assertTrue(machine.markRunning());
+    assertTrue(machine.isRunning());
+  }
+
+  @Test
+  public void failedStartReturnsToIdle() {
+    SessionStateMachine machine = new SessionStateMachine();
+    machine.tryStart();
+    machine.startFailed();
+    assertEquals(State.IDLE, machine.getState());
+  }
+
+  @Test
+  public void startFailureAfterRunningIsIgnored() {
+    SessionStateMachine machine = running();
+    machine.startFailed();
+    assertEquals(State.RUNNING, machine.getState());
+  }
+
+  @Test
+  public void cannotMarkRunningAfterStopDuringStart() {
+    SessionStateMachine machine = new SessionStateMachine();
+    machine.tryStart();
+    assertEquals(StopAction.IMMEDIATE, machine.requestStop());
+    assertFalse(machine.markRunning());
+    assertEquals(State.STOPPING, machine.getState());
+  }
+
+  @Test
+  public void captureRoundTrip() {
+    SessionStateMachine machine = running();
+    assertTrue(machine.beginCapture());
+    assertEquals(State.CAPTURING, machine.getState());
+    assertTrue(machine.isRunning());
+    assertFalse(machine.endCapture());
+    assertEquals(State.RUNNING, machine.getState());
+    assertEquals(0, machine.getCapturesInFlight());
+  }
+
+  @Test
+  public void captureRequiresRunningSession() {
+    SessionStateMachine machine = new SessionStateMachine();
+    assertFalse(machine.beginCapture());
+    machine.tryStart();
+    assertFalse(machine.beginCapture());
+  }
+
+  @Test
+  public void overlappingCapturesAreCounted() {
+    SessionStateMachine machine = running();
+    machine.beginCapture();
+    machine.beginCapture();
+    assertEquals(2, machine.getCapturesInFlight());
+    assertFalse(machine.endCapture());
+    assertEquals(State.CAPTURING, machine.getState());
+    assertFalse(machine.endCapture());
+    assertEquals(State.RUNNING, machine.getState());
+  }
+
+  @Test
+  public void stopWhileRunningIsImmediate() {
+    SessionStateMachine machine = running();
+    assertEquals(StopAction.IMMEDIATE, machine.requestStop());
+    assertEquals(State.STOPPING, machine.getState());
+    assertTrue(machine.isStopping());
+    assertEquals(StopAction.NONE, machine.requestStop());
+    machine.stopped();
+    assertEquals(State.IDLE, machine.getState());
+  }
+
+  @Test
+  public void stopDuringCaptureIsDeferredUntilLastCapture() {
+    SessionStateMachine machine = running();
+    machine.beginCapture();
+    machine.beginCapture();
+    assertEquals(StopAction.DEFERRED, machine.requestStop());
+    assertEquals(State.STOP_DEFERRED, machine.getState());
+    assertFalse(machine.isRunning());
+    // A second stop request does not defer twice
+    assertEquals(StopAction.NONE, machine.requestStop());
+    // No new captures once the stop is pending
+    assertFalse(machine.beginCapture());
+    assertFalse(machine.endCapture());
+    assertEquals(State.STOP_DEFERRED, machine.getState());
+    assertTrue(machine.endCapture());
+    assertEquals(State.STOPPING, machine.getState());
+  }
+
+  @Test
+  public void standbyRoundTrip() {
+    SessionStateMachine machine = running();
+    assertTrue(machine.enterStandby());
+    assertEquals(State.STANDBY, machine.getState());
+    assertFalse(machine.isRunning());
+    assertFalse(machine.beginCapture());
+    assertTrue(machine.exitStandby());
+    assertEquals(State.RUNNING, machine.getState());
+    assertFalse(machine.exitStandby());
+  }
+
+  @Test
+  public void noStandbyWhileCapturing() {
+    SessionStateMachine machine = running();
+    machine.beginCapture();
+    assertFalse(machine.enterStandby());
+    assertEquals(State.CAPTURING, machine.getState());
+  }
+
+  @Test
+  public void stopFromStandbyIsImmediate() {
+    SessionStateMachine machine = running();
+    machine.enterStandby();
+    assertEquals(StopAction.IMMEDIATE, machine.requestStop());
+    assertEquals(State.STOPPING, machine.getState());
+  }
+
+  @Test
+  public void stopWhenIdleDoesNothing() {
+    SessionStateMachine machine = new SessionStateMachine();
+    assertEquals(StopAction.NONE, machine.requestStop());
+    assertEquals(State.IDLE, machine.getState());
+  }
+
+  @Test
+  public void runWhenIdleRunsImmediatelyWhenIdle() {
+    SessionStateMachine machine = new SessionStateMachine();
+    AtomicInteger runs = new AtomicInteger();
+    machine.runWhenIdle(runs::incrementAndGet);
+    assertEquals(1, runs.get());
+  }
+
+  @Test
+  public void startQueuedDuringDeferredStopRunsAfterTeardown() {
+    SessionStateMachine machine = running();
+    machine.beginCapture();
+    machine.requestStop();
+    List<State> seen = new ArrayList<>();
+    machine.runWhenIdle(() -> {
+      seen.add(machine.getState());
+      machine.tryStart();
+    });
+    assertTrue(seen.isEmpty());
+    assertTrue(machine.endCapture());
+    assertTrue(seen.isEmpty());
+    machine.stopped();
+    assertEquals(1, seen.size());
+    assertEquals(State.IDLE, seen.get(0));
+    assertEquals(State.STARTING, machine.getState());
+  }
+
+  @Test
+  public void queuedTasksWaitForNextIdlePeriodAfterAStart() {
+    SessionStateMachine machine = running();
+    machine.requestStop();
+    AtomicInteger second = new AtomicInteger();
+    machine.runWhenIdle(machine::tryStart);
+    machine.runWhenIdle(second::incrementAndGet);
+    machine.stopped();
+    assertEquals(State.STARTING, machine.getState());
+    assertEquals(0, second.get());
+    machine.startFailed();
+    assertEquals(1, second.get());
+  }
+
+  @Test
+  public void concurrentCapturesKeepCountConsistent() throws Exception {
+    SessionStateMachine machine = running();
+    int threads = 8;
+    int iterations = 1000;
+    CountDownLatch go = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(threads);
+    for (int t = 0; t < threads; t++) {
+      new Thread(() -> {
+        try {
+          go.await();
+          for (int i = 0; i < iterations; i++) {
+            if (machine.beginCapture()) {
+              machine.endCapture();
+            }
+          }
+        } catch (InterruptedException ignored) {} finally {
+          done.countDown();
+        }
+      })
+        .start();
+    }
+    go.countDown();
+    done.await();
+    assertEquals(State.RUNNING, machine.getState());
+    assertEquals(0, machine.getCapturesInFlight());
+  }
+}
@@ -0,0 +1,200 @@
+package com.ahm.capacitor.camera.preview;
+
+import static org.junit.Assert.*;
+
+import com.ahm.capacitor.camera.preview.model.CameraSessionConfiguration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class SessionUpdateTest {
+
+  private static CameraSessionConfiguration base() {
+    return new CameraSessionConfiguration.Builder()
+      .setPosition("back")
+      .setX(0)
+      .setY(0)
+      .setWidth(1080)
+      .setHeight(1920)
+      .setAspectRatio("4:3")
+      .setGridMode("none")
+      .setVideoQuality("fhd")
+      .build();
+  }
+
+  private static Map<String, String> expect(String... fieldsAndPaths) {
+    Map<String, String> paths = new LinkedHashMap<>();
+    for (int i = 0; i < fieldsAndPaths.length; i += 2) {
+      paths.put(fieldsAndPaths[i], fieldsAndPaths[i + 1]);
+    }
+    return paths;
+  }
+
+  @Test
+  public void diffedFieldsMapToTheirPathsInOrder() {
+    CameraSessionConfiguration config = base();
+    CameraSessionConfiguration next = config
+      .toBuilder()
+      .setVideoQuality("hd")
+      .setGridMode("3x3")
+      .setZoomFactor(1.5f)
+      .setX(40)
+      .setStoreToFile(true)
+      .build();
+    assertEquals(
+      expect(
+        "x",
+        SessionUpdate.VIEW,
+        "storeToFile",
+        SessionUpdate.CONFIG,
+        "initialZoomLevel",
+        SessionUpdate.CONTROL,
+        "gridMode",
+        SessionUpdate.VIEW,
+        "videoQuality",
+        SessionUpdate.CONFIG
+      ),
+      SessionUpdate.plan(config.diff(next), false, false, false)
+    );
+  }
+
+  @Test
+  public void cameraChangesAlwaysRebind() {
+    List<String> changed = Arrays.asList("deviceId", "position");
+    assertEquals(
+      expect("deviceId", SessionUpdate.REBIND, "position", SessionUpdate.REBIND),
+      SessionUpdate.plan(changed, true, false, false)
+    );
+  }
+
+  @Test
+  public void aRebindTakesOverTheFieldsItCovers() {
+    List<String> changed = Arrays.asList(
+      "aspectRatio",
+      "initialZoomLevel",
+      "enableVideoMode",
+      "videoQuality",
+      "enableZoom"
+    );
+    assertEquals(
+      expect(
+        "aspectRatio",
+        SessionUpdate.REBIND,
+        "initialZoomLevel",
+        SessionUpdate.REBIND,
+        "enableVideoMode",
+        SessionUpdate.REBIND,
+        "videoQuality",
+        SessionUpdate.REBIND,
+        "enableZoom",
+        SessionUpdate.VIEW
+      ),
+      SessionUpdate.plan(changed, true, true, false)
+    );
+  }
+
+  @Test
+  public void withoutARebindTheCheapestPathIsUsed() {
+    List<String> changed = Arrays.asList(
+      "aspectRatio",
+      "initialZoomLevel",
+      "enableVideoMode"
+    );
+    assertEquals(
+      expect(
+        "aspectRatio",
+        SessionUpdate.VIEW,
+        "initialZoomLevel",
+        SessionUpdate.CONTROL,
+        "enableVideoMode",
+        SessionUpdate.USE_CASE
+      ),
+      SessionUpdate.plan(changed, false, true, false)
+    );
+  }
+
+  @Test
+  public void videoQualitySwapsTheRecorderOnlyInVideoMode() {
+    List<String> changed = Collections.singletonList("videoQuality");
+    assertEquals(
+      SessionUpdate.USE_CASE,
+      SessionUpdate.plan(changed, false, true, false).get("videoQuality")
+    );
+    assertEquals(
+      SessionUpdate.CONFIG,
+      SessionUpdate.plan(changed, false, false, false).get("videoQuality")
+    );
+  }
+
+  @Test
+  public void heldVideoQualityIsOnlyStored() {
+    List<String> changed = Collections.singletonList("videoQuality");
+    assertEquals(
+      SessionUpdate.CONFIG,
+      SessionUpdate.plan(changed, false, true, true).get("videoQuality")
+    );
+  }
+
+  @Test
+  public void unknownFieldsAreReadAtUseTime() {
+    List<String> changed = Arrays.asList(
+      "paddingBottom",
+      "disableExifHeaderStripping",
+      "disableAudio"
+    );
+    for (String path : SessionUpdate.plan(changed, true, true, false).values()) {
+      assertEquals(SessionUpdate.CONFIG, path);
+    }
+  }
+
+  @Test
+  public void noChangesPlanNothing() {
+    CameraSessionConfiguration config = base();
+    assertTrue(
+      SessionUpdate.plan(
+        config.diff(config.toBuilder().build()),
+        false,
+        false,
+        false
+      ).isEmpty()
+    );
+  }
+
+  @Test
+  public void costliestFollowsThePathOrder() {
+    assertEquals(
+      SessionUpdate.VIEW,
+      SessionUpdate.costliest(
+        Arrays.asList(SessionUpdate.CONFIG, SessionUpdate.VIEW)
+      )
+    );
+    assertEquals(
+      SessionUpdate.USE_CASE,
+      SessionUpdate.costliest(
+        Arrays.asList(
+          SessionUpdate.USE_CASE,
+          SessionUpdate.CONTROL,
+          SessionUpdate.VIEW
+        )
+      )
+    );
+    assertEquals(
+      SessionUpdate.REBIND,
+      SessionUpdate.costliest(
+        Arrays.asList(
+          SessionUpdate.CONFIG,
+          SessionUpdate.REBIND,
+          SessionUpdate.USE_CASE
+        )
+      )
+    );
+  }
+
+  @Test
+  public void costliestOfNothingIsNull() {
+    assertNull(SessionUpdate.costliest(Collections.emptyList()));
+  }
+}
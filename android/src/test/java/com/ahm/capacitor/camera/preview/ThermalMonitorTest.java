@@ -0,0 +1,218 @@
+package com.ahm.capacitor.camera.preview;
+
+import static org.junit.Assert.*;
+
+import com.ahm.capacitor.camera.preview.ThermalMonitor.Step;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+public class ThermalMonitorTest {
+
+  /** Reports whatever the test pushes, like PowerManager would. */
+  private static class FakeSource implements ThermalStatusSource {
+
+    Callback callback;
+    int starts = 0;
+    int stops = 0;
+
+    @Override
+    public void start(Callback callback) {
+      this.callback = callback;
+      starts++;
+    }
+
+    @Override
+    public void stop() {
+      stops++;
+    }
+
+    void report(int status) {
+      report(status, Float.NaN);
+    }
+
+    void report(int status, float headroom) {
+      callback.onThermalChanged(status, headroom);
+    }
+  }
+
+  private static class Event {
+
+    final int status;
+    final Set<Step> steps;
+
+    Event(int status, Set<Step> steps) {
+      this.status = status;
+      this.steps = steps;
+    }
+  }
+
+  private final FakeSource source = new FakeSource();
+  private final List<Event> events = new ArrayList<>();
+
+  private ThermalMonitor monitor(Map<Step, Integer> thresholds) {
+    ThermalMonitor monitor = new ThermalMonitor(
+      source,
+      thresholds,
+      (status, headroom, steps) -> events.add(new Event(status, steps))
+    );
+    monitor.start();
+    return monitor;
+  }
+
+  private Event last() {
+    return events.get(events.size() - 1);
+  }
+
+  @Test
+  public void defaultLadderEscalatesInOrder() {
+    monitor(null);
+
+    source.report(ThermalMonitor.STATUS_LIGHT);
+    assertEquals(EnumSet.noneOf(Step.class), last().steps);
+
+    source.report(ThermalMonitor.STATUS_MODERATE);
+    assertEquals(
+      EnumSet.of(Step.LOWER_FRAME_RATE, Step.DISABLE_ANALYSIS),
+      last().steps
+    );
+
+    source.report(ThermalMonitor.STATUS_SEVERE);
+    assertEquals(
+      EnumSet.of(
+        Step.LOWER_FRAME_RATE,
+        Step.DISABLE_ANALYSIS,
+        Step.REDUCE_VIDEO_QUALITY
+      ),
+      last().steps
+    );
+
+    source.report(ThermalMonitor.STATUS_CRITICAL);
+    assertEquals(EnumSet.allOf(Step.class), last().steps);
+    assertEquals(ThermalMonitor.STATUS_CRITICAL, last().status);
+  }
+
+  @Test
+  public void coolingDownReleasesSteps() {
+    ThermalMonitor monitor = monitor(null);
+    source.report(ThermalMonitor.STATUS_CRITICAL);
+    source.report(ThermalMonitor.STATUS_MODERATE);
+    assertEquals(
+      EnumSet.of(Step.LOWER_FRAME_RATE, Step.DISABLE_ANALYSIS),
+      last().steps
+    );
+    source.report(ThermalMonitor.STATUS_NONE);
+    assertTrue(last().steps.isEmpty());
+    assertTrue(monitor.getSteps().isEmpty());
+  }
+
+  @Test
+  public void repeatedReportsAreNotForwarded() {
+    monitor(null);
+    source.report(ThermalMonitor.STATUS_SEVERE);
+    source.report(ThermalMonitor.STATUS_SEVERE);
+    source.report(ThermalMonitor.STATUS_SEVERE, 0.5f);
+    assertEquals(1, events.size());
+  }
+
+  @Test
+  public void initialNoneIsNotForwarded() {
+    monitor(null);
+    source.report(ThermalMonitor.STATUS_NONE, 0.2f);
+    assertTrue(events.isEmpty());
+  }
+
+  @Test
+  public void headroomEscalatesBeforeTheStatusMoves() {
+    ThermalMonitor monitor = monitor(null);
+    source.report(ThermalMonitor.STATUS_NONE, 0.9f);
+    assertEquals(
+      EnumSet.of(Step.LOWER_FRAME_RATE, Step.DISABLE_ANALYSIS),
+      last().steps
+    );
+    // The reported status is forwarded as is, only the ladder uses the forecast
+    assertEquals(ThermalMonitor.STATUS_NONE, last().status);
+
+    source.report(ThermalMonitor.STATUS_LIGHT, 1.2f);
+    assertTrue(last().steps.contains(Step.REDUCE_VIDEO_QUALITY));
+    assertFalse(last().steps.contains(Step.LOWER_CAPTURE_RESOLUTION));
+    assertEquals(1.2f, monitor.getHeadroom(), 0f);
+
+    source.report(ThermalMonitor.STATUS_LIGHT, 0.3f);
+    assertTrue(last().steps.isEmpty());
+  }
+
+  @Test
+  public void effectiveStatusNeverLowersTheReportedOne() {
+    float[] headrooms = { Float.NaN, 0f, 0.5f, 0.85f, 0.99f, 1f, 3f };
+    for (int status = 0; status <= ThermalMonitor.STATUS_SHUTDOWN; status++) {
+      for (float headroom : headrooms) {
+        assertTrue(
+          ThermalMonitor.effectiveStatus(status, headroom) >= status
+        );
+      }
+    }
+  }
+
+  @Test
+  public void customThresholdsOverrideDefaults() {
+    Map<Step, Integer> thresholds = new EnumMap<>(Step.class);
+    thresholds.put(Step.LOWER_FRAME_RATE, ThermalMonitor.STATUS_LIGHT);
+    thresholds.put(Step.DISABLE_ANALYSIS, ThermalMonitor.STATUS_OFF);
+    monitor(thresholds);
+
+    source.report(ThermalMonitor.STATUS_LIGHT);
+    assertEquals(EnumSet.of(Step.LOWER_FRAME_RATE), last().steps);
+
+    source.report(ThermalMonitor.STATUS_SHUTDOWN);
+    assertEquals(
+      EnumSet.of(
+        Step.LOWER_FRAME_RATE,
+        Step.REDUCE_VIDEO_QUALITY,
+        Step.LOWER_CAPTURE_RESOLUTION
+      ),
+      last().steps
+    );
+  }
+
+  @Test
+  public void stopDetachesAndResets() {
+    ThermalMonitor monitor = monitor(null);
+    monitor.start();
+    assertEquals(1, source.starts);
+
+    source.report(ThermalMonitor.STATUS_SEVERE);
+    monitor.stop();
+    monitor.stop();
+    assertEquals(1, source.stops);
+    assertEquals(ThermalMonitor.STATUS_NONE, monitor.getStatus());
+    assertTrue(monitor.getSteps().isEmpty());
+
+    int before = events.size();
+    source.report(ThermalMonitor.STATUS_CRITICAL);
+    assertEquals(before, events.size());
+  }
+
+  @Test
+  public void statusNamesRoundTrip() {
+    for (int status = 0; status <= ThermalMonitor.STATUS_SHUTDOWN; status++) {
+      assertEquals(
+        status,
+        ThermalMonitor.parseStatus(ThermalMonitor.statusName(status))
+      );
+    }
+    assertEquals(ThermalMonitor.STATUS_OFF, ThermalMonitor.parseStatus("off"));
+    assertEquals(
+      ThermalMonitor.STATUS_SEVERE,
+      ThermalMonitor.parseStatus("SEVERE")
+    );
+    try {
+      ThermalMonitor.parseStatus("hot");
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException expected) {}
+  }
+}
@@ -0,0 +1,69 @@
+package com.ahm.capacitor.camera.preview.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class CameraCapabilitiesTest {
+
+  private static final long FAST = 33_333_333L;
+  private static final long SLOW = 50_000_000L;
+
+  // Largest first, as getAllJpegSizes returns them
+  private static final int[] WIDTHS = { 4032, 4000, 3840, 1920, 1280 };
+  private static final int[] HEIGHTS = { 3024, 3000, 2160, 1080, 720 };
+
+  private static int pick(long[] durations, int width, int height) {
+    return CameraCapabilities.indexOfFastestAtLeast(
+      WIDTHS,
+      HEIGHTS,
+      durations,
+      width,
+      height
+    );
+  }
+
+  @Test
+  public void picksTheFastestSizeCoveringTheTarget() {
+    long[] durations = { SLOW, FAST, SLOW, FAST, FAST };
+    assertEquals(1, pick(durations, 3000, 2000));
+  }
+
+  @Test
+  public void tiesResolveToTheSmallerSize() {
+    long[] durations = { FAST, FAST, FAST, FAST, FAST };
+    assertEquals(3, pick(durations, 1920, 1080));
+  }
+
+  @Test
+  public void targetMatchesInEitherOrientation() {
+    long[] durations = { FAST, FAST, FAST, FAST, FAST };
+    assertEquals(3, pick(durations, 1080, 1920));
+  }
+
+  @Test
+  public void sizesBelowTheTargetAreSkippedEvenWhenFaster() {
+    long[] durations = { SLOW, SLOW, SLOW, FAST, FAST };
+    assertEquals(2, pick(durations, 2000, 1500));
+  }
+
+  @Test
+  public void fallsBackToTheLargestWhenNothingCovers() {
+    long[] durations = { SLOW, FAST, FAST, FAST, FAST };
+    assertEquals(0, pick(durations, 8000, 6000));
+  }
+
+  @Test
+  public void noSizesGivesNoIndex() {
+    assertEquals(
+      -1,
+      CameraCapabilities.indexOfFastestAtLeast(
+        new int[0],
+        new int[0],
+        new long[0],
+        1920,
+        1080
+      )
+    );
+  }
+}
@@ -0,0 +1,59 @@
+package com.ahm.capacitor.camera.preview.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class CameraSessionConfigurationTest {
+
+  private static CameraSessionConfiguration base() {
+    return new CameraSessionConfiguration.Builder()
+      .setPosition("back")
+      .setX(-1)
+      .setY(-1)
+      .setAspectRatio("4:3")
+      .setGridMode("none")
+      .setDisableAudio(true)
+      .setTargetZoom(2.0f)
+      .setCentered(true)
+      .build();
+  }
+
+  @Test
+  public void toBuilderCopiesEveryField() {
+    CameraSessionConfiguration config = base();
+    CameraSessionConfiguration copy = config.toBuilder().build();
+    assertTrue(config.diff(copy).isEmpty());
+    assertEquals(2.0f, copy.getTargetZoom(), 0f);
+    assertTrue(copy.isCentered());
+  }
+
+  @Test
+  public void diffListsChangedFieldsInDeclarationOrder() {
+    CameraSessionConfiguration config = base();
+    CameraSessionConfiguration next = config
+      .toBuilder()
+      .setVideoQuality("hd")
+      .setGridMode("3x3")
+      .setZoomFactor(1.5f)
+      .setPosition("front")
+      .build();
+    assertEquals(
+      Arrays.asList("position", "initialZoomLevel", "gridMode", "videoQuality"),
+      config.diff(next)
+    );
+  }
+
+  @Test
+  public void layoutStateIsNotCompared() {
+    CameraSessionConfiguration config = base();
+    CameraSessionConfiguration next = config
+      .toBuilder()
+      .setTargetZoom(1.0f)
+      .setCentered(false)
+      .build();
+    assertEquals(Collections.emptyList(), config.diff(next));
+  }
+}
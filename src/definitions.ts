@@ -8,6 +8,12 @@ export type GridMode = "none" | "3x3" | "4x4";
 
 export type CameraPositioning = "center" | "top" | "bottom";
 
+/**
+ * `"full"` keeps the preview at its full frame rate. `"adaptive"` lowers it to about 15 fps after `idleTimeout`
+ * seconds without touch, zoom, focus, exposure or capture activity, and restores it on the next one.
+ */
+export type PowerMode = "full" | "adaptive";
+
 // Allow selecting recording quality to control output file size
 export type VideoQuality =
   | "max" // highest available
@@ -180,12 +186,17 @@ export interface CameraPreviewOptions {
   lockAndroidOrientation?: boolean;
   /**
    * If true, allows the camera preview's opacity to be changed.
+   * On Android this composes the preview through a TextureView, which costs a GPU copy per frame;
+   * without it the preview uses a SurfaceView and switches over the first time `setOpacity` is called
+   * with a value below 1.
    * @platform android, web
    * @default false
    */
   enableOpacity?: boolean;
   /**
    * If true, enables pinch-to-zoom functionality on the preview.
+   * The gesture is handled natively and reported through `zoomChanged` events.
+   * When enabled, tap-to-focus triggers when the finger lifts instead of when it touches down.
    * @platform android
    * @default false
    */
@@ -231,6 +242,46 @@ export interface CameraPreviewOptions {
    * @platform android, ios
    */
   videoQuality?: VideoQuality;
+  /**
+   * Target size for still captures. The closest supported size at or above it for the aspect ratio is used,
+   * falling back to the largest smaller one. When omitted, captures use the largest available size.
+   * The preview stream is sized to the preview container independently of this setting.
+   * @platform android
+   * @since 7.15.0
+   */
+  pictureSize?: { width: number; height: number };
+  /**
+   * Frame rate policy of the preview. Recording always runs at the full rate.
+   * @default "full"
+   * @platform android
+   * @since 7.15.0
+   */
+  powerMode?: PowerMode;
+  /**
+   * Seconds without interaction before `"adaptive"` power mode lowers the frame rate.
+   * @default 10
+   * @platform android
+   * @since 7.15.0
+   */
+  idleTimeout?: number;
+  /**
+   * Degrade the session step by step when the device heats up: `true` uses the default thresholds, an object
+   * overrides some of them. When omitted or `false` the session is left untouched.
+   * Changes are reported through the `thermalStateChanged` event.
+   * @default false
+   * @platform android
+   * @since 7.15.0
+   */
+  thermalLadder?: ThermalLadder | boolean;
+  /**
+   * Run the camera without a preview: no views are created, only still capture (and video in video mode) is bound.
+   * `capture`, `captureSample`, zoom, flash and focus keep working, with focus coordinates normalized to the sensor
+   * output. `setAspectRatio`, `setPreviewSize` and `getPreviewSize` reject, and the start result reports a zero-sized preview.
+   * @default false
+   * @platform android
+   * @since 7.15.0
+   */
+  headless?: boolean;
 }
 
 /**
@@ -286,6 +337,30 @@ export interface PictureSize {
   width: number;
   /** The height of the picture in pixels. */
   height: number;
+  /**
+   * The minimum frame duration for a JPEG capture at this size, in nanoseconds.
+   * Lower is faster; `0` when the device does not report it.
+   * @platform android
+   * @since 7.15.0
+   */
+  minFrameDuration?: number;
+}
+
+/**
+ * Monotonic timeline of a camera start, measured natively.
+ * @since 7.15.0
+ */
+export interface StartupTimeline {
+  /** `"cold"` for the first start in the process, `"warm"` afterwards. */
+  kind: "cold" | "warm";
+  /**
+   * Milliseconds since `start()` reached native code for each step that was reached:
+   * `permissionChecked`, `providerReady`, `viewAttached`, `bindComplete`, `resolved`.
+   * `start()` does not wait for the first frame; its time is reported by the `firstFrame` event.
+   */
+  marks: { [step: string]: number };
+  /** Milliseconds from the native start to the last mark. */
+  totalMs: number;
 }
 
 /** Represents the supported picture sizes for a camera facing a certain direction. */
@@ -327,6 +402,225 @@ export interface CameraOpacityOptions {
   opacity?: number;
 }
 
+/**
+ * State of the camera device, as reported by the `cameraStateChanged` event.
+ * @since 7.15.0
+ */
+export interface CameraStateChange {
+  state: "pendingOpen" | "opening" | "open" | "closing" | "closed";
+  /**
+   * Set when the camera reported an error, e.g. `"cameraInUse"`, `"maxCamerasInUse"`,
+   * `"cameraDisabled"`, `"cameraFatal"`, `"streamConfig"`, `"doNotDisturbEnabled"` or `"recoverable"`.
+   */
+  error?: string;
+}
+
+/**
+ * Device thermal status, as reported by Android's PowerManager.
+ * @since 7.15.0
+ */
+export type ThermalStatus =
+  | "none"
+  | "light"
+  | "moderate"
+  | "severe"
+  | "critical"
+  | "emergency"
+  | "shutdown";
+
+/**
+ * Thermal status at which each degradation step kicks in; `"off"` disables a step.
+ * Steps are undone when the device cools below their status.
+ * @since 7.15.0
+ */
+export interface ThermalLadder {
+  /**
+   * Lower the preview frame rate to about 15 fps.
+   * @default "moderate"
+   */
+  lowerFrameRate?: ThermalStatus | "off";
+  /**
+   * Stop per-frame sensor work such as the horizon level.
+   * @default "moderate"
+   */
+  disableAnalysis?: ThermalStatus | "off";
+  /**
+   * Drop the recording quality to `"hd"` when video mode is enabled. A recording in progress keeps its quality;
+   * the change applies from the next recording.
+   * @default "severe"
+   */
+  reduceVideoQuality?: ThermalStatus | "off";
+  /**
+   * Cap still captures at about 2 megapixels.
+   * @default "critical"
+   */
+  lowerCaptureResolution?: ThermalStatus | "off";
+}
+
+/**
+ * Payload of the `thermalStateChanged` event.
+ * @since 7.15.0
+ */
+export interface ThermalStateChange {
+  status: ThermalStatus;
+  /**
+   * Forecast thermal headroom, where 1.0 means severe throttling. Degradation starts early when it is high.
+   * Only present on Android 11+.
+   */
+  headroom?: number;
+  /** Degradation steps currently applied. */
+  steps: ("lowerFrameRate" | "disableAnalysis" | "reduceVideoQuality" | "lowerCaptureResolution")[];
+}
+
+/**
+ * Payload of the `firstFrame` event.
+ * @since 7.15.0
+ */
+export interface FirstFrameEvent {
+  /** `"cold"` for the first start in the process, `"warm"` afterwards. */
+  kind: "cold" | "warm";
+  /** Milliseconds from `start()` reaching native code until the preview streamed its first frame. */
+  elapsedMs: number;
+}
+
+/**
+ * Start options that `updateSession()` can change on a running camera.
+ * `toBack` is accepted but rejected when it differs, since it needs the views rebuilt.
+ * @since 7.15.0
+ */
+export type SessionUpdateOptions = Partial<
+  Pick<
+    CameraPreviewOptions,
+    | "deviceId"
+    | "position"
+    | "x"
+    | "y"
+    | "width"
+    | "height"
+    | "paddingBottom"
+    | "toBack"
+    | "storeToFile"
+    | "enableOpacity"
+    | "enableZoom"
+    | "disableExifHeaderStripping"
+    | "disableAudio"
+    | "initialZoomLevel"
+    | "aspectRatio"
+    | "gridMode"
+    | "disableFocusIndicator"
+    | "enableVideoMode"
+    | "videoQuality"
+  >
+>;
+
+/**
+ * How a session change was applied, cheapest first: `"config"` stores a value read when it is next used,
+ * `"view"` updates the preview views, `"control"` calls a camera control, `"useCase"` swaps a single use case
+ * and `"rebind"` rebinds the camera.
+ * @since 7.15.0
+ */
+export type SessionUpdatePath = "config" | "view" | "control" | "useCase" | "rebind";
+
+/**
+ * @since 7.15.0
+ */
+export interface SessionUpdateResult {
+  /** The path taken for each option that changed. Options equal to the current value are left out. */
+  changes: Partial<Record<keyof SessionUpdateOptions, SessionUpdatePath>>;
+  /** The most expensive path taken, or `"none"` when nothing changed. */
+  path: SessionUpdatePath | "none";
+}
+
+/**
+ * Latency distribution of one pipeline stage, in milliseconds.
+ * Percentiles are bucketed and accurate to within 12.5%.
+ * @since 7.15.0
+ */
+export interface LatencyStats {
+  count: number;
+  mean: number;
+  p50: number;
+  p90: number;
+  p99: number;
+  max: number;
+}
+
+/**
+ * Process-wide camera pipeline metrics, counted since the app started or since the last reset.
+ * @since 7.15.0
+ */
+export interface PerformanceStats {
+  counters: {
+    /** Use case (re)binds. */
+    rebinds: number;
+    /** Pictures returned by `capture()`. */
+    captures: number;
+    /** Failed `capture()` calls. */
+    captureFailures: number;
+    /** Bytes returned to JS by `capture()`: base64 characters, or the file size when `storeToFile` is set. */
+    bytesReturned: number;
+    /** Preview frames completed by the camera. */
+    framesDelivered: number;
+    /** Preview frames that failed or lost their buffer. */
+    framesDropped: number;
+    /** Focus requests sent to the camera. */
+    focusRequests: number;
+    /** Focus requests superseded by a newer one before completing. */
+    focusCancelled: number;
+    /** UI frames drawn by the app window while the camera was running (Android 7+). */
+    uiFrames: number;
+    /** UI frames that took longer than one display refresh interval. */
+    uiJankyFrames: number;
+  };
+  /**
+   * Control calls (`setZoom`, `setFocus`, `setExposureMode`, `setExposureCompensation`) that were replaced
+   * by a newer call for the same control within one display frame and never reached the camera.
+   */
+  coalesced: {
+    zoom: number;
+    focus: number;
+    exposureMode: number;
+    exposureCompensation: number;
+  };
+  latencies: {
+    /** Time spent binding use cases to the camera. */
+    bind: LatencyStats;
+    /** From the capture request until the camera has written the image. */
+    capture: LatencyStats;
+    /** Decoding, cropping or resizing, and re-encoding a captured image. */
+    processing: LatencyStats;
+    /** Reading EXIF data and writing it back to the processed image. */
+    exif: LatencyStats;
+    /** Writing the file or base64-encoding the result. */
+    output: LatencyStats;
+    /** From a focus request until the camera reports the result. */
+    focus: LatencyStats;
+    /** From `start()` or a resume from standby reaching native code until the preview streams. */
+    firstFrame: LatencyStats;
+    /** From a display rotation being detected until the preview has been re-laid out. */
+    rotation: LatencyStats;
+    /** One draw of the native overlay (grid, focus reticle and horizon level). */
+    overlayDraw: LatencyStats;
+    /** Total duration of each UI frame of the app window, including compositing the preview (Android 7+). */
+    uiFrame: LatencyStats;
+  };
+  /** The last rebind of the current session, if a session exists. */
+  lastRebind?: {
+    /** `"full"` when the camera changed, otherwise `"diff (-n)"` with the number of use cases unbound. */
+    path: string;
+    durationMs: number;
+    /** Rebinds done by the current session. */
+    sessionRebinds: number;
+  };
+  /**
+   * How the preview is composed: `"performance"` (SurfaceView) or `"compatible"` (TextureView, used
+   * when `enableOpacity` is set or after `setOpacity` with a value below 1).
+   */
+  previewImplementation?: "performance" | "compatible";
+  /** Whether the adaptive power mode currently runs the preview at its reduced frame rate. */
+  powerIdle?: boolean;
+}
+
 /**
  * Represents safe area insets for devices.
  * Android: Values are expressed in logical pixels (dp) to match JS layout units.
@@ -374,6 +668,24 @@ export interface CameraPreviewPlugin {
     x: number;
     /** The vertical origin of the preview, in pixels. */
     y: number;
+    /**
+     * Startup timeline of this start, also emitted as `CameraPreview#<from>..<to>` trace sections.
+     * @platform android
+     * @since 7.15.0
+     */
+    timeline?: StartupTimeline;
+    /**
+     * Resolution of the bound preview stream, in sensor orientation (width is the long side).
+     * @platform android
+     * @since 7.15.0
+     */
+    previewResolution?: { width: number; height: number };
+    /**
+     * Resolution still captures are taken at, in sensor orientation (width is the long side).
+     * @platform android
+     * @since 7.15.0
+     */
+    captureResolution?: { width: number; height: number };
   }>;
 
   /**
@@ -467,6 +779,39 @@ export interface CameraPreviewPlugin {
    */
   getGridMode(): Promise<{ gridMode: GridMode }>;
 
+  /**
+   * Shows or hides a horizon level over the preview, driven by the device's rotation vector sensor.
+   * The line turns yellow when the device is level. The sensor is only listened to while enabled.
+   *
+   * @param {{ enabled: boolean }} options - Whether to show the level.
+   * @returns {Promise<void>} A promise that resolves when the setting is applied.
+   * @since 7.15.0
+   * @platform android
+   */
+  setHorizonLevel(options: { enabled: boolean }): Promise<void>;
+
+  /**
+   * Changes the power mode of the running preview. See {@link PowerMode}.
+   *
+   * @param {{ mode: PowerMode; idleTimeout?: number }} options - The mode and, optionally, the idle timeout in seconds.
+   * @returns {Promise<void>} A promise that resolves when the mode is applied.
+   * @since 7.15.0
+   * @platform android
+   */
+  setPowerMode(options: { mode: PowerMode; idleTimeout?: number }): Promise<void>;
+
+  /**
+   * Changes options of the running camera in place. Only the options that differ from the current session are
+   * applied, each in the cheapest way that covers it, so for instance a new grid mode never restarts the camera
+   * while a new `position` rebinds it. `aspectRatio` can't be combined with a position or size.
+   *
+   * @param {SessionUpdateOptions} options - The options to change.
+   * @returns {Promise<SessionUpdateResult>} A promise that resolves once the changes are applied, with the path taken for each.
+   * @since 7.15.0
+   * @platform android
+   */
+  updateSession(options: SessionUpdateOptions): Promise<SessionUpdateResult>;
+
   /**
    * Gets the horizontal field of view (FoV) for the active camera.
    * Note: This can be an estimate on some devices.
@@ -577,7 +922,10 @@ export interface CameraPreviewPlugin {
   /**
    * Sets the zoom level of the camera.
    *
-   * @param {{ level: number; ramp?: boolean; autoFocus?: boolean }} options - The desired zoom level. `ramp` is currently unused. `autoFocus` defaults to true.
+   * On Android, calls arriving faster than the display refresh rate are coalesced: only the latest
+   * level within a frame is applied and the calls it replaced resolve immediately.
+   *
+   * @param {{ level: number; ramp?: boolean; rampMs?: number; autoFocus?: boolean }} options - The desired zoom level. On Android, `rampMs` animates the zoom natively over that many milliseconds, and `ramp: true` without `rampMs` uses 250 ms; on iOS `ramp` is currently unused. `autoFocus` defaults to true.
    * @returns {Promise<void>} A promise that resolves when the zoom level is set.
    * @since 7.5.0
    * @platform android, ios
@@ -585,6 +933,12 @@ export interface CameraPreviewPlugin {
   setZoom(options: {
     level: number;
     ramp?: boolean;
+    /**
+     * Duration of a native zoom animation in milliseconds.
+     * @platform android
+     * @since 7.15.0
+     */
+    rampMs?: number;
     autoFocus?: boolean;
   }): Promise<void>;
 
@@ -697,6 +1051,72 @@ export interface CameraPreviewPlugin {
     eventName: "orientationChange",
     listenerFunc: (data: { orientation: DeviceOrientation }) => void,
   ): Promise<PluginListenerHandle>;
+
+  /**
+   * Adds a listener for zoom changes driven natively (pinch gestures, zoom ramps and `setZoom`).
+   * Events are throttled to at most one every 100 ms, plus the final value when a gesture or ramp ends.
+   * @param {string} eventName - The event name to listen for.
+   * @param {Function} listenerFunc - The function to call when the event is triggered.
+   * @returns {Promise<PluginListenerHandle>} A promise that resolves with a handle to the listener.
+   * @since 7.15.0
+   * @platform android
+   */
+  addListener(
+    eventName: "zoomChanged",
+    listenerFunc: (data: { zoom: number }) => void,
+  ): Promise<PluginListenerHandle>;
+
+  /**
+   * Adds a listener for torch changes, including the torch being turned off by the system.
+   * @param {string} eventName - The event name to listen for.
+   * @param {Function} listenerFunc - The function to call when the event is triggered.
+   * @returns {Promise<PluginListenerHandle>} A promise that resolves with a handle to the listener.
+   * @since 7.15.0
+   * @platform android
+   */
+  addListener(
+    eventName: "torchChanged",
+    listenerFunc: (data: { enabled: boolean }) => void,
+  ): Promise<PluginListenerHandle>;
+
+  /**
+   * Adds a listener for camera device state changes, e.g. the camera being taken by another app.
+   * @param {string} eventName - The event name to listen for.
+   * @param {Function} listenerFunc - The function to call when the event is triggered.
+   * @returns {Promise<PluginListenerHandle>} A promise that resolves with a handle to the listener.
+   * @since 7.15.0
+   * @platform android
+   */
+  addListener(
+    eventName: "cameraStateChanged",
+    listenerFunc: (data: CameraStateChange) => void,
+  ): Promise<PluginListenerHandle>;
+
+  /**
+   * Adds a listener for thermal status changes and the degradation steps applied in response.
+   * @param {string} eventName - The event name to listen for.
+   * @param {Function} listenerFunc - The function to call when the event is triggered.
+   * @returns {Promise<PluginListenerHandle>} A promise that resolves with a handle to the listener.
+   * @since 7.15.0
+   * @platform android
+   */
+  addListener(
+    eventName: "thermalStateChanged",
+    listenerFunc: (data: ThermalStateChange) => void,
+  ): Promise<PluginListenerHandle>;
+
+  /**
+   * Adds a listener for the first preview frame after `start()`. It is not sent when no frame arrives within 2 seconds.
+   * @param {string} eventName - The event name to listen for.
+   * @param {Function} listenerFunc - The function to call when the event is triggered.
+   * @returns {Promise<PluginListenerHandle>} A promise that resolves with a handle to the listener.
+   * @since 7.15.0
+   * @platform android
+   */
+  addListener(
+    eventName: "firstFrame",
+    listenerFunc: (data: FirstFrameEvent) => void,
+  ): Promise<PluginListenerHandle>;
   /**
    * Deletes a file at the given absolute path on the device.
    * Use this to quickly clean up temporary images created with `storeToFile`.
@@ -767,4 +1187,14 @@ export interface CameraPreviewPlugin {
    * @platform ios
    */
   setExposureCompensation(options: { value: number }): Promise<void>;
+
+  /**
+   * Returns native pipeline counters and latency histograms.
+   *
+   * @param {{ reset?: boolean }} [options] - Pass `reset: true` to clear the metrics after reading them.
+   * @returns {Promise<PerformanceStats>} The metrics collected so far.
+   * @platform android
+   * @since 7.15.0
+   */
+  getPerformanceStats(options?: { reset?: boolean }): Promise<PerformanceStats>;
 }
@@ -13,7 +13,11 @@ import type {
   ExposureMode,
   FlashMode,
   LensInfo,
+  PerformanceStats,
+  PowerMode,
   SafeAreaInsets,
+  SessionUpdateOptions,
+  SessionUpdateResult,
 } from "./definitions";
 import { DeviceType } from "./definitions";
 
@@ -842,6 +846,7 @@ export class CameraPreviewWeb extends WebPlugin implements CameraPreviewPlugin {
   async setZoom(options: {
     level: number;
     ramp?: boolean;
+    rampMs?: number;
     autoFocus?: boolean;
   }): Promise<void> {
     const video = document.getElementById(DEFAULT_VIDEO_ID) as HTMLVideoElement;
@@ -1238,6 +1243,29 @@ export class CameraPreviewWeb extends WebPlugin implements CameraPreviewPlugin {
     );
   }
 
+  async getPerformanceStats(_options?: {
+    reset?: boolean;
+  }): Promise<PerformanceStats> {
+    throw new Error("getPerformanceStats not supported under the web platform");
+  }
+
+  async setHorizonLevel(_options: { enabled: boolean }): Promise<void> {
+    throw new Error("setHorizonLevel not supported under the web platform");
+  }
+
+  async setPowerMode(_options: {
+    mode: PowerMode;
+    idleTimeout?: number;
+  }): Promise<void> {
+    throw new Error("setPowerMode not supported under the web platform");
+  }
+
+  async updateSession(
+    _options: SessionUpdateOptions,
+  ): Promise<SessionUpdateResult> {
+    throw new Error("updateSession not supported under the web platform");
+  }
+
   async deleteFile(_options: { path: string }): Promise<{ success: boolean }> {
     // Mark parameter as intentionally unused to satisfy linter
     void _options;